@@ -50,6 +50,11 @@ import com.landawn.abacus.util.function.Predicate;
  * of the code may not be readable by older versions of the code (e.g., a serialized bloom filter
  * generated today may <i>not</i> be readable by a binary that was compiled 6 months ago).
  *
+ * <p>As of 0.9, this class is thread-safe and lock-free. It internally uses atomics and
+ * compare-and-swap to ensure correctness when multiple threads are used to access it, so
+ * {@link #put(Object)} and {@link #mightContain(Object)} can be invoked concurrently from multiple
+ * threads, e.g. the ones of a parallel stream, without external locking.
+ *
  * @param <T> the type of instances that the {@code BloomFilter} accepts
  * @author Dimitris Andreou
  * @author Kevin Bourrillion
@@ -174,6 +179,26 @@ public final class BloomFilter<T> implements Predicate<T>, Serializable {
         return Math.pow((double) bits.bitCount() / bitSize(), numHashFunctions);
     }
 
+    /**
+     * Returns an estimate for the total number of distinct elements that have been added to this
+     * Bloom filter. This approximation is reasonably accurate if it does not exceed the value of
+     * {@code expectedInsertions} that was used when constructing the filter.
+     *
+     * <p>It's computed from the number of set bits, which is maintained by a {@code LongAdder}, so
+     * it doesn't contend with concurrent {@link #put(Object)} calls.
+     *
+     * @since 0.9
+     */
+    public long approximateElementCount() {
+        long bitSize = bits.bitSize();
+        long bitCount = bits.bitCount();
+
+        // the expected number of set bits after n insertions is: bitSize * (1 - (1 - numHashFunctions / bitSize)^n),
+        // which is about: bitSize * (1 - e^(-n * numHashFunctions / bitSize)). Solve it for n.
+        double fractionOfBitsSet = (double) bitCount / bitSize;
+        return (long) Math.round(-Math.log1p(-fractionOfBitsSet) * bitSize / numHashFunctions);
+    }
+
     /**
      * Returns the number of bits in the underlying bit array.
      */
@@ -415,7 +440,7 @@ public final class BloomFilter<T> implements Predicate<T>, Serializable {
         final Strategy strategy;
 
         SerialForm(BloomFilter<T> bf) {
-            this.data = bf.bits.data;
+            this.data = BitArray.toPlainArray(bf.bits.data);
             this.numHashFunctions = bf.numHashFunctions;
             this.funnel = bf.funnel;
             this.strategy = bf.strategy;
@@ -444,9 +469,9 @@ public final class BloomFilter<T> implements Predicate<T>, Serializable {
         DataOutputStream dout = new DataOutputStream(out);
         dout.writeByte(SignedBytes.checkedCast(strategy.ordinal()));
         dout.writeByte(UnsignedBytes.checkedCast(numHashFunctions)); // note: checked at the c'tor
-        dout.writeInt(bits.data.length);
-        for (long value : bits.data) {
-            dout.writeLong(value);
+        dout.writeInt(bits.data.length());
+        for (int i = 0; i < bits.data.length(); i++) {
+            dout.writeLong(bits.data.get(i));
         }
     }
 
@@ -15,7 +15,8 @@
 package com.landawn.abacus.hash;
 
 import java.math.RoundingMode;
-import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.landawn.abacus.hash.Util.Ints;
 import com.landawn.abacus.hash.Util.LongMath;
@@ -134,10 +135,16 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         }
     };
 
-    // Note: We use this instead of java.util.BitSet because we need access to the long[] data field
+    /**
+     * Models a lock-free array of bits.
+     *
+     * <p>We use this instead of java.util.BitSet because we need access to the array of longs and we
+     * need compare-and-swap.
+     */
     static final class BitArray {
-        final long[] data;
-        long bitCount;
+        private static final int LONG_ADDRESSABLE_BITS = 6;
+        final AtomicLongArray data;
+        private final LongAdder bitCount;
 
         BitArray(long bits) {
             this(new long[Ints.checkedCast(LongMath.divide(bits, 64, RoundingMode.CEILING))]);
@@ -146,64 +153,131 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         // Used by serialization
         BitArray(long[] data) {
             N.checkArgument(data.length > 0, "data length is zero!");
-            this.data = data;
+            // the specified array is always a new one. No need to copy it.
+            this.data = new AtomicLongArray(data);
+            this.bitCount = new LongAdder();
             long bitCount = 0;
             for (long value : data) {
                 bitCount += Long.bitCount(value);
             }
-            this.bitCount = bitCount;
+            this.bitCount.add(bitCount);
         }
 
         /** Returns true if the bit changed value. */
-        boolean set(long index) {
-            if (!get(index)) {
-                data[(int) (index >>> 6)] |= (1L << index);
-                bitCount++;
-                return true;
+        boolean set(long bitIndex) {
+            if (get(bitIndex)) {
+                return false;
             }
-            return false;
+
+            int longIndex = (int) (bitIndex >>> LONG_ADDRESSABLE_BITS);
+            // the shift distance is masked to the low 6 bits of bitIndex.
+            long mask = 1L << bitIndex;
+
+            long oldValue;
+            long newValue;
+            do {
+                oldValue = data.get(longIndex);
+                newValue = oldValue | mask;
+                if (oldValue == newValue) {
+                    return false;
+                }
+            } while (!data.compareAndSet(longIndex, oldValue, newValue));
+
+            bitCount.increment();
+            return true;
         }
 
-        boolean get(long index) {
-            return (data[(int) (index >>> 6)] & (1L << index)) != 0;
+        boolean get(long bitIndex) {
+            return (data.get((int) (bitIndex >>> LONG_ADDRESSABLE_BITS)) & (1L << bitIndex)) != 0;
+        }
+
+        /**
+         * The elements are read one by one. It's not an atomic snapshot if the array is updated concurrently.
+         */
+        static long[] toPlainArray(AtomicLongArray atomicLongArray) {
+            long[] array = new long[atomicLongArray.length()];
+            for (int i = 0; i < array.length; ++i) {
+                array[i] = atomicLongArray.get(i);
+            }
+            return array;
         }
 
         /** Number of bits */
         long bitSize() {
-            return (long) data.length * Long.SIZE;
+            return (long) data.length() * Long.SIZE;
         }
 
-        /** Number of set bits (1s) */
+        /**
+         * Number of set bits (1s). It may be a little smaller than the actual number if bits are being set concurrently.
+         */
         long bitCount() {
-            return bitCount;
+            return bitCount.sum();
         }
 
         BitArray copy() {
-            return new BitArray(data.clone());
+            return new BitArray(toPlainArray(data));
         }
 
-        /** Combines the two BitArrays using bitwise OR. */
-        void putAll(BitArray array) {
-            N.checkArgument(data.length == array.data.length, "BitArrays must be of equal length (%s != %s)", data.length, array.data.length);
-            bitCount = 0;
-            for (int i = 0; i < data.length; i++) {
-                data[i] |= array.data[i];
-                bitCount += Long.bitCount(data[i]);
+        /**
+         * Combines the two BitArrays using bitwise OR.
+         * The bits set in <code>other</code> before this method is called are set in this BitArray after it returns.
+         * The bits set in <code>other</code> concurrently may be missed.
+         */
+        void putAll(BitArray other) {
+            N.checkArgument(data.length() == other.data.length(), "BitArrays must be of equal length (%s != %s)", data.length(), other.data.length());
+            for (int i = 0; i < data.length(); i++) {
+                long otherLong = other.data.get(i);
+
+                long ourLongOld;
+                long ourLongNew;
+                boolean changedAnyBits = true;
+                do {
+                    ourLongOld = data.get(i);
+                    ourLongNew = ourLongOld | otherLong;
+                    if (ourLongOld == ourLongNew) {
+                        changedAnyBits = false;
+                        break;
+                    }
+                } while (!data.compareAndSet(i, ourLongOld, ourLongNew));
+
+                if (changedAnyBits) {
+                    int bitsAdded = Long.bitCount(ourLongNew) - Long.bitCount(ourLongOld);
+                    bitCount.add(bitsAdded);
+                }
             }
         }
 
         @Override
         public boolean equals(Object o) {
             if (o instanceof BitArray) {
-                BitArray bitArray = (BitArray) o;
-                return Arrays.equals(data, bitArray.data);
+                BitArray other = (BitArray) o;
+
+                if (data.length() != other.data.length()) {
+                    return false;
+                }
+
+                for (int i = 0, len = data.length(); i < len; i++) {
+                    if (data.get(i) != other.data.get(i)) {
+                        return false;
+                    }
+                }
+
+                return true;
             }
             return false;
         }
 
         @Override
         public int hashCode() {
-            return Arrays.hashCode(data);
+            // the same as Arrays.hashCode(long[]).
+            int result = 1;
+
+            for (int i = 0, len = data.length(); i < len; i++) {
+                long element = data.get(i);
+                result = 31 * result + (int) (element ^ (element >>> 32));
+            }
+
+            return result;
         }
     }
 }
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.hash;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.landawn.abacus.hash.Util.Ints;
+import com.landawn.abacus.hash.Util.LongMath;
+import com.landawn.abacus.hash.Util.Longs;
+import com.landawn.abacus.hash.Util.UnsignedBytes;
+import com.landawn.abacus.util.N;
+import com.landawn.abacus.util.function.BiConsumer;
+import com.landawn.abacus.util.function.Predicate;
+
+/**
+ * A Bloom filter which supports {@link #remove(Object)}, by replacing each bit of {@link BloomFilter} with a 4-bit counter.
+ * 16 counters are packed in a {@code long}, so it takes 4 times of the memory of a {@code BloomFilter} with the same {@code fpp}.
+ *
+ * <p>A counter stops at 15 once it's reached: it won't be incremented or decremented any more,
+ * so that a removal never causes a false negative. The elements are mapped to the counters
+ * in the same way as {@code BloomFilter} does with the default strategy.
+ *
+ * <p>It's thread-safe: the counters are updated by compare-and-swap.
+ * But {@link #remove(Object)} must only be called for the elements which have been put.
+ *
+ * @param <T> the type of instances that the {@code CountingBloomFilter} accepts
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class CountingBloomFilter<T> implements Predicate<T> {
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_LONG = Long.SIZE / COUNTER_BITS;
+    private static final int MAX_COUNT = (1 << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray data;
+    private final long numCounters;
+    private final int numHashFunctions;
+    private final BiConsumer<? super T, ? super Hasher> funnel;
+
+    private CountingBloomFilter(long[] data, int numHashFunctions, BiConsumer<? super T, ? super Hasher> funnel) {
+        N.checkArgument(data.length > 0, "data length is zero!");
+        N.checkArgument(numHashFunctions > 0, "numHashFunctions (%s) must be > 0", numHashFunctions);
+        N.checkArgument(numHashFunctions <= 255, "numHashFunctions (%s) must be <= 255", numHashFunctions);
+
+        this.data = new AtomicLongArray(data);
+        this.numCounters = (long) data.length * COUNTERS_PER_LONG;
+        this.numHashFunctions = numHashFunctions;
+        this.funnel = N.requireNonNull(funnel);
+    }
+
+    /**
+     * Creates a {@code CountingBloomFilter} with the expected number of insertions and expected false positive probability.
+     *
+     * @param funnel the funnel of T's that the constructed {@code CountingBloomFilter<T>} will use
+     * @param expectedInsertions the number of expected insertions; must be positive
+     * @param fpp the desired false positive probability (must be positive and less than 1.0)
+     * @return
+     */
+    public static <T> CountingBloomFilter<T> create(BiConsumer<? super T, ? super Hasher> funnel, long expectedInsertions, double fpp) {
+        N.requireNonNull(funnel);
+        N.checkArgument(expectedInsertions > 0, "Expected insertions (%s) must be > 0", expectedInsertions);
+        N.checkArgument(fpp > 0.0 && fpp < 1.0, "False positive probability (%s) must be > 0.0 and < 1.0", fpp);
+
+        final long numCounters = BloomFilter.optimalNumOfBits(expectedInsertions, fpp);
+        final int numHashFunctions = BloomFilter.optimalNumOfHashFunctions(expectedInsertions, numCounters);
+
+        try {
+            return new CountingBloomFilter<>(new long[Ints.checkedCast(LongMath.divide(numCounters, COUNTERS_PER_LONG, RoundingMode.CEILING))],
+                    numHashFunctions, funnel);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Could not create CountingBloomFilter of " + numCounters + " counters", e);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the element <i>might</i> have been put in this Bloom filter,
+     * {@code false} if this is <i>definitely</i> not the case.
+     */
+    public boolean mightContain(T object) {
+        final byte[] bytes = Hashing.murmur3_128().hash(object, funnel).getBytesInternal();
+        final long hash2 = upperEight(bytes);
+        long combinedHash = lowerEight(bytes);
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (get((combinedHash & Long.MAX_VALUE) % numCounters) == 0) {
+                return false;
+            }
+
+            combinedHash += hash2;
+        }
+
+        return true;
+    }
+
+    /**
+     * @deprecated Provided only to satisfy the {@link Predicate} interface; use {@link #mightContain}
+     *     instead.
+     */
+    @Deprecated
+    @Override
+    public boolean test(T input) {
+        return mightContain(input);
+    }
+
+    /**
+     * Puts an element into this {@code CountingBloomFilter}.
+     *
+     * @return true if any counter of the element is changed from 0, which means this is <i>definitely</i>
+     *     the first time {@code object} has been added to the filter (or after it's removed).
+     */
+    public boolean put(T object) {
+        final byte[] bytes = Hashing.murmur3_128().hash(object, funnel).getBytesInternal();
+        final long hash2 = upperEight(bytes);
+        long combinedHash = lowerEight(bytes);
+        boolean changedFromZero = false;
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            changedFromZero |= increment((combinedHash & Long.MAX_VALUE) % numCounters);
+            combinedHash += hash2;
+        }
+
+        return changedFromZero;
+    }
+
+    /**
+     * Removes an element which has been put into this {@code CountingBloomFilter}.
+     * Removing an element which has not been put may cause false negatives for other elements.
+     *
+     * @return false if {@code mightContain(object)} returns false, which means the element is definitely not in this filter.
+     */
+    public boolean remove(T object) {
+        final byte[] bytes = Hashing.murmur3_128().hash(object, funnel).getBytesInternal();
+        final long hash1 = lowerEight(bytes);
+        final long hash2 = upperEight(bytes);
+        long combinedHash = hash1;
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (get((combinedHash & Long.MAX_VALUE) % numCounters) == 0) {
+                return false;
+            }
+
+            combinedHash += hash2;
+        }
+
+        combinedHash = hash1;
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            decrement((combinedHash & Long.MAX_VALUE) % numCounters);
+            combinedHash += hash2;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the probability that {@linkplain #mightContain(Object)} will erroneously return
+     * {@code true} for an object that has not actually been put in the {@code CountingBloomFilter}.
+     */
+    public double expectedFpp() {
+        long nonZeroCount = 0;
+        long value = 0;
+
+        for (int i = 0, len = data.length(); i < len; i++) {
+            value = data.get(i);
+
+            for (int j = 0; j < COUNTERS_PER_LONG; j++) {
+                if (((value >>> (j * COUNTER_BITS)) & MAX_COUNT) != 0) {
+                    nonZeroCount++;
+                }
+            }
+        }
+
+        return Math.pow((double) nonZeroCount / numCounters, numHashFunctions);
+    }
+
+    private int get(long index) {
+        return (int) ((data.get((int) (index / COUNTERS_PER_LONG)) >>> ((index % COUNTERS_PER_LONG) * COUNTER_BITS)) & MAX_COUNT);
+    }
+
+    /** Returns true if the counter is changed from 0. */
+    private boolean increment(long index) {
+        final int longIndex = (int) (index / COUNTERS_PER_LONG);
+        final int shift = (int) (index % COUNTERS_PER_LONG) * COUNTER_BITS;
+        long oldValue;
+        int count;
+
+        do {
+            oldValue = data.get(longIndex);
+            count = (int) ((oldValue >>> shift) & MAX_COUNT);
+
+            if (count == MAX_COUNT) {
+                return false;
+            }
+        } while (!data.compareAndSet(longIndex, oldValue, oldValue + (1L << shift)));
+
+        return count == 0;
+    }
+
+    private void decrement(long index) {
+        final int longIndex = (int) (index / COUNTERS_PER_LONG);
+        final int shift = (int) (index % COUNTERS_PER_LONG) * COUNTER_BITS;
+        long oldValue;
+        int count;
+
+        do {
+            oldValue = data.get(longIndex);
+            count = (int) ((oldValue >>> shift) & MAX_COUNT);
+
+            if (count == 0 || count == MAX_COUNT) {
+                return;
+            }
+        } while (!data.compareAndSet(longIndex, oldValue, oldValue - (1L << shift)));
+    }
+
+    private static long lowerEight(byte[] bytes) {
+        return Longs.fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+    }
+
+    private static long upperEight(byte[] bytes) {
+        return Longs.fromBytes(bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+    }
+
+    /**
+     * Writes this {@code CountingBloomFilter} to an output stream, in the same layout as {@link BloomFilter#writeTo(OutputStream)}
+     * except that there is no strategy byte.
+     *
+     * <p>Use {@linkplain #readFrom(InputStream, BiConsumer)} to reconstruct the written CountingBloomFilter.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        // Serial form:
+        // 1 unsigned byte for the number of hash functions
+        // 1 big endian int, the number of longs of the counters
+        // N big endian longs of the counters
+        final DataOutputStream dout = new DataOutputStream(out);
+        dout.writeByte(UnsignedBytes.checkedCast(numHashFunctions));
+        dout.writeInt(data.length());
+
+        for (int i = 0, len = data.length(); i < len; i++) {
+            dout.writeLong(data.get(i));
+        }
+
+        dout.flush();
+    }
+
+    /**
+     * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a
+     * {@code CountingBloomFilter<T>}.
+     *
+     * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+     * the original Bloom filter!
+     *
+     * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+     *     appear to be a CountingBloomFilter serialized using the {@linkplain #writeTo(OutputStream)} method.
+     */
+    public static <T> CountingBloomFilter<T> readFrom(InputStream in, BiConsumer<? super T, ? super Hasher> funnel) throws IOException {
+        N.requireNonNull(in, "InputStream");
+        N.requireNonNull(funnel, "BiConsumer");
+        int numHashFunctions = -1;
+        int dataLength = -1;
+
+        try {
+            final DataInputStream din = new DataInputStream(in);
+            numHashFunctions = UnsignedBytes.toInt(din.readByte());
+            dataLength = din.readInt();
+
+            final long[] data = new long[dataLength];
+
+            for (int i = 0; i < dataLength; i++) {
+                data[i] = din.readLong();
+            }
+
+            return new CountingBloomFilter<>(data, numHashFunctions, funnel);
+        } catch (RuntimeException e) {
+            throw new IOException(
+                    "Unable to deserialize CountingBloomFilter from InputStream." + " numHashFunctions: " + numHashFunctions + " dataLength: " + dataLength, e);
+        }
+    }
+}
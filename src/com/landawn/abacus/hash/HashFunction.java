@@ -16,7 +16,9 @@ package com.landawn.abacus.hash;
 
 import java.nio.charset.Charset;
 
+import com.landawn.abacus.util.N;
 import com.landawn.abacus.util.function.BiConsumer;
+import com.landawn.abacus.util.function.IntBiConsumer;
 
 /**
  * Note: It's copied from Google Guava under Apache License 2.0
@@ -229,4 +231,172 @@ public interface HashFunction {
      * function has.
      */
     int bits();
+
+    /**
+     * Hashes each element in {@code input} and sets {@code hash(input[i]).padToLong()} to {@code output[i]}.
+     * It's much faster than hashing the elements one by one if it's overridden by the implementation
+     * with an allocation-free loop, as {@code murmur3_32} and {@code murmur3_128} do.
+     *
+     * @param input
+     * @param output the length must be equal to or bigger than the length of {@code input}.
+     * @since 0.9
+     */
+    default void hashInts(int[] input, long[] output) {
+        hashInts(input, 0, input.length, output);
+    }
+
+    /**
+     * Same as {@link #hashInts(int[], long[])}, but the elements are hashed by multiple threads if {@code parallel} is
+     * {@code true} and there are enough elements.
+     *
+     * @since 0.9
+     */
+    default void hashInts(final int[] input, final long[] output, boolean parallel) {
+        Util.forEachChunk(input.length, parallel, new IntBiConsumer() {
+            @Override
+            public void accept(int fromIndex, int toIndex) {
+                hashInts(input, fromIndex, toIndex, output);
+            }
+        });
+    }
+
+    /**
+     * Hashes the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), and sets
+     * {@code hash(input[i]).padToLong()} to {@code output[i]}.
+     *
+     * @since 0.9
+     */
+    default void hashInts(int[] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = hash(input[i]).padToLong();
+        }
+    }
+
+    /**
+     * Hashes each element in {@code input} and sets {@code hash(input[i]).padToLong()} to {@code output[i]}.
+     *
+     * @param input
+     * @param output the length must be equal to or bigger than the length of {@code input}.
+     * @see #hashInts(int[], long[])
+     * @since 0.9
+     */
+    default void hashLongs(long[] input, long[] output) {
+        hashLongs(input, 0, input.length, output);
+    }
+
+    /**
+     * Same as {@link #hashLongs(long[], long[])}, but the elements are hashed by multiple threads if {@code parallel} is
+     * {@code true} and there are enough elements.
+     *
+     * @since 0.9
+     */
+    default void hashLongs(final long[] input, final long[] output, boolean parallel) {
+        Util.forEachChunk(input.length, parallel, new IntBiConsumer() {
+            @Override
+            public void accept(int fromIndex, int toIndex) {
+                hashLongs(input, fromIndex, toIndex, output);
+            }
+        });
+    }
+
+    /**
+     * Hashes the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), and sets
+     * {@code hash(input[i]).padToLong()} to {@code output[i]}.
+     *
+     * @since 0.9
+     */
+    default void hashLongs(long[] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = hash(input[i]).padToLong();
+        }
+    }
+
+    /**
+     * Hashes each element in {@code input} and sets {@code hash(input[i], charset).padToLong()} to {@code output[i]}.
+     *
+     * @param input
+     * @param charset
+     * @param output the length must be equal to or bigger than the length of {@code input}.
+     * @since 0.9
+     */
+    default void hashStrings(CharSequence[] input, Charset charset, long[] output) {
+        hashStrings(input, 0, input.length, charset, output);
+    }
+
+    /**
+     * Same as {@link #hashStrings(CharSequence[], Charset, long[])}, but the elements are hashed by multiple threads if {@code parallel} is
+     * {@code true} and there are enough elements.
+     *
+     * @since 0.9
+     */
+    default void hashStrings(final CharSequence[] input, final Charset charset, final long[] output, boolean parallel) {
+        Util.forEachChunk(input.length, parallel, new IntBiConsumer() {
+            @Override
+            public void accept(int fromIndex, int toIndex) {
+                hashStrings(input, fromIndex, toIndex, charset, output);
+            }
+        });
+    }
+
+    /**
+     * Hashes the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), and sets
+     * {@code hash(input[i], charset).padToLong()} to {@code output[i]}.
+     *
+     * @since 0.9
+     */
+    default void hashStrings(CharSequence[] input, int fromIndex, int toIndex, Charset charset, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = hash(input[i], charset).padToLong();
+        }
+    }
+
+    /**
+     * Hashes each element in {@code input} and sets {@code hash(input[i]).padToLong()} to {@code output[i]}.
+     *
+     * @param input
+     * @param output the length must be equal to or bigger than the length of {@code input}.
+     * @since 0.9
+     */
+    default void hashBytes(byte[][] input, long[] output) {
+        hashBytes(input, 0, input.length, output);
+    }
+
+    /**
+     * Same as {@link #hashBytes(byte[][], long[])}, but the elements are hashed by multiple threads if {@code parallel} is
+     * {@code true} and there are enough elements.
+     *
+     * @since 0.9
+     */
+    default void hashBytes(final byte[][] input, final long[] output, boolean parallel) {
+        Util.forEachChunk(input.length, parallel, new IntBiConsumer() {
+            @Override
+            public void accept(int fromIndex, int toIndex) {
+                hashBytes(input, fromIndex, toIndex, output);
+            }
+        });
+    }
+
+    /**
+     * Hashes the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), and sets
+     * {@code hash(input[i]).padToLong()} to {@code output[i]}.
+     *
+     * @since 0.9
+     */
+    default void hashBytes(byte[][] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = hash(input[i]).padToLong();
+        }
+    }
 }
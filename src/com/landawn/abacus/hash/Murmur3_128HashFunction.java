@@ -31,6 +31,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+import com.landawn.abacus.util.N;
+
 /**
  * Note: It's copied from Google Guava under Apache License 2.0
  * 
@@ -77,6 +79,48 @@ final class Murmur3_128HashFunction extends AbstractStreamingHashFunction implem
         return getClass().hashCode() ^ seed;
     }
 
+    @Override
+    public void hashInts(int[] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = hashToLong(input[i] & 0xFFFFFFFFL, 4);
+        }
+    }
+
+    @Override
+    public void hashLongs(long[] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = hashToLong(input[i], 8);
+        }
+    }
+
+    /**
+     * Same as {@code newHasher().putLong/putInt(k1).hash().asLong()}, without creating the {@code Hasher} and {@code HashCode}.
+     * The input, which is no more than 8 bytes, is processed as the remaining bytes in {@link Murmur3_128Hasher#processRemaining(ByteBuffer)}.
+     */
+    private long hashToLong(long k1, int length) {
+        long h1 = seed;
+        long h2 = seed;
+
+        h1 ^= Murmur3_128Hasher.mixK1(k1);
+
+        h1 ^= length;
+        h2 ^= length;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = Murmur3_128Hasher.fmix64(h1);
+        h2 = Murmur3_128Hasher.fmix64(h2);
+
+        return h1 + h2;
+    }
+
     private static final class Murmur3_128Hasher extends AbstractStreamingHasher {
         private static final int CHUNK_SIZE = 16;
         private static final long C1 = 0x87c37b91114253d5L;
@@ -32,6 +32,7 @@ import com.landawn.abacus.hash.Util.Chars;
 import com.landawn.abacus.hash.Util.Ints;
 import com.landawn.abacus.hash.Util.Longs;
 import com.landawn.abacus.hash.Util.UnsignedBytes;
+import com.landawn.abacus.util.N;
 
 /**
  * Note: It's copied from Google Guava under Apache License 2.0
@@ -104,6 +105,29 @@ final class Murmur3_32HashFunction extends AbstractStreamingHashFunction impleme
         return fmix(h1, Longs.BYTES);
     }
 
+    @Override
+    public void hashInts(int[] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            output[i] = fmixToInt(mixH1(seed, mixK1(input[i])), Ints.BYTES) & 0xFFFFFFFFL;
+        }
+    }
+
+    @Override
+    public void hashLongs(long[] input, int fromIndex, int toIndex, long[] output) {
+        N.checkFromToIndex(fromIndex, toIndex, input.length);
+        N.checkFromToIndex(fromIndex, toIndex, output.length);
+
+        long value = 0;
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            value = input[i];
+            output[i] = fmixToInt(mixH1(mixH1(seed, mixK1((int) value)), mixK1((int) (value >>> 32))), Longs.BYTES) & 0xFFFFFFFFL;
+        }
+    }
+
     // TODO(kak): Maybe implement #hashBytes instead?
     @Override
     public HashCode hash(CharSequence input) {
@@ -142,13 +166,17 @@ final class Murmur3_32HashFunction extends AbstractStreamingHashFunction impleme
 
     // Finalization mix - force all bits of a hash block to avalanche
     private static HashCode fmix(int h1, int length) {
+        return HashCode.fromInt(fmixToInt(h1, length));
+    }
+
+    private static int fmixToInt(int h1, int length) {
         h1 ^= length;
         h1 ^= h1 >>> 16;
         h1 *= 0x85ebca6b;
         h1 ^= h1 >>> 13;
         h1 *= 0xc2b2ae35;
         h1 ^= h1 >>> 16;
-        return HashCode.fromInt(h1);
+        return h1;
     }
 
     private static final class Murmur3_32Hasher extends AbstractStreamingHasher {
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.hash;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.landawn.abacus.util.N;
+import com.landawn.abacus.util.function.BiConsumer;
+import com.landawn.abacus.util.function.Predicate;
+
+/**
+ * A Bloom filter which keeps the false positive probability under the specified {@code fpp} for
+ * unbounded number of insertions, by chaining {@link BloomFilter}s.
+ *
+ * <p>A new sub-filter is added when the last one is filled up with the elements it's created for.
+ * The capacity of the sub-filter <i>i</i> is {@code expectedInsertions * growthFactor ^ i} and its
+ * false positive probability is {@code fpp * (1 - tighteningRatio) * tighteningRatio ^ i}, so the
+ * compounded false positive probability of all the sub-filters never exceeds {@code fpp}.
+ * See "Scalable Bloom Filters" by Paulo Sérgio Almeida, Carlos Baquero, Nuno Preguiça and David Hutchison.
+ *
+ * <p>It's thread-safe, as {@link BloomFilter} is.
+ *
+ * @param <T> the type of instances that the {@code ScalableBloomFilter} accepts
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class ScalableBloomFilter<T> implements Predicate<T> {
+    static final int DEFAULT_GROWTH_FACTOR = 2;
+    static final double DEFAULT_TIGHTENING_RATIO = 0.85;
+
+    private final BiConsumer<? super T, ? super Hasher> funnel;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final int growthFactor;
+    private final double tighteningRatio;
+    private final List<SubFilter<T>> filters = new CopyOnWriteArrayList<>();
+
+    private ScalableBloomFilter(BiConsumer<? super T, ? super Hasher> funnel, long expectedInsertions, double fpp, int growthFactor, double tighteningRatio) {
+        N.requireNonNull(funnel);
+        N.checkArgument(expectedInsertions > 0, "Expected insertions (%s) must be > 0", expectedInsertions);
+        N.checkArgument(fpp > 0.0 && fpp < 1.0, "False positive probability (%s) must be > 0.0 and < 1.0", fpp);
+        N.checkArgument(growthFactor >= 1, "Growth factor (%s) must be >= 1", growthFactor);
+        N.checkArgument(tighteningRatio > 0.0 && tighteningRatio < 1.0, "Tightening ratio (%s) must be > 0.0 and < 1.0", tighteningRatio);
+
+        this.funnel = funnel;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.growthFactor = growthFactor;
+        this.tighteningRatio = tighteningRatio;
+    }
+
+    /**
+     *
+     * @param funnel
+     * @param expectedInsertions the number of expected insertions to the first sub-filter; must be positive
+     * @param fpp the desired false positive probability (must be positive and less than 1.0)
+     * @return
+     */
+    public static <T> ScalableBloomFilter<T> create(BiConsumer<? super T, ? super Hasher> funnel, long expectedInsertions, double fpp) {
+        return create(funnel, expectedInsertions, fpp, DEFAULT_GROWTH_FACTOR, DEFAULT_TIGHTENING_RATIO);
+    }
+
+    /**
+     *
+     * @param funnel
+     * @param expectedInsertions the number of expected insertions to the first sub-filter; must be positive
+     * @param fpp the desired false positive probability (must be positive and less than 1.0)
+     * @param growthFactor the capacity of a new sub-filter is {@code growthFactor} times of the previous one's.
+     * @param tighteningRatio the false positive probability of a new sub-filter is {@code tighteningRatio} times of the previous one's.
+     * @return
+     */
+    public static <T> ScalableBloomFilter<T> create(BiConsumer<? super T, ? super Hasher> funnel, long expectedInsertions, double fpp, int growthFactor,
+            double tighteningRatio) {
+        final ScalableBloomFilter<T> result = new ScalableBloomFilter<>(funnel, expectedInsertions, fpp, growthFactor, tighteningRatio);
+        result.filters.add(result.newSubFilter(0));
+        return result;
+    }
+
+    /**
+     * Returns {@code true} if the element <i>might</i> have been put in this Bloom filter,
+     * {@code false} if this is <i>definitely</i> not the case.
+     */
+    public boolean mightContain(T object) {
+        for (SubFilter<T> subFilter : filters) {
+            if (subFilter.filter.mightContain(object)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @deprecated Provided only to satisfy the {@link Predicate} interface; use {@link #mightContain}
+     *     instead.
+     */
+    @Deprecated
+    @Override
+    public boolean test(T input) {
+        return mightContain(input);
+    }
+
+    /**
+     * Puts an element into this {@code ScalableBloomFilter}. Ensures that subsequent invocations of
+     * {@link #mightContain(Object)} with the same element will always return {@code true}.
+     *
+     * @return true if the element is <i>definitely</i> put into this filter the first time.
+     *     The element is not put again if {@code mightContain(object)} already returns true.
+     */
+    public boolean put(T object) {
+        if (mightContain(object)) {
+            return false;
+        }
+
+        SubFilter<T> last = filters.get(filters.size() - 1);
+
+        if (last.count.get() >= last.capacity) {
+            last = grow(last);
+        }
+
+        if (last.filter.put(object)) {
+            last.count.incrementAndGet();
+            return true;
+        }
+
+        return false;
+    }
+
+    private synchronized SubFilter<T> grow(SubFilter<T> full) {
+        final SubFilter<T> last = filters.get(filters.size() - 1);
+
+        if (last != full) {
+            // it has been added by other thread.
+            return last;
+        }
+
+        final SubFilter<T> next = newSubFilter(filters.size());
+        filters.add(next);
+        return next;
+    }
+
+    private SubFilter<T> newSubFilter(int index) {
+        long capacity = expectedInsertions;
+
+        for (int i = 0; i < index && capacity < Long.MAX_VALUE / growthFactor; i++) {
+            capacity *= growthFactor;
+        }
+
+        final double subFpp = fpp * (1 - tighteningRatio) * Math.pow(tighteningRatio, index);
+
+        return new SubFilter<>(BloomFilter.create(funnel, capacity, subFpp), capacity, 0);
+    }
+
+    /**
+     * Returns the probability that {@linkplain #mightContain(Object)} will erroneously return
+     * {@code true} for an object that has not actually been put in the {@code ScalableBloomFilter}.
+     */
+    public double expectedFpp() {
+        double notFalsePositive = 1.0;
+
+        for (SubFilter<T> subFilter : filters) {
+            notFalsePositive *= 1.0 - subFilter.filter.expectedFpp();
+        }
+
+        return 1.0 - notFalsePositive;
+    }
+
+    /**
+     * Returns the number of elements which have been put into this filter,
+     * excluding the ones for which {@link #put(Object)} returns false.
+     */
+    public long count() {
+        long count = 0;
+
+        for (SubFilter<T> subFilter : filters) {
+            count += subFilter.count.get();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of chained sub-filters.
+     */
+    int subFilterCount() {
+        return filters.size();
+    }
+
+    /**
+     * Writes this {@code ScalableBloomFilter} to an output stream. Each sub-filter is written by
+     * {@link BloomFilter#writeTo(OutputStream)}.
+     *
+     * <p>Use {@linkplain #readFrom(InputStream, BiConsumer)} to reconstruct the written ScalableBloomFilter.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        // Serial form:
+        // 1 big endian long for the expected insertions of the first sub-filter
+        // 1 big endian double for the fpp
+        // 1 big endian int for the growth factor
+        // 1 big endian double for the tightening ratio
+        // 1 big endian int, the number of sub-filters
+        // for each sub-filter: 1 big endian long for the capacity, 1 big endian long for the count, and the sub-filter
+        final List<SubFilter<T>> snapshot = filters;
+        final DataOutputStream dout = new DataOutputStream(out);
+        dout.writeLong(expectedInsertions);
+        dout.writeDouble(fpp);
+        dout.writeInt(growthFactor);
+        dout.writeDouble(tighteningRatio);
+        dout.writeInt(snapshot.size());
+
+        for (SubFilter<T> subFilter : snapshot) {
+            dout.writeLong(subFilter.capacity);
+            dout.writeLong(subFilter.count.get());
+            subFilter.filter.writeTo(dout);
+        }
+
+        dout.flush();
+    }
+
+    /**
+     * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a
+     * {@code ScalableBloomFilter<T>}.
+     *
+     * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+     * the original Bloom filter!
+     *
+     * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+     *     appear to be a ScalableBloomFilter serialized using the {@linkplain #writeTo(OutputStream)} method.
+     */
+    public static <T> ScalableBloomFilter<T> readFrom(InputStream in, BiConsumer<? super T, ? super Hasher> funnel) throws IOException {
+        N.requireNonNull(in, "InputStream");
+        N.requireNonNull(funnel, "BiConsumer");
+        int numSubFilters = -1;
+
+        try {
+            final DataInputStream din = new DataInputStream(in);
+            final long expectedInsertions = din.readLong();
+            final double fpp = din.readDouble();
+            final int growthFactor = din.readInt();
+            final double tighteningRatio = din.readDouble();
+            numSubFilters = din.readInt();
+            N.checkArgument(numSubFilters > 0, "numSubFilters (%s) must be > 0", numSubFilters);
+
+            final ScalableBloomFilter<T> result = new ScalableBloomFilter<>(funnel, expectedInsertions, fpp, growthFactor, tighteningRatio);
+
+            for (int i = 0; i < numSubFilters; i++) {
+                final long capacity = din.readLong();
+                final long count = din.readLong();
+                result.filters.add(new SubFilter<>(BloomFilter.readFrom(din, funnel), capacity, count));
+            }
+
+            return result;
+        } catch (RuntimeException e) {
+            throw new IOException("Unable to deserialize ScalableBloomFilter from InputStream. numSubFilters: " + numSubFilters, e);
+        }
+    }
+
+    private static final class SubFilter<T> {
+        final BloomFilter<T> filter;
+        final long capacity;
+        final AtomicLong count;
+
+        SubFilter(BloomFilter<T> filter, long capacity, long count) {
+            this.filter = filter;
+            this.capacity = capacity;
+            this.count = new AtomicLong(count);
+        }
+    }
+}
@@ -21,6 +21,9 @@ import static java.math.RoundingMode.HALF_UP;
 import java.math.RoundingMode;
 
 import com.landawn.abacus.util.N;
+import com.landawn.abacus.util.function.IntBiConsumer;
+import com.landawn.abacus.util.function.IntConsumer;
+import com.landawn.abacus.util.stream.IntStream;
 
 /**
  * Note: It's copied from Google Guava under Apache License 2.0
@@ -32,6 +35,30 @@ final class Util {
         // singleton
     }
 
+    /**
+     * The number of elements processed by one thread in the bulk hashing methods, like {@link HashFunction#hashLongs(long[], long[], boolean)}.
+     */
+    static final int BULK_HASHING_CHUNK_SIZE = 8192;
+
+    /**
+     * Splits {@code [0, length)} into chunks of {@code BULK_HASHING_CHUNK_SIZE} elements and processes them by parallel stream if
+     * {@code parallel} is true and there are more than one chunk. Otherwise {@code [0, length)} is processed in current thread.
+     */
+    static void forEachChunk(final int length, final boolean parallel, final IntBiConsumer rangeAction) {
+        final int chunkCount = (length + BULK_HASHING_CHUNK_SIZE - 1) / BULK_HASHING_CHUNK_SIZE;
+
+        if (parallel && chunkCount > 1) {
+            IntStream.range(0, chunkCount).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(int chunk) {
+                    rangeAction.accept(chunk * BULK_HASHING_CHUNK_SIZE, N.min(length, (chunk + 1) * BULK_HASHING_CHUNK_SIZE));
+                }
+            });
+        } else {
+            rangeAction.accept(0, length);
+        }
+    }
+
     public static final class Chars {
         public static final int BYTES = Character.SIZE / Byte.SIZE;
 
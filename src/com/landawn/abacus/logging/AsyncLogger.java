@@ -0,0 +1,643 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.logging;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.landawn.abacus.util.N;
+import com.landawn.abacus.util.function.Supplier;
+
+/**
+ * A {@code Logger} which forwards the log events to the specified {@code Logger} in a background thread.
+ * <br />
+ * The log events are put into a ring buffer of pre-allocated slots by the calling threads.
+ * The message template and arguments are captured as they're, without formatting.
+ * The formatting and the call to the underlying logger are done by the background thread.
+ * So the arguments should not be modified after they're logged.
+ * <br />
+ * The ring buffer of {@link #BUFFER_SIZE} slots, the background thread and the JVM shutdown hook are shared by all the {@code AsyncLogger} instances,
+ * and created when the first event is logged. So it's cheap to create one {@code AsyncLogger} per class.
+ * <br />
+ * What to do if the buffer is full is decided by {@link OverflowPolicy}.
+ * The events in the buffer are flushed when {@link #close()} is called or the JVM is shut down.
+ *
+ * <pre>
+ * <code>
+ * static final Logger logger = new AsyncLogger(LoggerFactory.getLogger(Foo.class));
+ * </code>
+ * </pre>
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class AsyncLogger implements Logger {
+    /**
+     * The size of the ring buffer shared by all the instances.
+     */
+    public static final int BUFFER_SIZE = 8192;
+
+    private static final int MSG = 0;
+    private static final int MSG_THROWABLE = 1;
+    private static final int FORMAT = 2;
+    private static final int SUPPLIER = 3;
+    private static final int SUPPLIER_THROWABLE = 4;
+
+    private final Logger logger;
+    private final OverflowPolicy overflowPolicy;
+    private final Level dropBelowLevel;
+    // guarded by Dispatcher.INSTANCE.lock.
+    private long droppedCount = 0;
+    private volatile boolean isClosed = false;
+
+    /**
+     * The events are blocked if the buffer is full.
+     *
+     * @param logger
+     */
+    public AsyncLogger(final Logger logger) {
+        this(logger, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     *
+     * @param logger
+     * @param overflowPolicy {@code DROP_BELOW_LEVEL} means dropping the events below {@code Level.WARN}.
+     */
+    public AsyncLogger(final Logger logger, final OverflowPolicy overflowPolicy) {
+        this(logger, overflowPolicy, Level.WARN);
+    }
+
+    /**
+     *
+     * @param logger
+     * @param overflowPolicy
+     * @param dropBelowLevel only used by {@code OverflowPolicy.DROP_BELOW_LEVEL}.
+     */
+    public AsyncLogger(final Logger logger, final OverflowPolicy overflowPolicy, final Level dropBelowLevel) {
+        N.requireNonNull(logger, "logger");
+        N.requireNonNull(overflowPolicy, "overflowPolicy");
+        N.requireNonNull(dropBelowLevel, "dropBelowLevel");
+
+        this.logger = logger;
+        this.overflowPolicy = overflowPolicy;
+        this.dropBelowLevel = dropBelowLevel;
+    }
+
+    @Override
+    public String getName() {
+        return logger.getName();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    @Override
+    public void trace(String msg) {
+        if (isTraceEnabled()) {
+            put(Level.TRACE, MSG, msg, null, null, null);
+        }
+    }
+
+    @Override
+    @SafeVarargs
+    public final void trace(String format, Object... args) {
+        if (isTraceEnabled()) {
+            put(Level.TRACE, FORMAT, format, args, null, null);
+        }
+    }
+
+    @Override
+    public void trace(String msg, Throwable t) {
+        if (isTraceEnabled()) {
+            put(Level.TRACE, MSG_THROWABLE, msg, null, t, null);
+        }
+    }
+
+    @Override
+    public void trace(Supplier<String> supplier) {
+        if (isTraceEnabled()) {
+            put(Level.TRACE, SUPPLIER, null, null, null, supplier);
+        }
+    }
+
+    @Override
+    public void trace(Supplier<String> supplier, Throwable t) {
+        if (isTraceEnabled()) {
+            put(Level.TRACE, SUPPLIER_THROWABLE, null, null, t, supplier);
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(String msg) {
+        if (isDebugEnabled()) {
+            put(Level.DEBUG, MSG, msg, null, null, null);
+        }
+    }
+
+    @Override
+    @SafeVarargs
+    public final void debug(String format, Object... args) {
+        if (isDebugEnabled()) {
+            put(Level.DEBUG, FORMAT, format, args, null, null);
+        }
+    }
+
+    @Override
+    public void debug(String msg, Throwable t) {
+        if (isDebugEnabled()) {
+            put(Level.DEBUG, MSG_THROWABLE, msg, null, t, null);
+        }
+    }
+
+    @Override
+    public void debug(Supplier<String> supplier) {
+        if (isDebugEnabled()) {
+            put(Level.DEBUG, SUPPLIER, null, null, null, supplier);
+        }
+    }
+
+    @Override
+    public void debug(Supplier<String> supplier, Throwable t) {
+        if (isDebugEnabled()) {
+            put(Level.DEBUG, SUPPLIER_THROWABLE, null, null, t, supplier);
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    public void info(String msg) {
+        if (isInfoEnabled()) {
+            put(Level.INFO, MSG, msg, null, null, null);
+        }
+    }
+
+    @Override
+    @SafeVarargs
+    public final void info(String format, Object... args) {
+        if (isInfoEnabled()) {
+            put(Level.INFO, FORMAT, format, args, null, null);
+        }
+    }
+
+    @Override
+    public void info(String msg, Throwable t) {
+        if (isInfoEnabled()) {
+            put(Level.INFO, MSG_THROWABLE, msg, null, t, null);
+        }
+    }
+
+    @Override
+    public void info(Supplier<String> supplier) {
+        if (isInfoEnabled()) {
+            put(Level.INFO, SUPPLIER, null, null, null, supplier);
+        }
+    }
+
+    @Override
+    public void info(Supplier<String> supplier, Throwable t) {
+        if (isInfoEnabled()) {
+            put(Level.INFO, SUPPLIER_THROWABLE, null, null, t, supplier);
+        }
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return logger.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(String msg) {
+        if (isWarnEnabled()) {
+            put(Level.WARN, MSG, msg, null, null, null);
+        }
+    }
+
+    @Override
+    @SafeVarargs
+    public final void warn(String format, Object... args) {
+        if (isWarnEnabled()) {
+            put(Level.WARN, FORMAT, format, args, null, null);
+        }
+    }
+
+    @Override
+    public void warn(String msg, Throwable t) {
+        if (isWarnEnabled()) {
+            put(Level.WARN, MSG_THROWABLE, msg, null, t, null);
+        }
+    }
+
+    @Override
+    public void warn(Supplier<String> supplier) {
+        if (isWarnEnabled()) {
+            put(Level.WARN, SUPPLIER, null, null, null, supplier);
+        }
+    }
+
+    @Override
+    public void warn(Supplier<String> supplier, Throwable t) {
+        if (isWarnEnabled()) {
+            put(Level.WARN, SUPPLIER_THROWABLE, null, null, t, supplier);
+        }
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return logger.isErrorEnabled();
+    }
+
+    @Override
+    public void error(String msg) {
+        if (isErrorEnabled()) {
+            put(Level.ERROR, MSG, msg, null, null, null);
+        }
+    }
+
+    @Override
+    @SafeVarargs
+    public final void error(String format, Object... args) {
+        if (isErrorEnabled()) {
+            put(Level.ERROR, FORMAT, format, args, null, null);
+        }
+    }
+
+    @Override
+    public void error(String msg, Throwable t) {
+        if (isErrorEnabled()) {
+            put(Level.ERROR, MSG_THROWABLE, msg, null, t, null);
+        }
+    }
+
+    @Override
+    public void error(Supplier<String> supplier) {
+        if (isErrorEnabled()) {
+            put(Level.ERROR, SUPPLIER, null, null, null, supplier);
+        }
+    }
+
+    @Override
+    public void error(Supplier<String> supplier, Throwable t) {
+        if (isErrorEnabled()) {
+            put(Level.ERROR, SUPPLIER_THROWABLE, null, null, t, supplier);
+        }
+    }
+
+    /**
+     * Returns the number of the events dropped because the buffer was full.
+     *
+     * @return
+     */
+    public long droppedCount() {
+        final Dispatcher dispatcher = Dispatcher.INSTANCE;
+
+        dispatcher.lock.lock();
+
+        try {
+            return droppedCount;
+        } finally {
+            dispatcher.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until all the events put before this call are forwarded to the underlying logger.
+     * The events put by other instances before this call are also forwarded because the buffer is shared.
+     */
+    public void flush() {
+        Dispatcher.INSTANCE.flush();
+    }
+
+    /**
+     * Flushes the events in the buffer.
+     * The events logged after this call are forwarded to the underlying logger in the calling thread.
+     * The background thread is shared by all the instances and stopped when the JVM is shut down.
+     */
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+
+        isClosed = true;
+
+        flush();
+    }
+
+    private void put(final Level level, final int type, final String msg, final Object[] args, final Throwable t, final Supplier<String> supplier) {
+        if (isClosed || Dispatcher.INSTANCE.put(this, level, type, msg, args, t, supplier) == false) {
+            forward(level, type, msg, args, t, supplier);
+        }
+    }
+
+    private void forward(final Level level, final int type, String msg, final Object[] args, Throwable t, final Supplier<String> supplier) {
+        switch (type) {
+            case FORMAT:
+                final FormattedMessage fm = MessageFormatter.arrayFormat(msg, args);
+                msg = fm.getMessage();
+                t = fm.getThrowable();
+                break;
+
+            case SUPPLIER:
+            case SUPPLIER_THROWABLE:
+                msg = supplier.get();
+                break;
+
+            default:
+                // msg and t are ready.
+        }
+
+        switch (level) {
+            case TRACE:
+                if (t == null) {
+                    logger.trace(msg);
+                } else {
+                    logger.trace(msg, t);
+                }
+
+                break;
+
+            case DEBUG:
+                if (t == null) {
+                    logger.debug(msg);
+                } else {
+                    logger.debug(msg, t);
+                }
+
+                break;
+
+            case INFO:
+                if (t == null) {
+                    logger.info(msg);
+                } else {
+                    logger.info(msg, t);
+                }
+
+                break;
+
+            case WARN:
+                if (t == null) {
+                    logger.warn(msg);
+                } else {
+                    logger.warn(msg, t);
+                }
+
+                break;
+
+            default:
+                if (t == null) {
+                    logger.error(msg);
+                } else {
+                    logger.error(msg, t);
+                }
+        }
+    }
+
+    public static enum Level {
+        TRACE, DEBUG, INFO, WARN, ERROR;
+    }
+
+    /**
+     * What to do if the buffer is full.
+     */
+    public static enum OverflowPolicy {
+        /**
+         * The calling thread waits until there is free space in the buffer.
+         */
+        BLOCK,
+        /**
+         * The event is dropped.
+         */
+        DROP,
+        /**
+         * The event is dropped if its level is lower than the specified level. Otherwise the calling thread waits.
+         */
+        DROP_BELOW_LEVEL;
+    }
+
+    /**
+     * The ring buffer and the background thread shared by all the instances.
+     */
+    private static final class Dispatcher {
+        // created when the first AsyncLogger is logging.
+        static final Dispatcher INSTANCE = new Dispatcher(BUFFER_SIZE);
+
+        private final Event[] slots;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final Thread thread;
+
+        // guarded by lock.
+        private long head = 0;
+        private long tail = 0;
+        private volatile boolean isShutdown = false;
+
+        private Dispatcher(final int bufferSize) {
+            this.slots = new Event[bufferSize];
+
+            for (int i = 0; i < bufferSize; i++) {
+                slots[i] = new Event();
+            }
+
+            thread = new Thread("AsyncLogger") {
+                @Override
+                public void run() {
+                    dispatch();
+                }
+            };
+
+            thread.setDaemon(true);
+            thread.start();
+
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    shutdown();
+                }
+            });
+        }
+
+        /**
+         *
+         * @return false if the event is not put into the buffer and not dropped. It should be forwarded by the caller.
+         */
+        boolean put(final AsyncLogger owner, final Level level, final int type, final String msg, final Object[] args, final Throwable t,
+                final Supplier<String> supplier) {
+            if (isShutdown || Thread.currentThread() == thread) {
+                return false;
+            }
+
+            lock.lock();
+
+            try {
+                while (tail - head == slots.length) {
+                    if (owner.overflowPolicy == OverflowPolicy.DROP
+                            || (owner.overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL && level.compareTo(owner.dropBelowLevel) < 0)) {
+                        owner.droppedCount++;
+                        return true;
+                    }
+
+                    notFull.await();
+
+                    if (isShutdown) {
+                        return false;
+                    }
+                }
+
+                if (isShutdown) {
+                    return false;
+                }
+
+                slots[(int) (tail % slots.length)].set(owner, level, type, msg, args, t, supplier);
+                tail++;
+                notEmpty.signal();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                owner.droppedCount++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void flush() {
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+
+            lock.lock();
+
+            try {
+                final long target = tail;
+
+                while (head < target && thread.isAlive()) {
+                    notFull.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void shutdown() {
+            flush();
+
+            lock.lock();
+
+            try {
+                isShutdown = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dispatch() {
+            long from = 0;
+            long to = 0;
+            Event event = null;
+
+            while (true) {
+                lock.lock();
+
+                try {
+                    while (head == tail && isShutdown == false) {
+                        notEmpty.await();
+                    }
+
+                    if (head == tail) {
+                        return;
+                    }
+
+                    from = head;
+                    to = tail;
+                } catch (InterruptedException e) {
+                    if (isShutdown) {
+                        return;
+                    }
+
+                    continue;
+                } finally {
+                    lock.unlock();
+                }
+
+                // The slots in [from, to) won't be touched by the producers until head is moved.
+                for (long i = from; i < to; i++) {
+                    event = slots[(int) (i % slots.length)];
+
+                    try {
+                        event.owner.forward(event.level, event.type, event.msg, event.args, event.t, event.supplier);
+                    } catch (Throwable e) {
+                        // ignore. the background thread must be kept alive.
+                    } finally {
+                        event.clear();
+                    }
+                }
+
+                lock.lock();
+
+                try {
+                    head = to;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * A pre-allocated slot in the ring buffer.
+     */
+    private static final class Event {
+        private AsyncLogger owner;
+        private Level level;
+        private int type;
+        private String msg;
+        private Object[] args;
+        private Throwable t;
+        private Supplier<String> supplier;
+
+        void set(final AsyncLogger owner, final Level level, final int type, final String msg, final Object[] args, final Throwable t,
+                final Supplier<String> supplier) {
+            this.owner = owner;
+            this.level = level;
+            this.type = type;
+            this.msg = msg;
+            this.args = args;
+            this.t = t;
+            this.supplier = supplier;
+        }
+
+        void clear() {
+            set(null, null, 0, null, null, null, null);
+        }
+    }
+}
@@ -14,8 +14,8 @@
 
 package com.landawn.abacus.logging;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -29,109 +29,122 @@ public final class LoggerFactory {
     private static final boolean IS_ANDROID_PLATFORM = JAVA_VENDOR.toUpperCase().contains("ANDROID") || JAVA_VM_VENDOR.contains("ANDROID");
 
     private static final Logger jdkLogger = new JDKLogger(LoggerFactory.class.getName());
-    private static final Map<String, Logger> namedLoggers = new HashMap<String, Logger>();
-    private static volatile int logType = 0;
-    private static volatile boolean initialized = false;
+    private static final ConcurrentMap<String, Logger> namedLoggers = new ConcurrentHashMap<String, Logger>();
 
-    public static synchronized Logger getLogger(Class<?> clazz) {
+    // The backend is detected when this class is initialized. It's moved to the next one if a logger can't be created by it.
+    private static volatile int logType = detectLogType();
+
+    private LoggerFactory() {
+        // singleton.
+    }
+
+    public static Logger getLogger(Class<?> clazz) {
         return getLogger(clazz.getName());
     }
 
-    public static synchronized Logger getLogger(String name) {
+    /**
+     * Lock-free. If the logger for the specified name is created by two threads at the same time,
+     * the one put into the pool first by {@code putIfAbsent} is returned to both of them.
+     *
+     * @param name
+     * @return
+     */
+    public static Logger getLogger(String name) {
         Logger logger = namedLoggers.get(name);
 
         if (logger == null) {
-            switch (logType) {
-                case 0:
-                    if (IS_ANDROID_PLATFORM) {
-                        try {
-                            logger = new AndroidLogger(name);
-
-                            if (initialized == false) {
-                                jdkLogger.info("Initialized with Android Logger");
-                            }
-
-                            logType = 0;
-                            initialized = true;
-
-                            break;
-                        } catch (Throwable e) {
-                            // ignore
-                        }
-                    }
-
-                case 1:
-                    if (logger == null) {
-                        try {
-                            logger = new SLF4JLogger(name);
-
-                            if (initialized == false) {
-                                jdkLogger.info("Initialized with SLF4J Logger");
-                            }
-
-                            logType = 1;
-                            initialized = true;
-
-                            break;
-                        } catch (Throwable e) {
-                            // ignore
-                        }
-                    }
-
-                case 2:
-                    if (logger == null) {
-                        try {
-                            logger = new Log4Jv2Logger(name);
-
-                            if (initialized == false) {
-                                jdkLogger.info("Initialized with Log4j v2 Logger");
-                            }
-
-                            logType = 2;
-                            initialized = true;
-
-                            break;
-                        } catch (Throwable e) {
-                            // ignore
-                        }
-                    }
-
-                case 3:
-                    if (logger == null) {
-                        try {
-                            logger = new Log4Jv1Logger(name);
-
-                            if (initialized == false) {
-                                jdkLogger.info("Initialized with Log4j v1 Logger");
-                            }
-
-                            logType = 3;
-                            initialized = true;
-
-                            break;
-                        } catch (Throwable e) {
-                            // ignore
-                        }
-                    }
-
-                case 4:
-                    if (logger == null) {
-                        logger = new JDKLogger(name);
-
-                        if (initialized == false) {
-                            jdkLogger.info("Initialized with JDK Logger");
-                        }
-
-                        logType = 4;
-                        initialized = true;
-
-                        break;
-                    }
-            }
+            logger = createLogger(name);
+
+            final Logger existing = namedLoggers.putIfAbsent(name, logger);
 
-            namedLoggers.put(name, logger);
+            if (existing != null) {
+                logger = existing;
+            }
         }
 
         return logger;
     }
+
+    private static Logger createLogger(String name) {
+        switch (logType) {
+            case 0:
+                try {
+                    return new AndroidLogger(name);
+                } catch (Throwable e) {
+                    // ignore
+                }
+
+            case 1:
+                try {
+                    final Logger logger = new SLF4JLogger(name);
+                    logType = 1;
+                    return logger;
+                } catch (Throwable e) {
+                    // ignore
+                }
+
+            case 2:
+                try {
+                    final Logger logger = new Log4Jv2Logger(name);
+                    logType = 2;
+                    return logger;
+                } catch (Throwable e) {
+                    // ignore
+                }
+
+            case 3:
+                try {
+                    final Logger logger = new Log4Jv1Logger(name);
+                    logType = 3;
+                    return logger;
+                } catch (Throwable e) {
+                    // ignore
+                }
+
+            default:
+                logType = 4;
+                return new JDKLogger(name);
+        }
+    }
+
+    private static int detectLogType() {
+        final String name = LoggerFactory.class.getName();
+
+        if (IS_ANDROID_PLATFORM) {
+            try {
+                new AndroidLogger(name);
+                jdkLogger.info("Initialized with Android Logger");
+                return 0;
+            } catch (Throwable e) {
+                // ignore
+            }
+        }
+
+        try {
+            new SLF4JLogger(name);
+            jdkLogger.info("Initialized with SLF4J Logger");
+            return 1;
+        } catch (Throwable e) {
+            // ignore
+        }
+
+        try {
+            new Log4Jv2Logger(name);
+            jdkLogger.info("Initialized with Log4j v2 Logger");
+            return 2;
+        } catch (Throwable e) {
+            // ignore
+        }
+
+        try {
+            new Log4Jv1Logger(name);
+            jdkLogger.info("Initialized with Log4j v1 Logger");
+            return 3;
+        } catch (Throwable e) {
+            // ignore
+        }
+
+        jdkLogger.info("Initialized with JDK Logger");
+        return 4;
+    }
 }
@@ -36,6 +36,14 @@ import com.landawn.abacus.util.stream.Stream;
 public abstract class AbstractMatrix<A, PL, ES, RS, X extends AbstractMatrix<A, PL, ES, RS, X>> {
     static final Random RAND = new SecureRandom();
 
+    /**
+     * Row/column length of the blocks in blocked matrix multiplication. 
+     * Two <code>64 * 64</code> blocks of <code>double</code> fit in the L2 cache of most processors.
+     */
+    static final int BLOCK_SIZE = 64;
+
+    static final long MIN_SIZE_FOR_BLOCKED_MULTIPLY = 64L * 64 * 64;
+
     static final boolean isParallelStreamSupported;
     static {
         boolean tmp = false;
@@ -303,7 +303,7 @@ public class AsyncExecutor {
         };
     }
 
-    private ExecutorService getExecutorService() {
+    ExecutorService getExecutorService() {
         if (executorService == null) {
             synchronized (this) {
                 if (executorService == null) {
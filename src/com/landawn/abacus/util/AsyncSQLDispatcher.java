@@ -0,0 +1,625 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.landawn.abacus.DataSource;
+import com.landawn.abacus.logging.Logger;
+import com.landawn.abacus.logging.LoggerFactory;
+import com.landawn.abacus.util.Profiler.Histogram;
+import com.landawn.abacus.util.SQLExecutor.JdbcSettings;
+
+/**
+ * Dispatches the executions of {@code AsyncSQLExecutor} to the threads of its {@code AsyncExecutor}.
+ * <br />
+ * The executions on the same {@code DataSource} are limited by the max number of active connections of the {@code DataSource}
+ * (or {@code maxConcurrency} if it's unknown), and the executions on the same {@code Connection} are executed one by one in the order they're submitted.
+ * The executions over the limit are queued, without holding any thread. When the total number of queued executions reaches {@code maxQueueSize},
+ * a new execution is handled by the {@code RejectionPolicy}. The executions with a specified {@code Connection} are never rejected,
+ * otherwise they're not executed in order.
+ * <br />
+ * An execution is failed with {@code TimeoutException} if it's not started in {@code timeout}, or cancelled by {@code Statement.cancel()}
+ * if it's not completed in {@code timeout}. The executions with a specified {@code Connection} are never timed out in the queue,
+ * otherwise the later executions on the same {@code Connection} would run without the dropped one. Their timeout starts when they're started.
+ * <br />
+ * The queue time and execution time are recorded and returned by {@link #stats()}.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class AsyncSQLDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSQLDispatcher.class);
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 1024;
+
+    private static final int PRECISION_BITS = 3;
+
+    private static final ScheduledExecutorService TIMER;
+
+    static {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setKeepAliveTime(180, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        TIMER = MoreExecutors.getExitingScheduledExecutorService(executor);
+    }
+
+    // the task executed by current thread, to which the statement created by SQLExecutor is bound.
+    private static final ThreadLocal<Task<?>> currentTask = new ThreadLocal<>();
+
+    /**
+     * The policy to handle the execution submitted when the queue is full.
+     */
+    public static enum RejectionPolicy {
+        /**
+         * Throws {@code RejectedExecutionException}.
+         */
+        ABORT,
+        /**
+         * Executes it by the caller thread.
+         */
+        CALLER_RUNS,
+        /**
+         * Fails the oldest queued execution with {@code RejectedExecutionException} and queues the new one.
+         */
+        DISCARD_OLDEST;
+    }
+
+    private final SQLExecutor sqlExecutor;
+    private final AsyncExecutor asyncExecutor;
+    // guarded by this.
+    private final Map<Object, Lane> laneMap = new HashMap<>();
+    private int queueSize = 0;
+    private long sequence = 0;
+
+    private volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private volatile int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    private volatile RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+    private volatile long timeout = 0;
+
+    // guarded by stats.
+    private final Stats stats = new Stats();
+
+    AsyncSQLDispatcher(final SQLExecutor sqlExecutor, final AsyncExecutor asyncExecutor) {
+        this.sqlExecutor = sqlExecutor;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the max number of concurrent executions on a {@code DataSource} whose max number of active connections is unknown.
+     * It's applied to the {@code DataSource}s which are not used yet.
+     *
+     * @param maxConcurrency
+     * @return
+     */
+    public AsyncSQLDispatcher setMaxConcurrency(final int maxConcurrency) {
+        N.checkArgument(maxConcurrency > 0, "'maxConcurrency' must be bigger than 0: %s", maxConcurrency);
+
+        this.maxConcurrency = maxConcurrency;
+
+        return this;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public AsyncSQLDispatcher setMaxQueueSize(final int maxQueueSize) {
+        N.checkArgument(maxQueueSize >= 0, "'maxQueueSize' can't be negative: %s", maxQueueSize);
+
+        this.maxQueueSize = maxQueueSize;
+
+        return this;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public AsyncSQLDispatcher setRejectionPolicy(final RejectionPolicy rejectionPolicy) {
+        N.requireNonNull(rejectionPolicy, "rejectionPolicy");
+
+        this.rejectionPolicy = rejectionPolicy;
+
+        return this;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     *
+     * @param timeout in milliseconds, including the queue time except for the executions with a specified {@code Connection}. 0 means no timeout.
+     * @return
+     */
+    public AsyncSQLDispatcher setTimeout(final long timeout) {
+        N.checkArgument(timeout >= 0, "'timeout' can't be negative: %s", timeout);
+
+        this.timeout = timeout;
+
+        return this;
+    }
+
+    /**
+     * Returns the snapshot of the statistics.
+     *
+     * @return
+     */
+    public Stats stats() {
+        synchronized (stats) {
+            return stats.copy();
+        }
+    }
+
+    /**
+     *
+     * @param conn
+     * @param sql used to select the {@code DataSource}. It's ignored if {@code conn} is specified.
+     * @param parameters the parameters or batch parameters({@code List}) used to select the {@code DataSource}.
+     * @param jdbcSettings
+     * @param command
+     * @return
+     */
+    <T> CompletableFuture<T> execute(final Connection conn, final String sql, final Object parameters, final JdbcSettings jdbcSettings,
+            final Callable<T> command) {
+        final Object laneKey = conn != null ? conn : getDataSource(sql, parameters, jdbcSettings);
+        final ExecutorService executor = asyncExecutor.getExecutorService();
+        final Task<T> task = new Task<>(command);
+        final long timeout = this.timeout;
+
+        if (conn != null) {
+            // the execution on a Connection can't be dropped from the queue. its timer is scheduled when it's started.
+            task.timeoutOnStart = timeout;
+        }
+
+        Task<?> rejected = null;
+        boolean isStarted = false;
+        boolean isCallerRuns = false;
+
+        synchronized (this) {
+            Lane lane = laneMap.get(laneKey);
+
+            if (lane == null) {
+                lane = new Lane(laneKey, conn != null ? 1 : getMaxConcurrency(laneKey));
+                laneMap.put(laneKey, lane);
+            }
+
+            task.lane = lane;
+            task.sequence = sequence++;
+
+            if (lane.runningCount < lane.maxConcurrency) {
+                lane.runningCount++;
+                isStarted = true;
+            } else if (conn != null || queueSize < maxQueueSize) {
+                lane.queue.add(task);
+                queueSize++;
+            } else {
+                switch (rejectionPolicy) {
+                    case CALLER_RUNS:
+                        isCallerRuns = true;
+                        break;
+
+                    case DISCARD_OLDEST:
+                        rejected = pollOldest();
+
+                        if (rejected == null) {
+                            // all the queued executions are on connections.
+                            rejected = task;
+                        } else {
+                            lane.queue.add(task);
+                            queueSize++;
+                        }
+
+                        break;
+
+                    default:
+                        rejected = task;
+                }
+
+                if (laneKey instanceof Connection && lane.runningCount == 0 && lane.queue.isEmpty()) {
+                    laneMap.remove(laneKey);
+                }
+            }
+        }
+
+        if (rejected != null) {
+            synchronized (stats) {
+                stats.rejectedCount++;
+            }
+
+            if (rejected == task) {
+                throw new RejectedExecutionException("The queue of AsyncSQLExecutor is full: " + maxQueueSize);
+            } else {
+                rejected.fail(new RejectedExecutionException("Discarded from the queue of AsyncSQLExecutor"));
+            }
+        }
+
+        if (timeout > 0 && conn == null) {
+            scheduleTimeout(task, timeout);
+        }
+
+        if (isCallerRuns) {
+            task.lane = null;
+            task.run();
+        } else if (isStarted) {
+            start(executor, task);
+        }
+
+        return new CompletableFuture<>(task, null, executor);
+    }
+
+    /**
+     * Binds the specified statement to the execution of current thread, to cancel it if the execution is timed out.
+     *
+     * @param stmt
+     */
+    static void bind(final Statement stmt) {
+        final Task<?> task = currentTask.get();
+
+        if (task != null) {
+            task.bind(stmt);
+        }
+    }
+
+    private Object getDataSource(final String sql, final Object parameters, final JdbcSettings jdbcSettings) {
+        try {
+            final String pureSQL = sqlExecutor.getNamedSQL(sql).getPureSQL();
+
+            return parameters instanceof List ? sqlExecutor.getDataSource(pureSQL, (List<?>) parameters, jdbcSettings)
+                    : sqlExecutor.getDataSource(pureSQL, (Object[]) parameters, jdbcSettings);
+        } catch (RuntimeException e) {
+            // the error will be thrown again by the execution.
+            return AsyncSQLDispatcher.class;
+        }
+    }
+
+    private int getMaxConcurrency(final Object laneKey) {
+        if (laneKey instanceof DataSource) {
+            try {
+                final int maxActive = ((DataSource) laneKey).getMaxActive();
+
+                if (maxActive > 0) {
+                    return maxActive;
+                }
+            } catch (UnsupportedOperationException e) {
+                // unknown.
+            }
+        }
+
+        return maxConcurrency;
+    }
+
+    // must be called in synchronized block.
+    private Task<?> pollOldest() {
+        Lane oldestLane = null;
+
+        for (Lane lane : laneMap.values()) {
+            if (lane.key instanceof Connection == false && lane.queue.size() > 0
+                    && (oldestLane == null || lane.queue.peek().sequence < oldestLane.queue.peek().sequence)) {
+                oldestLane = lane;
+            }
+        }
+
+        if (oldestLane == null) {
+            return null;
+        }
+
+        queueSize--;
+
+        return oldestLane.queue.poll();
+    }
+
+    private void start(final ExecutorService executor, final Task<?> task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            // rejected by the thread pool. the slot of the lane is released or passed to the next queued task.
+            task.fail(e);
+            complete(task);
+        }
+    }
+
+    private void complete(final Task<?> task) {
+        final Lane lane = task.lane;
+
+        if (lane == null) {
+            // executed by caller thread or discarded.
+            return;
+        }
+
+        Task<?> next = null;
+
+        synchronized (this) {
+            next = lane.queue.poll();
+
+            if (next == null) {
+                lane.runningCount--;
+
+                if (lane.key instanceof Connection && lane.runningCount == 0) {
+                    laneMap.remove(lane.key);
+                }
+            } else {
+                queueSize--;
+            }
+        }
+
+        if (next != null) {
+            start(asyncExecutor.getExecutorService(), next);
+        }
+    }
+
+    private void scheduleTimeout(final Task<?> task, final long timeout) {
+        task.timer = TIMER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                timeout(task, timeout);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    private void timeout(final Task<?> task, final long timeout) {
+        if (task.isDone()) {
+            return;
+        }
+
+        boolean isQueued = false;
+
+        synchronized (this) {
+            final Lane lane = task.lane;
+
+            // the executions on a Connection are not timed out until they're started.
+            if (lane != null && lane.queue.remove(task)) {
+                queueSize--;
+                isQueued = true;
+            }
+        }
+
+        if (isQueued) {
+            task.fail(new TimeoutException("Not started in " + timeout + " milliseconds"));
+        } else {
+            task.cancelStatement();
+        }
+
+        synchronized (stats) {
+            stats.timeoutCount++;
+        }
+    }
+
+    private static final class Lane {
+        private final Object key;
+        private final int maxConcurrency;
+        private final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+        private int runningCount = 0;
+
+        Lane(final Object key, final int maxConcurrency) {
+            this.key = key;
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    private final class Task<T> extends FutureTask<T> {
+        private final long submitTime = System.nanoTime();
+        private Lane lane;
+        private long sequence;
+        private volatile ScheduledFuture<?> timer;
+        private long timeoutOnStart = 0;
+        // guarded by this.
+        private Statement stmt;
+        private boolean isStarted = false;
+        private boolean isTimedOut = false;
+        private volatile boolean isFailed = false;
+
+        Task(final Callable<T> command) {
+            super(command);
+        }
+
+        @Override
+        public void run() {
+            final long startTime = System.nanoTime();
+            boolean isTimedOut = false;
+
+            synchronized (this) {
+                isTimedOut = this.isTimedOut;
+                isStarted = isTimedOut == false;
+            }
+
+            if (isStarted == false || isDone()) {
+                // timed out after it's polled from the queue, or cancelled.
+                if (isTimedOut) {
+                    fail(new TimeoutException("Not started in " + AsyncSQLDispatcher.this.timeout + " milliseconds"));
+                }
+
+                complete(this);
+                return;
+            }
+
+            if (timeoutOnStart > 0) {
+                scheduleTimeout(this, timeoutOnStart);
+            }
+
+            currentTask.set(this);
+
+            try {
+                super.run();
+            } finally {
+                currentTask.remove();
+
+                synchronized (this) {
+                    stmt = null;
+                }
+
+                if (timer != null) {
+                    timer.cancel(false);
+                }
+
+                final long endTime = System.nanoTime();
+
+                synchronized (stats) {
+                    stats.queueTime.record(startTime - submitTime);
+                    stats.executionTime.record(endTime - startTime);
+                    stats.executionCount++;
+
+                    if (isFailed || isCancelled()) {
+                        stats.errorCount++;
+                    }
+                }
+
+                complete(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean result = super.cancel(mayInterruptIfRunning);
+
+            if (result) {
+                cancelStatement();
+            }
+
+            return result;
+        }
+
+        @Override
+        protected void setException(final Throwable e) {
+            isFailed = true;
+
+            super.setException(e);
+        }
+
+        void fail(final Throwable e) {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+
+            setException(e);
+        }
+
+        synchronized void bind(final Statement stmt) {
+            this.stmt = stmt;
+
+            if (isTimedOut) {
+                cancel(stmt);
+            }
+        }
+
+        synchronized void cancelStatement() {
+            isTimedOut = true;
+
+            if (isStarted && stmt != null) {
+                cancel(stmt);
+            }
+        }
+
+        private void cancel(final Statement stmt) {
+            try {
+                stmt.cancel();
+            } catch (Throwable e) {
+                logger.warn("Failed to cancel statement", e);
+            }
+        }
+    }
+
+    /**
+     * The statistics of {@code AsyncSQLDispatcher}. The time is in nanoseconds.
+     */
+    public static final class Stats {
+        private final Histogram queueTime = new Histogram(PRECISION_BITS);
+        private final Histogram executionTime = new Histogram(PRECISION_BITS);
+        private long executionCount = 0;
+        private long errorCount = 0;
+        private long rejectedCount = 0;
+        private long timeoutCount = 0;
+
+        Stats copy() {
+            final Stats copy = new Stats();
+            copy.queueTime.add(queueTime);
+            copy.executionTime.add(executionTime);
+            copy.executionCount = executionCount;
+            copy.errorCount = errorCount;
+            copy.rejectedCount = rejectedCount;
+            copy.timeoutCount = timeoutCount;
+
+            return copy;
+        }
+
+        /**
+         * The time from the submission to the start of execution.
+         *
+         * @return
+         */
+        public Histogram getQueueTime() {
+            return queueTime;
+        }
+
+        public Histogram getExecutionTime() {
+            return executionTime;
+        }
+
+        public long getExecutionCount() {
+            return executionCount;
+        }
+
+        /**
+         * The number of executions which are failed or cancelled.
+         *
+         * @return
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        @Override
+        public String toString() {
+            return "{executionCount=" + executionCount + ", errorCount=" + errorCount + ", rejectedCount=" + rejectedCount + ", timeoutCount="
+                    + timeoutCount + ", avgQueueTime=" + toMillis(queueTime.getMean()) + ", p99QueueTime=" + toMillis(queueTime.getValueAtPercentile(99))
+                    + ", avgExecutionTime=" + toMillis(executionTime.getMean()) + ", p99ExecutionTime=" + toMillis(executionTime.getValueAtPercentile(99))
+                    + "}";
+        }
+
+        private static double toMillis(final double nanos) {
+            return nanos / 1000000;
+        }
+    }
+}
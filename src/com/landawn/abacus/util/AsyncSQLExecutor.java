@@ -15,6 +15,7 @@
 package com.landawn.abacus.util;
 
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -27,7 +28,8 @@ import com.landawn.abacus.util.SQLExecutor.StatementSetter;
 import com.landawn.abacus.util.stream.Stream;
 
 /**
- * Asynchronous <code>SQLExecutor</code>.
+ * Asynchronous <code>SQLExecutor</code>. The executions are dispatched by {@link AsyncSQLDispatcher},
+ * which limits the concurrent executions by <code>DataSource</code> and executes the ones on the same <code>Connection</code> in order.
  * 
  * @since 0.8
  * 
@@ -38,10 +40,12 @@ public final class AsyncSQLExecutor {
 
     private final SQLExecutor sqlExecutor;
     private final AsyncExecutor asyncExecutor;
+    private final AsyncSQLDispatcher dispatcher;
 
     AsyncSQLExecutor(final SQLExecutor sqlExecutor, final AsyncExecutor asyncExecutor) {
         this.sqlExecutor = sqlExecutor;
         this.asyncExecutor = asyncExecutor;
+        this.dispatcher = new AsyncSQLDispatcher(sqlExecutor, asyncExecutor);
     }
 
     public SQLExecutor sync() {
@@ -52,9 +56,18 @@ public final class AsyncSQLExecutor {
         return asyncExecutor;
     }
 
+    /**
+     * Returns the dispatcher to set the queue size, rejection policy, timeout and get the statistics of the executions.
+     *
+     * @return
+     */
+    public AsyncSQLDispatcher dispatcher() {
+        return dispatcher;
+    }
+
     @SafeVarargs
     public final <T> CompletableFuture<T> insert(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.insert(sql, parameters);
@@ -64,7 +77,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<T> insert(final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.insert(sql, statementSetter, parameters);
@@ -75,7 +88,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> insert(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.insert(sql, statementSetter, jdbcSettings, parameters);
@@ -85,7 +98,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<T> insert(final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.insert(conn, sql, parameters);
@@ -95,7 +108,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<T> insert(final Connection conn, final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.insert(conn, sql, statementSetter, parameters);
@@ -109,7 +122,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> insert(final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.insert(conn, sql, statementSetter, jdbcSettings, parameters);
@@ -118,7 +131,7 @@ public final class AsyncSQLExecutor {
     }
 
     <T> CompletableFuture<List<T>> batchInsert(final String sql, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, Arrays.asList(batchParameters), null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(sql, batchParameters);
@@ -127,7 +140,7 @@ public final class AsyncSQLExecutor {
     }
 
     <T> CompletableFuture<List<T>> batchInsert(final String sql, final StatementSetter statementSetter, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, Arrays.asList(batchParameters), null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(sql, statementSetter, batchParameters);
@@ -137,7 +150,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<List<T>> batchInsert(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, Arrays.asList(batchParameters), jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(sql, statementSetter, jdbcSettings, batchParameters);
@@ -146,7 +159,7 @@ public final class AsyncSQLExecutor {
     }
 
     <T> CompletableFuture<List<T>> batchInsert(final Connection conn, final String sql, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, Arrays.asList(batchParameters), null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(conn, sql, batchParameters);
@@ -155,7 +168,7 @@ public final class AsyncSQLExecutor {
     }
 
     <T> CompletableFuture<List<T>> batchInsert(final Connection conn, final String sql, final StatementSetter statementSetter, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, Arrays.asList(batchParameters), null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(conn, sql, statementSetter, batchParameters);
@@ -165,7 +178,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<List<T>> batchInsert(final Connection conn, final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, Arrays.asList(batchParameters), jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(conn, sql, statementSetter, jdbcSettings, batchParameters);
@@ -174,7 +187,7 @@ public final class AsyncSQLExecutor {
     }
 
     public <T> CompletableFuture<List<T>> batchInsert(final String sql, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, batchParameters, null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(sql, batchParameters);
@@ -183,7 +196,7 @@ public final class AsyncSQLExecutor {
     }
 
     public <T> CompletableFuture<List<T>> batchInsert(final String sql, final StatementSetter statementSetter, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, batchParameters, null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(sql, statementSetter, batchParameters);
@@ -193,7 +206,7 @@ public final class AsyncSQLExecutor {
 
     public <T> CompletableFuture<List<T>> batchInsert(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, batchParameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(sql, statementSetter, jdbcSettings, batchParameters);
@@ -202,7 +215,7 @@ public final class AsyncSQLExecutor {
     }
 
     public <T> CompletableFuture<List<T>> batchInsert(final Connection conn, final String sql, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, batchParameters, null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(conn, sql, batchParameters);
@@ -212,7 +225,7 @@ public final class AsyncSQLExecutor {
 
     public <T> CompletableFuture<List<T>> batchInsert(final Connection conn, final String sql, final StatementSetter statementSetter,
             final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, batchParameters, null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(conn, sql, statementSetter, batchParameters);
@@ -222,7 +235,7 @@ public final class AsyncSQLExecutor {
 
     public <T> CompletableFuture<List<T>> batchInsert(final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, batchParameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.batchInsert(conn, sql, statementSetter, jdbcSettings, batchParameters);
@@ -232,7 +245,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Integer> update(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.update(sql, parameters);
@@ -242,7 +255,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Integer> update(final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.update(sql, statementSetter, parameters);
@@ -253,7 +266,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<Integer> update(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.update(sql, statementSetter, jdbcSettings, parameters);
@@ -263,7 +276,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Integer> update(final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.update(conn, sql, parameters);
@@ -273,7 +286,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Integer> update(final Connection conn, final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.update(conn, sql, statementSetter, parameters);
@@ -284,7 +297,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<Integer> update(final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.update(conn, sql, statementSetter, jdbcSettings, parameters);
@@ -293,7 +306,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<Integer> batchUpdate(final String sql, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, Arrays.asList(batchParameters), null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(sql, batchParameters);
@@ -302,7 +315,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<Integer> batchUpdate(final String sql, final StatementSetter statementSetter, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, Arrays.asList(batchParameters), null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(sql, statementSetter, batchParameters);
@@ -312,7 +325,7 @@ public final class AsyncSQLExecutor {
 
     CompletableFuture<Integer> batchUpdate(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, Arrays.asList(batchParameters), jdbcSettings, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(sql, statementSetter, jdbcSettings, batchParameters);
@@ -321,7 +334,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<Integer> batchUpdate(final Connection conn, final String sql, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, Arrays.asList(batchParameters), null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(conn, sql, batchParameters);
@@ -330,7 +343,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<Integer> batchUpdate(final Connection conn, final String sql, final StatementSetter statementSetter, final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, Arrays.asList(batchParameters), null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(conn, sql, statementSetter, batchParameters);
@@ -340,7 +353,7 @@ public final class AsyncSQLExecutor {
 
     CompletableFuture<Integer> batchUpdate(final Connection conn, final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object[] batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, Arrays.asList(batchParameters), jdbcSettings, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(conn, sql, statementSetter, jdbcSettings, batchParameters);
@@ -349,7 +362,7 @@ public final class AsyncSQLExecutor {
     }
 
     public CompletableFuture<Integer> batchUpdate(final String sql, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, batchParameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(sql, batchParameters);
@@ -358,7 +371,7 @@ public final class AsyncSQLExecutor {
     }
 
     public CompletableFuture<Integer> batchUpdate(final String sql, final StatementSetter statementSetter, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, batchParameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(sql, statementSetter, batchParameters);
@@ -368,7 +381,7 @@ public final class AsyncSQLExecutor {
 
     public CompletableFuture<Integer> batchUpdate(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, batchParameters, jdbcSettings, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(sql, statementSetter, jdbcSettings, batchParameters);
@@ -377,7 +390,7 @@ public final class AsyncSQLExecutor {
     }
 
     public CompletableFuture<Integer> batchUpdate(final Connection conn, final String sql, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, batchParameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(conn, sql, batchParameters);
@@ -387,7 +400,7 @@ public final class AsyncSQLExecutor {
 
     public CompletableFuture<Integer> batchUpdate(final Connection conn, final String sql, final StatementSetter statementSetter,
             final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, batchParameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(conn, sql, statementSetter, batchParameters);
@@ -397,7 +410,7 @@ public final class AsyncSQLExecutor {
 
     public CompletableFuture<Integer> batchUpdate(final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final List<?> batchParameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, batchParameters, jdbcSettings, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.batchUpdate(conn, sql, statementSetter, jdbcSettings, batchParameters);
@@ -407,7 +420,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Boolean> exists(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Boolean>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Boolean>() {
             @Override
             public Boolean call() throws Exception {
                 return sqlExecutor.exists(sql, parameters);
@@ -417,7 +430,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Boolean> exists(final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Boolean>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Boolean>() {
             @Override
             public Boolean call() throws Exception {
                 return sqlExecutor.exists(conn, sql, parameters);
@@ -427,7 +440,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Integer> count(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.count(sql, parameters);
@@ -437,7 +450,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Integer> count(final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Integer>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return sqlExecutor.count(conn, sql, parameters);
@@ -447,7 +460,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<T> get(final Class<T> targetClass, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.get(targetClass, sql, parameters);
@@ -458,7 +471,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> get(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.get(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -468,7 +481,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<T> get(final Class<T> targetClass, final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.get(targetClass, conn, sql, parameters);
@@ -479,7 +492,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> get(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.get(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -489,7 +502,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> gett(final Class<T> targetClass, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.gett(targetClass, sql, parameters);
@@ -500,7 +513,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> gett(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.gett(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -510,7 +523,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> gett(final Class<T> targetClass, final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.gett(targetClass, conn, sql, parameters);
@@ -521,7 +534,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> gett(final Class<T> targetClass, final Connection conn, final String sql,
             final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.gett(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -531,7 +544,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> find(final Class<T> targetClass, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.find(targetClass, sql, parameters);
@@ -542,7 +555,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> find(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.find(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -552,7 +565,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> find(final Class<T> targetClass, final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.find(targetClass, conn, sql, parameters);
@@ -563,7 +576,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> find(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.find(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -574,7 +587,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final String sql, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, sql, jdbcSettings, parameters);
@@ -585,7 +598,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -595,7 +608,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final Connection conn, final String sql, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, conn, sql, jdbcSettings, parameters);
@@ -605,7 +618,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -616,7 +629,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final List<String> sqls, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, sqls, jdbcSettings, parameters);
@@ -627,7 +640,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final List<String> sqls, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, sqls, statementSetter, jdbcSettings, parameters);
@@ -637,7 +650,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, conn, sqls, jdbcSettings, parameters);
@@ -647,7 +660,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<List<T>> findAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<List<T>>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<List<T>>() {
             @Override
             public List<T> call() throws Exception {
                 return sqlExecutor.findAll(targetClass, conn, sqls, statementSetter, jdbcSettings, parameters);
@@ -657,7 +670,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalBoolean> queryForBoolean(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalBoolean>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalBoolean>() {
             @Override
             public OptionalBoolean call() throws Exception {
                 return sqlExecutor.queryForBoolean(sql, parameters);
@@ -667,7 +680,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalChar> queryForChar(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalChar>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalChar>() {
             @Override
             public OptionalChar call() throws Exception {
                 return sqlExecutor.queryForChar(sql, parameters);
@@ -677,7 +690,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalByte> queryForByte(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalByte>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalByte>() {
             @Override
             public OptionalByte call() throws Exception {
                 return sqlExecutor.queryForByte(sql, parameters);
@@ -687,7 +700,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalShort> queryForShort(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalShort>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalShort>() {
             @Override
             public OptionalShort call() throws Exception {
                 return sqlExecutor.queryForShort(sql, parameters);
@@ -697,7 +710,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalInt> queryForInt(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalInt>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalInt>() {
             @Override
             public OptionalInt call() throws Exception {
                 return sqlExecutor.queryForInt(sql, parameters);
@@ -707,7 +720,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalLong> queryForLong(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalLong>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalLong>() {
             @Override
             public OptionalLong call() throws Exception {
                 return sqlExecutor.queryForLong(sql, parameters);
@@ -717,7 +730,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalFloat> queryForFloat(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalFloat>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalFloat>() {
             @Override
             public OptionalFloat call() throws Exception {
                 return sqlExecutor.queryForFloat(sql, parameters);
@@ -727,7 +740,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<OptionalDouble> queryForDouble(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<OptionalDouble>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<OptionalDouble>() {
             @Override
             public OptionalDouble call() throws Exception {
                 return sqlExecutor.queryForDouble(sql, parameters);
@@ -737,7 +750,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Nullable<String>> queryForString(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Nullable<String>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Nullable<String>>() {
             @Override
             public Nullable<String> call() throws Exception {
                 return sqlExecutor.queryForString(sql, parameters);
@@ -747,7 +760,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<Nullable<T>> queryForSingleResult(final Class<T> targetClass, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Nullable<T>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Nullable<T>>() {
             @Override
             public Nullable<T> call() throws Exception {
                 return sqlExecutor.queryForSingleResult(targetClass, sql, parameters);
@@ -758,7 +771,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Nullable<T>> queryForSingleResult(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Nullable<T>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Nullable<T>>() {
             @Override
             public Nullable<T> call() throws Exception {
                 return sqlExecutor.queryForSingleResult(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -769,7 +782,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Nullable<T>> queryForSingleResult(final Class<T> targetClass, final Connection conn, final String sql,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Nullable<T>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Nullable<T>>() {
             @Override
             public Nullable<T> call() throws Exception {
                 return sqlExecutor.queryForSingleResult(targetClass, conn, sql, parameters);
@@ -780,7 +793,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Nullable<T>> queryForSingleResult(final Class<T> targetClass, final Connection conn, final String sql,
             final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Nullable<T>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Nullable<T>>() {
             @Override
             public Nullable<T> call() throws Exception {
                 return sqlExecutor.queryForSingleResult(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -827,7 +840,7 @@ public final class AsyncSQLExecutor {
     //
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> queryForEntity(final Class<T> targetClass, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.queryForEntity(targetClass, sql, parameters);
@@ -838,7 +851,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> queryForEntity(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.queryForEntity(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -849,7 +862,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> queryForEntity(final Class<T> targetClass, final Connection conn, final String sql,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.queryForEntity(targetClass, conn, sql, parameters);
@@ -860,7 +873,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Optional<T>> queryForEntity(final Class<T> targetClass, final Connection conn, final String sql,
             final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Optional<T>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Optional<T>>() {
             @Override
             public Optional<T> call() throws Exception {
                 return sqlExecutor.queryForEntity(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -870,7 +883,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<DataSet> query(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.query(sql, parameters);
@@ -880,7 +893,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<DataSet> query(final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.query(sql, statementSetter, parameters);
@@ -891,7 +904,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> query(final String sql, final StatementSetter statementSetter, final ResultSetExtractor<T> resultSetExtractor,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.query(sql, statementSetter, resultSetExtractor, parameters);
@@ -902,7 +915,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> query(final String sql, final StatementSetter statementSetter, final ResultSetExtractor<T> resultSetExtractor,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.query(sql, statementSetter, resultSetExtractor, jdbcSettings, parameters);
@@ -912,7 +925,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<DataSet> query(final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.query(conn, sql, parameters);
@@ -922,7 +935,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<DataSet> query(final Connection conn, final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.query(conn, sql, statementSetter, parameters);
@@ -933,7 +946,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> query(final Connection conn, final String sql, final StatementSetter statementSetter,
             final ResultSetExtractor<T> resultSetExtractor, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.query(conn, sql, statementSetter, resultSetExtractor, parameters);
@@ -944,7 +957,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<T> query(final Connection conn, final String sql, final StatementSetter statementSetter,
             final ResultSetExtractor<T> resultSetExtractor, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<T>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<T>() {
             @Override
             public T call() throws Exception {
                 return sqlExecutor.query(conn, sql, statementSetter, resultSetExtractor, jdbcSettings, parameters);
@@ -954,7 +967,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<DataSet> queryAll(final String sql, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(sql, jdbcSettings, parameters);
@@ -965,7 +978,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<DataSet> queryAll(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(sql, statementSetter, jdbcSettings, parameters);
@@ -974,7 +987,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<DataSet> queryAll(final Connection conn, final String sql, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(conn, sql, jdbcSettings, parameters);
@@ -984,7 +997,7 @@ public final class AsyncSQLExecutor {
 
     CompletableFuture<DataSet> queryAll(final Connection conn, final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(conn, sql, statementSetter, jdbcSettings, parameters);
@@ -994,7 +1007,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<DataSet> queryAll(final List<String> sqls, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(sqls, jdbcSettings, parameters);
@@ -1005,7 +1018,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<DataSet> queryAll(final List<String> sqls, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(sqls, statementSetter, jdbcSettings, parameters);
@@ -1014,7 +1027,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<DataSet> queryAll(final Connection conn, final List<String> sqls, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(conn, sqls, jdbcSettings, parameters);
@@ -1024,7 +1037,7 @@ public final class AsyncSQLExecutor {
 
     CompletableFuture<DataSet> queryAll(final Connection conn, final List<String> sqls, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<DataSet>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<DataSet>() {
             @Override
             public DataSet call() throws Exception {
                 return sqlExecutor.queryAll(conn, sqls, statementSetter, jdbcSettings, parameters);
@@ -1034,7 +1047,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> stream(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.stream(sql, parameters);
@@ -1044,7 +1057,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> stream(final String sql, final StatementSetter statementSetter, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.stream(sql, statementSetter, parameters);
@@ -1064,7 +1077,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> stream(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.stream(sql, statementSetter, jdbcSettings, parameters);
@@ -1073,7 +1086,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<Try<Stream<Object[]>>> stream(final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.stream(conn, sql, parameters);
@@ -1083,7 +1096,7 @@ public final class AsyncSQLExecutor {
 
     CompletableFuture<Try<Stream<Object[]>>> stream(final Connection conn, final String sql, final StatementSetter statementSetter,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.stream(conn, sql, statementSetter, parameters);
@@ -1103,7 +1116,7 @@ public final class AsyncSQLExecutor {
      */
     CompletableFuture<Try<Stream<Object[]>>> stream(final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.stream(conn, sql, statementSetter, jdbcSettings, parameters);
@@ -1113,7 +1126,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> streamAll(final String sql, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(sql, jdbcSettings, parameters);
@@ -1133,7 +1146,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> streamAll(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(sql, statementSetter, jdbcSettings, parameters);
@@ -1142,7 +1155,7 @@ public final class AsyncSQLExecutor {
     }
 
     CompletableFuture<Try<Stream<Object[]>>> streamAll(final Connection conn, final String sql, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(conn, sql, jdbcSettings, parameters);
@@ -1163,7 +1176,7 @@ public final class AsyncSQLExecutor {
      */
     CompletableFuture<Try<Stream<Object[]>>> streamAll(final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(conn, sql, statementSetter, jdbcSettings, parameters);
@@ -1173,7 +1186,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> streamAll(final List<String> sqls, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(sqls, jdbcSettings, parameters);
@@ -1193,7 +1206,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final CompletableFuture<Try<Stream<Object[]>>> streamAll(final List<String> sqls, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(sqls, statementSetter, jdbcSettings, parameters);
@@ -1203,7 +1216,7 @@ public final class AsyncSQLExecutor {
 
     CompletableFuture<Try<Stream<Object[]>>> streamAll(final Connection conn, final List<String> sqls, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(conn, sqls, jdbcSettings, parameters);
@@ -1224,7 +1237,7 @@ public final class AsyncSQLExecutor {
      */
     CompletableFuture<Try<Stream<Object[]>>> streamAll(final Connection conn, final List<String> sqls, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<Object[]>>>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<Object[]>>>() {
             @Override
             public Try<Stream<Object[]>> call() throws Exception {
                 return sqlExecutor.streamAll(conn, sqls, statementSetter, jdbcSettings, parameters);
@@ -1234,7 +1247,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> stream(final Class<T> targetClass, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.stream(targetClass, sql, parameters);
@@ -1245,7 +1258,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> stream(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.stream(targetClass, sql, statementSetter, parameters);
@@ -1265,7 +1278,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> stream(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.stream(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -1274,7 +1287,7 @@ public final class AsyncSQLExecutor {
     }
 
     <T> CompletableFuture<Try<Stream<T>>> stream(final Class<T> targetClass, final Connection conn, final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.stream(targetClass, conn, sql, parameters);
@@ -1284,7 +1297,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<Try<Stream<T>>> stream(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, sql, parameters, null, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.stream(targetClass, conn, sql, statementSetter, parameters);
@@ -1304,7 +1317,7 @@ public final class AsyncSQLExecutor {
      */
     <T> CompletableFuture<Try<Stream<T>>> stream(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.stream(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -1315,7 +1328,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final String sql, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, sql, jdbcSettings, parameters);
@@ -1335,7 +1348,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, sql, parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, sql, statementSetter, jdbcSettings, parameters);
@@ -1345,7 +1358,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final Connection conn, final String sql, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, conn, sql, jdbcSettings, parameters);
@@ -1366,7 +1379,7 @@ public final class AsyncSQLExecutor {
      */
     <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, sql, parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, conn, sql, statementSetter, jdbcSettings, parameters);
@@ -1377,7 +1390,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final List<String> sqls, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, sqls, jdbcSettings, parameters);
@@ -1397,7 +1410,7 @@ public final class AsyncSQLExecutor {
     @SafeVarargs
     public final <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final List<String> sqls, final StatementSetter statementSetter,
             final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(null, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, sqls, statementSetter, jdbcSettings, parameters);
@@ -1407,7 +1420,7 @@ public final class AsyncSQLExecutor {
 
     <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final JdbcSettings jdbcSettings,
             final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, conn, sqls, jdbcSettings, parameters);
@@ -1428,7 +1441,7 @@ public final class AsyncSQLExecutor {
      */
     <T> CompletableFuture<Try<Stream<T>>> streamAll(final Class<T> targetClass, final Connection conn, final List<String> sqls,
             final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Try<Stream<T>>>() {
+        return dispatcher.execute(conn, firstSQL(sqls), parameters, jdbcSettings, new Callable<Try<Stream<T>>>() {
             @Override
             public Try<Stream<T>> call() throws Exception {
                 return sqlExecutor.streamAll(targetClass, conn, sqls, statementSetter, jdbcSettings, parameters);
@@ -1438,7 +1451,7 @@ public final class AsyncSQLExecutor {
 
     @SafeVarargs
     public final CompletableFuture<Void> execute(final String sql, final Object... parameters) {
-        return asyncExecutor.execute(new Callable<Void>() {
+        return dispatcher.execute(null, sql, parameters, null, new Callable<Void>() {
             @Override
             public Void call() throws Exception {
                 sqlExecutor.execute(sql, parameters);
@@ -1447,6 +1460,10 @@ public final class AsyncSQLExecutor {
         });
     }
 
+    private static String firstSQL(final List<String> sqls) {
+        return N.isNullOrEmpty(sqls) ? null : sqls.get(0);
+    }
+
     //    public CompletableFuture<Integer> executeUpdate(final String sql, final Object... parameters) {
     //        return asyncExecutor.execute(new Callable<Integer>() {
     //            @Override
@@ -43,6 +43,29 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
         return N.isNullOrEmpty(a) ? EMPTY_BOOLEAN_MATRIX : new BooleanMatrix(a);
     }
 
+    /**
+     * Creates a matrix with the elements in <code>data</code>, which are stored row by row: 
+     * the element at <code>(i, j)</code> is <code>data[i * cols + j]</code>. Each row is copied with one array copy.
+     *
+     * @param data
+     * @param rows
+     * @param cols
+     * @return
+     * @throws IllegalArgumentException if <code>rows * cols</code> is not equal to the length of <code>data</code>.
+     */
+    public static BooleanMatrix ofFlat(final boolean[] data, final int rows, final int cols) {
+        N.checkArgument(rows >= 0 && cols >= 0 && (long) rows * cols == data.length, "Illegal matrix dimensions: rows=%s, cols=%s, data length=%s",
+                rows, cols, data.length);
+
+        final boolean[][] c = new boolean[rows][];
+
+        for (int i = 0; i < rows; i++) {
+            c[i] = N.copyOfRange(data, i * cols, (i + 1) * cols);
+        }
+
+        return new BooleanMatrix(c);
+    }
+
     public static BooleanMatrix random(final int len) {
         return new BooleanMatrix(new boolean[][] { BooleanList.random(len).array() });
     }
@@ -269,40 +292,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
 
     public <E extends Exception> void updateAll(final Try.BooleanUnaryOperator<E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.applyAsBoolean(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.applyAsBoolean(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.applyAsBoolean(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.applyAsBoolean(a[i][j]);
-                    }
+                    a[i][j] = func.applyAsBoolean(a[i][j]);
                 }
             }
         }
@@ -315,37 +316,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
      */
     public <E extends Exception> void updateAll(final Try.IntBiFunction<Boolean, E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.apply(i, j);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.apply(i, j);
-                    }
+                    a[i][j] = func.apply(i, j);
                 }
             }
         }
@@ -353,37 +335,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
 
     public <E extends Exception> void replaceIf(final Try.BooleanPredicate<E> predicate, final boolean newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                 }
             }
         }
@@ -397,37 +360,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
      */
     public <E extends Exception> void replaceIf(final Try.IntBiPredicate<E> predicate, final boolean newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                 }
             }
         }
@@ -437,37 +381,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
         final boolean[][] c = new boolean[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.applyAsBoolean(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.applyAsBoolean(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.applyAsBoolean(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.applyAsBoolean(a[i][j]);
-                    }
+                    c[i][j] = func.applyAsBoolean(a[i][j]);
                 }
             }
         }
@@ -483,37 +408,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
         }
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.apply(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.apply(a[i][j]);
-                    }
+                    c[i][j] = func.apply(a[i][j]);
                 }
             }
         }
@@ -747,16 +653,13 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
     public BooleanMatrix transpose() {
         final boolean[][] c = new boolean[cols][rows];
 
-        if (rows <= cols) {
-            for (int j = 0; j < rows; j++) {
-                for (int i = 0; i < cols; i++) {
-                    c[i][j] = a[j][i];
-                }
-            }
-        } else {
-            for (int i = 0; i < cols; i++) {
-                for (int j = 0; j < rows; j++) {
-                    c[i][j] = a[j][i];
+        // transposes block by block, so the rows read from and the rows written to stay in cache.
+        for (int ii = 0; ii < rows; ii += BLOCK_SIZE) {
+            for (int jj = 0; jj < cols; jj += BLOCK_SIZE) {
+                for (int i = ii, iEnd = N.min(rows, ii + BLOCK_SIZE); i < iEnd; i++) {
+                    for (int j = jj, jEnd = N.min(cols, jj + BLOCK_SIZE); j < jEnd; j++) {
+                        c[j][i] = a[i][j];
+                    }
                 }
             }
         }
@@ -779,11 +682,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
                 N.copy(a0, i * newCols, c[i], 0, (int) N.min(newCols, count - i * newCols));
             }
         } else {
-            long cnt = 0;
+            // copies the elements segment by segment. A segment is where a row of this matrix overlaps a row of the new matrix.
+            int srcRow = 0, srcCol = 0, segLen = 0;
 
             for (int i = 0, len = (int) N.min(newRows, count % newCols == 0 ? count / newCols : count / newCols + 1); i < len; i++) {
-                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j++, cnt++) {
-                    c[i][j] = a[(int) (cnt / this.cols)][(int) (cnt % this.cols)];
+                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j += segLen) {
+                    segLen = N.min(col - j, cols - srcCol);
+                    N.copy(a[srcRow], srcCol, c[i], j, segLen);
+
+                    if ((srcCol += segLen) == cols) {
+                        srcRow++;
+                        srcCol = 0;
+                    }
                 }
             }
         }
@@ -905,17 +815,9 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
     public Matrix<Boolean> boxed() {
         final Boolean[][] c = new Boolean[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -929,40 +831,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
         final boolean[][] b = matrixB.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                 }
             }
         }
@@ -979,40 +859,18 @@ public final class BooleanMatrix extends AbstractMatrix<boolean[], BooleanList,
         final boolean[][] c = matrixC.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                 }
             }
         }
@@ -46,6 +46,29 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         return N.isNullOrEmpty(a) ? EMPTY_BYTE_MATRIX : new ByteMatrix(a);
     }
 
+    /**
+     * Creates a matrix with the elements in <code>data</code>, which are stored row by row: 
+     * the element at <code>(i, j)</code> is <code>data[i * cols + j]</code>. Each row is copied with one array copy.
+     *
+     * @param data
+     * @param rows
+     * @param cols
+     * @return
+     * @throws IllegalArgumentException if <code>rows * cols</code> is not equal to the length of <code>data</code>.
+     */
+    public static ByteMatrix ofFlat(final byte[] data, final int rows, final int cols) {
+        N.checkArgument(rows >= 0 && cols >= 0 && (long) rows * cols == data.length, "Illegal matrix dimensions: rows=%s, cols=%s, data length=%s",
+                rows, cols, data.length);
+
+        final byte[][] c = new byte[rows][];
+
+        for (int i = 0; i < rows; i++) {
+            c[i] = N.copyOfRange(data, i * cols, (i + 1) * cols);
+        }
+
+        return new ByteMatrix(c);
+    }
+
     public static ByteMatrix random(final int len) {
         return new ByteMatrix(new byte[][] { ByteList.random(len).array() });
     }
@@ -288,40 +311,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
 
     public <E extends Exception> void updateAll(final Try.ByteUnaryOperator<E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.applyAsByte(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.applyAsByte(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.applyAsByte(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.applyAsByte(a[i][j]);
-                    }
+                    a[i][j] = func.applyAsByte(a[i][j]);
                 }
             }
         }
@@ -334,40 +335,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
      */
     public <E extends Exception> void updateAll(final Try.IntBiFunction<Byte, E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.apply(i, j);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.apply(i, j);
-                    }
+                    a[i][j] = func.apply(i, j);
                 }
             }
         }
@@ -375,40 +354,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
 
     public <E extends Exception> void replaceIf(final Try.BytePredicate<E> predicate, final byte newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                 }
             }
         }
@@ -422,40 +379,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
      */
     public <E extends Exception> void replaceIf(final Try.IntBiPredicate<E> predicate, final byte newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                 }
             }
         }
@@ -465,40 +400,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         final byte[][] c = new byte[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.applyAsByte(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.applyAsByte(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.applyAsByte(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.applyAsByte(a[i][j]);
-                    }
+                    c[i][j] = func.applyAsByte(a[i][j]);
                 }
             }
         }
@@ -514,40 +427,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         }
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.apply(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.apply(a[i][j]);
-                    }
+                    c[i][j] = func.apply(a[i][j]);
                 }
             }
         }
@@ -781,16 +672,13 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
     public ByteMatrix transpose() {
         final byte[][] c = new byte[cols][rows];
 
-        if (rows <= cols) {
-            for (int j = 0; j < rows; j++) {
-                for (int i = 0; i < cols; i++) {
-                    c[i][j] = a[j][i];
-                }
-            }
-        } else {
-            for (int i = 0; i < cols; i++) {
-                for (int j = 0; j < rows; j++) {
-                    c[i][j] = a[j][i];
+        // transposes block by block, so the rows read from and the rows written to stay in cache.
+        for (int ii = 0; ii < rows; ii += BLOCK_SIZE) {
+            for (int jj = 0; jj < cols; jj += BLOCK_SIZE) {
+                for (int i = ii, iEnd = N.min(rows, ii + BLOCK_SIZE); i < iEnd; i++) {
+                    for (int j = jj, jEnd = N.min(cols, jj + BLOCK_SIZE); j < jEnd; j++) {
+                        c[j][i] = a[i][j];
+                    }
                 }
             }
         }
@@ -813,11 +701,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
                 N.copy(a0, i * newCols, c[i], 0, (int) N.min(newCols, count - i * newCols));
             }
         } else {
-            long cnt = 0;
+            // copies the elements segment by segment. A segment is where a row of this matrix overlaps a row of the new matrix.
+            int srcRow = 0, srcCol = 0, segLen = 0;
 
             for (int i = 0, len = (int) N.min(newRows, count % newCols == 0 ? count / newCols : count / newCols + 1); i < len; i++) {
-                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j++, cnt++) {
-                    c[i][j] = a[(int) (cnt / this.cols)][(int) (cnt % this.cols)];
+                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j += segLen) {
+                    segLen = N.min(col - j, cols - srcCol);
+                    N.copy(a[srcRow], srcCol, c[i], j, segLen);
+
+                    if ((srcCol += segLen) == cols) {
+                        srcRow++;
+                        srcCol = 0;
+                    }
                 }
             }
         }
@@ -942,40 +837,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         final byte[][] c = new byte[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int i) {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = (byte) (a[i][j] + b.a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new IntConsumer() {
-
-                    @Override
-                    public void accept(final int j) {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = (byte) (a[i][j] + b.a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int i) {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = (byte) (a[i][j] + b.a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = (byte) (a[i][j] + b.a[i][j]);
-                    }
+                    c[i][j] = (byte) (a[i][j] + b.a[i][j]);
                 }
             }
         }
@@ -989,40 +862,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         final byte[][] c = new byte[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int i) {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = (byte) (a[i][j] - b.a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new IntConsumer() {
-
-                    @Override
-                    public void accept(final int j) {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = (byte) (a[i][j] - b.a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int i) {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = (byte) (a[i][j] - b.a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = (byte) (a[i][j] - b.a[i][j]);
-                    }
+                    c[i][j] = (byte) (a[i][j] - b.a[i][j]);
                 }
             }
         }
@@ -1115,9 +966,7 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         } else {
             if (N.min(rows, cols, b.cols) == rows) {
                 if (N.min(cols, b.cols) == cols) {
-                    for (
-
-                            int i = 0; i < rows; i++) {
+                    for (int i = 0; i < rows; i++) {
                         for (int k = 0; k < cols; k++) {
                             for (int j = 0; j < b.cols; j++) {
                                 c[i][j] += a[i][k] * a2[k][j];
@@ -1178,17 +1027,9 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
     public Matrix<Byte> boxed() {
         final Byte[][] c = new Byte[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -1202,17 +1043,9 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
     public LongMatrix toLongMatrix() {
         final long[][] c = new long[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -1222,17 +1055,9 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
     public FloatMatrix toFloatMatrix() {
         final float[][] c = new float[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -1242,17 +1067,9 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
     public DoubleMatrix toDoubleMatrix() {
         final double[][] c = new double[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -1266,40 +1083,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         final byte[][] b = matrixB.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                 }
             }
         }
@@ -1316,40 +1111,18 @@ public final class ByteMatrix extends AbstractMatrix<byte[], ByteList, ByteStrea
         final byte[][] c = matrixC.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (
-
-                        int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                 }
             }
         }
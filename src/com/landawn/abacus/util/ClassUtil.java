@@ -28,6 +28,11 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -108,6 +113,8 @@ import com.landawn.abacus.util.Tuple.Tuple6;
 import com.landawn.abacus.util.Tuple.Tuple7;
 import com.landawn.abacus.util.Tuple.Tuple8;
 import com.landawn.abacus.util.Tuple.Tuple9;
+import com.landawn.abacus.util.function.BiConsumer;
+import com.landawn.abacus.util.function.Function;
 
 /**
  * 
@@ -384,6 +391,10 @@ public final class ClassUtil {
     private static final Map<Class<?>, Map<String, List<Method>>> entityInlinePropGetMethodPool = new ObjectPool<>(POOL_SIZE);
     private static final Map<Class<?>, Map<String, List<Method>>> entityInlinePropSetMethodPool = new ObjectPool<>(POOL_SIZE);
 
+    // the accessors compiled for the property get/set methods. created once for each method and used by getPropValue/setPropValue.
+    private static final Map<Method, Function<Object, Object>> propGetterPool = new ObjectPool<>(POOL_SIZE);
+    private static final Map<Method, BiConsumer<Object, Object>> propSetterPool = new ObjectPool<>(POOL_SIZE);
+
     // ...
     private static final Map<String, String> formalizedPropNamePool = new ObjectPool<>(POOL_SIZE * 2);
     private static final Map<Method, String> methodPropNamePool = new ObjectPool<>(POOL_SIZE * 2);
@@ -1753,11 +1764,7 @@ public final class ClassUtil {
      */
     @SuppressWarnings("unchecked")
     public static <T> T getPropValue(final Object entity, final Method propGetMethod) {
-        try {
-            return (T) propGetMethod.invoke(entity);
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            throw N.toRuntimeException(e);
-        }
+        return (T) getPropGetter(propGetMethod).apply(entity);
     }
 
     /**
@@ -1775,16 +1782,15 @@ public final class ClassUtil {
      * @param propValue
      */
     public static void setPropValue(final Object entity, final Method propSetMethod, Object propValue) {
+        final BiConsumer<Object, Object> setter = getPropSetter(propSetMethod);
+
         try {
-            propSetMethod.invoke(entity, propValue);
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            setter.accept(entity, propValue);
+        } catch (Exception e) {
+            // ClassCastException/NullPointerException by the compiled setter, or IllegalArgumentException by Method.invoke.
             propValue = N.as(ParserUtil.getEntityInfo(entity.getClass()).getPropInfo(propSetMethod.getName()).type, propValue);
 
-            try {
-                propSetMethod.invoke(entity, propValue);
-            } catch (IllegalAccessException | InvocationTargetException e2) {
-                throw N.toRuntimeException(e);
-            }
+            setter.accept(entity, propValue);
         }
     }
 
@@ -1794,7 +1800,7 @@ public final class ClassUtil {
             return;
         }
 
-        final Object rt = invokeMethod(entity, propGetMethod);
+        final Object rt = getPropValue(entity, propGetMethod);
 
         if (rt instanceof Collection) {
             ((Collection<?>) rt).addAll((Collection) propValue);
@@ -1805,6 +1811,143 @@ public final class ClassUtil {
         }
     }
 
+    /**
+     * Returns the getter compiled for the specified property get method, which is created the first time and cached.
+     * <br />
+     * It's spun by {@code LambdaMetafactory} and calls the method directly, without the access check, argument array and exception wrapping
+     * of {@code Method.invoke}. It falls back to {@code Method.invoke} if the method can't be linked from this class:
+     * the method or its declaring class is not public, the declaring class is not visible from the class loader of this class, or on Android.
+     *
+     * @param propGetMethod
+     * @return
+     */
+    static Function<Object, Object> getPropGetter(final Method propGetMethod) {
+        Function<Object, Object> getter = propGetterPool.get(propGetMethod);
+
+        if (getter == null) {
+            if (isLinkable(propGetMethod)) {
+                try {
+                    getter = PropAccessorFactory.createGetter(propGetMethod);
+                } catch (Throwable e) {
+                    logger.warn("Failed to compile getter for method: " + propGetMethod + ". Method.invoke will be used", e);
+                }
+            }
+
+            if (getter == null) {
+                getter = new Function<Object, Object>() {
+                    @Override
+                    public Object apply(Object entity) {
+                        try {
+                            return propGetMethod.invoke(entity);
+                        } catch (IllegalAccessException | InvocationTargetException e) {
+                            throw N.toRuntimeException(e);
+                        }
+                    }
+                };
+            }
+
+            // it doesn't matter if the getter is created more than once by different threads.
+            propGetterPool.put(propGetMethod, getter);
+        }
+
+        return getter;
+    }
+
+    /**
+     * Returns the setter compiled for the specified property set method. Refer to {@link #getPropGetter(Method)}.
+     * <br />
+     * No type conversion is done by the setter. {@code ClassCastException}, or {@code IllegalArgumentException} by {@code Method.invoke},
+     * is thrown if the type of the value doesn't match the parameter type, and {@code NullPointerException} if null is set to a primitive property.
+     *
+     * @param propSetMethod
+     * @return
+     */
+    static BiConsumer<Object, Object> getPropSetter(final Method propSetMethod) {
+        BiConsumer<Object, Object> setter = propSetterPool.get(propSetMethod);
+
+        if (setter == null) {
+            if (isLinkable(propSetMethod)) {
+                try {
+                    setter = PropAccessorFactory.createSetter(propSetMethod);
+                } catch (Throwable e) {
+                    logger.warn("Failed to compile setter for method: " + propSetMethod + ". Method.invoke will be used", e);
+                }
+            }
+
+            if (setter == null) {
+                setter = new BiConsumer<Object, Object>() {
+                    @Override
+                    public void accept(Object entity, Object propValue) {
+                        try {
+                            propSetMethod.invoke(entity, propValue);
+                        } catch (IllegalAccessException | InvocationTargetException e) {
+                            throw N.toRuntimeException(e);
+                        }
+                    }
+                };
+            }
+
+            propSetterPool.put(propSetMethod, setter);
+        }
+
+        return setter;
+    }
+
+    /**
+     * The class spun by {@code LambdaMetafactory} is defined in the class loader of this class, and calls the method directly.
+     * So it only works if the method and the types in its signature are accessible from this class.
+     *
+     * @param method
+     * @return
+     */
+    private static boolean isLinkable(final Method method) {
+        // LambdaMetafactory is not available on Android.
+        if (IOUtil.IS_PLATFORM_ANDROID || !Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())
+                || !Modifier.isPublic(method.getDeclaringClass().getModifiers()) || !isVisible(method.getDeclaringClass())) {
+            return false;
+        }
+
+        if (!(void.class.equals(method.getReturnType()) || isVisible(method.getReturnType()))) {
+            return false;
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isVisible(final Class<?> cls) {
+        if (cls.isPrimitive()) {
+            return true;
+        }
+
+        final Class<?> componentType = cls.isArray() ? getArrayComponentType(cls) : cls;
+
+        if (componentType.isPrimitive()) {
+            return true;
+        } else if (!Modifier.isPublic(componentType.getModifiers())) {
+            return false;
+        }
+
+        try {
+            return Class.forName(componentType.getName(), false, ClassUtil.class.getClassLoader()) == componentType;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static Class<?> getArrayComponentType(Class<?> cls) {
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+
+        return cls;
+    }
+
     /**
      * Refer to getPropValue(Method, Object)
      *
@@ -2230,6 +2373,43 @@ public final class ClassUtil {
     //        return method;
     //    }
 
+    /**
+     * Separated from {@code ClassUtil} so the {@code java.lang.invoke} classes are not loaded on Android.
+     */
+    static final class PropAccessorFactory {
+        private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        private static final MethodType getterFactoryType = MethodType.methodType(Function.class);
+        private static final MethodType setterFactoryType = MethodType.methodType(BiConsumer.class);
+        private static final MethodType getterErasedType = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType setterErasedType = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private PropAccessorFactory() {
+            // singleton.
+        }
+
+        @SuppressWarnings("unchecked")
+        static Function<Object, Object> createGetter(final Method method) throws Throwable {
+            final MethodHandle implMethod = lookup.unreflect(method);
+            // the primitive value returned by the method is boxed by the spun class.
+            final MethodType instantiatedType = MethodType.methodType(method.getReturnType(), method.getDeclaringClass());
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", getterFactoryType, getterErasedType, implMethod, instantiatedType);
+
+            return (Function<Object, Object>) callSite.getTarget().invokeExact();
+        }
+
+        @SuppressWarnings("unchecked")
+        static BiConsumer<Object, Object> createSetter(final Method method) throws Throwable {
+            final MethodHandle implMethod = lookup.unreflect(method);
+            final Class<?> parameterType = method.getParameterTypes()[0];
+            // cast to the wrapper type and then unboxed for primitive parameter. The value returned by fluent setter is discarded.
+            final MethodType instantiatedType = MethodType.methodType(void.class, method.getDeclaringClass(),
+                    parameterType.isPrimitive() ? N.PRIMITIVE_2_WRAPPER.get(parameterType) : parameterType);
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", setterFactoryType, setterErasedType, implMethod, instantiatedType);
+
+            return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+        }
+    }
+
     static final class ClassMask {
         static final String FIELD_MASK = "FIELD_MASK";
 
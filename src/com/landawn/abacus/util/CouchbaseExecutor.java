@@ -1699,7 +1699,7 @@ public final class CouchbaseExecutor implements Closeable {
                         throw new IllegalArgumentException("Parameter for property '" + parameterName + "' is missed");
                     }
 
-                    values[i] = ClassUtil.invokeMethod(entity, propGetMethod);
+                    values[i] = ClassUtil.getPropValue(entity, propGetMethod);
                 }
             }
         } else if ((parameters.length == 1) && (parameters[0] != null)) {
@@ -46,6 +46,29 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         return N.isNullOrEmpty(a) ? EMPTY_DOUBLE_MATRIX : new DoubleMatrix(a);
     }
 
+    /**
+     * Creates a matrix with the elements in <code>data</code>, which are stored row by row: 
+     * the element at <code>(i, j)</code> is <code>data[i * cols + j]</code>. Each row is copied with one array copy.
+     *
+     * @param data
+     * @param rows
+     * @param cols
+     * @return
+     * @throws IllegalArgumentException if <code>rows * cols</code> is not equal to the length of <code>data</code>.
+     */
+    public static DoubleMatrix ofFlat(final double[] data, final int rows, final int cols) {
+        N.checkArgument(rows >= 0 && cols >= 0 && (long) rows * cols == data.length, "Illegal matrix dimensions: rows=%s, cols=%s, data length=%s",
+                rows, cols, data.length);
+
+        final double[][] c = new double[rows][];
+
+        for (int i = 0; i < rows; i++) {
+            c[i] = N.copyOfRange(data, i * cols, (i + 1) * cols);
+        }
+
+        return new DoubleMatrix(c);
+    }
+
     @SafeVarargs
     public static DoubleMatrix from(final int[]... a) {
         if (N.isNullOrEmpty(a)) {
@@ -323,37 +346,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
 
     public <E extends Exception> void updateAll(final Try.DoubleUnaryOperator<E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.applyAsDouble(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.applyAsDouble(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.applyAsDouble(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.applyAsDouble(a[i][j]);
-                    }
+                    a[i][j] = func.applyAsDouble(a[i][j]);
                 }
             }
         }
@@ -366,37 +370,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
      */
     public <E extends Exception> void updateAll(final Try.IntBiFunction<Double, E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.apply(i, j);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.apply(i, j);
-                    }
+                    a[i][j] = func.apply(i, j);
                 }
             }
         }
@@ -404,37 +389,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
 
     public <E extends Exception> void replaceIf(final Try.DoublePredicate<E> predicate, final double newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                 }
             }
         }
@@ -448,37 +414,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
      */
     public <E extends Exception> void replaceIf(final Try.IntBiPredicate<E> predicate, final double newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                 }
             }
         }
@@ -488,37 +435,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         final double[][] c = new double[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.applyAsDouble(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.applyAsDouble(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.applyAsDouble(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.applyAsDouble(a[i][j]);
-                    }
+                    c[i][j] = func.applyAsDouble(a[i][j]);
                 }
             }
         }
@@ -534,37 +462,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         }
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.apply(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.apply(a[i][j]);
-                    }
+                    c[i][j] = func.apply(a[i][j]);
                 }
             }
         }
@@ -798,16 +707,13 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
     public DoubleMatrix transpose() {
         final double[][] c = new double[cols][rows];
 
-        if (rows <= cols) {
-            for (int j = 0; j < rows; j++) {
-                for (int i = 0; i < cols; i++) {
-                    c[i][j] = a[j][i];
-                }
-            }
-        } else {
-            for (int i = 0; i < cols; i++) {
-                for (int j = 0; j < rows; j++) {
-                    c[i][j] = a[j][i];
+        // transposes block by block, so the rows read from and the rows written to stay in cache.
+        for (int ii = 0; ii < rows; ii += BLOCK_SIZE) {
+            for (int jj = 0; jj < cols; jj += BLOCK_SIZE) {
+                for (int i = ii, iEnd = N.min(rows, ii + BLOCK_SIZE); i < iEnd; i++) {
+                    for (int j = jj, jEnd = N.min(cols, jj + BLOCK_SIZE); j < jEnd; j++) {
+                        c[j][i] = a[i][j];
+                    }
                 }
             }
         }
@@ -830,11 +736,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
                 N.copy(a0, i * newCols, c[i], 0, (int) N.min(newCols, count - i * newCols));
             }
         } else {
-            long cnt = 0;
+            // copies the elements segment by segment. A segment is where a row of this matrix overlaps a row of the new matrix.
+            int srcRow = 0, srcCol = 0, segLen = 0;
 
             for (int i = 0, len = (int) N.min(newRows, count % newCols == 0 ? count / newCols : count / newCols + 1); i < len; i++) {
-                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j++, cnt++) {
-                    c[i][j] = a[(int) (cnt / this.cols)][(int) (cnt % this.cols)];
+                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j += segLen) {
+                    segLen = N.min(col - j, cols - srcCol);
+                    N.copy(a[srcRow], srcCol, c[i], j, segLen);
+
+                    if ((srcCol += segLen) == cols) {
+                        srcRow++;
+                        srcCol = 0;
+                    }
                 }
             }
         }
@@ -959,37 +872,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         final double[][] c = new double[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int i) {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = a[i][j] + b.a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int j) {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = a[i][j] + b.a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int i) {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = a[i][j] + b.a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = a[i][j] + b.a[i][j];
-                    }
+                    c[i][j] = a[i][j] + b.a[i][j];
                 }
             }
         }
@@ -1003,37 +897,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         final double[][] c = new double[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int i) {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = a[i][j] - b.a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int j) {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = a[i][j] - b.a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int i) {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = a[i][j] - b.a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = a[i][j] - b.a[i][j];
-                    }
+                    c[i][j] = a[i][j] - b.a[i][j];
                 }
             }
         }
@@ -1041,9 +916,87 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         return new DoubleMatrix(c);
     }
 
+    /**
+     * Multiplies the matrices block by block after <code>b</code> is transposed, so both of the operands are read row by row in the inner loop,
+     * and the blocks of <code>a</code> and <code>b</code> involved in the computation stay in cache.
+     * The row blocks are computed in parallel if this matrix is big enough.
+     *
+     * @param b
+     * @return
+     */
+    private DoubleMatrix multiplyBlocked(final DoubleMatrix b) {
+        final double[][] bt = b.transpose().a;
+        final double[][] c = new double[rows][b.cols];
+        final int rowBlocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        if (isParallelable(b.cols) && rowBlocks > 1) {
+            IntStream.range(0, rowBlocks).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int rowBlock) {
+                    multiplyBlock(a, bt, c, rowBlock * BLOCK_SIZE, N.min(rows, (rowBlock + 1) * BLOCK_SIZE));
+                }
+            });
+        } else {
+            for (int rowBlock = 0; rowBlock < rowBlocks; rowBlock++) {
+                multiplyBlock(a, bt, c, rowBlock * BLOCK_SIZE, N.min(rows, (rowBlock + 1) * BLOCK_SIZE));
+            }
+        }
+
+        return new DoubleMatrix(c);
+    }
+
+    private static void multiplyBlock(final double[][] a, final double[][] bt, final double[][] c, final int fromRow, final int toRow) {
+        final int n = bt.length == 0 ? 0 : bt[0].length;
+        final int m = bt.length;
+        double[] ai = null, btj = null;
+        double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int k = 0;
+
+        for (int kk = 0; kk < n; kk += BLOCK_SIZE) {
+            final int kEnd = N.min(n, kk + BLOCK_SIZE);
+
+            for (int jj = 0; jj < m; jj += BLOCK_SIZE) {
+                final int jEnd = N.min(m, jj + BLOCK_SIZE);
+
+                for (int i = fromRow; i < toRow; i++) {
+                    ai = a[i];
+
+                    for (int j = jj; j < jEnd; j++) {
+                        btj = bt[j];
+                        sum0 = sum1 = sum2 = sum3 = 0;
+
+                        for (k = kk; k < kEnd - 3; k += 4) {
+                            sum0 += ai[k] * btj[k];
+                            sum1 += ai[k + 1] * btj[k + 1];
+                            sum2 += ai[k + 2] * btj[k + 2];
+                            sum3 += ai[k + 3] * btj[k + 3];
+                        }
+
+                        for (; k < kEnd; k++) {
+                            sum0 += ai[k] * btj[k];
+                        }
+
+                        c[i][j] += sum0 + sum1 + sum2 + sum3;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The matrices are multiplied block by block if <code>rows * cols * b.cols</code> is bigger than {@code 64 ^ 3}.
+     * The result may be slightly different from the one calculated by the naive triple loop, because the products are summed in different order.
+     *
+     * @param b
+     * @return
+     */
     public DoubleMatrix multiply(final DoubleMatrix b) {
         N.checkArgument(this.cols == b.rows, "Illegal matrix dimensions");
 
+        if ((long) rows * cols * b.cols > MIN_SIZE_FOR_BLOCKED_MULTIPLY) {
+            return multiplyBlocked(b);
+        }
+
         final double[][] c = new double[rows][b.cols];
         final double[][] a2 = b.a;
 
@@ -1185,17 +1138,9 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
     public Matrix<Double> boxed() {
         final Double[][] c = new Double[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -1209,37 +1154,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         final double[][] b = matrixB.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                 }
             }
         }
@@ -1256,37 +1182,18 @@ public final class DoubleMatrix extends AbstractMatrix<double[], DoubleList, Dou
         final double[][] c = matrixC.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                 }
             }
         }
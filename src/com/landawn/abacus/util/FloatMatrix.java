@@ -46,6 +46,29 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         return N.isNullOrEmpty(a) ? EMPTY_FLOAT_MATRIX : new FloatMatrix(a);
     }
 
+    /**
+     * Creates a matrix with the elements in <code>data</code>, which are stored row by row: 
+     * the element at <code>(i, j)</code> is <code>data[i * cols + j]</code>. Each row is copied with one array copy.
+     *
+     * @param data
+     * @param rows
+     * @param cols
+     * @return
+     * @throws IllegalArgumentException if <code>rows * cols</code> is not equal to the length of <code>data</code>.
+     */
+    public static FloatMatrix ofFlat(final float[] data, final int rows, final int cols) {
+        N.checkArgument(rows >= 0 && cols >= 0 && (long) rows * cols == data.length, "Illegal matrix dimensions: rows=%s, cols=%s, data length=%s",
+                rows, cols, data.length);
+
+        final float[][] c = new float[rows][];
+
+        for (int i = 0; i < rows; i++) {
+            c[i] = N.copyOfRange(data, i * cols, (i + 1) * cols);
+        }
+
+        return new FloatMatrix(c);
+    }
+
     @SafeVarargs
     public static FloatMatrix from(final int[]... a) {
         if (N.isNullOrEmpty(a)) {
@@ -289,37 +312,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
 
     public <E extends Exception> void updateAll(final Try.FloatUnaryOperator<E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.applyAsFloat(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.applyAsFloat(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.applyAsFloat(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.applyAsFloat(a[i][j]);
-                    }
+                    a[i][j] = func.applyAsFloat(a[i][j]);
                 }
             }
         }
@@ -332,37 +336,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
      */
     public <E extends Exception> void updateAll(final Try.IntBiFunction<Float, E> func) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = func.apply(i, j);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = func.apply(i, j);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = func.apply(i, j);
-                    }
+                    a[i][j] = func.apply(i, j);
                 }
             }
         }
@@ -370,37 +355,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
 
     public <E extends Exception> void replaceIf(final Try.FloatPredicate<E> predicate, final float newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(a[i][j]) ? newValue : a[i][j];
                 }
             }
         }
@@ -414,37 +380,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
      */
     public <E extends Exception> void replaceIf(final Try.IntBiPredicate<E> predicate, final float newValue) throws E {
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
-                    }
+                    a[i][j] = predicate.test(i, j) ? newValue : a[i][j];
                 }
             }
         }
@@ -454,37 +401,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         final float[][] c = new float[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.applyAsFloat(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.applyAsFloat(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.applyAsFloat(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.applyAsFloat(a[i][j]);
-                    }
+                    c[i][j] = func.applyAsFloat(a[i][j]);
                 }
             }
         }
@@ -500,37 +428,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         }
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = func.apply(a[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = func.apply(a[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = func.apply(a[i][j]);
-                    }
+                    c[i][j] = func.apply(a[i][j]);
                 }
             }
         }
@@ -764,16 +673,13 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
     public FloatMatrix transpose() {
         final float[][] c = new float[cols][rows];
 
-        if (rows <= cols) {
-            for (int j = 0; j < rows; j++) {
-                for (int i = 0; i < cols; i++) {
-                    c[i][j] = a[j][i];
-                }
-            }
-        } else {
-            for (int i = 0; i < cols; i++) {
-                for (int j = 0; j < rows; j++) {
-                    c[i][j] = a[j][i];
+        // transposes block by block, so the rows read from and the rows written to stay in cache.
+        for (int ii = 0; ii < rows; ii += BLOCK_SIZE) {
+            for (int jj = 0; jj < cols; jj += BLOCK_SIZE) {
+                for (int i = ii, iEnd = N.min(rows, ii + BLOCK_SIZE); i < iEnd; i++) {
+                    for (int j = jj, jEnd = N.min(cols, jj + BLOCK_SIZE); j < jEnd; j++) {
+                        c[j][i] = a[i][j];
+                    }
                 }
             }
         }
@@ -796,11 +702,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
                 N.copy(a0, i * newCols, c[i], 0, (int) N.min(newCols, count - i * newCols));
             }
         } else {
-            long cnt = 0;
+            // copies the elements segment by segment. A segment is where a row of this matrix overlaps a row of the new matrix.
+            int srcRow = 0, srcCol = 0, segLen = 0;
 
             for (int i = 0, len = (int) N.min(newRows, count % newCols == 0 ? count / newCols : count / newCols + 1); i < len; i++) {
-                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j++, cnt++) {
-                    c[i][j] = a[(int) (cnt / this.cols)][(int) (cnt % this.cols)];
+                for (int j = 0, col = (int) N.min(newCols, count - i * newCols); j < col; j += segLen) {
+                    segLen = N.min(col - j, cols - srcCol);
+                    N.copy(a[srcRow], srcCol, c[i], j, segLen);
+
+                    if ((srcCol += segLen) == cols) {
+                        srcRow++;
+                        srcCol = 0;
+                    }
                 }
             }
         }
@@ -925,37 +838,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         final float[][] c = new float[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int i) {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = a[i][j] + b.a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int j) {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = a[i][j] + b.a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int i) {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = a[i][j] + b.a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = a[i][j] + b.a[i][j];
-                    }
+                    c[i][j] = a[i][j] + b.a[i][j];
                 }
             }
         }
@@ -969,37 +863,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         final float[][] c = new float[rows][cols];
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int i) {
-                        for (int j = 0; j < cols; j++) {
-                            c[i][j] = a[i][j] - b.a[i][j];
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new IntConsumer() {
-                    @Override
-                    public void accept(final int j) {
-                        for (int i = 0; i < rows; i++) {
-                            c[i][j] = a[i][j] - b.a[i][j];
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int i) {
                     for (int j = 0; j < cols; j++) {
                         c[i][j] = a[i][j] - b.a[i][j];
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        c[i][j] = a[i][j] - b.a[i][j];
-                    }
+                    c[i][j] = a[i][j] - b.a[i][j];
                 }
             }
         }
@@ -1007,9 +882,87 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         return new FloatMatrix(c);
     }
 
+    /**
+     * Multiplies the matrices block by block after <code>b</code> is transposed, so both of the operands are read row by row in the inner loop,
+     * and the blocks of <code>a</code> and <code>b</code> involved in the computation stay in cache.
+     * The row blocks are computed in parallel if this matrix is big enough.
+     *
+     * @param b
+     * @return
+     */
+    private FloatMatrix multiplyBlocked(final FloatMatrix b) {
+        final float[][] bt = b.transpose().a;
+        final float[][] c = new float[rows][b.cols];
+        final int rowBlocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        if (isParallelable(b.cols) && rowBlocks > 1) {
+            IntStream.range(0, rowBlocks).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int rowBlock) {
+                    multiplyBlock(a, bt, c, rowBlock * BLOCK_SIZE, N.min(rows, (rowBlock + 1) * BLOCK_SIZE));
+                }
+            });
+        } else {
+            for (int rowBlock = 0; rowBlock < rowBlocks; rowBlock++) {
+                multiplyBlock(a, bt, c, rowBlock * BLOCK_SIZE, N.min(rows, (rowBlock + 1) * BLOCK_SIZE));
+            }
+        }
+
+        return new FloatMatrix(c);
+    }
+
+    private static void multiplyBlock(final float[][] a, final float[][] bt, final float[][] c, final int fromRow, final int toRow) {
+        final int n = bt.length == 0 ? 0 : bt[0].length;
+        final int m = bt.length;
+        float[] ai = null, btj = null;
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int k = 0;
+
+        for (int kk = 0; kk < n; kk += BLOCK_SIZE) {
+            final int kEnd = N.min(n, kk + BLOCK_SIZE);
+
+            for (int jj = 0; jj < m; jj += BLOCK_SIZE) {
+                final int jEnd = N.min(m, jj + BLOCK_SIZE);
+
+                for (int i = fromRow; i < toRow; i++) {
+                    ai = a[i];
+
+                    for (int j = jj; j < jEnd; j++) {
+                        btj = bt[j];
+                        sum0 = sum1 = sum2 = sum3 = 0;
+
+                        for (k = kk; k < kEnd - 3; k += 4) {
+                            sum0 += ai[k] * btj[k];
+                            sum1 += ai[k + 1] * btj[k + 1];
+                            sum2 += ai[k + 2] * btj[k + 2];
+                            sum3 += ai[k + 3] * btj[k + 3];
+                        }
+
+                        for (; k < kEnd; k++) {
+                            sum0 += ai[k] * btj[k];
+                        }
+
+                        c[i][j] += sum0 + sum1 + sum2 + sum3;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The matrices are multiplied block by block if <code>rows * cols * b.cols</code> is bigger than {@code 64 ^ 3}.
+     * The result may be slightly different from the one calculated by the naive triple loop, because the products are summed in different order.
+     *
+     * @param b
+     * @return
+     */
     public FloatMatrix multiply(final FloatMatrix b) {
         N.checkArgument(this.cols == b.rows, "Illegal matrix dimensions");
 
+        if ((long) rows * cols * b.cols > MIN_SIZE_FOR_BLOCKED_MULTIPLY) {
+            return multiplyBlocked(b);
+        }
+
         final float[][] c = new float[rows][b.cols];
         final float[][] a2 = b.a;
 
@@ -1151,17 +1104,9 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
     public Matrix<Float> boxed() {
         final Float[][] c = new Float[rows][cols];
 
-        if (rows <= cols) {
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    c[i][j] = a[i][j];
-                }
-            }
-        } else {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                for (int i = 0; i < rows; i++) {
-                    c[i][j] = a[i][j];
-                }
+                c[i][j] = a[i][j];
             }
         }
 
@@ -1179,37 +1124,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         final float[][] b = matrixB.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j]);
                 }
             }
         }
@@ -1226,37 +1152,18 @@ public final class FloatMatrix extends AbstractMatrix<float[], FloatList, FloatS
         final float[][] c = matrixC.a;
 
         if (isParallelable()) {
-            if (rows <= cols) {
-                IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int i) throws E {
-                        for (int j = 0; j < cols; j++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            } else {
-                IntStream.range(0, cols).parallel().forEach(new Try.IntConsumer<E>() {
-                    @Override
-                    public void accept(final int j) throws E {
-                        for (int i = 0; i < rows; i++) {
-                            result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                        }
-                    }
-                });
-            }
-        } else {
-            if (rows <= cols) {
-                for (int i = 0; i < rows; i++) {
+            IntStream.range(0, rows).parallel().forEach(new Try.IntConsumer<E>() {
+                @Override
+                public void accept(final int i) throws E {
                     for (int j = 0; j < cols; j++) {
                         result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                     }
                 }
-            } else {
+            });
+        } else {
+            for (int i = 0; i < rows; i++) {
                 for (int j = 0; j < cols; j++) {
-                    for (int i = 0; i < rows; i++) {
-                        result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
-                    }
+                    result[i][j] = zipFunction.apply(a[i][j], b[i][j], c[i][j]);
                 }
             }
         }
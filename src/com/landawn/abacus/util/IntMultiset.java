@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.landawn.abacus.util.stream.IntStream;
+import com.landawn.abacus.util.stream.Stream;
+
+/**
+ * A multiset of primitive <code>int</code> elements, backed by {@link IntIntMap}. 
+ * Different from <code>Multiset&lt;Integer&gt;</code>, no <code>Integer</code> element or counter object is created for adding/counting an element.
+ * <br />
+ * <code>char/short/byte</code> elements can be counted by it as well.
+ * <br />
+ * It's not thread-safe.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class IntMultiset {
+    private final IntIntMap valueMap;
+
+    public IntMultiset() {
+        this(IntIntMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize the expected number of distinct elements.
+     */
+    public IntMultiset(final int expectedSize) {
+        this.valueMap = new IntIntMap(expectedSize);
+    }
+
+    public static IntMultiset of(final int... a) {
+        final IntMultiset multiset = new IntMultiset(a.length);
+        multiset.addAll(a);
+        return multiset;
+    }
+
+    /**
+     *
+     * @param e
+     * @return the occurrences of the specified element, or <code>0</code> if it's not in this multiset.
+     */
+    public int count(final int e) {
+        return valueMap.getOrDefault(e, 0);
+    }
+
+    public int occurrencesOf(final int e) {
+        return count(e);
+    }
+
+    public boolean contains(final int e) {
+        return valueMap.containsKey(e);
+    }
+
+    /**
+     *
+     * @param e
+     * @return always true
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Integer.MAX_VALUE.
+     */
+    public boolean add(final int e) throws IllegalArgumentException {
+        return add(e, 1);
+    }
+
+    /**
+     *
+     * @param e
+     * @param occurrences
+     * @return true if the specified occurrences is bigger than 0.
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Integer.MAX_VALUE.
+     */
+    public boolean add(final int e, final int occurrences) throws IllegalArgumentException {
+        addAndGet(e, occurrences);
+
+        return occurrences > 0;
+    }
+
+    /**
+     *
+     * @param e
+     * @param occurrences
+     * @return the occurrences of the element after this operation.
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Integer.MAX_VALUE.
+     */
+    public int addAndGet(final int e, final int occurrences) throws IllegalArgumentException {
+        checkOccurrences(occurrences);
+
+        if (occurrences == 0) {
+            return count(e);
+        }
+
+        final int newCount = valueMap.addAndGet(e, occurrences);
+
+        if (newCount < 0) {
+            valueMap.addAndGet(e, -occurrences);
+
+            throw new IllegalArgumentException("The total count is out of the bound of int");
+        }
+
+        return newCount;
+    }
+
+    /**
+     *
+     * @param a
+     * @return true if the specified array is not empty.
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Integer.MAX_VALUE.
+     */
+    public boolean addAll(final int[] a) throws IllegalArgumentException {
+        if (N.isNullOrEmpty(a)) {
+            return false;
+        }
+
+        for (int e : a) {
+            addAndGet(e, 1);
+        }
+
+        return true;
+    }
+
+    /**
+     *
+     * @param e
+     * @return true if this multiset contained the specified element.
+     */
+    public boolean remove(final int e) {
+        return remove(e, 1);
+    }
+
+    /**
+     * The element will be removed from this multiset if its occurrences is equal to or less than the specified <code>occurrences</code>.
+     *
+     * @param e
+     * @param occurrences
+     * @return true if this multiset contained the specified element and the specified occurrences is bigger than 0.
+     */
+    public boolean remove(final int e, final int occurrences) {
+        checkOccurrences(occurrences);
+
+        final int count = valueMap.getOrDefault(e, 0);
+
+        if (count == 0) {
+            return false;
+        }
+
+        if (count > occurrences) {
+            valueMap.put(e, count - occurrences);
+        } else {
+            valueMap.remove(e);
+        }
+
+        return occurrences > 0;
+    }
+
+    /**
+     *
+     * @param e
+     * @return the occurrences of the element before it's removed.
+     */
+    public int removeAllOccurrences(final int e) {
+        final int count = valueMap.getOrDefault(e, 0);
+
+        if (count > 0) {
+            valueMap.remove(e);
+        }
+
+        return count;
+    }
+
+    public long sumOfOccurrences() {
+        final IntIterator iter = valueMap.valueIterator();
+        long sum = 0;
+
+        while (iter.hasNext()) {
+            sum += iter.nextInt();
+        }
+
+        return sum;
+    }
+
+    /**
+     *
+     * @return the element with the minimum occurrences, and the occurrences: <code>(element, occurrences)</code>.
+     */
+    public Optional<IntPair> minOccurrences() {
+        return occurrences(false);
+    }
+
+    /**
+     *
+     * @return the element with the maximum occurrences, and the occurrences: <code>(element, occurrences)</code>.
+     */
+    public Optional<IntPair> maxOccurrences() {
+        return occurrences(true);
+    }
+
+    private Optional<IntPair> occurrences(final boolean max) {
+        if (valueMap.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final IntIterator keyIter = valueMap.keyIterator();
+        final IntIterator valueIter = valueMap.valueIterator();
+        int element = keyIter.nextInt();
+        int count = valueIter.nextInt();
+        int c = 0;
+
+        while (keyIter.hasNext()) {
+            if (max ? (c = valueIter.nextInt()) > count : (c = valueIter.nextInt()) < count) {
+                element = keyIter.nextInt();
+                count = c;
+            } else {
+                keyIter.nextInt();
+            }
+        }
+
+        return Optional.of(IntPair.of(element, count));
+    }
+
+    /**
+     * Returns the <code>n</code> most frequent elements with their occurrences: <code>(element, occurrences)</code>, 
+     * ordered from the most frequent to the least frequent. 
+     * It's done with a bounded heap of primitive arrays in <code>O(size * log(n))</code>, without boxing the elements/occurrences.
+     *
+     * @param n
+     * @return
+     */
+    public List<IntPair> top(final int n) {
+        N.checkArgument(n >= 0, "'n' can't be negative: %s", n);
+
+        final int len = N.min(n, valueMap.size());
+        final int[] heapElements = new int[len];
+        final int[] heapCounts = new int[len];
+        final IntIterator keyIter = valueMap.keyIterator();
+        final IntIterator valueIter = valueMap.valueIterator();
+        int heapSize = 0;
+        int e = 0, c = 0;
+
+        while (keyIter.hasNext() && len > 0) {
+            e = keyIter.nextInt();
+            c = valueIter.nextInt();
+
+            if (heapSize < len) {
+                siftUp(heapElements, heapCounts, heapSize++, e, c);
+            } else if (c > heapCounts[0]) {
+                siftDown(heapElements, heapCounts, heapSize, e, c);
+            }
+        }
+
+        final IntPair[] result = new IntPair[heapSize];
+
+        // the least frequent one is on the top of the heap.
+        while (heapSize > 0) {
+            e = heapElements[0];
+            c = heapCounts[0];
+
+            if (--heapSize > 0) {
+                siftDown(heapElements, heapCounts, heapSize, heapElements[heapSize], heapCounts[heapSize]);
+            }
+
+            result[heapSize] = IntPair.of(e, c);
+        }
+
+        return Arrays.asList(result);
+    }
+
+    /**
+     * 
+     * @return a stream of <code>(element, occurrences)</code>, ordered from the most frequent to the least frequent.
+     * @see #top(int)
+     */
+    public Stream<IntPair> streamSortedByOccurrences() {
+        return Stream.of(top(valueMap.size()));
+    }
+
+    /**
+     * 
+     * @return a stream of the distinct elements in this multiset.
+     */
+    public IntStream elements() {
+        return valueMap.keyStream();
+    }
+
+    /**
+     * Distinct elements number.
+     *
+     * @return
+     */
+    public int size() {
+        return valueMap.size();
+    }
+
+    public boolean isEmpty() {
+        return valueMap.isEmpty();
+    }
+
+    public void clear() {
+        valueMap.clear();
+    }
+
+    /**
+     * 
+     * @param action the first parameter is the element and the second one is the occurrences.
+     * @throws E
+     */
+    public <E extends Exception> void forEach(final Try.IntBiConsumer<E> action) throws E {
+        valueMap.forEach(action);
+    }
+
+    /**
+     * 
+     * @return a new <code>IntIntMap</code> with the elements and their occurrences in this multiset.
+     */
+    public IntIntMap toMap() {
+        final IntIntMap result = new IntIntMap(valueMap.size());
+
+        result.putAll(valueMap);
+
+        return result;
+    }
+
+    public IntMultiset copy() {
+        final IntMultiset copy = new IntMultiset(valueMap.size());
+
+        copy.valueMap.putAll(valueMap);
+
+        return copy;
+    }
+
+    @Override
+    public int hashCode() {
+        return valueMap.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj == this || (obj instanceof IntMultiset && valueMap.equals(((IntMultiset) obj).valueMap));
+    }
+
+    @Override
+    public String toString() {
+        return valueMap.toString();
+    }
+
+    private static void siftUp(final int[] heapElements, final int[] heapCounts, int idx, final int e, final int c) {
+        int parent = 0;
+
+        while (idx > 0) {
+            parent = (idx - 1) >>> 1;
+
+            if (heapCounts[parent] <= c) {
+                break;
+            }
+
+            heapElements[idx] = heapElements[parent];
+            heapCounts[idx] = heapCounts[parent];
+            idx = parent;
+        }
+
+        heapElements[idx] = e;
+        heapCounts[idx] = c;
+    }
+
+    /**
+     * Replaces the top of the heap with the specified element and occurrences.
+     */
+    private static void siftDown(final int[] heapElements, final int[] heapCounts, final int heapSize, final int e, final int c) {
+        final int half = heapSize >>> 1;
+        int idx = 0, child = 0;
+
+        while (idx < half) {
+            child = 2 * idx + 1;
+
+            if (child + 1 < heapSize && heapCounts[child + 1] < heapCounts[child]) {
+                child++;
+            }
+
+            if (c <= heapCounts[child]) {
+                break;
+            }
+
+            heapElements[idx] = heapElements[child];
+            heapCounts[idx] = heapCounts[child];
+            idx = child;
+        }
+
+        heapElements[idx] = e;
+        heapCounts[idx] = c;
+    }
+
+    private static void checkOccurrences(final int occurrences) {
+        if (occurrences < 0) {
+            throw new IllegalArgumentException("The specified 'occurrences' can not be less than 0");
+        }
+    }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.landawn.abacus.util.function.IntFunction;
+import com.landawn.abacus.util.stream.IntStream;
+import com.landawn.abacus.util.stream.Stream;
+
+/**
+ * A hash map with primitive <code>int</code> keys, implemented by open addressing with linear probing.
+ * No <code>Integer</code> key or entry object is created for a mapping.
+ * <br />
+ * It's not thread-safe and the iterators don't support concurrent modification.
+ *
+ * @param <V>
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class IntObjMap<V> {
+    // key 0 is used to mark free slot, so the mapping for key 0 is kept separately.
+    private boolean hasFreeKey = false;
+    private V freeValue;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    private int size = 0;
+
+    public IntObjMap() {
+        this(IntIntMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize the map won't be resized until the number of mappings reaches this size.
+     */
+    public IntObjMap(final int expectedSize) {
+        N.checkArgument(expectedSize >= 0, "'expectedSize' can't be negative: %s", expectedSize);
+
+        allocate(IntIntMap.tableSizeFor(expectedSize));
+    }
+
+    public static <V> IntObjMap<V> of(final int[] keys, final V[] values) {
+        final IntObjMap<V> map = new IntObjMap<>(keys.length);
+        map.putAll(keys, values);
+        return map;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final int key) {
+        return key == 0 ? hasFreeKey : indexOf(key) >= 0;
+    }
+
+    public boolean containsValue(final Object value) {
+        if (hasFreeKey && N.equals(freeValue, value)) {
+            return true;
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0 && N.equals(values[i], value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *
+     * @param key
+     * @return the value associated with the key, or <code>null</code> if there is no mapping for the key.
+     */
+    public V get(final int key) {
+        if (key == 0) {
+            return hasFreeKey ? freeValue : null;
+        }
+
+        final int idx = indexOf(key);
+
+        return idx >= 0 ? (V) values[idx] : null;
+    }
+
+    public V getOrDefault(final int key, final V defaultValue) {
+        if (key == 0) {
+            return hasFreeKey ? freeValue : defaultValue;
+        }
+
+        final int idx = indexOf(key);
+
+        return idx >= 0 ? (V) values[idx] : defaultValue;
+    }
+
+    /**
+     *
+     * @param key
+     * @param value
+     * @return the previous value associated with the key, or <code>null</code> if there was no mapping for the key.
+     */
+    public V put(final int key, final V value) {
+        if (key == 0) {
+            final V prev = freeValue;
+
+            if (hasFreeKey == false) {
+                hasFreeKey = true;
+                size++;
+            }
+
+            freeValue = value;
+            return prev;
+        }
+
+        int idx = slot(key);
+        int k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == key) {
+                final V prev = (V) values[idx];
+                values[idx] = value;
+                return prev;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        keys[idx] = key;
+        values[idx] = value;
+
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the value associated with the key. If there is no mapping for the key, 
+     * the value computed by the specified <code>mappingFunction</code> is put and returned.
+     *
+     * @param key
+     * @param mappingFunction
+     * @return
+     */
+    public V computeIfAbsent(final int key, final IntFunction<? extends V> mappingFunction) {
+        if (key == 0) {
+            if (hasFreeKey == false) {
+                put(key, mappingFunction.apply(key));
+            }
+
+            return freeValue;
+        }
+
+        final int idx = indexOf(key);
+
+        if (idx >= 0) {
+            return (V) values[idx];
+        }
+
+        final V value = mappingFunction.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     *
+     * @param keys
+     * @param values
+     * @throws IllegalArgumentException if the lengths of <code>keys</code> and <code>values</code> are different.
+     */
+    public void putAll(final int[] keys, final V[] values) {
+        N.checkArgument(keys.length == values.length, "The lengths of keys(%s) and values(%s) are different", keys.length, values.length);
+
+        ensureCapacity(size + keys.length);
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    public void putAll(final IntObjMap<? extends V> m) {
+        if (m.hasFreeKey) {
+            put(0, m.freeValue);
+        }
+
+        ensureCapacity(size + m.size);
+
+        for (int i = 0, len = m.keys.length; i < len; i++) {
+            if (m.keys[i] != 0) {
+                put(m.keys[i], (V) m.values[i]);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param key
+     * @return the previous value associated with the key, or <code>null</code> if there was no mapping for the key.
+     */
+    public V remove(final int key) {
+        if (key == 0) {
+            if (hasFreeKey) {
+                final V prev = freeValue;
+                hasFreeKey = false;
+                freeValue = null;
+                size--;
+                return prev;
+            }
+
+            return null;
+        }
+
+        final int idx = indexOf(key);
+
+        if (idx < 0) {
+            return null;
+        }
+
+        final V prev = (V) values[idx];
+        shiftKeys(idx);
+        size--;
+        return prev;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            N.fill(keys, 0);
+            N.fill(values, null);
+            hasFreeKey = false;
+            freeValue = null;
+            size = 0;
+        }
+    }
+
+    public IntIterator keyIterator() {
+        return new IntIterator() {
+            private final Itr itr = new Itr();
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                final int idx = itr.nextIndex();
+
+                return idx < 0 ? 0 : keys[idx];
+            }
+        };
+    }
+
+    public ObjIterator<V> valueIterator() {
+        return new ObjIterator<V>() {
+            private final Itr itr = new Itr();
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public V next() {
+                final int idx = itr.nextIndex();
+
+                return idx < 0 ? freeValue : (V) values[idx];
+            }
+        };
+    }
+
+    public int[] keys() {
+        final int[] result = new int[size];
+        int cursor = 0;
+
+        if (hasFreeKey) {
+            result[cursor++] = 0;
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                result[cursor++] = keys[i];
+            }
+        }
+
+        return result;
+    }
+
+    public List<V> values() {
+        final List<V> result = new ArrayList<>(size);
+
+        if (hasFreeKey) {
+            result.add(freeValue);
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                result.add((V) values[i]);
+            }
+        }
+
+        return result;
+    }
+
+    public IntStream keyStream() {
+        return IntStream.of(keyIterator());
+    }
+
+    public Stream<V> valueStream() {
+        return Stream.of(valueIterator());
+    }
+
+    /**
+     * Makes sure the map won't be resized until the number of mappings reaches <code>expectedSize</code>.
+     *
+     * @param expectedSize
+     */
+    public void ensureCapacity(final int expectedSize) {
+        if (expectedSize > threshold) {
+            rehash(IntIntMap.tableSizeFor(expectedSize));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hasFreeKey ? N.hashCode(freeValue) : 0;
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                h += N.hashCode(keys[i]) ^ N.hashCode(values[i]);
+            }
+        }
+
+        return h;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (obj instanceof IntObjMap) {
+            final IntObjMap<?> other = (IntObjMap<?>) obj;
+
+            if (size != other.size || hasFreeKey != other.hasFreeKey || (hasFreeKey && N.equals(freeValue, other.freeValue) == false)) {
+                return false;
+            }
+
+            int idx = 0;
+
+            for (int i = 0, len = keys.length; i < len; i++) {
+                if (keys[i] != 0) {
+                    if ((idx = other.indexOf(keys[i])) < 0 || N.equals(other.values[idx], values[i]) == false) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+
+        final StringBuilder sb = new StringBuilder(size * 16);
+        sb.append('{');
+
+        if (hasFreeKey) {
+            sb.append(0).append('=').append(N.toString(freeValue));
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+
+                sb.append(keys[i]).append('=').append(N.toString(values[i]));
+            }
+        }
+
+        sb.append('}');
+
+        return sb.toString();
+    }
+
+    private int indexOf(final int key) {
+        int idx = slot(key);
+        int k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == key) {
+                return idx;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int slot(final int key) {
+        return IntIntMap.mix(key) & mask;
+    }
+
+    /**
+     * Backward-shift deletion: moves the following entries of the same probe chain into the freed slot, so no tombstone is needed.
+     */
+    private void shiftKeys(int pos) {
+        int last = 0;
+        int k = 0;
+
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+
+            while (true) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+
+                final int s = slot(k);
+
+                if (last <= pos ? last >= s || s > pos : last >= s && s > pos) {
+                    break;
+                }
+
+                pos = (pos + 1) & mask;
+            }
+
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * IntIntMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    private void rehash(final int newCapacity) {
+        N.checkState(keys.length < IntIntMap.MAX_CAPACITY, "Too many elements: %s", size);
+
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+
+        allocate(newCapacity);
+
+        int idx = 0;
+
+        for (int i = 0, len = oldKeys.length; i < len; i++) {
+            if (oldKeys[i] != 0) {
+                idx = slot(oldKeys[i]);
+
+                while (keys[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+
+                keys[idx] = oldKeys[i];
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Iterates the slot indexes of the mappings. <code>-1</code> is returned for the mapping of key <code>0</code>.
+     */
+    private final class Itr {
+        private boolean freeKeyReturned = hasFreeKey == false;
+        private int cursor = 0;
+        private int cnt = 0;
+
+        boolean hasNext() {
+            return cnt < size;
+        }
+
+        int nextIndex() {
+            if (cnt >= size) {
+                throw new NoSuchElementException();
+            }
+
+            cnt++;
+
+            if (freeKeyReturned == false) {
+                freeKeyReturned = true;
+                return -1;
+            }
+
+            while (keys[cursor] == 0) {
+                cursor++;
+            }
+
+            return cursor++;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.NoSuchElementException;
+
+import com.landawn.abacus.util.stream.IntStream;
+
+/**
+ * A hash set of primitive <code>int</code> values, implemented by open addressing with linear probing.
+ * No <code>Integer</code> object is created for an element.
+ * <br />
+ * It's not thread-safe and the iterator doesn't support concurrent modification.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class IntSet {
+    // 0 is used to mark free slot, so whether 0 is in the set is kept separately.
+    private boolean hasFreeKey = false;
+
+    private int[] keys;
+    private int mask;
+    private int threshold;
+    private int size = 0;
+
+    public IntSet() {
+        this(IntIntMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize the set won't be resized until the number of elements reaches this size.
+     */
+    public IntSet(final int expectedSize) {
+        N.checkArgument(expectedSize >= 0, "'expectedSize' can't be negative: %s", expectedSize);
+
+        allocate(IntIntMap.tableSizeFor(expectedSize));
+    }
+
+    public static IntSet of(final int... a) {
+        final IntSet set = new IntSet(a.length);
+        set.addAll(a);
+        return set;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(final int e) {
+        return e == 0 ? hasFreeKey : indexOf(e) >= 0;
+    }
+
+    /**
+     *
+     * @param e
+     * @return <code>true</code> if the element was not in this set.
+     */
+    public boolean add(final int e) {
+        if (e == 0) {
+            if (hasFreeKey) {
+                return false;
+            }
+
+            hasFreeKey = true;
+            size++;
+            return true;
+        }
+
+        int idx = slot(e);
+        int k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == e) {
+                return false;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        keys[idx] = e;
+
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+
+        return true;
+    }
+
+    /**
+     *
+     * @param a
+     * @return <code>true</code> if this set is changed.
+     */
+    public boolean addAll(final int[] a) {
+        ensureCapacity(size + a.length);
+
+        boolean result = false;
+
+        for (int e : a) {
+            result |= add(e);
+        }
+
+        return result;
+    }
+
+    public boolean addAll(final IntSet s) {
+        ensureCapacity(size + s.size);
+
+        boolean result = s.hasFreeKey && add((int) 0);
+
+        for (int e : s.keys) {
+            if (e != 0) {
+                result |= add(e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *
+     * @param e
+     * @return <code>true</code> if the element was in this set.
+     */
+    public boolean remove(final int e) {
+        if (e == 0) {
+            if (hasFreeKey) {
+                hasFreeKey = false;
+                size--;
+                return true;
+            }
+
+            return false;
+        }
+
+        final int idx = indexOf(e);
+
+        if (idx < 0) {
+            return false;
+        }
+
+        shiftKeys(idx);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            N.fill(keys, (int) 0);
+            hasFreeKey = false;
+            size = 0;
+        }
+    }
+
+    public IntIterator iterator() {
+        return new IntIterator() {
+            private boolean freeKeyReturned = hasFreeKey == false;
+            private int cursor = 0;
+            private int cnt = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cnt < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (cnt >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                cnt++;
+
+                if (freeKeyReturned == false) {
+                    freeKeyReturned = true;
+                    return 0;
+                }
+
+                while (keys[cursor] == 0) {
+                    cursor++;
+                }
+
+                return keys[cursor++];
+            }
+        };
+    }
+
+    public int[] toArray() {
+        final int[] result = new int[size];
+        int cursor = 0;
+
+        if (hasFreeKey) {
+            result[cursor++] = 0;
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                result[cursor++] = keys[i];
+            }
+        }
+
+        return result;
+    }
+
+    public IntStream stream() {
+        return IntStream.of(iterator());
+    }
+
+    /**
+     * Makes sure the set won't be resized until the number of elements reaches <code>expectedSize</code>.
+     *
+     * @param expectedSize
+     */
+    public void ensureCapacity(final int expectedSize) {
+        if (expectedSize > threshold) {
+            rehash(IntIntMap.tableSizeFor(expectedSize));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                h += N.hashCode(keys[i]);
+            }
+        }
+
+        return h;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (obj instanceof IntSet) {
+            final IntSet other = (IntSet) obj;
+
+            if (size != other.size || hasFreeKey != other.hasFreeKey) {
+                return false;
+            }
+
+            for (int i = 0, len = keys.length; i < len; i++) {
+                if (keys[i] != 0 && other.indexOf(keys[i]) < 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return N.toString(toArray());
+    }
+
+    private int indexOf(final int e) {
+        int idx = slot(e);
+        int k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == e) {
+                return idx;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int slot(final int e) {
+        return IntIntMap.mix(e) & mask;
+    }
+
+    /**
+     * Backward-shift deletion: moves the following elements of the same probe chain into the freed slot, so no tombstone is needed.
+     */
+    private void shiftKeys(int pos) {
+        int last = 0;
+        int k = 0;
+
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+
+            while (true) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+
+                final int s = slot(k);
+
+                if (last <= pos ? last >= s || s > pos : last >= s && s > pos) {
+                    break;
+                }
+
+                pos = (pos + 1) & mask;
+            }
+
+            keys[last] = k;
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * IntIntMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    private void rehash(final int newCapacity) {
+        N.checkState(keys.length < IntIntMap.MAX_CAPACITY, "Too many elements: %s", size);
+
+        final int[] oldKeys = keys;
+
+        allocate(newCapacity);
+
+        int idx = 0;
+
+        for (int e : oldKeys) {
+            if (e != 0) {
+                idx = slot(e);
+
+                while (keys[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+
+                keys[idx] = e;
+            }
+        }
+    }
+}
@@ -118,10 +118,23 @@ public final class JdbcUtil {
         sqlStateForTableNotExists.add("42501"); // for HSQLDB.
     }
 
+    private static final SQLMetrics sqlMetrics = new SQLMetrics();
+
     private JdbcUtil() {
         // singleton
     }
 
+    /**
+     * Returns the execution statistics and slow queries of the sqls executed by {@code executeQuery/executeUpdate/executeBatchUpdate/execute} with sql.
+     * The executions of the {@code PreparedStatement} created by the caller are not recorded.
+     * It's shared by all the callers, disabled by default and can be enabled by {@code JdbcUtil.sqlMetrics().setEnabled(true)}.
+     *
+     * @return
+     */
+    public static SQLMetrics sqlMetrics() {
+        return sqlMetrics;
+    }
+
     public static DBVersion getDBVersion(final Connection conn) throws UncheckedSQLException {
         try {
             String dbProudctName = conn.getMetaData().getDatabaseProductName();
@@ -705,16 +718,25 @@ public final class JdbcUtil {
     public static DataSet executeQuery(final Connection conn, final String sql, final Object... parameters) throws UncheckedSQLException {
         PreparedStatement stmt = null;
         ResultSet rs = null;
+        final SQLMetrics.Recorder recorder = sqlMetrics.start(sql);
 
         try {
             stmt = prepareStatement(conn, sql, parameters);
+            recorder.prepared();
+
             rs = stmt.executeQuery();
+            recorder.executed();
 
-            return extractData(rs);
+            final DataSet result = extractData(rs);
+            recorder.fetched();
+            recorder.succeeded(result.size());
+
+            return result;
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         } finally {
             closeQuietly(rs, stmt);
+            recorder.close(parameters);
         }
     }
 
@@ -735,15 +757,22 @@ public final class JdbcUtil {
     @SafeVarargs
     public static int executeUpdate(final Connection conn, final String sql, final Object... parameters) throws UncheckedSQLException {
         PreparedStatement stmt = null;
+        final SQLMetrics.Recorder recorder = sqlMetrics.start(sql);
 
         try {
             stmt = prepareStatement(conn, sql, parameters);
+            recorder.prepared();
 
-            return stmt.executeUpdate();
+            final int result = stmt.executeUpdate();
+            recorder.executed();
+            recorder.succeeded(result);
+
+            return result;
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         } finally {
             closeQuietly(stmt);
+            recorder.close(parameters);
         }
     }
 
@@ -788,9 +817,11 @@ public final class JdbcUtil {
 
         final NamedSQL namedSQL = NamedSQL.parse(sql);
         PreparedStatement stmt = null;
+        final SQLMetrics.Recorder recorder = sqlMetrics.start(sql);
 
         try {
             stmt = conn.prepareStatement(namedSQL.getPureSQL());
+            recorder.prepared();
 
             int res = 0;
             int idx = 0;
@@ -810,26 +841,37 @@ public final class JdbcUtil {
                 stmt.clearBatch();
             }
 
+            recorder.executed();
+            recorder.succeeded(res);
+
             return res;
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         } finally {
             JdbcUtil.close(stmt);
+            recorder.close(null);
         }
     }
 
     @SafeVarargs
     public static boolean execute(final Connection conn, final String sql, final Object... parameters) throws UncheckedSQLException {
         PreparedStatement stmt = null;
+        final SQLMetrics.Recorder recorder = sqlMetrics.start(sql);
 
         try {
             stmt = prepareStatement(conn, sql, parameters);
+            recorder.prepared();
 
-            return stmt.execute();
+            final boolean result = stmt.execute();
+            recorder.executed();
+            recorder.succeeded(-1);
+
+            return result;
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         } finally {
             closeQuietly(stmt);
+            recorder.close(parameters);
         }
     }
 
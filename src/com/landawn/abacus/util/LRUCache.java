@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache which evicts the least recently used entry when it's full.
+ * <br />
+ * The entries are distributed to segments by the hash code of the key. Each segment is an access-ordered {@code LinkedHashMap} guarded by its own lock,
+ * so the threads accessing different segments don't block each other. The LRU order is kept in each segment,
+ * which is a close approximation of the global LRU order if the keys are well distributed.
+ * <br />
+ * The number of hits, misses and evictions are counted by {@code LongAdder}s, and returned by {@link #stats()}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class LRUCache<K, V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    // a segment smaller than it makes the LRU order too coarse.
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public LRUCache(final int capacity) {
+        this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     *
+     * @param capacity the max number of entries.
+     * @param concurrencyLevel the estimated number of threads which access the cache concurrently.
+     */
+    @SuppressWarnings("unchecked")
+    public LRUCache(final int capacity, final int concurrencyLevel) {
+        N.checkArgument(capacity > 0, "'capacity' must be bigger than 0: %s", capacity);
+        N.checkArgument(concurrencyLevel > 0, "'concurrencyLevel' must be bigger than 0: %s", concurrencyLevel);
+
+        int segmentCount = 1;
+
+        while (segmentCount < concurrencyLevel && segmentCount * 2L * MIN_SEGMENT_CAPACITY <= capacity) {
+            segmentCount <<= 1;
+        }
+
+        this.capacity = capacity;
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++) {
+            // the first (capacity % segmentCount) segments take one more entry.
+            segments[i] = new Segment<>(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0), evictionCount);
+        }
+    }
+
+    /**
+     *
+     * @param key
+     * @return null if there is no value cached for the specified key.
+     */
+    public V get(final K key) {
+        final V value = segmentFor(key).get(key);
+
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     *
+     * @param key
+     * @param value
+     * @return the previous value cached for the specified key, or null.
+     */
+    public V put(final K key, final V value) {
+        N.requireNonNull(key, "key");
+        N.requireNonNull(value, "value");
+
+        return segmentFor(key).put(key, value);
+    }
+
+    /**
+     *
+     * @param key
+     * @return the value removed, or null.
+     */
+    public V remove(final K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the snapshot of the counters and size.
+     *
+     * @return
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), size(), capacity);
+    }
+
+    private Segment<K, V> segmentFor(final Object key) {
+        if (segmentMask == 0) {
+            return segments[0];
+        }
+
+        int h = key == null ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+
+        return segments[h & segmentMask];
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, V> map;
+
+        Segment(final int capacity, final LongAdder evictionCount) {
+            this.map = new LinkedHashMap<K, V>(N.initHashCapacity(capacity), 0.75f, true) {
+                private static final long serialVersionUID = -6434557003463390155L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                    if (size() > capacity) {
+                        evictionCount.increment();
+                        return true;
+                    }
+
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(final Object key) {
+            return map.get(key);
+        }
+
+        synchronized V put(final K key, final V value) {
+            return map.put(key, value);
+        }
+
+        synchronized V remove(final Object key) {
+            return map.remove(key);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+
+    /**
+     * The statistics of a {@code LRUCache}.
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int size;
+        private final int capacity;
+
+        Stats(final long hitCount, final long missCount, final long evictionCount, final int size, final int capacity) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         *
+         * @return 0 if there is no request.
+         */
+        public double getHitRate() {
+            final long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 0 : ((double) hitCount) / requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount + ", size=" + size + ", capacity=" + capacity
+                    + "}";
+        }
+    }
+}
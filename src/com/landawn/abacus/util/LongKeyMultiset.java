@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.landawn.abacus.util.stream.LongStream;
+import com.landawn.abacus.util.stream.Stream;
+
+/**
+ * A multiset of primitive <code>long</code> elements, backed by {@link LongLongMap}. 
+ * Different from <code>Multiset&lt;Long&gt;</code>, no <code>Long</code> element or counter object is created for adding/counting an element.
+ * <br />
+ * The occurrences of an element is represented as a <code>long</code>, like {@link LongMultiset}.
+ * <br />
+ * It's not thread-safe.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class LongKeyMultiset {
+    private final LongLongMap valueMap;
+
+    public LongKeyMultiset() {
+        this(IntIntMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize the expected number of distinct elements.
+     */
+    public LongKeyMultiset(final int expectedSize) {
+        this.valueMap = new LongLongMap(expectedSize);
+    }
+
+    public static LongKeyMultiset of(final long... a) {
+        final LongKeyMultiset multiset = new LongKeyMultiset(a.length);
+        multiset.addAll(a);
+        return multiset;
+    }
+
+    /**
+     *
+     * @param e
+     * @return the occurrences of the specified element, or <code>0</code> if it's not in this multiset.
+     */
+    public long count(final long e) {
+        return valueMap.getOrDefault(e, 0);
+    }
+
+    public long occurrencesOf(final long e) {
+        return count(e);
+    }
+
+    public boolean contains(final long e) {
+        return valueMap.containsKey(e);
+    }
+
+    /**
+     *
+     * @param e
+     * @return always true
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Long.MAX_VALUE.
+     */
+    public boolean add(final long e) throws IllegalArgumentException {
+        return add(e, 1);
+    }
+
+    /**
+     *
+     * @param e
+     * @param occurrences
+     * @return true if the specified occurrences is bigger than 0.
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Long.MAX_VALUE.
+     */
+    public boolean add(final long e, final long occurrences) throws IllegalArgumentException {
+        addAndGet(e, occurrences);
+
+        return occurrences > 0;
+    }
+
+    /**
+     *
+     * @param e
+     * @param occurrences
+     * @return the occurrences of the element after this operation.
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Long.MAX_VALUE.
+     */
+    public long addAndGet(final long e, final long occurrences) throws IllegalArgumentException {
+        checkOccurrences(occurrences);
+
+        if (occurrences == 0) {
+            return count(e);
+        }
+
+        final long newCount = valueMap.addAndGet(e, occurrences);
+
+        if (newCount < 0) {
+            valueMap.addAndGet(e, -occurrences);
+
+            throw new IllegalArgumentException("The total count is out of the bound of long");
+        }
+
+        return newCount;
+    }
+
+    /**
+     *
+     * @param a
+     * @return true if the specified array is not empty.
+     * @throws IllegalArgumentException if the occurrences of element after this operation is bigger than Long.MAX_VALUE.
+     */
+    public boolean addAll(final long[] a) throws IllegalArgumentException {
+        if (N.isNullOrEmpty(a)) {
+            return false;
+        }
+
+        for (long e : a) {
+            addAndGet(e, 1);
+        }
+
+        return true;
+    }
+
+    /**
+     *
+     * @param e
+     * @return true if this multiset contained the specified element.
+     */
+    public boolean remove(final long e) {
+        return remove(e, 1);
+    }
+
+    /**
+     * The element will be removed from this multiset if its occurrences is equal to or less than the specified <code>occurrences</code>.
+     *
+     * @param e
+     * @param occurrences
+     * @return true if this multiset contained the specified element and the specified occurrences is bigger than 0.
+     */
+    public boolean remove(final long e, final long occurrences) {
+        checkOccurrences(occurrences);
+
+        final long count = valueMap.getOrDefault(e, 0);
+
+        if (count == 0) {
+            return false;
+        }
+
+        if (count > occurrences) {
+            valueMap.put(e, count - occurrences);
+        } else {
+            valueMap.remove(e);
+        }
+
+        return occurrences > 0;
+    }
+
+    /**
+     *
+     * @param e
+     * @return the occurrences of the element before it's removed.
+     */
+    public long removeAllOccurrences(final long e) {
+        final long count = valueMap.getOrDefault(e, 0);
+
+        if (count > 0) {
+            valueMap.remove(e);
+        }
+
+        return count;
+    }
+
+    public long sumOfOccurrences() {
+        final LongIterator iter = valueMap.valueIterator();
+        long sum = 0;
+
+        while (iter.hasNext()) {
+            sum += iter.nextLong();
+        }
+
+        return sum;
+    }
+
+    /**
+     *
+     * @return the element with the minimum occurrences, and the occurrences: <code>(element, occurrences)</code>.
+     */
+    public Optional<LongPair> minOccurrences() {
+        return occurrences(false);
+    }
+
+    /**
+     *
+     * @return the element with the maximum occurrences, and the occurrences: <code>(element, occurrences)</code>.
+     */
+    public Optional<LongPair> maxOccurrences() {
+        return occurrences(true);
+    }
+
+    private Optional<LongPair> occurrences(final boolean max) {
+        if (valueMap.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final LongIterator keyIter = valueMap.keyIterator();
+        final LongIterator valueIter = valueMap.valueIterator();
+        long element = keyIter.nextLong();
+        long count = valueIter.nextLong();
+        long c = 0;
+
+        while (keyIter.hasNext()) {
+            if (max ? (c = valueIter.nextLong()) > count : (c = valueIter.nextLong()) < count) {
+                element = keyIter.nextLong();
+                count = c;
+            } else {
+                keyIter.nextLong();
+            }
+        }
+
+        return Optional.of(LongPair.of(element, count));
+    }
+
+    /**
+     * Returns the <code>n</code> most frequent elements with their occurrences: <code>(element, occurrences)</code>, 
+     * ordered from the most frequent to the least frequent. 
+     * It's done with a bounded heap of primitive arrays in <code>O(size * log(n))</code>, without boxing the elements/occurrences.
+     *
+     * @param n
+     * @return
+     */
+    public List<LongPair> top(final int n) {
+        N.checkArgument(n >= 0, "'n' can't be negative: %s", n);
+
+        final int len = N.min(n, valueMap.size());
+        final long[] heapElements = new long[len];
+        final long[] heapCounts = new long[len];
+        final LongIterator keyIter = valueMap.keyIterator();
+        final LongIterator valueIter = valueMap.valueIterator();
+        int heapSize = 0;
+        long e = 0, c = 0;
+
+        while (keyIter.hasNext() && len > 0) {
+            e = keyIter.nextLong();
+            c = valueIter.nextLong();
+
+            if (heapSize < len) {
+                siftUp(heapElements, heapCounts, heapSize++, e, c);
+            } else if (c > heapCounts[0]) {
+                siftDown(heapElements, heapCounts, heapSize, e, c);
+            }
+        }
+
+        final LongPair[] result = new LongPair[heapSize];
+
+        // the least frequent one is on the top of the heap.
+        while (heapSize > 0) {
+            e = heapElements[0];
+            c = heapCounts[0];
+
+            if (--heapSize > 0) {
+                siftDown(heapElements, heapCounts, heapSize, heapElements[heapSize], heapCounts[heapSize]);
+            }
+
+            result[heapSize] = LongPair.of(e, c);
+        }
+
+        return Arrays.asList(result);
+    }
+
+    /**
+     * 
+     * @return a stream of <code>(element, occurrences)</code>, ordered from the most frequent to the least frequent.
+     * @see #top(int)
+     */
+    public Stream<LongPair> streamSortedByOccurrences() {
+        return Stream.of(top(valueMap.size()));
+    }
+
+    /**
+     * 
+     * @return a stream of the distinct elements in this multiset.
+     */
+    public LongStream elements() {
+        return valueMap.keyStream();
+    }
+
+    /**
+     * Distinct elements number.
+     *
+     * @return
+     */
+    public int size() {
+        return valueMap.size();
+    }
+
+    public boolean isEmpty() {
+        return valueMap.isEmpty();
+    }
+
+    public void clear() {
+        valueMap.clear();
+    }
+
+    /**
+     * 
+     * @param action the first parameter is the element and the second one is the occurrences.
+     * @throws E
+     */
+    public <E extends Exception> void forEach(final Try.LongBiConsumer<E> action) throws E {
+        valueMap.forEach(action);
+    }
+
+    /**
+     * 
+     * @return a new <code>LongLongMap</code> with the elements and their occurrences in this multiset.
+     */
+    public LongLongMap toMap() {
+        final LongLongMap result = new LongLongMap(valueMap.size());
+
+        result.putAll(valueMap);
+
+        return result;
+    }
+
+    public LongKeyMultiset copy() {
+        final LongKeyMultiset copy = new LongKeyMultiset(valueMap.size());
+
+        copy.valueMap.putAll(valueMap);
+
+        return copy;
+    }
+
+    @Override
+    public int hashCode() {
+        return valueMap.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj == this || (obj instanceof LongKeyMultiset && valueMap.equals(((LongKeyMultiset) obj).valueMap));
+    }
+
+    @Override
+    public String toString() {
+        return valueMap.toString();
+    }
+
+    private static void siftUp(final long[] heapElements, final long[] heapCounts, int idx, final long e, final long c) {
+        int parent = 0;
+
+        while (idx > 0) {
+            parent = (idx - 1) >>> 1;
+
+            if (heapCounts[parent] <= c) {
+                break;
+            }
+
+            heapElements[idx] = heapElements[parent];
+            heapCounts[idx] = heapCounts[parent];
+            idx = parent;
+        }
+
+        heapElements[idx] = e;
+        heapCounts[idx] = c;
+    }
+
+    /**
+     * Replaces the top of the heap with the specified element and occurrences.
+     */
+    private static void siftDown(final long[] heapElements, final long[] heapCounts, final int heapSize, final long e, final long c) {
+        final int half = heapSize >>> 1;
+        int idx = 0, child = 0;
+
+        while (idx < half) {
+            child = 2 * idx + 1;
+
+            if (child + 1 < heapSize && heapCounts[child + 1] < heapCounts[child]) {
+                child++;
+            }
+
+            if (c <= heapCounts[child]) {
+                break;
+            }
+
+            heapElements[idx] = heapElements[child];
+            heapCounts[idx] = heapCounts[child];
+            idx = child;
+        }
+
+        heapElements[idx] = e;
+        heapCounts[idx] = c;
+    }
+
+    private static void checkOccurrences(final long occurrences) {
+        if (occurrences < 0) {
+            throw new IllegalArgumentException("The specified 'occurrences' can not be less than 0");
+        }
+    }
+}
@@ -0,0 +1,536 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.NoSuchElementException;
+
+import com.landawn.abacus.util.stream.LongStream;
+
+/**
+ * A hash map with primitive <code>long</code> keys and values, implemented by open addressing with linear probing.
+ * No <code>Long</code> or entry object is created for a mapping.
+ * <br />
+ * It's not thread-safe and the iterators don't support concurrent modification.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class LongLongMap {
+    // key 0 is used to mark free slot, so the mapping for key 0 is kept separately.
+    private boolean hasFreeKey = false;
+    private long freeValue;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int threshold;
+    private int size = 0;
+
+    public LongLongMap() {
+        this(IntIntMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize the map won't be resized until the number of mappings reaches this size.
+     */
+    public LongLongMap(final int expectedSize) {
+        N.checkArgument(expectedSize >= 0, "'expectedSize' can't be negative: %s", expectedSize);
+
+        allocate(IntIntMap.tableSizeFor(expectedSize));
+    }
+
+    public static LongLongMap of(final long[] keys, final long[] values) {
+        final LongLongMap map = new LongLongMap(keys.length);
+        map.putAll(keys, values);
+        return map;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final long key) {
+        return key == 0 ? hasFreeKey : indexOf(key) >= 0;
+    }
+
+    public boolean containsValue(final long value) {
+        if (hasFreeKey && freeValue == value) {
+            return true;
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0 && values[i] == value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public OptionalLong get(final long key) {
+        if (key == 0) {
+            return hasFreeKey ? OptionalLong.of(freeValue) : OptionalLong.empty();
+        }
+
+        final int idx = indexOf(key);
+
+        return idx >= 0 ? OptionalLong.of(values[idx]) : OptionalLong.empty();
+    }
+
+    public long getOrDefault(final long key, final long defaultValue) {
+        if (key == 0) {
+            return hasFreeKey ? freeValue : defaultValue;
+        }
+
+        final int idx = indexOf(key);
+
+        return idx >= 0 ? values[idx] : defaultValue;
+    }
+
+    /**
+     *
+     * @param key
+     * @param value
+     * @return the previous value associated with the key, or <code>0</code> if there was no mapping for the key.
+     */
+    public long put(final long key, final long value) {
+        if (key == 0) {
+            final long prev = hasFreeKey ? freeValue : 0;
+
+            if (hasFreeKey == false) {
+                hasFreeKey = true;
+                size++;
+            }
+
+            freeValue = value;
+            return prev;
+        }
+
+        int idx = slot(key);
+        long k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == key) {
+                final long prev = values[idx];
+                values[idx] = value;
+                return prev;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        keys[idx] = key;
+        values[idx] = value;
+
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Adds the specified <code>delta</code> to the value associated with the key, which is treated as <code>0</code> if absent.
+     *
+     * @param key
+     * @param delta
+     * @return the new value
+     */
+    public long addAndGet(final long key, final long delta) {
+        if (key == 0) {
+            if (hasFreeKey == false) {
+                hasFreeKey = true;
+                freeValue = 0;
+                size++;
+            }
+
+            return freeValue += delta;
+        }
+
+        int idx = slot(key);
+        long k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == key) {
+                return values[idx] += delta;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        keys[idx] = key;
+        values[idx] = delta;
+
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+
+        return delta;
+    }
+
+    /**
+     *
+     * @param keys
+     * @param values
+     * @throws IllegalArgumentException if the lengths of <code>keys</code> and <code>values</code> are different.
+     */
+    public void putAll(final long[] keys, final long[] values) {
+        N.checkArgument(keys.length == values.length, "The lengths of keys(%s) and values(%s) are different", keys.length, values.length);
+
+        ensureCapacity(size + keys.length);
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    public void putAll(final LongLongMap m) {
+        if (m.hasFreeKey) {
+            put(0, m.freeValue);
+        }
+
+        ensureCapacity(size + m.size);
+
+        for (int i = 0, len = m.keys.length; i < len; i++) {
+            if (m.keys[i] != 0) {
+                put(m.keys[i], m.values[i]);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param key
+     * @return <code>true</code> if there was a mapping for the key.
+     */
+    public boolean remove(final long key) {
+        if (key == 0) {
+            if (hasFreeKey) {
+                hasFreeKey = false;
+                size--;
+                return true;
+            }
+
+            return false;
+        }
+
+        final int idx = indexOf(key);
+
+        if (idx < 0) {
+            return false;
+        }
+
+        shiftKeys(idx);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            N.fill(keys, 0);
+            hasFreeKey = false;
+            size = 0;
+        }
+    }
+
+    public <E extends Exception> void forEach(final Try.LongBiConsumer<E> action) throws E {
+        if (hasFreeKey) {
+            action.accept(0, freeValue);
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public LongIterator keyIterator() {
+        return new LongIterator() {
+            private final Itr itr = new Itr();
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                final int idx = itr.nextIndex();
+
+                return idx < 0 ? 0 : keys[idx];
+            }
+        };
+    }
+
+    public LongIterator valueIterator() {
+        return new LongIterator() {
+            private final Itr itr = new Itr();
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                final int idx = itr.nextIndex();
+
+                return idx < 0 ? freeValue : values[idx];
+            }
+        };
+    }
+
+    public long[] keys() {
+        final long[] result = new long[size];
+        int cursor = 0;
+
+        if (hasFreeKey) {
+            result[cursor++] = 0;
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                result[cursor++] = keys[i];
+            }
+        }
+
+        return result;
+    }
+
+    public long[] values() {
+        final long[] result = new long[size];
+        int cursor = 0;
+
+        if (hasFreeKey) {
+            result[cursor++] = freeValue;
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                result[cursor++] = values[i];
+            }
+        }
+
+        return result;
+    }
+
+    public LongStream keyStream() {
+        return LongStream.of(keyIterator());
+    }
+
+    public LongStream valueStream() {
+        return LongStream.of(valueIterator());
+    }
+
+    /**
+     * Makes sure the map won't be resized until the number of mappings reaches <code>expectedSize</code>.
+     *
+     * @param expectedSize
+     */
+    public void ensureCapacity(final int expectedSize) {
+        if (expectedSize > threshold) {
+            rehash(IntIntMap.tableSizeFor(expectedSize));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hasFreeKey ? N.hashCode(freeValue) : 0;
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                h += N.hashCode(keys[i]) ^ N.hashCode(values[i]);
+            }
+        }
+
+        return h;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (obj instanceof LongLongMap) {
+            final LongLongMap other = (LongLongMap) obj;
+
+            if (size != other.size || hasFreeKey != other.hasFreeKey || (hasFreeKey && freeValue != other.freeValue)) {
+                return false;
+            }
+
+            int idx = 0;
+
+            for (int i = 0, len = keys.length; i < len; i++) {
+                if (keys[i] != 0) {
+                    if ((idx = other.indexOf(keys[i])) < 0 || other.values[idx] != values[i]) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+
+        final StringBuilder sb = new StringBuilder(size * 8);
+        sb.append('{');
+
+        if (hasFreeKey) {
+            sb.append(0).append('=').append(freeValue);
+        }
+
+        for (int i = 0, len = keys.length; i < len; i++) {
+            if (keys[i] != 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+
+                sb.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+
+        sb.append('}');
+
+        return sb.toString();
+    }
+
+    private int indexOf(final long key) {
+        int idx = slot(key);
+        long k = 0;
+
+        while ((k = keys[idx]) != 0) {
+            if (k == key) {
+                return idx;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int slot(final long key) {
+        return IntIntMap.mix(key) & mask;
+    }
+
+    /**
+     * Backward-shift deletion: moves the following entries of the same probe chain into the freed slot, so no tombstone is needed.
+     */
+    private void shiftKeys(int pos) {
+        int last = 0;
+        long k = 0;
+
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+
+            while (true) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+
+                final int s = slot(k);
+
+                if (last <= pos ? last >= s || s > pos : last >= s && s > pos) {
+                    break;
+                }
+
+                pos = (pos + 1) & mask;
+            }
+
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * IntIntMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    private void rehash(final int newCapacity) {
+        N.checkState(keys.length < IntIntMap.MAX_CAPACITY, "Too many elements: %s", size);
+
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+
+        allocate(newCapacity);
+
+        int idx = 0;
+
+        for (int i = 0, len = oldKeys.length; i < len; i++) {
+            if (oldKeys[i] != 0) {
+                idx = slot(oldKeys[i]);
+
+                while (keys[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+
+                keys[idx] = oldKeys[i];
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Iterates the slot indexes of the mappings. <code>-1</code> is returned for the mapping of key <code>0</code>.
+     */
+    private final class Itr {
+        private boolean freeKeyReturned = hasFreeKey == false;
+        private int cursor = 0;
+        private int cnt = 0;
+
+        boolean hasNext() {
+            return cnt < size;
+        }
+
+        int nextIndex() {
+            if (cnt >= size) {
+                throw new NoSuchElementException();
+            }
+
+            cnt++;
+
+            if (freeKeyReturned == false) {
+                freeKeyReturned = true;
+                return -1;
+            }
+
+            while (keys[cursor] == 0) {
+                cursor++;
+            }
+
+            return cursor++;
+        }
+    }
+}
@@ -1597,7 +1597,7 @@ public final class Maps {
                             continue;
                         }
 
-                        propValue = entry.getValue().invoke(entity);
+                        propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                         if (ignoreNullProperty && (propValue == null)) {
                             continue;
@@ -1621,7 +1621,7 @@ public final class Maps {
                             continue;
                         }
 
-                        propValue = entry.getValue().invoke(entity);
+                        propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                         if (ignoreNullProperty && (propValue == null)) {
                             continue;
@@ -1645,7 +1645,7 @@ public final class Maps {
                             continue;
                         }
 
-                        propValue = entry.getValue().invoke(entity);
+                        propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                         if (ignoreNullProperty && (propValue == null)) {
                             continue;
@@ -1823,7 +1823,7 @@ public final class Maps {
                             continue;
                         }
 
-                        propValue = entry.getValue().invoke(entity);
+                        propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                         if (ignoreNullProperty && (propValue == null)) {
                             continue;
@@ -1851,7 +1851,7 @@ public final class Maps {
                             continue;
                         }
 
-                        propValue = entry.getValue().invoke(entity);
+                        propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                         if (ignoreNullProperty && (propValue == null)) {
                             continue;
@@ -1879,7 +1879,7 @@ public final class Maps {
                             continue;
                         }
 
-                        propValue = entry.getValue().invoke(entity);
+                        propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                         if (ignoreNullProperty && (propValue == null)) {
                             continue;
@@ -2061,7 +2061,7 @@ public final class Maps {
                                     continue;
                                 }
 
-                                propValue = propGetMethod.invoke(entity);
+                                propValue = ClassUtil.getPropValue(entity, propGetMethod);
 
                                 if (ignoreNullProperty && (propValue == null)) {
                                     continue;
@@ -2095,7 +2095,7 @@ public final class Maps {
                                 }
 
                                 propName = ClassUtil.toLowerCaseWithUnderscore(propName);
-                                propValue = propGetMethod.invoke(entity);
+                                propValue = ClassUtil.getPropValue(entity, propGetMethod);
 
                                 if (ignoreNullProperty && (propValue == null)) {
                                     continue;
@@ -2129,7 +2129,7 @@ public final class Maps {
                                 }
 
                                 propName = ClassUtil.toUpperCaseWithUnderscore(propName);
-                                propValue = propGetMethod.invoke(entity);
+                                propValue = ClassUtil.getPropValue(entity, propGetMethod);
 
                                 if (ignoreNullProperty && (propValue == null)) {
                                     continue;
@@ -2176,7 +2176,7 @@ public final class Maps {
                                 continue;
                             }
 
-                            propValue = entry.getValue().invoke(entity);
+                            propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                             if (ignoreNullProperty && (propValue == null)) {
                                 continue;
@@ -2209,7 +2209,7 @@ public final class Maps {
                             }
 
                             propName = ClassUtil.toLowerCaseWithUnderscore(propName);
-                            propValue = entry.getValue().invoke(entity);
+                            propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                             if (ignoreNullProperty && (propValue == null)) {
                                 continue;
@@ -2242,7 +2242,7 @@ public final class Maps {
                             }
 
                             propName = ClassUtil.toUpperCaseWithUnderscore(propName);
-                            propValue = entry.getValue().invoke(entity);
+                            propValue = ClassUtil.getPropValue(entity, entry.getValue());
 
                             if (ignoreNullProperty && (propValue == null)) {
                                 continue;
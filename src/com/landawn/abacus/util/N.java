@@ -4108,7 +4108,7 @@ public final class N {
                         if (ignorePropNames == null || ignorePropNames.contains(propName) == false) {
                             srcPropGetMethod = ClassUtil.getPropGetMethod(srcCls, propName);
 
-                            ClassUtil.setPropValue(copy, propName, srcPropGetMethod.invoke(entity), ignoreUnknownProperty);
+                            ClassUtil.setPropValue(copy, propName, ClassUtil.getPropValue(entity, srcPropGetMethod), ignoreUnknownProperty);
                         }
                     }
                 } catch (Exception e) {
@@ -4121,7 +4121,7 @@ public final class N {
             try {
                 for (Map.Entry<String, Method> entry : srcGetterMethodList.entrySet()) {
                     if (ignorePropNames == null || ignorePropNames.contains(entry.getKey()) == false) {
-                        ClassUtil.setPropValue(copy, entry.getKey(), entry.getValue().invoke(entity), ignoreUnknownProperty);
+                        ClassUtil.setPropValue(copy, entry.getKey(), ClassUtil.getPropValue(entity, entry.getValue()), ignoreUnknownProperty);
                     }
                 }
             } catch (Exception e) {
@@ -4168,7 +4168,7 @@ public final class N {
                     try {
                         for (String propName : signedPropNames) {
                             srcPropGetMethod = ClassUtil.getPropGetMethod(srcCls, propName);
-                            ClassUtil.setPropValue(targetEntity, propName, srcPropGetMethod.invoke(sourceEntity), ignoreUnknownProperty);
+                            ClassUtil.setPropValue(targetEntity, propName, ClassUtil.getPropValue(sourceEntity, srcPropGetMethod), ignoreUnknownProperty);
                         }
                     } catch (Exception e) {
                         throw new AbacusException(e);
@@ -4179,7 +4179,7 @@ public final class N {
 
                 try {
                     for (Map.Entry<String, Method> entry : srcGetterMethodList.entrySet()) {
-                        ClassUtil.setPropValue(targetEntity, entry.getKey(), entry.getValue().invoke(sourceEntity), ignoreUnknownProperty);
+                        ClassUtil.setPropValue(targetEntity, entry.getKey(), ClassUtil.getPropValue(sourceEntity, entry.getValue()), ignoreUnknownProperty);
                     }
                 } catch (Exception e) {
                     throw new AbacusException(e);
@@ -4191,7 +4191,7 @@ public final class N {
             try {
                 for (String propName : selectPropNames) {
                     srcPropGetMethod = ClassUtil.getPropGetMethod(srcCls, propName);
-                    ClassUtil.setPropValue(targetEntity, propName, srcPropGetMethod.invoke(sourceEntity), ignoreUnknownProperty);
+                    ClassUtil.setPropValue(targetEntity, propName, ClassUtil.getPropValue(sourceEntity, srcPropGetMethod), ignoreUnknownProperty);
                 }
             } catch (Exception e) {
                 throw new AbacusException(e);
@@ -16,18 +16,28 @@
 
 package com.landawn.abacus.util;
 
+import java.io.File;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.Writer;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -38,38 +48,40 @@ import com.landawn.abacus.logging.LoggerFactory;
 
 /**
  * A simple way to run load/performance test.
- * 
+ *
  * <br />
  * <br />
- * Caution: if the loop number is too big, it may take a lot of memory to save the test result and impact the test result.
+ * The elapsed time of each call is recorded into a fixed-size {@link Histogram} in each thread, which takes about 57KB memory,
+ * no matter how big the loop number is. So the percentiles (50%, 90%, 99%, 99.9%) are reported with a relative error less than 1%.
  * <br />
- * So instead of running the performance with big loop number:
+ * The target is called by a {@code MethodHandle}, or directly if it's a {@code Try.Runnable}. The warmup loops are run before the test and excluded from the result:
  * <pre>
  * <code>
- * final int bigLoopNum = 1000_000;
- * Profiler.run(threadNum, bigLoopNum, roundNum, "yourMethod", () -> yourMethod());
- * </code>
- * 
- * <b>// reduce the 'bigLoopNum' by for-loop:</b>
- * 
- * <code>
- * Profiler.run(threadNum, bigLoopNum / 1000, roundNum, "yourMethod", () -> 
- *  {
- *      for (int i = 0; i < 1000; i++) {
- *          yourMethod();
- *      }
- *  });
+ * final int warmupLoopNum = 10_000;
+ * final int loopNum = 1000_000;
+ * final MultiLoopsStatistics result = Profiler.run(threadNum, warmupLoopNum, loopNum, roundNum, "yourMethod", () -> yourMethod());
+ * result.printResult();
+ *
+ * <b>// save the result and compare the next run with it:</b>
+ * result.writeCsvResult(new FileWriter(baselineFile));
+ * ...
+ * newResult.printComparison(MultiLoopsStatistics.readCsvResult(baselineFile));
  * </code>
  * </pre>
- * 
+ *
  * @since 0.8
- * 
+ *
  * @author Haiyang Li
  */
 public final class Profiler {
     private static final Logger logger = LoggerFactory.getLogger(Profiler.class);
     private static final DecimalFormat elapsedTimeFormat = new DecimalFormat("#0.000");
 
+    /**
+     * The max number of failed calls kept by each thread. The failed calls are still counted after it's reached.
+     */
+    private static final int MAX_FAILED_SAMPLE_NUM = 100;
+
     private Profiler() {
         // singleton
     }
@@ -85,7 +97,41 @@ public final class Profiler {
 
     public static MultiLoopsStatistics run(final int threadNum, final long threadDelay, final int loopNum, final long loopDelay, final int roundNum,
             final String label, final Try.Runnable<? extends Exception> command) {
-        return run(command, label, getMethod(command, "run"), null, null, null, null, null, threadNum, threadDelay, loopNum, loopDelay, roundNum);
+        return run(threadNum, threadDelay, 0, loopNum, loopDelay, roundNum, false, label, command);
+    }
+
+    /**
+     *
+     * @param threadNum
+     * @param warmupLoopNum loops run by each thread before the test. They're excluded from the result.
+     * @param loopNum
+     * @param roundNum
+     * @param label
+     * @param command
+     * @return
+     */
+    public static MultiLoopsStatistics run(final int threadNum, final int warmupLoopNum, final int loopNum, final int roundNum, final String label,
+            final Try.Runnable<? extends Exception> command) {
+        return run(threadNum, 0, warmupLoopNum, loopNum, 0, roundNum, false, label, command);
+    }
+
+    /**
+     *
+     * @param threadNum
+     * @param threadDelay
+     * @param warmupLoopNum loops run by each thread before the test. They're excluded from the result.
+     * @param loopNum
+     * @param loopDelay
+     * @param roundNum
+     * @param trackMemory if it's true, the bytes allocated by each call in the calling thread and the GC count/time during the test are recorded, if they're supported by the JVM.
+     * @param label
+     * @param command
+     * @return
+     */
+    public static MultiLoopsStatistics run(final int threadNum, final long threadDelay, final int warmupLoopNum, final int loopNum, final long loopDelay,
+            final int roundNum, final boolean trackMemory, final String label, final Try.Runnable<? extends Exception> command) {
+        return run(command, label, getMethod(command, "run"), null, null, null, null, null, threadNum, threadDelay, warmupLoopNum, loopNum, loopDelay,
+                roundNum, trackMemory);
     }
 
     static MultiLoopsStatistics run(final Object instance, final String method, final int threadNum, final int loopNum, final int roundNum) {
@@ -106,7 +152,7 @@ public final class Profiler {
     }
 
     /**
-     * 
+     *
      * @param instance
      * @param method
      * @param args the size of <code>args</code> can be 0, 1, or same size with <code>threadNum. It's the input argument for every loop in each thread.
@@ -122,8 +168,8 @@ public final class Profiler {
 
     /**
      * Run performance test for the specified <code>method</code> with the specified <code>threadNum</code> and <code>loopNum</code> for each thread.
-     * The performance test will be repeatedly execute times specified by <code>roundNum</code>. 
-     * 
+     * The performance test will be repeatedly execute times specified by <code>roundNum</code>.
+     *
      * @param instance
      * @param method
      * @param args the size of <code>args</code> can be 0, 1, or same size with <code>threadNum. It's the input argument for every loop in each thread.
@@ -141,14 +187,14 @@ public final class Profiler {
     static MultiLoopsStatistics run(final Object instance, final Method method, final List<?> args, final Method setUpForMethod, final Method tearDownForMethod,
             final Method setUpForLoop, final Method tearDownForLoop, final int threadNum, final long threadDelay, final int loopNum, final long loopDelay,
             final int roundNum) {
-        return run(instance, method.getName(), method, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay, loopNum,
-                loopDelay, roundNum);
+        return run(instance, method.getName(), method, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay, 0,
+                loopNum, loopDelay, roundNum, false);
     }
 
     /**
      * Run performance test for the specified <code>methodList</code> with the specified <code>threadNum</code> and <code>loopNum</code> for each thread.
-     * The performance test will be repeatly execute times specified by <code>roundNum</code>. 
-     * 
+     * The performance test will be repeatly execute times specified by <code>roundNum</code>.
+     *
      * @param instance it can be null if methods in the specified <code>methodList</code> are static methods
      * @param methodName
      * @param method
@@ -159,35 +205,38 @@ public final class Profiler {
      * @param tearDownForLoop
      * @param threadNum
      * @param threadDelay
+     * @param warmupLoopNum loops run by each thread before the first round. They're excluded from the result.
      * @param loopNum loops run by each thread.
      * @param loopDelay
      * @param roundNum
+     * @param trackMemory
      * @return
      */
     static MultiLoopsStatistics run(final Object instance, final String methodName, final Method method, final List<?> args, final Method setUpForMethod,
             final Method tearDownForMethod, final Method setUpForLoop, final Method tearDownForLoop, final int threadNum, final long threadDelay,
-            final int loopNum, final long loopDelay, final int roundNum) {
-        if ((threadNum <= 0) || (loopNum <= 0) || (threadDelay < 0) || (loopDelay < 0)) {
-            throw new IllegalArgumentException("threadNum=" + threadNum + ", loopNum=" + loopNum + ", threadDelay=" + threadDelay + ", loopDelay=" + loopDelay);
+            final int warmupLoopNum, final int loopNum, final long loopDelay, final int roundNum, final boolean trackMemory) {
+        if ((threadNum <= 0) || (loopNum <= 0) || (warmupLoopNum < 0) || (threadDelay < 0) || (loopDelay < 0)) {
+            throw new IllegalArgumentException("threadNum=" + threadNum + ", warmupLoopNum=" + warmupLoopNum + ", loopNum=" + loopNum + ", threadDelay="
+                    + threadDelay + ", loopDelay=" + loopDelay);
         }
         if (N.notNullOrEmpty(args) && (args.size() > 1) && (args.size() != threadNum)) {
             throw new IllegalArgumentException(
                     "The input args must be null or size = 1 or size = threadNum. It's the input parameter for the every loop in each thread ");
         }
-        // It takes about 250MB memory to save 1 million test result.
-        if (threadNum * loopNum > IOUtil.MAX_MEMORY_IN_MB * 1000) {
-            if (IOUtil.MAX_MEMORY_IN_MB < 1024) {
-                logger.warn(
-                        "Saving big number loop result in small memory may slow down the performance of target method. Conside increasing the maximium JVM memory size.");
-            } else {
-                logger.warn(
-                        "Saving big number loop result may slow down the performance of target method. Conside adding for-loop to outter of the target method and reducing the loop number ("
-                                + loopNum + ") to a smaller number");
-            }
+        if (trackMemory && !MXBeans.isThreadAllocatedMemorySupported()) {
+            logger.warn("Allocated bytes by thread is not supported by current JVM. Only GC count/time will be recorded");
+        }
+
+        final Invoker invoker = createInvoker(instance, method);
+
+        if (warmupLoopNum > 0) {
+            run(instance, methodName, invoker, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay, warmupLoopNum,
+                    0, false, false);
         }
+
         if (roundNum == 1) {
-            return run(instance, methodName, method, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay, loopNum,
-                    loopDelay);
+            return run(instance, methodName, invoker, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay, loopNum,
+                    loopDelay, trackMemory, true);
         } else {
             MultiLoopsStatistics result = null;
             for (int i = 0; i < roundNum; i++) {
@@ -195,26 +244,28 @@ public final class Profiler {
                     result.printResult();
                     result = null;
                 }
-                result = run(instance, methodName, method, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay,
-                        loopNum, loopDelay);
+                result = run(instance, methodName, invoker, args, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, threadNum, threadDelay,
+                        loopNum, loopDelay, trackMemory, true);
             }
             return result;
         }
     }
 
-    private static MultiLoopsStatistics run(final Object instance, final String methodName, final Method method, final List<?> args,
+    /**
+     *
+     * @param record the result is discarded if it's false, for warmup.
+     * @return null if {@code record} is false.
+     */
+    private static MultiLoopsStatistics run(final Object instance, final String methodName, final Invoker invoker, final List<?> args,
             final Method setUpForMethod, final Method tearDownForMethod, final Method setUpForLoop, final Method tearDownForLoop, final int threadNum,
-            final long threadDelay, final int loopNum, final long loopDelay) {
-        if (!method.isAccessible()) {
-            method.setAccessible(true);
-        }
+            final long threadDelay, final int loopNum, final long loopDelay, final boolean trackMemory, final boolean record) {
         gc();
         N.sleep(1000);
         final ExecutorService asyncExecutor = Executors.newFixedThreadPool(threadNum);
         final AtomicInteger threadCounter = new AtomicInteger();
-        // MXBean mxBean = new MXBean();
-        final List<LoopStatistics> loopStatisticsList = Collections.synchronizedList(new ArrayList<LoopStatistics>());
+        final List<MethodResult> threadResultList = Collections.synchronizedList(new ArrayList<MethodResult>(threadNum));
         final PrintStream ps = System.out;
+        final long[] gcStatistics = trackMemory ? MXBeans.gcStatistics() : null;
         final long startTimeInMillis = System.currentTimeMillis();
         final long startTimeInNano = System.nanoTime();
         for (int threadIndex = 0; threadIndex < threadNum; threadIndex++) {
@@ -223,10 +274,17 @@ public final class Profiler {
             asyncExecutor.execute(new Runnable() {
                 @Override
                 public void run() {
+                    // each thread records into its own histogram. They're merged after all the threads are completed.
+                    final MethodResult threadResult = record ? new MethodResult(methodName, trackMemory && MXBeans.isThreadAllocatedMemorySupported()) : null;
+
                     try {
-                        runLoops(instance, methodName, method, arg, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, loopNum, loopDelay,
-                                loopStatisticsList, ps);
+                        runLoops(instance, methodName, invoker, arg, setUpForMethod, tearDownForMethod, setUpForLoop, tearDownForLoop, loopNum, loopDelay,
+                                threadResult, ps);
                     } finally {
+                        if (threadResult != null) {
+                            threadResultList.add(threadResult);
+                        }
+
                         threadCounter.decrementAndGet();
                     }
                 }
@@ -238,87 +296,143 @@ public final class Profiler {
         }
         final long endTimeInNano = System.nanoTime();
         final long endTimeInMillis = System.currentTimeMillis();
-        return new MultiLoopsStatistics(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano, threadNum, loopStatisticsList);
+        asyncExecutor.shutdown();
+
+        if (record == false) {
+            return null;
+        }
+
+        final Map<String, MethodResult> methodResultMap = new LinkedHashMap<>();
+        for (MethodResult threadResult : threadResultList) {
+            final MethodResult methodResult = methodResultMap.get(threadResult.methodName);
+            if (methodResult == null) {
+                methodResultMap.put(threadResult.methodName, threadResult);
+            } else {
+                methodResult.merge(threadResult);
+            }
+        }
+
+        long gcCount = -1;
+        long gcTimeInMillis = -1;
+        if (gcStatistics != null) {
+            final long[] endGcStatistics = MXBeans.gcStatistics();
+            gcCount = endGcStatistics[0] - gcStatistics[0];
+            gcTimeInMillis = endGcStatistics[1] - gcStatistics[1];
+        }
+
+        return new MultiLoopsStatistics(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano, threadNum, loopNum, methodResultMap, gcCount,
+                gcTimeInMillis);
     }
 
-    private static void runLoops(final Object instance, final String methodName, final Method method, final Object arg, final Method setUpForMethod,
+    private static void runLoops(final Object instance, final String methodName, final Invoker invoker, final Object arg, final Method setUpForMethod,
             final Method tearDownForMethod, final Method setUpForLoop, final Method tearDownForLoop, final int loopNum, final long loopDelay,
-            final List<LoopStatistics> loopStatisticsList, final PrintStream ps) {
+            final MethodResult threadResult, final PrintStream ps) {
         for (int loopIndex = 0; loopIndex < loopNum; loopIndex++) {
-            if (setUpForLoop != null) {
-                try {
-                    setUpForLoop.invoke(instance);
-                } catch (Exception e) {
-                    // ignore;
-                    e.printStackTrace(ps);
-                    logger.warn(AbacusException.getErrorMsg(e));
-                }
-            }
-            final long startTimeInMillis = System.currentTimeMillis();
-            final long startTimeInNano = System.nanoTime();
-            List<MethodStatistics> methodStatisticsList = runLoop(instance, methodName, method, arg, setUpForMethod, tearDownForMethod, ps);
-            final long endTimeInNano = System.nanoTime();
-            final long endTimeInMillis = System.currentTimeMillis();
-            if (tearDownForLoop != null) {
-                try {
-                    tearDownForLoop.invoke(instance);
-                } catch (Exception e) {
-                    // ignore;
-                    e.printStackTrace(ps);
-                    logger.warn(AbacusException.getErrorMsg(e));
-                }
-            }
-            final SingleLoopStatistics loopStatistics = new SingleLoopStatistics(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano,
-                    methodStatisticsList);
-            loopStatisticsList.add(loopStatistics);
+            invoke(instance, setUpForLoop, ps);
+            runLoop(instance, methodName, invoker, arg, setUpForMethod, tearDownForMethod, threadResult, ps);
+            invoke(instance, tearDownForLoop, ps);
             N.sleep(loopDelay);
         }
     }
 
-    private static List<MethodStatistics> runLoop(final Object instance, final String methodName, final Method method, final Object arg,
-            final Method setUpForMethod, final Method tearDownForMethod, final PrintStream ps) {
-        final List<MethodStatistics> methodStatisticsList = new ArrayList<>();
-        if (setUpForMethod != null) {
-            try {
-                setUpForMethod.invoke(instance);
-            } catch (Exception e) {
-                // ignore;
-                e.printStackTrace(ps);
-                logger.warn(AbacusException.getErrorMsg(e));
-            }
-        }
-        final long startTimeInMillis = System.currentTimeMillis();
+    private static void runLoop(final Object instance, final String methodName, final Invoker invoker, final Object arg, final Method setUpForMethod,
+            final Method tearDownForMethod, final MethodResult threadResult, final PrintStream ps) {
+        invoke(instance, setUpForMethod, ps);
+        final boolean trackAllocation = threadResult != null && threadResult.allocatedBytes >= 0;
+        final long startAllocatedBytes = trackAllocation ? MXBeans.currentThreadAllocatedBytes() : 0;
         final long startTimeInNano = System.nanoTime();
-        Object result = null;
+        Throwable error = null;
         try {
-            if (method.getParameterTypes().length == 0) {
-                method.invoke(instance);
-            } else {
-                method.invoke(instance, arg);
-            }
-        } catch (InvocationTargetException e) {
-            e.printStackTrace(ps);
-            logger.warn(AbacusException.getErrorMsg(e));
-            result = e.getTargetException();
-        } catch (Exception e) {
+            invoker.invoke(arg);
+        } catch (Throwable e) {
             e.printStackTrace(ps);
             logger.warn(AbacusException.getErrorMsg(e));
-            result = e;
+            error = e;
         }
         final long endTimeInNano = System.nanoTime();
-        final long endTimeInMillis = System.currentTimeMillis();
-        if (tearDownForMethod != null) {
+        final long endAllocatedBytes = trackAllocation ? MXBeans.currentThreadAllocatedBytes() : 0;
+        invoke(instance, tearDownForMethod, ps);
+
+        if (threadResult != null) {
+            threadResult.histogram.record(endTimeInNano - startTimeInNano);
+
+            if (trackAllocation) {
+                threadResult.allocatedBytes += endAllocatedBytes - startAllocatedBytes;
+            }
+
+            if (error != null) {
+                threadResult.addFailed(startTimeInNano, endTimeInNano, error);
+            }
+        }
+    }
+
+    private static void invoke(final Object instance, final Method method, final PrintStream ps) {
+        if (method != null) {
             try {
-                tearDownForMethod.invoke(instance);
+                method.invoke(instance);
             } catch (Exception e) {
                 // ignore;
                 e.printStackTrace(ps);
                 logger.warn(AbacusException.getErrorMsg(e));
             }
         }
-        MethodStatistics methodStatistics = new MethodStatistics(methodName, startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano, result);
-        methodStatisticsList.add(methodStatistics);
-        return methodStatisticsList;
+    }
+
+    /**
+     * The target method is called directly if it's {@code Try.Runnable.run()}. Otherwise it's called by a {@code MethodHandle} to avoid the overhead of reflection.
+     */
+    private static Invoker createInvoker(final Object instance, final Method method) {
+        if (instance instanceof Try.Runnable && "run".equals(method.getName()) && method.getParameterTypes().length == 0) {
+            final Try.Runnable<?> command = (Try.Runnable<?>) instance;
+
+            return new Invoker() {
+                @Override
+                public void invoke(final Object arg) throws Throwable {
+                    command.run();
+                }
+            };
+        }
+
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+
+        final int paramCount = method.getParameterTypes().length;
+
+        if (paramCount > 1) {
+            throw new IllegalArgumentException("Only the method with zero or one parameter is supported: " + method);
+        }
+
+        MethodHandle mh = null;
+
+        try {
+            mh = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new AbacusException(e);
+        }
+
+        if (!Modifier.isStatic(method.getModifiers())) {
+            mh = mh.bindTo(instance);
+        }
+
+        // the return value is discarded. invokeExact(...) must be called as a statement with the void return type.
+        final MethodHandle methodHandle = mh.asType(MethodType.genericMethodType(paramCount).changeReturnType(void.class));
+
+        if (paramCount == 0) {
+            return new Invoker() {
+                @Override
+                public void invoke(final Object arg) throws Throwable {
+                    methodHandle.invokeExact();
+                }
+            };
+        } else {
+            return new Invoker() {
+                @Override
+                public void invoke(final Object arg) throws Throwable {
+                    methodHandle.invokeExact(arg);
+                }
+            };
+        }
     }
 
     private static Method getMethod(final Object instance, final String methodName) {
@@ -336,62 +450,301 @@ public final class Profiler {
         N.sleep(3000);
     }
 
+    private static String num2String(final double num) {
+        return BigDecimal.valueOf(num).setScale(3, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static String change2String(final double baseline, final double current) {
+        if (baseline == 0) {
+            return current == 0 ? "0.00%" : "N/A";
+        }
+
+        final double change = (current - baseline) * 100 / baseline;
+        return (change > 0 ? "+" : "") + BigDecimal.valueOf(change).setScale(2, RoundingMode.HALF_UP).toPlainString() + "%";
+    }
+
+    private static interface Invoker {
+        void invoke(Object arg) throws Throwable;
+    }
+
     /**
-     * @author Haiyang Li
-     * @version $Revision: 0.8 $
+     * The {@code java.lang.management} API is only touched when memory tracking is enabled, since it's not available on some platforms, e.g. Android.
      */
-    static interface Statistics {
-        Object getResult();
+    private static final class MXBeans {
+        private static final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        private static final boolean isThreadAllocatedMemorySupported;
 
-        void setResult(Object result);
+        static {
+            boolean isSupported = false;
 
-        long getStartTimeInMillis();
+            try {
+                if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                    final com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
 
-        void setStartTimeInMillis(long startTimeInMillis);
+                    if (sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                        if (sunThreadMXBean.isThreadAllocatedMemoryEnabled() == false) {
+                            sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                        }
 
-        long getEndTimeInMillis();
+                        isSupported = true;
+                    }
+                }
+            } catch (Throwable e) {
+                // ignore.
+            }
 
-        void setEndTimeInMillis(long endTimeInMillis);
+            isThreadAllocatedMemorySupported = isSupported;
+        }
 
-        long getStartTimeInNano();
+        static boolean isThreadAllocatedMemorySupported() {
+            return isThreadAllocatedMemorySupported;
+        }
 
-        void setStartTimeInNano(long startTimeInNano);
+        static long currentThreadAllocatedBytes() {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
 
-        long getEndTimeInNano();
+        /**
+         *
+         * @return the total GC count and GC time in milliseconds of all the garbage collectors.
+         */
+        static long[] gcStatistics() {
+            long count = 0;
+            long time = 0;
 
-        void setEndTimeInNano(long endTimeInNano);
+            for (GarbageCollectorMXBean gcMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += N.max(0, gcMXBean.getCollectionCount());
+                time += N.max(0, gcMXBean.getCollectionTime());
+            }
 
-        double getElapsedTimeInMillis();
+            return new long[] { count, time };
+        }
+    }
+
+    /**
+     * A fixed-size histogram of non-negative {@code long} values, e.g. elapsed time in nanoseconds.
+     * By default, the values are counted in the buckets with a relative width of 1/128: the values less than 256 are counted exactly,
+     * and each range of [2^n, 2^(n+1)) (n >= 8) is divided into 128 buckets.
+     * So the value reported by {@link #getValueAtPercentile(double)} is at most 0.79% bigger than the exact value.
+     * It takes 7296 {@code long}s (about 57KB) for the full range of {@code long}.
+     * A smaller histogram with less precision can be created by {@link #Histogram(int)}.
+     *
+     * <br />
+     * It's not thread-safe. Records into a {@code Histogram} per thread and merge them by {@link #add(Histogram)}.
+     */
+    public static final class Histogram {
+        private static final int DEFAULT_PRECISION_BITS = 7;
+
+        private final int subBucketBits;
+        private final int subBucketCount;
+        private final long[] counts;
+        private long totalCount = 0;
+        private long sum = 0;
+        private long min = Long.MAX_VALUE;
+        private long max = 0;
+
+        public Histogram() {
+            this(DEFAULT_PRECISION_BITS);
+        }
+
+        /**
+         * Each range of [2^n, 2^(n+1)) is divided into 2^precisionBits buckets. For example, the relative error is at most 1/8 (12.5%) with 3 bits,
+         * and it takes (64 - 3) * 8 = 488 {@code long}s.
+         *
+         * @param precisionBits between 1 and 7.
+         */
+        public Histogram(final int precisionBits) {
+            N.checkArgument(precisionBits >= 1 && precisionBits <= DEFAULT_PRECISION_BITS, "'precisionBits' must be between 1 and 7: %s", precisionBits);
+
+            this.subBucketBits = precisionBits;
+            this.subBucketCount = 1 << precisionBits;
+            this.counts = new long[(Long.SIZE - subBucketBits) * subBucketCount];
+        }
+
+        /**
+         *
+         * @param value negative value is recorded as 0.
+         */
+        public void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+
+            counts[indexOf(value)]++;
+            totalCount++;
+            sum += value;
+
+            if (value < min) {
+                min = value;
+            }
+
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        /**
+         * Adds all the values recorded by the specified {@code histogram} to this {@code Histogram}.
+         *
+         * @param histogram
+         */
+        public void add(final Histogram histogram) {
+            N.checkArgument(histogram.subBucketBits == subBucketBits, "Can't add a histogram with different precision: %s", histogram.subBucketBits);
+
+            for (int i = 0, len = counts.length; i < len; i++) {
+                counts[i] += histogram.counts[i];
+            }
+
+            totalCount += histogram.totalCount;
+            sum += histogram.sum;
+
+            if (histogram.min < min) {
+                min = histogram.min;
+            }
+
+            if (histogram.max > max) {
+                max = histogram.max;
+            }
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         *
+         * @return 0 if no value is recorded.
+         */
+        public long getMin() {
+            return totalCount == 0 ? 0 : min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return totalCount == 0 ? 0 : ((double) sum) / totalCount;
+        }
+
+        /**
+         * Returns the value that the specified percentage of the recorded values are less than or equal to.
+         *
+         * @param percentile between 0 and 100. For example: 50, 99, 99.9.
+         * @return 0 if no value is recorded.
+         */
+        public long getValueAtPercentile(final double percentile) {
+            N.checkArgument(percentile >= 0 && percentile <= 100, "'percentile' must be between 0 and 100: %s", percentile);
+
+            if (totalCount == 0) {
+                return 0;
+            }
+
+            final long countAtPercentile = N.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+            long count = 0;
+
+            for (int i = 0, len = counts.length; i < len; i++) {
+                count += counts[i];
+
+                if (count >= countAtPercentile) {
+                    return N.max(N.min(highestEquivalentValue(i), max), min);
+                }
+            }
+
+            return max;
+        }
+
+        int indexOf(final long value) {
+            if (value < subBucketCount) {
+                return (int) value;
+            }
+
+            final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - subBucketBits;
+
+            return ((shift + 1) << subBucketBits) + (int) ((value >>> shift) - subBucketCount);
+        }
+
+        long highestEquivalentValue(final int index) {
+            final int bucket = index >>> subBucketBits;
+
+            if (bucket == 0) {
+                return index;
+            }
+
+            final int shift = bucket - 1;
+            final long subBucket = (index & (subBucketCount - 1)) + subBucketCount;
+
+            // It's Long.MAX_VALUE for the last bucket, by overflow.
+            return ((subBucket + 1) << shift) - 1;
+        }
+    }
+
+    /**
+     * The result of a method recorded by a thread, or merged from all threads.
+     */
+    static final class MethodResult {
+        final String methodName;
+        final Histogram histogram = new Histogram();
+        /**
+         * -1 if it's not tracked.
+         */
+        long allocatedBytes;
+        long failedCount = 0;
+        final List<MethodStatistics> failedSampleList = new ArrayList<>();
+
+        MethodResult(final String methodName, final boolean trackAllocation) {
+            this.methodName = methodName;
+            this.allocatedBytes = trackAllocation ? 0 : -1;
+        }
+
+        void addFailed(final long startTimeInNano, final long endTimeInNano, final Throwable error) {
+            failedCount++;
+
+            if (failedSampleList.size() < MAX_FAILED_SAMPLE_NUM) {
+                final long endTimeInMillis = System.currentTimeMillis();
+                final long startTimeInMillis = endTimeInMillis - (endTimeInNano - startTimeInNano) / 1000000;
+                failedSampleList.add(new MethodStatistics(methodName, startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano, error));
+            }
+        }
+
+        void merge(final MethodResult other) {
+            histogram.add(other.histogram);
+            allocatedBytes = allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes;
+            failedCount += other.failedCount;
+            failedSampleList.addAll(other.failedSampleList);
+        }
     }
 
     /**
      * @author Haiyang Li
      * @version $Revision: 0.8 $
      */
-    static interface LoopStatistics extends Statistics {
-        List<String> getMethodNameList();
-
-        MethodStatistics getMinElapsedTimeMethod();
+    static interface Statistics {
+        Object getResult();
 
-        MethodStatistics getMaxElapsedTimeMethod();
+        void setResult(Object result);
 
-        public double getMethodTotalElapsedTimeInMillis(String methodName);
+        long getStartTimeInMillis();
 
-        public double getMethodMaxElapsedTimeInMillis(String methodName);
+        void setStartTimeInMillis(long startTimeInMillis);
 
-        public double getMethodMinElapsedTimeInMillis(String methodName);
+        long getEndTimeInMillis();
 
-        public double getMethodAverageElapsedTimeInMillis(String methodName);
+        void setEndTimeInMillis(long endTimeInMillis);
 
-        public double getTotalElapsedTimeInMillis();
+        long getStartTimeInNano();
 
-        public int getMethodSize(String methodName);
+        void setStartTimeInNano(long startTimeInNano);
 
-        public List<MethodStatistics> getMethodStatisticsList(String methodName);
+        long getEndTimeInNano();
 
-        public List<MethodStatistics> getFailedMethodStatisticsList(String methodName);
+        void setEndTimeInNano(long endTimeInNano);
 
-        List<MethodStatistics> getAllFailedMethodStatisticsList();
+        double getElapsedTimeInMillis();
     }
 
     /**
@@ -517,13 +870,13 @@ public final class Profiler {
         }
 
         public boolean isFailed() {
-            return (result != null) && result instanceof Exception;
+            return (result != null) && result instanceof Throwable;
         }
 
         @Override
         public String toString() {
             if (isFailed()) {
-                Exception e = (Exception) result;
+                Throwable e = (Throwable) result;
                 return "method=" + methodName + ", startTime=" + time2String(getStartTimeInMillis()) + ", endTime=" + time2String(getEndTimeInMillis())
                         + ", result=" + ClassUtil.getSimpleClassName(e.getClass()) + ": " + e.getMessage() + ".";
             } else {
@@ -533,392 +886,328 @@ public final class Profiler {
         }
     }
 
-    static class SingleLoopStatistics extends AbstractStatistics implements LoopStatistics {
-        private List<MethodStatistics> methodStatisticsList;
+    /**
+     * The summary of a method in a test: the elapsed time is in milliseconds.
+     * It can be exported by {@link MultiLoopsStatistics#writeCsvResult(Writer)} and read back by {@link MultiLoopsStatistics#readCsvResult(Reader)}
+     * as the baseline for the comparison with other tests.
+     */
+    public static final class MethodSummary {
+        static final String CSV_HEADER = "methodName,count,failedCount,avgTime,minTime,p50Time,p90Time,p99Time,p999Time,maxTime,allocatedBytesPerCall";
 
-        public SingleLoopStatistics() {
-            super();
+        private final String methodName;
+        private final long count;
+        private final long failedCount;
+        private final double avgTime;
+        private final double minTime;
+        private final double p50Time;
+        private final double p90Time;
+        private final double p99Time;
+        private final double p999Time;
+        private final double maxTime;
+        private final double allocatedBytesPerCall;
+
+        public MethodSummary(final String methodName, final long count, final long failedCount, final double avgTime, final double minTime,
+                final double p50Time, final double p90Time, final double p99Time, final double p999Time, final double maxTime,
+                final double allocatedBytesPerCall) {
+            this.methodName = methodName;
+            this.count = count;
+            this.failedCount = failedCount;
+            this.avgTime = avgTime;
+            this.minTime = minTime;
+            this.p50Time = p50Time;
+            this.p90Time = p90Time;
+            this.p99Time = p99Time;
+            this.p999Time = p999Time;
+            this.maxTime = maxTime;
+            this.allocatedBytesPerCall = allocatedBytesPerCall;
         }
 
-        public SingleLoopStatistics(final long startTimeInMillis, final long endTimeInMillis, final long startTimeInNano, final long endTimeInNano) {
-            this(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano, null);
+        public String getMethodName() {
+            return methodName;
         }
 
-        public SingleLoopStatistics(final long startTimeInMillis, final long endTimeInMillis, final long startTimeInNano, final long endTimeInNano,
-                final List<MethodStatistics> methodStatisticsList) {
-            super(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano);
-            this.methodStatisticsList = methodStatisticsList;
+        public long getCount() {
+            return count;
         }
 
-        @Override
-        public List<String> getMethodNameList() {
-            List<String> result = new ArrayList<>();
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (!result.contains(methodStatistics.getMethodName())) {
-                        result.add(methodStatistics.getMethodName());
-                    }
-                }
-            }
-            return result;
+        public long getFailedCount() {
+            return failedCount;
         }
 
-        public List<MethodStatistics> getMethodStatisticsList() {
-            if (methodStatisticsList == null) {
-                methodStatisticsList = new ArrayList<>();
-            }
-            return methodStatisticsList;
+        public double getAvgTime() {
+            return avgTime;
         }
 
-        public void setMethodStatisticsList(final List<MethodStatistics> methodStatisticsList) {
-            this.methodStatisticsList = methodStatisticsList;
+        public double getMinTime() {
+            return minTime;
         }
 
-        public void addMethodStatisticsList(final MethodStatistics methodStatistics) {
-            getMethodStatisticsList().add(methodStatistics);
+        public double getP50Time() {
+            return p50Time;
         }
 
-        @Override
-        public MethodStatistics getMaxElapsedTimeMethod() {
-            MethodStatistics result = null;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if ((result == null) || (methodStatistics.getElapsedTimeInMillis() > result.getElapsedTimeInMillis())) {
-                        result = methodStatistics;
-                    }
-                }
-            }
-            return result;
+        public double getP90Time() {
+            return p90Time;
         }
 
-        @Override
-        public MethodStatistics getMinElapsedTimeMethod() {
-            MethodStatistics result = null;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if ((result == null) || (methodStatistics.getElapsedTimeInMillis() < result.getElapsedTimeInMillis())) {
-                        result = methodStatistics;
-                    }
-                }
-            }
-            return result;
+        public double getP99Time() {
+            return p99Time;
         }
 
-        @Override
-        public double getMethodTotalElapsedTimeInMillis(final String methodName) {
-            double result = 0;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.getMethodName().equals(methodName)) {
-                        result += methodStatistics.getElapsedTimeInMillis();
-                    }
-                }
-            }
-            return result;
+        public double getP999Time() {
+            return p999Time;
         }
 
-        @Override
-        public double getMethodMaxElapsedTimeInMillis(final String methodName) {
-            double result = 0;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.getMethodName().equals(methodName)) {
-                        if (methodStatistics.getElapsedTimeInMillis() > result) {
-                            result = methodStatistics.getElapsedTimeInMillis();
-                        }
-                    }
-                }
-            }
-            return result;
+        public double getMaxTime() {
+            return maxTime;
         }
 
-        @Override
-        public double getMethodMinElapsedTimeInMillis(final String methodName) {
-            double result = Integer.MAX_VALUE;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.getMethodName().equals(methodName)) {
-                        if (methodStatistics.getElapsedTimeInMillis() < result) {
-                            result = methodStatistics.getElapsedTimeInMillis();
-                        }
-                    }
-                }
-            }
-            return result;
+        /**
+         *
+         * @return -1 if it's not tracked.
+         */
+        public double getAllocatedBytesPerCall() {
+            return allocatedBytesPerCall;
         }
 
-        @Override
-        public double getMethodAverageElapsedTimeInMillis(final String methodName) {
-            double totalTime = 0;
-            int methodNum = 0;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.getMethodName().equals(methodName)) {
-                        totalTime += methodStatistics.getElapsedTimeInMillis();
-                        methodNum++;
-                    }
-                }
-            }
-            return (methodNum > 0) ? (totalTime / methodNum) : totalTime;
+        String toCsvLine() {
+            final String name = methodName.indexOf(',') >= 0 || methodName.indexOf('"') >= 0 ? '"' + methodName.replace("\"", "\"\"") + '"' : methodName;
+
+            return name + "," + count + "," + failedCount + "," + num2String(avgTime) + "," + num2String(minTime) + "," + num2String(p50Time) + ","
+                    + num2String(p90Time) + "," + num2String(p99Time) + "," + num2String(p999Time) + "," + num2String(maxTime) + ","
+                    + num2String(allocatedBytesPerCall);
         }
 
-        @Override
-        public double getTotalElapsedTimeInMillis() {
-            double result = 0;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    result += methodStatistics.getElapsedTimeInMillis();
+        static MethodSummary parseCsvLine(final String line) {
+            String name = null;
+            String rest = null;
+
+            if (line.startsWith("\"")) {
+                int idx = 1;
+
+                while ((idx = line.indexOf('"', idx)) > 0 && idx + 1 < line.length() && line.charAt(idx + 1) == '"') {
+                    idx += 2;
                 }
-            }
-            return result;
-        }
 
-        @Override
-        public int getMethodSize(final String methodName) {
-            int methodSize = 0;
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.getMethodName().equals(methodName)) {
-                        methodSize++;
-                    }
+                if (idx < 0 || idx + 1 >= line.length() || line.charAt(idx + 1) != ',') {
+                    throw new IllegalArgumentException("Invalid line: " + line);
                 }
-            }
-            return methodSize;
-        }
 
-        @Override
-        public List<MethodStatistics> getMethodStatisticsList(final String methodName) {
-            List<MethodStatistics> result = new ArrayList<>(getMethodSize(methodName));
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.getMethodName().equals(methodName)) {
-                        result.add(methodStatistics);
-                    }
+                name = line.substring(1, idx).replace("\"\"", "\"");
+                rest = line.substring(idx + 2);
+            } else {
+                final int idx = line.indexOf(',');
+
+                if (idx < 0) {
+                    throw new IllegalArgumentException("Invalid line: " + line);
                 }
+
+                name = line.substring(0, idx);
+                rest = line.substring(idx + 1);
             }
-            return result;
-        }
 
-        @Override
-        public List<MethodStatistics> getFailedMethodStatisticsList(final String methodName) {
-            List<MethodStatistics> result = new ArrayList<>();
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.isFailed() && methodStatistics.getMethodName().equals(methodName)) {
-                        result.add(methodStatistics);
-                    }
-                }
+            final String[] values = rest.split(",");
+
+            if (values.length != 10) {
+                throw new IllegalArgumentException("Invalid line: " + line);
             }
-            return result;
+
+            return new MethodSummary(name, Long.parseLong(values[0].trim()), Long.parseLong(values[1].trim()), Double.parseDouble(values[2].trim()),
+                    Double.parseDouble(values[3].trim()), Double.parseDouble(values[4].trim()), Double.parseDouble(values[5].trim()),
+                    Double.parseDouble(values[6].trim()), Double.parseDouble(values[7].trim()), Double.parseDouble(values[8].trim()),
+                    Double.parseDouble(values[9].trim()));
         }
 
         @Override
-        public List<MethodStatistics> getAllFailedMethodStatisticsList() {
-            List<MethodStatistics> result = new ArrayList<>();
-            if (methodStatisticsList != null) {
-                for (MethodStatistics methodStatistics : methodStatisticsList) {
-                    if (methodStatistics.isFailed()) {
-                        result.add(methodStatistics);
-                    }
-                }
-            }
-            return result;
+        public String toString() {
+            return "{methodName=" + methodName + ", count=" + count + ", failedCount=" + failedCount + ", avgTime=" + num2String(avgTime) + ", minTime="
+                    + num2String(minTime) + ", p50Time=" + num2String(p50Time) + ", p90Time=" + num2String(p90Time) + ", p99Time=" + num2String(p99Time)
+                    + ", p999Time=" + num2String(p999Time) + ", maxTime=" + num2String(maxTime) + ", allocatedBytesPerCall="
+                    + num2String(allocatedBytesPerCall) + "}";
         }
     }
 
-    public static class MultiLoopsStatistics extends AbstractStatistics implements LoopStatistics {
+    public static class MultiLoopsStatistics extends AbstractStatistics {
         private static final String SEPARATOR_LINE = "========================================================================================================================";
         private final int threadNum;
-        private List<LoopStatistics> loopStatisticsList;
-
-        public MultiLoopsStatistics(final long startTimeInMillis, final long endTimeInMillis, final long startTimeInNano, final long endTimeInNano,
-                final int threadNum) {
-            this(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano, threadNum, null);
-        }
+        private final int loopNum;
+        private final Map<String, MethodResult> methodResultMap;
+        private final long gcCount;
+        private final long gcTimeInMillis;
 
-        public MultiLoopsStatistics(final long startTimeInMillis, final long endTimeInMillis, final long startTimeInNano, final long endTimeInNano,
-                final int threadNum, final List<LoopStatistics> loopStatisticsList) {
+        MultiLoopsStatistics(final long startTimeInMillis, final long endTimeInMillis, final long startTimeInNano, final long endTimeInNano,
+                final int threadNum, final int loopNum, final Map<String, MethodResult> methodResultMap, final long gcCount, final long gcTimeInMillis) {
             super(startTimeInMillis, endTimeInMillis, startTimeInNano, endTimeInNano);
             this.threadNum = threadNum;
-            this.loopStatisticsList = loopStatisticsList;
+            this.loopNum = loopNum;
+            this.methodResultMap = methodResultMap;
+            this.gcCount = gcCount;
+            this.gcTimeInMillis = gcTimeInMillis;
         }
 
         public int getThreadNum() {
             return threadNum;
         }
 
-        @Override
+        /**
+         *
+         * @return loops run by each thread, excluding the warmup loops.
+         */
+        public int getLoopNum() {
+            return loopNum;
+        }
+
         public List<String> getMethodNameList() {
-            List<String> result = null;
-            if (loopStatisticsList == null) {
-                result = new ArrayList<>();
-            } else {
-                result = (loopStatisticsList.get(0)).getMethodNameList();
-            }
-            return result;
+            return new ArrayList<>(methodResultMap.keySet());
         }
 
-        public List<LoopStatistics> getLoopStatisticsList() {
-            if (loopStatisticsList == null) {
-                loopStatisticsList = new ArrayList<>();
-            }
-            return loopStatisticsList;
+        /**
+         *
+         * @param methodName
+         * @return the histogram of the elapsed time in nanoseconds, merged from all the threads.
+         */
+        public Histogram getMethodHistogram(final String methodName) {
+            return getMethodResult(methodName).histogram;
         }
 
-        public void setLoopStatisticsList(final List<LoopStatistics> loopStatisticsList) {
-            this.loopStatisticsList = loopStatisticsList;
+        public double getMethodTotalElapsedTimeInMillis(final String methodName) {
+            return getMethodHistogram(methodName).getSum() / 1000000.0d;
         }
 
-        public void addMethodStatisticsList(final LoopStatistics loopStatistics) {
-            getLoopStatisticsList().add(loopStatistics);
+        public double getMethodMaxElapsedTimeInMillis(final String methodName) {
+            return getMethodHistogram(methodName).getMax() / 1000000.0d;
         }
 
-        @Override
-        public MethodStatistics getMaxElapsedTimeMethod() {
-            MethodStatistics result = null;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    MethodStatistics methodStatistics = loopStatistics.getMaxElapsedTimeMethod();
-                    if ((result == null) || (methodStatistics.getElapsedTimeInMillis() > result.getElapsedTimeInMillis())) {
-                        result = methodStatistics;
-                    }
-                }
-            }
-            return result;
+        public double getMethodMinElapsedTimeInMillis(final String methodName) {
+            return getMethodHistogram(methodName).getMin() / 1000000.0d;
         }
 
-        @Override
-        public MethodStatistics getMinElapsedTimeMethod() {
-            MethodStatistics result = null;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    MethodStatistics methodStatistics = loopStatistics.getMinElapsedTimeMethod();
-                    if ((result == null) || (methodStatistics.getElapsedTimeInMillis() < result.getElapsedTimeInMillis())) {
-                        result = methodStatistics;
-                    }
-                }
-            }
-            return result;
+        public double getMethodAverageElapsedTimeInMillis(final String methodName) {
+            return getMethodHistogram(methodName).getMean() / 1000000.0d;
         }
 
-        @Override
-        public double getMethodTotalElapsedTimeInMillis(final String methodName) {
-            double result = 0;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    result += loopStatistics.getMethodTotalElapsedTimeInMillis(methodName);
-                }
-            }
-            return result;
+        /**
+         *
+         * @param methodName
+         * @param percentile between 0 and 100. For example: 50, 99, 99.9.
+         * @return
+         * @see Histogram#getValueAtPercentile(double)
+         */
+        public double getMethodElapsedTimeAtPercentileInMillis(final String methodName, final double percentile) {
+            return getMethodHistogram(methodName).getValueAtPercentile(percentile) / 1000000.0d;
         }
 
-        @Override
-        public double getMethodMaxElapsedTimeInMillis(final String methodName) {
+        public double getTotalElapsedTimeInMillis() {
             double result = 0;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    double loopMethodMaxTime = loopStatistics.getMethodMaxElapsedTimeInMillis(methodName);
-                    if (loopMethodMaxTime > result) {
-                        result = loopMethodMaxTime;
-                    }
-                }
+            for (MethodResult methodResult : methodResultMap.values()) {
+                result += methodResult.histogram.getSum() / 1000000.0d;
             }
             return result;
         }
 
-        @Override
-        public double getMethodMinElapsedTimeInMillis(final String methodName) {
-            double result = Integer.MAX_VALUE;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    double loopMethodMinTime = loopStatistics.getMethodMinElapsedTimeInMillis(methodName);
-                    if (loopMethodMinTime < result) {
-                        result = loopMethodMinTime;
-                    }
-                }
-            }
-            return result;
+        public long getMethodSize(final String methodName) {
+            return getMethodHistogram(methodName).getTotalCount();
         }
 
-        @Override
-        public double getMethodAverageElapsedTimeInMillis(final String methodName) {
-            double totalTime = 0;
-            int methodNum = 0;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    double loopMethodTotalTime = loopStatistics.getMethodTotalElapsedTimeInMillis(methodName);
-                    int loopMethodSize = loopStatistics.getMethodSize(methodName);
-                    totalTime += loopMethodTotalTime;
-                    methodNum += loopMethodSize;
-                }
-            }
-            return (methodNum > 0) ? (totalTime / methodNum) : totalTime;
+        public long getMethodFailedCount(final String methodName) {
+            return getMethodResult(methodName).failedCount;
         }
 
-        @Override
-        public double getTotalElapsedTimeInMillis() {
-            double result = 0;
-            if (loopStatisticsList != null) {
-                for (int index = 0; index < loopStatisticsList.size(); index++) {
-                    LoopStatistics loopStatistics = loopStatisticsList.get(index);
-                    result += loopStatistics.getTotalElapsedTimeInMillis();
-                }
+        /**
+         *
+         * @param methodName
+         * @return -1 if it's not tracked.
+         */
+        public double getMethodAllocatedBytesPerCall(final String methodName) {
+            final MethodResult methodResult = getMethodResult(methodName);
+            final long count = methodResult.histogram.getTotalCount();
+            return methodResult.allocatedBytes < 0 ? -1 : (count == 0 ? 0 : ((double) methodResult.allocatedBytes) / count);
+        }
+
+        /**
+         *
+         * @return the GC count of all the garbage collectors during the test, or -1 if it's not tracked.
+         */
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        /**
+         *
+         * @return the GC time of all the garbage collectors during the test, or -1 if it's not tracked.
+         */
+        public long getGcTimeInMillis() {
+            return gcTimeInMillis;
+        }
+
+        /**
+         * Only the first {@value Profiler#MAX_FAILED_SAMPLE_NUM} failed calls in each thread are kept.
+         *
+         * @param methodName
+         * @return
+         */
+        public List<MethodStatistics> getFailedMethodStatisticsList(final String methodName) {
+            return new ArrayList<>(getMethodResult(methodName).failedSampleList);
+        }
+
+        public List<MethodStatistics> getAllFailedMethodStatisticsList() {
+            List<MethodStatistics> result = new ArrayList<>();
+            for (MethodResult methodResult : methodResultMap.values()) {
+                result.addAll(methodResult.failedSampleList);
             }
             return result;
         }
 
-        @Override
-        public int getMethodSize(final String methodName) {
-            int result = 0;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    result += loopStatistics.getMethodSize(methodName);
-                }
+        public MethodSummary getMethodSummary(final String methodName) {
+            final Histogram histogram = getMethodHistogram(methodName);
+
+            return new MethodSummary(methodName, histogram.getTotalCount(), getMethodFailedCount(methodName), histogram.getMean() / 1000000.0d,
+                    histogram.getMin() / 1000000.0d, histogram.getValueAtPercentile(50) / 1000000.0d, histogram.getValueAtPercentile(90) / 1000000.0d,
+                    histogram.getValueAtPercentile(99) / 1000000.0d, histogram.getValueAtPercentile(99.9) / 1000000.0d, histogram.getMax() / 1000000.0d,
+                    getMethodAllocatedBytesPerCall(methodName));
+        }
+
+        public List<MethodSummary> getMethodSummaryList() {
+            final List<MethodSummary> result = new ArrayList<>(methodResultMap.size());
+            for (String methodName : methodResultMap.keySet()) {
+                result.add(getMethodSummary(methodName));
             }
             return result;
         }
 
-        @Override
-        public List<MethodStatistics> getMethodStatisticsList(final String methodName) {
-            List<MethodStatistics> methodStatisticsList = new ArrayList<>(getMethodSize(methodName));
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    methodStatisticsList.addAll(loopStatistics.getMethodStatisticsList(methodName));
-                }
+        private MethodResult getMethodResult(final String methodName) {
+            final MethodResult methodResult = methodResultMap.get(methodName);
+
+            if (methodResult == null) {
+                throw new IllegalArgumentException("No method found by name: " + methodName);
             }
-            return methodStatisticsList;
+
+            return methodResult;
         }
 
-        @Override
-        public List<MethodStatistics> getFailedMethodStatisticsList(final String methodName) {
-            List<MethodStatistics> result = new ArrayList<>();
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    result.addAll(loopStatistics.getFailedMethodStatisticsList(methodName));
-                }
+        private long getTotalCall() {
+            long res = 0;
+            for (MethodResult methodResult : methodResultMap.values()) {
+                res += methodResult.histogram.getTotalCount();
             }
-            return result;
+            return res;
         }
 
-        @Override
-        public List<MethodStatistics> getAllFailedMethodStatisticsList() {
-            List<MethodStatistics> result = new ArrayList<>();
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    result.addAll(loopStatistics.getAllFailedMethodStatisticsList());
-                }
+        private long getTotalFailedCount() {
+            long res = 0;
+            for (MethodResult methodResult : methodResultMap.values()) {
+                res += methodResult.failedCount;
             }
-            return result;
+            return res;
         }
 
-        private int getTotalCall() {
-            int res = 0;
-            if (loopStatisticsList != null) {
-                for (LoopStatistics loopStatistics : loopStatisticsList) {
-                    res += loopStatistics.getMethodNameList().size();
+        private boolean isAllocationTracked() {
+            for (MethodResult methodResult : methodResultMap.values()) {
+                if (methodResult.allocatedBytes >= 0) {
+                    return true;
                 }
             }
-            return res;
+            return false;
         }
 
         public void printResult() {
@@ -937,22 +1226,14 @@ public final class Profiler {
             writer.println();
             writer.println(SEPARATOR_LINE);
             writer.println("(unit: milliseconds)");
-            writer.println("threadNum=" + threadNum + "; loops=" + (loopStatisticsList.size() / threadNum));
+            writer.println("threadNum=" + threadNum + "; loops=" + loopNum);
             writer.println("startTime: " + time2String(getStartTimeInMillis()));
             writer.println("endTime:   " + time2String(getEndTimeInMillis()));
             writer.println("totalElapsedTime: " + elapsedTimeFormat.format(getElapsedTimeInMillis()));
+            if (gcCount >= 0) {
+                writer.println("gcCount: " + gcCount + "; gcTime: " + gcTimeInMillis);
+            }
             writer.println();
-            //            MethodStatistics methodStatistics = getMaxElapsedTimeInMillisMethod();
-            //
-            //            if (methodStatistics != null) {
-            //                writer.println("maxMethodTime(" + methodStatistics.getMethodName() + "): " + elapsedTimeInMillisFormat.format(methodStatistics.getElapsedTimeInMillis()));
-            //            }
-            //
-            //            methodStatistics = getMinElapsedTimeInMillisMethod();
-            //
-            //            if (methodStatistics != null) {
-            //                writer.println("minMethodTime(" + methodStatistics.getMethodName() + "): " + elapsedTimeInMillisFormat.format(methodStatistics.getElapsedTimeInMillis()));
-            //            }
             String methodNameTitil = "<method name>";
             List<String> methodNameList = getMethodNameList();
             int maxMethodNameLength = methodNameTitil.length();
@@ -963,66 +1244,21 @@ public final class Profiler {
                     }
                 }
             }
+            final boolean isAllocationTracked = isAllocationTracked();
             writer.println();
             maxMethodNameLength += 3;
-            writer.println(N.padEnd(methodNameTitil + ",  ", maxMethodNameLength)
-                    + "|avg time|, |min time|, |max time|, |0.01% >=|, |0.1% >=|,  |1% >=|,    |10% >=|,   |20% >=|,   |50% >=|,   |80% >=|,   |90% >=|,   |99% >=|,   |99.9% >=|, |99.99% >=|");
-            for (String methodName : methodNameList) {
-                List<MethodStatistics> methodStatisticsList = getMethodStatisticsList(methodName);
-                int size = methodStatisticsList.size();
-                Collections.sort(methodStatisticsList, new Comparator<MethodStatistics>() {
-                    @Override
-                    public int compare(final MethodStatistics o1, final MethodStatistics o2) {
-                        return (o1.getElapsedTimeInMillis() == o2.getElapsedTimeInMillis()) ? 0
-                                : ((o1.getElapsedTimeInMillis() > o2.getElapsedTimeInMillis()) ? (-1) : 1);
-                    }
-                });
-                double avgTime = getMethodAverageElapsedTimeInMillis(methodName);
-                double maxTime = methodStatisticsList.get(0).getElapsedTimeInMillis();
-                double minTime = methodStatisticsList.get(size - 1).getElapsedTimeInMillis();
-                final int minLen = 12;
-                writer.println(
-                        N.padEnd(
-                                methodName
-                                        + ",  ",
-                                maxMethodNameLength)
-                                + N.padEnd(elapsedTimeFormat.format(avgTime) + ",  ",
-                                        minLen)
-                                + N.padEnd(
-                                        elapsedTimeFormat.format(minTime)
-                                                + ",  ",
-                                        minLen)
-                                + N.padEnd(elapsedTimeFormat.format(maxTime) + ",  ", minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.0001)).getElapsedTimeInMillis()) + ",  ", minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.001)).getElapsedTimeInMillis()) + ",  ", minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.01)).getElapsedTimeInMillis()) + ",  ",
-                                        minLen)
-                                + N.padEnd(
-                                        elapsedTimeFormat
-                                                .format(methodStatisticsList.get((int) (size * 0.1))
-                                                        .getElapsedTimeInMillis())
-                                                + ",  ",
-                                        minLen)
-                                + N.padEnd(
-                                        elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.2)).getElapsedTimeInMillis())
-                                                + ",  ",
-                                        minLen)
-                                + N.padEnd(
-                                        elapsedTimeFormat
-                                                .format(methodStatisticsList.get((int) (size * 0.5))
-                                                        .getElapsedTimeInMillis())
-                                                + ",  ",
-                                        minLen)
-                                + N.padEnd(
-                                        elapsedTimeFormat
-                                                .format(methodStatisticsList.get((int) (size * 0.8))
-                                                        .getElapsedTimeInMillis())
-                                                + ",  ",
-                                        minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.9)).getElapsedTimeInMillis()) + ",  ", minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.99)).getElapsedTimeInMillis()) + ",  ", minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.999)).getElapsedTimeInMillis()) + ",  ", minLen)
-                                + N.padEnd(elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.9999)).getElapsedTimeInMillis()) + ",  ", minLen));
+            writer.println(N.padEnd(methodNameTitil + ",  ", maxMethodNameLength) + "|avg time|, |min time|, |50% <=|,   |90% <=|,   |99% <=|,   |99.9% <=|, |max time|"
+                    + (isAllocationTracked ? ", |bytes/call|" : ""));
+            final int minLen = 12;
+            for (MethodSummary summary : getMethodSummaryList()) {
+                writer.println(N.padEnd(summary.getMethodName() + ",  ", maxMethodNameLength) + N.padEnd(elapsedTimeFormat.format(summary.getAvgTime()) + ",  ", minLen)
+                        + N.padEnd(elapsedTimeFormat.format(summary.getMinTime()) + ",  ", minLen)
+                        + N.padEnd(elapsedTimeFormat.format(summary.getP50Time()) + ",  ", minLen)
+                        + N.padEnd(elapsedTimeFormat.format(summary.getP90Time()) + ",  ", minLen)
+                        + N.padEnd(elapsedTimeFormat.format(summary.getP99Time()) + ",  ", minLen)
+                        + N.padEnd(elapsedTimeFormat.format(summary.getP999Time()) + ",  ", minLen)
+                        + (isAllocationTracked ? N.padEnd(elapsedTimeFormat.format(summary.getMaxTime()) + ",  ", minLen)
+                                + elapsedTimeFormat.format(summary.getAllocatedBytesPerCall()) : elapsedTimeFormat.format(summary.getMaxTime())));
             }
             writer.println();
             writeError(writer);
@@ -1031,14 +1267,12 @@ public final class Profiler {
         }
 
         private void writeError(final PrintWriter writer) {
-            MethodStatistics methodStatistics;
-            List<?> failedMethodList = getAllFailedMethodStatisticsList();
-            if (failedMethodList.size() > 0) {
+            final long failedCount = getTotalFailedCount();
+            if (failedCount > 0) {
                 writer.println();
-                writer.println("Errors:" + failedMethodList.size() + " (" + (failedMethodList.size() * 100D) / getTotalCall() + "%)");
-                for (int index = 0; index < failedMethodList.size(); index++) {
+                writer.println("Errors:" + failedCount + " (" + (failedCount * 100D) / getTotalCall() + "%)");
+                for (MethodStatistics methodStatistics : getAllFailedMethodStatisticsList()) {
                     writer.println("--------------------------------------------------------------------------------");
-                    methodStatistics = (MethodStatistics) failedMethodList.get(index);
                     writer.println(methodStatistics.toString());
                 }
             }
@@ -1055,73 +1289,43 @@ public final class Profiler {
         private void writeHtmlResult(final PrintWriter writer) {
             writer.println(SEPARATOR_LINE);
             writer.println("<br/>" + "(unit: milliseconds)");
-            writer.println("<br/>" + "threadNum=" + threadNum + "; loops=" + (loopStatisticsList.size() / threadNum) + "");
+            writer.println("<br/>" + "threadNum=" + threadNum + "; loops=" + loopNum + "");
             writer.println("<br/>" + "startTime: " + time2String(getStartTimeInMillis()) + "");
             writer.println("<br/>" + "endTime:   " + time2String(getEndTimeInMillis()) + "");
             writer.println("<br/>" + "totalElapsedTime: " + elapsedTimeFormat.format(getElapsedTimeInMillis()) + "");
+            if (gcCount >= 0) {
+                writer.println("<br/>" + "gcCount: " + gcCount + "; gcTime: " + gcTimeInMillis);
+            }
             writer.println("<br/>");
-            //            MethodStatistics methodStatistics = getMaxElapsedTimeInMillisMethod();
-            //
-            //            if (methodStatistics != null) {
-            //                writer.println(
-            //                        "<br/>" + "maxMethodTime: " + elapsedTimeInMillisFormat.format(methodStatistics.getElapsedTimeInMillis()));
-            //            }
-            //
-            //            methodStatistics = getMinElapsedTimeInMillisMethod();
-            //
-            //            if (methodStatistics != null) {
-            //                writer.println(
-            //                        "<br/>" + "minMethodTime(" + methodStatistics.getMethodName() + "): " + elapsedTimeInMillisFormat.format(methodStatistics.getElapsedTimeInMillis()));
-            //            }
             writer.println("<br/>");
+            final boolean isAllocationTracked = isAllocationTracked();
             writer.println("<table width=\"1200\" border=\"1\">");
             writer.println("<tr>");
             writer.println("<th>method name</th>");
             writer.println("<th>avg time</th>");
             writer.println("<th>min time</th>");
+            writer.println("<th>50% &lt;=</th>");
+            writer.println("<th>90% &lt;=</th>");
+            writer.println("<th>99% &lt;=</th>");
+            writer.println("<th>99.9% &lt;=</th>");
             writer.println("<th>max time</th>");
-            writer.println("<th>0.01% &gt;=</th>");
-            writer.println("<th>0.1% &gt;=</th>");
-            writer.println("<th>1% &gt;=</th>");
-            writer.println("<th>10% &gt;=</th>");
-            writer.println("<th>20% &gt;=</th>");
-            writer.println("<th>50% &gt;=</th>");
-            writer.println("<th>80% &gt;=</th>");
-            writer.println("<th>90% &gt;=</th>");
-            writer.println("<th>99% &gt;=</th>");
-            writer.println("<th>99.9% &gt;=</th>");
-            writer.println("<th>99.99% &gt;=</th>");
+            if (isAllocationTracked) {
+                writer.println("<th>bytes/call</th>");
+            }
             writer.println("</tr>");
-            List<String> methodNameList = getMethodNameList();
-            for (String methodName : methodNameList) {
-                List<MethodStatistics> methodStatisticsList = getMethodStatisticsList(methodName);
-                int size = methodStatisticsList.size();
-                Collections.sort(methodStatisticsList, new Comparator<MethodStatistics>() {
-                    @Override
-                    public int compare(final MethodStatistics o1, final MethodStatistics o2) {
-                        return (o1.getElapsedTimeInMillis() == o2.getElapsedTimeInMillis()) ? 0
-                                : ((o1.getElapsedTimeInMillis() > o2.getElapsedTimeInMillis()) ? (-1) : 1);
-                    }
-                });
-                double avgTime = getMethodAverageElapsedTimeInMillis(methodName);
-                double minTime = methodStatisticsList.get(size - 1).getElapsedTimeInMillis();
-                double maxTime = methodStatisticsList.get(0).getElapsedTimeInMillis();
+            for (MethodSummary summary : getMethodSummaryList()) {
                 writer.println("<tr>");
-                writer.println("<td>" + methodName + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(avgTime) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(minTime) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(maxTime) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.0001)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.001)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.01)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.1)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.2)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.5)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.8)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.9)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.99)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.999)).getElapsedTimeInMillis()) + "</td>");
-                writer.println("<td>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.9999)).getElapsedTimeInMillis()) + "</td>");
+                writer.println("<td>" + summary.getMethodName() + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getAvgTime()) + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getMinTime()) + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getP50Time()) + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getP90Time()) + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getP99Time()) + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getP999Time()) + "</td>");
+                writer.println("<td>" + elapsedTimeFormat.format(summary.getMaxTime()) + "</td>");
+                if (isAllocationTracked) {
+                    writer.println("<td>" + elapsedTimeFormat.format(summary.getAllocatedBytesPerCall()) + "</td>");
+                }
                 writer.println("</tr>");
             }
             writer.println("</table>");
@@ -1131,13 +1335,11 @@ public final class Profiler {
         }
 
         private void writeHtmlError(final PrintWriter writer) {
-            MethodStatistics methodStatistics;
-            List<?> failedMethodList = getAllFailedMethodStatisticsList();
-            if (failedMethodList.size() > 0) {
-                writer.println("<h4>Errors:" + failedMethodList.size() + " (" + (failedMethodList.size() * 100D) / getTotalCall() + "%)</h4>");
-                for (int index = 0; index < failedMethodList.size(); index++) {
+            final long failedCount = getTotalFailedCount();
+            if (failedCount > 0) {
+                writer.println("<h4>Errors:" + failedCount + " (" + (failedCount * 100D) / getTotalCall() + "%)</h4>");
+                for (MethodStatistics methodStatistics : getAllFailedMethodStatisticsList()) {
                     writer.println("<br/>" + "--------------------------------------------------------------------------------");
-                    methodStatistics = (MethodStatistics) failedMethodList.get(index);
                     writer.println("<br/>" + methodStatistics.toString());
                 }
             }
@@ -1155,61 +1357,181 @@ public final class Profiler {
             writer.println("<result>");
             writer.println("<unit>milliseconds</unit>");
             writer.println("<threadNum>" + threadNum + "</threadNum>");
-            writer.println("<loops>" + (loopStatisticsList.size() / threadNum) + "</loops>");
+            writer.println("<loops>" + loopNum + "</loops>");
             writer.println("<startTime>" + time2String(getStartTimeInMillis()) + "</startTime>");
             writer.println("<endTime>" + time2String(getEndTimeInMillis()) + "</endTime>");
             writer.println("<totalElapsedTime>" + elapsedTimeFormat.format(getElapsedTimeInMillis()) + "</totalElapsedTime>");
+            if (gcCount >= 0) {
+                writer.println("<gcCount>" + gcCount + "</gcCount>");
+                writer.println("<gcTime>" + gcTimeInMillis + "</gcTime>");
+            }
             writer.println();
-            //            MethodStatistics methodStatistics = getMinElapsedTimeInMillisMethod();
-            //
-            //            if (methodStatistics != null) {
-            //                writer.println("<minMethodTime>" + elapsedTimeInMillisFormat.format(methodStatistics.getElapsedTimeInMillis()) + "</minMethodTime>");
-            //            }
-            //
-            //            methodStatistics = getMaxElapsedTimeInMillisMethod();
-            //
-            //            if (methodStatistics != null) {
-            //                writer.println("<maxMethodTime>" + elapsedTimeInMillisFormat.format(methodStatistics.getElapsedTimeInMillis()) + "</maxMethodTime>");
-            //            }
-            List<String> methodNameList = getMethodNameList();
-            for (String methodName : methodNameList) {
-                List<MethodStatistics> methodStatisticsList = getMethodStatisticsList(methodName);
-                int size = methodStatisticsList.size();
-                Collections.sort(methodStatisticsList, new Comparator<MethodStatistics>() {
-                    @Override
-                    public int compare(final MethodStatistics o1, final MethodStatistics o2) {
-                        return (o1.getElapsedTimeInMillis() == o2.getElapsedTimeInMillis()) ? 0
-                                : ((o1.getElapsedTimeInMillis() > o2.getElapsedTimeInMillis()) ? (-1) : 1);
-                    }
-                });
-                double avgTime = getMethodAverageElapsedTimeInMillis(methodName);
-                double minTime = methodStatisticsList.get(size - 1).getElapsedTimeInMillis();
-                double maxTime = methodStatisticsList.get(0).getElapsedTimeInMillis();
-                writer.println("<method name=\"" + methodName + "\">");
-                writer.println("<avgTime>" + elapsedTimeFormat.format(avgTime) + "</avgTime>");
-                writer.println("<minTime>" + elapsedTimeFormat.format(minTime) + "</minTime>");
-                writer.println("<maxTime>" + elapsedTimeFormat.format(maxTime) + "</maxTime>");
-                writer.println("<_0.0001>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.0001)).getElapsedTimeInMillis()) + "</_0.0001>");
-                writer.println("<_0.001>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.001)).getElapsedTimeInMillis()) + "</_0.001>");
-                writer.println("<_0.01>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.01)).getElapsedTimeInMillis()) + "</_0.01>");
-                writer.println("<_0.2>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.2)).getElapsedTimeInMillis()) + "</_0.2>");
-                writer.println("<_0.5>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.5)).getElapsedTimeInMillis()) + "</_0.5>");
-                writer.println("<_0.8>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.8)).getElapsedTimeInMillis()) + "</_0.8>");
-                writer.println("<_0.9>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.9)).getElapsedTimeInMillis()) + "</_0.9>");
-                writer.println("<_0.99>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.99)).getElapsedTimeInMillis()) + "</_0.99>");
-                writer.println("<_0.999>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.999)).getElapsedTimeInMillis()) + "</_0.999>");
-                writer.println("<_0.9999>" + elapsedTimeFormat.format(methodStatisticsList.get((int) (size * 0.9999)).getElapsedTimeInMillis()) + "</_0.9999>");
+            for (MethodSummary summary : getMethodSummaryList()) {
+                writer.println("<method name=\"" + summary.getMethodName() + "\">");
+                writer.println("<avgTime>" + elapsedTimeFormat.format(summary.getAvgTime()) + "</avgTime>");
+                writer.println("<minTime>" + elapsedTimeFormat.format(summary.getMinTime()) + "</minTime>");
+                writer.println("<maxTime>" + elapsedTimeFormat.format(summary.getMaxTime()) + "</maxTime>");
+                writer.println("<_0.5>" + elapsedTimeFormat.format(summary.getP50Time()) + "</_0.5>");
+                writer.println("<_0.9>" + elapsedTimeFormat.format(summary.getP90Time()) + "</_0.9>");
+                writer.println("<_0.99>" + elapsedTimeFormat.format(summary.getP99Time()) + "</_0.99>");
+                writer.println("<_0.999>" + elapsedTimeFormat.format(summary.getP999Time()) + "</_0.999>");
+                if (summary.getAllocatedBytesPerCall() >= 0) {
+                    writer.println("<allocatedBytesPerCall>" + elapsedTimeFormat.format(summary.getAllocatedBytesPerCall()) + "</allocatedBytesPerCall>");
+                }
                 writer.println("</method>");
             }
-            List<MethodStatistics> failedMethodList = getAllFailedMethodStatisticsList();
-            if (failedMethodList.size() > 0) {
-                writer.println("<errors>" + failedMethodList.size() + " (" + (failedMethodList.size() * 100D) / getTotalCall() + "%)</errors>");
-                for (MethodStatistics methodStatistics : failedMethodList) {
+            final long failedCount = getTotalFailedCount();
+            if (failedCount > 0) {
+                writer.println("<errors>" + failedCount + " (" + (failedCount * 100D) / getTotalCall() + "%)</errors>");
+                for (MethodStatistics methodStatistics : getAllFailedMethodStatisticsList()) {
                     writer.println("<error>" + methodStatistics.toString() + "</error>");
                 }
             }
             writer.println("</result>");
             writer.flush();
         }
+
+        /**
+         * Writes the summary of each method in CSV format, which can be read back by {@link #readCsvResult(Reader)}.
+         * The elapsed time is in milliseconds.
+         *
+         * @param os
+         */
+        public void writeCsvResult(final OutputStream os) {
+            writeCsvResult(new PrintWriter(os));
+        }
+
+        public void writeCsvResult(final Writer writer) {
+            writeCsvResult(new PrintWriter(writer));
+        }
+
+        private void writeCsvResult(final PrintWriter writer) {
+            writer.println(MethodSummary.CSV_HEADER);
+            for (MethodSummary summary : getMethodSummaryList()) {
+                writer.println(summary.toCsvLine());
+            }
+            writer.flush();
+        }
+
+        public void writeJsonResult(final OutputStream os) {
+            writeJsonResult(new PrintWriter(os));
+        }
+
+        public void writeJsonResult(final Writer writer) {
+            writeJsonResult(new PrintWriter(writer));
+        }
+
+        private void writeJsonResult(final PrintWriter writer) {
+            writer.println("{");
+            writer.println("\"unit\": \"milliseconds\",");
+            writer.println("\"threadNum\": " + threadNum + ",");
+            writer.println("\"loops\": " + loopNum + ",");
+            writer.println("\"startTime\": \"" + time2String(getStartTimeInMillis()) + "\",");
+            writer.println("\"endTime\": \"" + time2String(getEndTimeInMillis()) + "\",");
+            writer.println("\"totalElapsedTime\": " + num2String(getElapsedTimeInMillis()) + ",");
+            writer.println("\"gcCount\": " + gcCount + ",");
+            writer.println("\"gcTime\": " + gcTimeInMillis + ",");
+            writer.println("\"methods\": [");
+            final List<MethodSummary> summaryList = getMethodSummaryList();
+            for (int i = 0, size = summaryList.size(); i < size; i++) {
+                final MethodSummary summary = summaryList.get(i);
+                writer.println("{\"methodName\": \"" + summary.getMethodName().replace("\\", "\\\\").replace("\"", "\\\"") + "\", \"count\": "
+                        + summary.getCount() + ", \"failedCount\": " + summary.getFailedCount() + ", \"avgTime\": " + num2String(summary.getAvgTime())
+                        + ", \"minTime\": " + num2String(summary.getMinTime()) + ", \"p50Time\": " + num2String(summary.getP50Time()) + ", \"p90Time\": "
+                        + num2String(summary.getP90Time()) + ", \"p99Time\": " + num2String(summary.getP99Time()) + ", \"p999Time\": "
+                        + num2String(summary.getP999Time()) + ", \"maxTime\": " + num2String(summary.getMaxTime()) + ", \"allocatedBytesPerCall\": "
+                        + num2String(summary.getAllocatedBytesPerCall()) + "}" + (i < size - 1 ? "," : ""));
+            }
+            writer.println("]");
+            writer.println("}");
+            writer.flush();
+        }
+
+        /**
+         * Reads the method summaries written by {@link #writeCsvResult(Writer)}, as the baseline for {@link #printComparison(Map)}.
+         *
+         * @param file
+         * @return
+         */
+        public static Map<String, MethodSummary> readCsvResult(final File file) {
+            return toMethodSummaryMap(IOUtil.readLines(file));
+        }
+
+        public static Map<String, MethodSummary> readCsvResult(final Reader reader) {
+            return toMethodSummaryMap(IOUtil.readLines(reader));
+        }
+
+        private static Map<String, MethodSummary> toMethodSummaryMap(final List<String> lines) {
+            final Map<String, MethodSummary> result = new LinkedHashMap<>();
+            for (String line : lines) {
+                if (N.isNullOrEmpty(line) || line.trim().length() == 0 || line.startsWith(MethodSummary.CSV_HEADER)) {
+                    continue;
+                }
+                final MethodSummary summary = MethodSummary.parseCsvLine(line);
+                result.put(summary.getMethodName(), summary);
+            }
+            return result;
+        }
+
+        /**
+         * Prints the change of the avg/percentile/max time and allocated bytes of each method from the specified baseline.
+         *
+         * @param baseline
+         * @see #readCsvResult(File)
+         */
+        public void printComparison(final Map<String, MethodSummary> baseline) {
+            writeComparison(new PrintWriter(System.out), baseline);
+        }
+
+        public void writeComparison(final OutputStream os, final Map<String, MethodSummary> baseline) {
+            writeComparison(new PrintWriter(os), baseline);
+        }
+
+        public void writeComparison(final Writer writer, final Map<String, MethodSummary> baseline) {
+            writeComparison(new PrintWriter(writer), baseline);
+        }
+
+        private void writeComparison(final PrintWriter writer, final Map<String, MethodSummary> baseline) {
+            writer.println();
+            writer.println(SEPARATOR_LINE);
+            writer.println("(unit: milliseconds. compared with baseline)");
+            String methodNameTitil = "<method name>";
+            int maxMethodNameLength = methodNameTitil.length();
+            for (String methodName : methodResultMap.keySet()) {
+                if (methodName.length() > maxMethodNameLength) {
+                    maxMethodNameLength = methodName.length();
+                }
+            }
+            maxMethodNameLength += 3;
+            final int minLen = 12;
+            writer.println(N.padEnd(methodNameTitil + ",  ", maxMethodNameLength) + N.padEnd("|metric|,  ", minLen) + N.padEnd("|baseline|,  ", minLen)
+                    + N.padEnd("|current|,  ", minLen) + "|change|");
+            for (MethodSummary current : getMethodSummaryList()) {
+                final MethodSummary base = baseline.get(current.getMethodName());
+                if (base == null) {
+                    writer.println(N.padEnd(current.getMethodName() + ",  ", maxMethodNameLength) + "(not found in baseline)");
+                    continue;
+                }
+                writeComparison(writer, current.getMethodName(), "avg", base.getAvgTime(), current.getAvgTime(), maxMethodNameLength, minLen);
+                writeComparison(writer, "", "50%", base.getP50Time(), current.getP50Time(), maxMethodNameLength, minLen);
+                writeComparison(writer, "", "90%", base.getP90Time(), current.getP90Time(), maxMethodNameLength, minLen);
+                writeComparison(writer, "", "99%", base.getP99Time(), current.getP99Time(), maxMethodNameLength, minLen);
+                writeComparison(writer, "", "99.9%", base.getP999Time(), current.getP999Time(), maxMethodNameLength, minLen);
+                writeComparison(writer, "", "max", base.getMaxTime(), current.getMaxTime(), maxMethodNameLength, minLen);
+                if (base.getAllocatedBytesPerCall() >= 0 && current.getAllocatedBytesPerCall() >= 0) {
+                    writeComparison(writer, "", "bytes/call", base.getAllocatedBytesPerCall(), current.getAllocatedBytesPerCall(), maxMethodNameLength,
+                            minLen);
+                }
+            }
+            writer.println(SEPARATOR_LINE);
+            writer.flush();
+        }
+
+        private void writeComparison(final PrintWriter writer, final String methodName, final String metric, final double baseline, final double current,
+                final int maxMethodNameLength, final int minLen) {
+            writer.println(N.padEnd(methodName.length() == 0 ? "" : methodName + ",  ", maxMethodNameLength) + N.padEnd(metric + ",  ", minLen)
+                    + N.padEnd(elapsedTimeFormat.format(baseline) + ",  ", minLen) + N.padEnd(elapsedTimeFormat.format(current) + ",  ", minLen)
+                    + change2String(baseline, current));
+        }
     }
 }
@@ -0,0 +1,543 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.landawn.abacus.DataSet;
+
+/**
+ * A local cache of query results for {@code SQLExecutor}, set by {@link SQLExecutor#setQueryCache(QueryCache)}.
+ * <br />
+ * The results are cached by the sql, parameters, result type and {@code JdbcSettings}, and evicted when the cache is full (least recently used first)
+ * or the live time is expired. The cached results of a table are invalidated when any insert/update/delete/batch operation on the table
+ * is executed by the same {@code SQLExecutor} (or the {@code Mapper}s created by it), or by {@link #invalidate(String)}.
+ * <br />
+ * Only the queries executed without a specified {@code Connection} or {@code StatementSetter}, with the parameters of simple value types
+ * (String, Number, Boolean, Character, Enum and Date) and the tables recognized from the sql are cached.
+ * The changes made by other applications are not visible until the cached result is expired. The cached results of the tables updated in
+ * a transaction started by {@code SQLExecutor.beginTransaction} are invalidated again after the transaction is committed.
+ * <br />
+ * The concurrent queries with the same key are executed only once if the result is not cached. {@code DataSet} is frozen before it's cached,
+ * and the entities/maps are copied when they're returned, so the cached result is never changed by the caller.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class QueryCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final long DEFAULT_LIVE_TIME = 60 * 1000L;
+
+    private static final String[] EMPTY_TABLES = new String[0];
+    // returned by parseUpdateTables for SELECT, compared by identity.
+    private static final String[] NO_UPDATE = new String[0];
+    // the words after which the table names of a query are listed.
+    private static final Set<String> TABLE_PREFIXES = N.asSet("FROM", "JOIN");
+    // the words which end the table list of FROM/JOIN.
+    private static final Set<String> TABLE_LIST_TERMINATORS = N.asSet("WHERE", "ON", "USING", "JOIN", "INNER", "LEFT", "RIGHT", "FULL", "CROSS", "NATURAL",
+            "OUTER", "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "FOR", "UNION", "INTERSECT", "EXCEPT", "MINUS", "WINDOW", "(", ")", ";");
+
+    private final int capacity;
+    private final long liveTime;
+    private final LRUCache<Key, Entry> pool;
+    // the loads in progress.
+    private final ConcurrentHashMap<Key, Load> loadPool = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    // the table names parsed from sql. Empty array if no table is recognized.
+    private final LRUCache<String, String[]> sqlTablesPool = new LRUCache<>(DEFAULT_CAPACITY);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public QueryCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_LIVE_TIME);
+    }
+
+    /**
+     *
+     * @param capacity the max number of cached results.
+     * @param liveTime the live time of a cached result in milliseconds.
+     */
+    public QueryCache(final int capacity, final long liveTime) {
+        N.checkArgument(capacity > 0, "'capacity' must be bigger than 0: %s", capacity);
+        N.checkArgument(liveTime > 0, "'liveTime' must be bigger than 0: %s", liveTime);
+
+        this.capacity = capacity;
+        this.liveTime = liveTime;
+        this.pool = new LRUCache<>(capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long liveTime() {
+        return liveTime;
+    }
+
+    /**
+     * Invalidates the cached results of the queries on the specified table.
+     *
+     * @param tableName case insensitive. The schema/catalog is ignored.
+     */
+    public void invalidate(final String tableName) {
+        getTableVersion(normalizeTableName(tableName)).incrementAndGet();
+    }
+
+    /**
+     * Invalidates all the cached results.
+     */
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        pool.clear();
+    }
+
+    /**
+     * Returns the snapshot of the counters. The hits are the results returned from the cache, including the ones loaded by other threads concurrently.
+     *
+     * @return
+     */
+    public LRUCache.Stats stats() {
+        final LRUCache.Stats poolStats = pool.stats();
+
+        return new LRUCache.Stats(hitCount.sum(), missCount.sum(), poolStats.getEvictionCount(), poolStats.getSize(), capacity);
+    }
+
+    /**
+     *
+     * @param sql
+     * @param parameters
+     * @return null if the query with the specified sql and parameters can't be cached.
+     */
+    Key createKey(final String sql, final Object[] parameters, final Class<?> targetClass, final Object resultSetExtractor,
+            final SQLExecutor.JdbcSettings jdbcSettings) {
+        // the array is copied because the caller may reuse it after the key is created, which would break the hash code of the key.
+        final Object[] params = N.isNullOrEmpty(parameters) ? N.EMPTY_OBJECT_ARRAY : parameters.clone();
+
+        for (int i = 0, len = params.length; i < len; i++) {
+            final Object parameter = params[i];
+
+            if (parameter == null || parameter instanceof String || parameter instanceof Number || parameter instanceof Boolean
+                    || parameter instanceof Character || parameter instanceof Enum) {
+                // immutable.
+            } else if (parameter instanceof java.util.Date) {
+                // java.util.Date is mutable.
+                params[i] = ((java.util.Date) parameter).clone();
+            } else {
+                return null;
+            }
+        }
+
+        final String[] tables = getTables(sql, true);
+
+        if (tables.length == 0) {
+            return null;
+        }
+
+        return new Key(sql, params, targetClass, resultSetExtractor, jdbcSettings == null ? null : jdbcSettings.copy(), tables);
+    }
+
+    /**
+     * Returns the cached result for the specified key, or the result loaded by {@code loader} which is cached if it's not invalidated during the loading.
+     *
+     * @param key
+     * @param loader
+     * @return
+     */
+    <T> T get(final Key key, final Callable<T> loader) {
+        final Entry entry = pool.get(key);
+
+        if (entry != null) {
+            if (isValid(entry.versions, entry.globalVersion, key.tables) && entry.expirationTime > System.currentTimeMillis()) {
+                hitCount.increment();
+
+                return toResult(entry.value);
+            }
+
+            pool.remove(key);
+        }
+
+        // the versions are taken before the query is executed, so the result is not cached if the tables are written during the query.
+        final long[] versions = getVersions(key.tables);
+        final long version = globalVersion.get();
+
+        Load load = loadPool.get(key);
+
+        if (load != null && Arrays.equals(load.versions, versions) && load.globalVersion == version) {
+            // the same query with the same versions is being executed by another thread.
+            hitCount.increment();
+
+            return toResult(load.await());
+        }
+
+        missCount.increment();
+
+        load = new Load(loader, versions, version);
+        final Load existedLoad = loadPool.putIfAbsent(key, load);
+
+        if (existedLoad != null && Arrays.equals(existedLoad.versions, versions) && existedLoad.globalVersion == version) {
+            return toResult(existedLoad.await());
+        }
+
+        try {
+            load.task.run();
+
+            final Object value = load.await();
+
+            if (isValid(versions, version, key.tables)) {
+                pool.put(key, new Entry(value, versions, version, System.currentTimeMillis() + liveTime));
+            }
+
+            return toResult(value);
+        } finally {
+            if (existedLoad == null) {
+                loadPool.remove(key, load);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached results of the tables written by the specified sql.
+     * All the cached results are invalidated if no table is recognized from the sql, e.g. calling a procedure.
+     * Nothing is invalidated by a {@code SELECT} statement.
+     *
+     * @param sql
+     */
+    void invalidateBySQL(final String sql) {
+        final String[] tables = getTables(sql, false);
+
+        if (tables == NO_UPDATE) {
+            // nothing to invalidate.
+        } else if (tables.length == 0) {
+            invalidateAll();
+        } else {
+            for (String table : tables) {
+                getTableVersion(table).incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isValid(final long[] versions, final long version, final String[] tables) {
+        return version == globalVersion.get() && Arrays.equals(versions, getVersions(tables));
+    }
+
+    private long[] getVersions(final String[] tables) {
+        final long[] versions = new long[tables.length];
+
+        for (int i = 0, len = tables.length; i < len; i++) {
+            versions[i] = getTableVersion(tables[i]).get();
+        }
+
+        return versions;
+    }
+
+    private AtomicLong getTableVersion(final String table) {
+        AtomicLong version = tableVersions.get(table);
+
+        if (version == null) {
+            tableVersions.putIfAbsent(table, new AtomicLong());
+            version = tableVersions.get(table);
+        }
+
+        return version;
+    }
+
+    private String[] getTables(final String sql, final boolean isQuery) {
+        // the query and update sqls are distinguished by the prefix.
+        final String cacheKey = (isQuery ? "Q:" : "U:") + sql;
+        String[] tables = sqlTablesPool.get(cacheKey);
+
+        if (tables == null) {
+            tables = isQuery ? parseQueryTables(sql) : parseUpdateTables(sql);
+            sqlTablesPool.put(cacheKey, tables);
+        }
+
+        return tables;
+    }
+
+    /**
+     * The tables listed after {@code FROM/JOIN}, including the ones in sub queries.
+     * No table is returned if the sql is not a {@code SELECT/WITH} statement.
+     *
+     * @param sql
+     * @return
+     */
+    static String[] parseQueryTables(final String sql) {
+        final List<String> words = getWords(sql);
+
+        if (words.size() == 0 || !("SELECT".equalsIgnoreCase(words.get(0)) || "WITH".equalsIgnoreCase(words.get(0)))) {
+            return EMPTY_TABLES;
+        }
+
+        return parseTables(words);
+    }
+
+    /**
+     * The tables listed after {@code FROM/JOIN} in any statement, e.g. the table deleted by {@code DELETE FROM} or read by the sub queries of {@code UPDATE}.
+     *
+     * @param sql
+     * @return
+     */
+    static String[] parseReferencedTables(final String sql) {
+        return parseTables(getWords(sql));
+    }
+
+    private static String[] parseTables(final List<String> words) {
+        final Set<String> tables = new LinkedHashSet<>();
+
+        for (int i = 0, len = words.size(); i < len; i++) {
+            if (TABLE_PREFIXES.contains(words.get(i).toUpperCase())) {
+                int j = i + 1;
+
+                while (j < len && !TABLE_LIST_TERMINATORS.contains(words.get(j).toUpperCase())) {
+                    tables.add(normalizeTableName(words.get(j++)));
+
+                    // skip the alias.
+                    while (j < len && !WD.COMMA.equals(words.get(j)) && !TABLE_LIST_TERMINATORS.contains(words.get(j).toUpperCase())) {
+                        j++;
+                    }
+
+                    if (j < len && WD.COMMA.equals(words.get(j))) {
+                        j++;
+                    }
+                }
+            }
+        }
+
+        return tables.toArray(new String[tables.size()]);
+    }
+
+    /**
+     * The table written by {@code INSERT INTO/UPDATE/DELETE FROM/MERGE INTO/REPLACE INTO/TRUNCATE TABLE}, or altered/dropped.
+     *
+     * @param sql
+     * @return
+     */
+    static String[] parseUpdateTables(final String sql) {
+        final List<String> words = getWords(sql);
+        int idx = -1;
+
+        if (words.size() > 1) {
+            switch (words.get(0).toUpperCase()) {
+                case "SELECT":
+                    return NO_UPDATE;
+
+                case "UPDATE":
+                    idx = 1;
+                    break;
+
+                case "INSERT":
+                case "DELETE":
+                case "MERGE":
+                case "REPLACE":
+                case "TRUNCATE":
+                case "ALTER":
+                case "DROP":
+                    // INSERT INTO t, DELETE FROM t, TRUNCATE TABLE t, DELETE t.
+                    idx = "INTO".equalsIgnoreCase(words.get(1)) || "FROM".equalsIgnoreCase(words.get(1)) || "TABLE".equalsIgnoreCase(words.get(1)) ? 2
+                            : 1;
+                    break;
+
+                default:
+                    // unknown.
+            }
+        }
+
+        return idx < 0 || idx >= words.size() ? EMPTY_TABLES : new String[] { normalizeTableName(words.get(idx)) };
+    }
+
+    private static List<String> getWords(final String sql) {
+        final List<String> words = new ArrayList<>();
+
+        for (String word : SQLParser.parse(sql)) {
+            if (!WD.SPACE.equals(word)) {
+                words.add(word);
+            }
+        }
+
+        return words;
+    }
+
+    private static String normalizeTableName(String tableName) {
+        final int idx = tableName.lastIndexOf(WD._PERIOD);
+
+        if (idx >= 0) {
+            tableName = tableName.substring(idx + 1);
+        }
+
+        // remove the quotes: `t`, "t", [t]
+        if (tableName.length() > 1 && "`\"[".indexOf(tableName.charAt(0)) >= 0) {
+            tableName = tableName.substring(1, tableName.length() - 1);
+        }
+
+        return tableName.toLowerCase();
+    }
+
+    private static Object freeze(final Object value) {
+        if (value instanceof DataSet) {
+            ((DataSet) value).freeze();
+        }
+
+        return value;
+    }
+
+    /**
+     * The entities and maps are copied because they're mutable.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T toResult(final Object value) {
+        if (value instanceof List) {
+            final List<Object> list = (List<Object>) value;
+            final List<Object> result = new ArrayList<>(list.size());
+
+            for (Object e : list) {
+                result.add(copy(e));
+            }
+
+            return (T) result;
+        }
+
+        return (T) copy(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copy(final Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<Object, Object>) value);
+        } else if (N.isEntity(value.getClass())) {
+            return N.copy(value);
+        } else {
+            return value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "{capacity=" + capacity + ", liveTime=" + liveTime + ", stats=" + stats() + "}";
+    }
+
+    static final class Key {
+        private final String sql;
+        private final Object[] parameters;
+        private final Class<?> targetClass;
+        private final Object resultSetExtractor;
+        private final SQLExecutor.JdbcSettings jdbcSettings;
+        private final String[] tables;
+        private final int hashCode;
+
+        Key(final String sql, final Object[] parameters, final Class<?> targetClass, final Object resultSetExtractor,
+                final SQLExecutor.JdbcSettings jdbcSettings, final String[] tables) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.targetClass = targetClass;
+            this.resultSetExtractor = resultSetExtractor;
+            this.jdbcSettings = jdbcSettings;
+            this.tables = tables;
+
+            final int prime = 31;
+            int result = 1;
+            result = (prime * result) + sql.hashCode();
+            result = (prime * result) + Arrays.hashCode(parameters);
+            result = (prime * result) + N.hashCode(targetClass);
+            result = (prime * result) + System.identityHashCode(resultSetExtractor);
+            result = (prime * result) + N.hashCode(jdbcSettings);
+            this.hashCode = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj instanceof Key) {
+                final Key other = (Key) obj;
+
+                return hashCode == other.hashCode && sql.equals(other.sql) && Arrays.equals(parameters, other.parameters)
+                        && N.equals(targetClass, other.targetClass) && resultSetExtractor == other.resultSetExtractor
+                        && N.equals(jdbcSettings, other.jdbcSettings);
+            }
+
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "{sql=" + sql + ", parameters=" + N.toString(parameters) + ", targetClass=" + targetClass + "}";
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long[] versions;
+        private final long globalVersion;
+        private final long expirationTime;
+
+        Entry(final Object value, final long[] versions, final long globalVersion, final long expirationTime) {
+            this.value = value;
+            this.versions = versions;
+            this.globalVersion = globalVersion;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    private static final class Load {
+        private final FutureTask<Object> task;
+        private final long[] versions;
+        private final long globalVersion;
+
+        Load(final Callable<?> loader, final long[] versions, final long globalVersion) {
+            // the result is frozen before it's visible to the threads waiting for the same query.
+            this.task = new FutureTask<>(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return freeze(loader.call());
+                }
+            });
+            this.versions = versions;
+            this.globalVersion = globalVersion;
+        }
+
+        Object await() {
+            try {
+                return task.get();
+            } catch (ExecutionException e) {
+                throw N.toRuntimeException(e.getCause());
+            } catch (InterruptedException e) {
+                throw N.toRuntimeException(e);
+            }
+        }
+    }
+}
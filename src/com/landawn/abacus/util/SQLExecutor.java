@@ -34,13 +34,17 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import com.landawn.abacus.DataSet;
@@ -49,6 +53,7 @@ import com.landawn.abacus.DataSourceManager;
 import com.landawn.abacus.DataSourceSelector;
 import com.landawn.abacus.DirtyMarker;
 import com.landawn.abacus.IsolationLevel;
+import com.landawn.abacus.Transaction.Status;
 import com.landawn.abacus.annotation.Beta;
 import com.landawn.abacus.condition.Condition;
 import com.landawn.abacus.condition.ConditionFactory.L;
@@ -314,8 +319,14 @@ public final class SQLExecutor implements Closeable {
     private static final int factor = Math.min(Math.max(1, IOUtil.MAX_MEMORY_IN_MB / 1024), 8);
     private static final int CACHED_SQL_LENGTH = 1024 * factor;
     private static final int SQL_CACHE_SIZE = 1000 * factor;
-
-    private static final Map<String, List<String>> _sqlColumnLabelPool = new ConcurrentHashMap<>();
+    // the max number of rows read ahead for each sub range by streamByRange.
+    private static final int PARTITION_QUEUE_SIZE = 1024;
+
+    // parsed SQL and column labels are cached by the raw SQL, which usually is the same for the same query.
+    // NamedSQL.parse has its own pool, but every lookup in it takes one global lock and updates the access time/count of the entry.
+    // _namedSQLPool is in front of it for the hot sqls: the hits only lock one segment, and the hit/miss counters are exposed by namedSQLCacheStats().
+    private static final LRUCache<String, NamedSQL> _namedSQLPool = new LRUCache<>(SQL_CACHE_SIZE);
+    private static final LRUCache<String, List<String>> _sqlColumnLabelPool = new LRUCache<>(SQL_CACHE_SIZE);
     private final Map<String, List<String>> _tableColumnNamePool = new ConcurrentHashMap<>();
 
     private final DataSource _ds;
@@ -325,7 +336,14 @@ public final class SQLExecutor implements Closeable {
     private final SQLMapper _sqlMapper;
     private final NamingPolicy _namingPolicy;
     private final AsyncExecutor _asyncExecutor;
+    private final SQLMetrics _sqlMetrics = new SQLMetrics();
+    private volatile QueryCache _queryCache;
     private final boolean _isReadOnly;
+    private final StatementCache _stmtCache;
+    // the transactions in write-behind mode, by their connections.
+    private final Map<Connection, SQLTransaction> _writeBehindTransactionPool = new ConcurrentHashMap<>();
+    // the sqls updated with the connections of the transactions, to invalidate the query cache again after the transactions are committed.
+    private final Map<Connection, Set<String>> _transactionUpdatePool = new ConcurrentHashMap<>();
     private final String _dbProudctName;
     private final String _dbProudctVersion;
     private final DBVersion _dbVersion;
@@ -475,6 +493,7 @@ public final class SQLExecutor implements Closeable {
 
         _jdbcSettings.freeze();
 
+        this._stmtCache = _jdbcSettings.getStatementCacheSize() > 0 ? new StatementCache(_jdbcSettings.getStatementCacheSize()) : null;
         this._sqlMapper = sqlMapper;
         this._namingPolicy = namingPolicy == null ? NamingPolicy.LOWER_CASE_WITH_UNDERSCORE : namingPolicy;
         this._asyncExecutor = asyncExecutor == null ? new AsyncExecutor(64, 300, TimeUnit.SECONDS) : asyncExecutor;
@@ -619,6 +638,65 @@ public final class SQLExecutor implements Closeable {
         return _dbVersion;
     }
 
+    /**
+     * Returns the statistics of the cache of the parsed SQL, shared by all the {@code SQLExecutor}s.
+     *
+     * @return
+     */
+    public static LRUCache.Stats namedSQLCacheStats() {
+        return _namedSQLPool.stats();
+    }
+
+    /**
+     * Returns the statistics of the cache of the column labels by SQL, shared by all the {@code SQLExecutor}s.
+     *
+     * @return
+     */
+    public static LRUCache.Stats columnLabelCacheStats() {
+        return _sqlColumnLabelPool.stats();
+    }
+
+    /**
+     * Returns the statistics of the {@code PreparedStatement} cache of this {@code SQLExecutor}.
+     *
+     * @return null if the statement cache is not enabled.
+     * @see JdbcSettings#setStatementCacheSize(int)
+     */
+    public LRUCache.Stats statementCacheStats() {
+        return _stmtCache == null ? null : _stmtCache.stats();
+    }
+
+    /**
+     * Returns the execution statistics and slow queries of the sqls executed by this {@code SQLExecutor}.
+     * It's disabled by default and can be enabled by {@code sqlMetrics().setEnabled(true)}.
+     *
+     * @return
+     */
+    public SQLMetrics sqlMetrics() {
+        return _sqlMetrics;
+    }
+
+    /**
+     * Returns the cache of query results set by {@link #setQueryCache(QueryCache)}.
+     *
+     * @return null if the query cache is not set.
+     */
+    public QueryCache queryCache() {
+        return _queryCache;
+    }
+
+    /**
+     * Sets the cache of query results. The queries executed by this {@code SQLExecutor} and the {@code Mapper}s created by it are cached
+     * if they're executed without a specified {@code Connection} or {@code StatementSetter}, and the results are extracted by the default extractors.
+     * The cached results of a table are invalidated when the table is updated by this {@code SQLExecutor}.
+     *
+     * @param queryCache set it to null to disable the query cache.
+     * @see QueryCache
+     */
+    public void setQueryCache(final QueryCache queryCache) {
+        this._queryCache = queryCache;
+    }
+
     @SafeVarargs
     public final <T> T insert(final String sql, final Object... parameters) {
         return insert(null, sql, null, null, parameters);
@@ -654,26 +732,34 @@ public final class SQLExecutor implements Closeable {
         statementSetter = checkStatementSetter(namedSQL, statementSetter);
         jdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
 
+        flushWriteBehind(conn, namedSQL);
+
         String idPropName = checkGeneratedIdPropName(jdbcSettings);
         DataSource ds = null;
         Connection localConn = null;
         Object result = null;
         PreparedStatement stmt = null;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
 
         try {
             ds = getDataSource(namedSQL.getPureSQL(), parameters, jdbcSettings);
 
             localConn = (conn == null) ? ds.getConnection() : conn;
 
-            stmt = prepareStatement(ds, localConn, namedSQL, statementSetter, jdbcSettings, Statement.RETURN_GENERATED_KEYS, false, parameters);
+            stmt = prepareStatement(ds, localConn, conn, namedSQL, statementSetter, jdbcSettings, Statement.RETURN_GENERATED_KEYS, false, parameters);
+            recorder.prepared();
 
             result = executeInsert(namedSQL, stmt);
+            recorder.executed();
+            recorder.succeeded(1);
         } catch (SQLException e) {
             String msg = AbacusException.getErrorMsg(e) + ". [SQL] " + namedSQL.getNamedSQL();
             logger.error(msg);
             throw new UncheckedSQLException(e, msg);
         } finally {
             closeQuietly(stmt, localConn, conn);
+            recorder.close(parameters);
+            invalidateQueryCache(conn, namedSQL);
         }
 
         if ((result != null) && isEntityOrMapParameter(namedSQL, parameters)) {
@@ -814,6 +900,8 @@ public final class SQLExecutor implements Closeable {
         statementSetter = checkStatementSetter(namedSQL, statementSetter);
         jdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
 
+        flushWriteBehind(conn, namedSQL);
+
         String idPropName = checkGeneratedIdPropName(jdbcSettings);
 
         final int len = batchParameters.size();
@@ -826,6 +914,7 @@ public final class SQLExecutor implements Closeable {
         PreparedStatement stmt = null;
         int isolationLevel = 0;
         boolean autoCommit = true;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
 
         try {
             ds = getDataSource(namedSQL.getPureSQL(), batchParameters, jdbcSettings);
@@ -850,7 +939,8 @@ public final class SQLExecutor implements Closeable {
                 }
             }
 
-            stmt = prepareStatement(ds, localConn, namedSQL, statementSetter, jdbcSettings, Statement.RETURN_GENERATED_KEYS, true, batchParameters);
+            stmt = prepareStatement(ds, localConn, conn, namedSQL, statementSetter, jdbcSettings, Statement.RETURN_GENERATED_KEYS, true, batchParameters);
+            recorder.prepared();
 
             if (len <= batchSize) {
                 for (int i = 0; i < len; i++) {
@@ -880,6 +970,9 @@ public final class SQLExecutor implements Closeable {
             if ((conn == null) && (len > batchSize)) {
                 localConn.commit();
             }
+
+            recorder.executed();
+            recorder.succeeded(len);
         } catch (SQLException e) {
             if ((conn == null) && (len > batchSize)) {
 
@@ -912,11 +1005,256 @@ public final class SQLExecutor implements Closeable {
             }
 
             closeQuietly(stmt, localConn, conn);
+            recorder.close(null);
+            invalidateQueryCache(conn, namedSQL);
+        }
+
+        setGeneratedIds(namedSQL, idPropName, batchParameters, resultIdList);
+
+        return resultIdList;
+    }
+
+    public <ID> long batchInsert(final String sql, final Iterator<?> batchParameters, final Consumer<? super List<ID>> idConsumer) {
+        return batchInsert(null, sql, null, null, batchParameters, idConsumer);
+    }
+
+    public <ID> long batchInsert(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final Iterator<?> batchParameters,
+            final Consumer<? super List<ID>> idConsumer) {
+        return batchInsert(null, sql, statementSetter, jdbcSettings, batchParameters, idConsumer);
+    }
+
+    public <ID> long batchInsert(final Connection conn, final String sql, final Iterator<?> batchParameters, final Consumer<? super List<ID>> idConsumer) {
+        return batchInsert(conn, sql, null, null, batchParameters, idConsumer);
+    }
+
+    /**
+     * Inserts the parameters read from the specified {@code batchParameters} batch by batch, and passes the generated ids of each batch to {@code idConsumer}.
+     * Different from {@link #batchInsert(Connection, String, StatementSetter, JdbcSettings, List)}, at most two batches of parameters
+     * are kept in memory, and the generated ids are not collected. It can be used to insert the records read from a {@code Stream} by {@code stream.iterator()}.
+     * <br />
+     * If the specified {@code conn} is null, all the records are inserted in one transaction by a connection from the data source,
+     * and each batch is executed in the background while the next batch is read from {@code batchParameters}.
+     * Otherwise the batches are read and executed one by one with the specified connection in the current thread,
+     * because the iterator may read from the same connection.
+     * <br />
+     * The generated ids are set to the entity parameters whose id properties are not set, same as {@code batchInsert(..., List)}.
+     * {@code idConsumer} is called in the current thread by the order of the batches.
+     *
+     * @param conn
+     * @param sql
+     * @param statementSetter
+     * @param jdbcSettings
+     * @param batchParameters
+     * @param idConsumer could be null.
+     * @return the number of parameters inserted.
+     */
+    @SuppressWarnings("deprecation")
+    public <ID> long batchInsert(final Connection conn, final String sql, StatementSetter statementSetter, JdbcSettings jdbcSettings,
+            final Iterator<?> batchParameters, final Consumer<? super List<ID>> idConsumer) {
+        final NamedSQL namedSQL = getNamedSQL(sql);
+        statementSetter = checkStatementSetter(namedSQL, statementSetter);
+        jdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
+
+        flushWriteBehind(conn, namedSQL);
+
+        final String idPropName = checkGeneratedIdPropName(jdbcSettings);
+        final int batchSize = getBatchSize(jdbcSettings);
+
+        List<Object> batch = nextBatch(batchParameters, batchSize);
+
+        if (batch.size() == 0) {
+            return 0;
         }
 
+        final boolean isPipelined = conn == null;
+        long count = 0;
+
+        DataSource ds = null;
+        Connection localConn = null;
+        PreparedStatement stmt = null;
+        int isolationLevel = 0;
+        boolean autoCommit = true;
+        CompletableFuture<List<ID>> pendingResult = null;
+        List<Object> pendingBatch = null;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
+
+        try {
+            ds = getDataSource(namedSQL.getPureSQL(), batch, jdbcSettings);
+
+            localConn = (conn == null) ? ds.getConnection() : conn;
+
+            try {
+                isolationLevel = localConn.getTransactionIsolation();
+                autoCommit = localConn.getAutoCommit();
+            } catch (SQLException e) {
+                closeQuietly(null, localConn, conn);
+                throw new UncheckedSQLException(e, namedSQL.toString());
+            }
+
+            if (conn == null) {
+                localConn.setAutoCommit(false);
+
+                if (jdbcSettings.getIsolationLevel() == null || jdbcSettings.getIsolationLevel() == IsolationLevel.DEFAULT) {
+                    // ignore. by default
+                } else {
+                    localConn.setTransactionIsolation(jdbcSettings.getIsolationLevel().intValue());
+                }
+            }
+
+            stmt = prepareStatement(ds, localConn, conn, namedSQL, statementSetter, jdbcSettings, Statement.RETURN_GENERATED_KEYS, true, batch);
+            recorder.prepared();
+
+            final PreparedStatement batchStmt = stmt;
+
+            while (batch.size() > 0) {
+                // the statement can't be set up until the previous batch is executed.
+                if (pendingResult != null) {
+                    count += completeBatch(namedSQL, idPropName, pendingBatch, getBatchResult(pendingResult), idConsumer);
+                    pendingResult = null;
+                }
+
+                for (Object parameters : batch) {
+                    statementSetter.setParameters(namedSQL, stmt, parameters);
+                    stmt.addBatch();
+                }
+
+                if (isPipelined) {
+                    pendingBatch = batch;
+                    pendingResult = _asyncExecutor.execute(new Callable<List<ID>>() {
+                        @Override
+                        public List<ID> call() throws Exception {
+                            final List<ID> ids = new ArrayList<>(batchSize);
+                            executeBatchInsert(ids, namedSQL, batchStmt);
+                            return ids;
+                        }
+                    });
+                } else {
+                    final List<ID> ids = new ArrayList<>(batch.size());
+                    executeBatchInsert(ids, namedSQL, stmt);
+                    count += completeBatch(namedSQL, idPropName, batch, ids, idConsumer);
+                }
+
+                batch = nextBatch(batchParameters, batchSize);
+            }
+
+            if (pendingResult != null) {
+                count += completeBatch(namedSQL, idPropName, pendingBatch, getBatchResult(pendingResult), idConsumer);
+                pendingResult = null;
+            }
+
+            if (conn == null) {
+                localConn.commit();
+            }
+
+            recorder.executed();
+            recorder.succeeded(count);
+        } catch (SQLException e) {
+            if (conn == null) {
+                rollbackBatch(localConn, pendingResult);
+            }
+
+            String msg = AbacusException.getErrorMsg(e) + ". [SQL] " + namedSQL.getNamedSQL();
+            logger.error(msg);
+            throw new UncheckedSQLException(e, msg);
+        } catch (RuntimeException | Error e) {
+            // thrown by the iterator, statementSetter or idConsumer. The inserted batches must be rolled back before autoCommit is restored,
+            // which commits the pending transaction.
+            if (conn == null && localConn != null) {
+                rollbackBatch(localConn, pendingResult);
+            }
+
+            throw e;
+        } finally {
+            // the statement/connection can't be closed until the pending batch is done, if it's failed by other exception.
+            waitQuietly(pendingResult);
+
+            if (conn == null && localConn != null) {
+                try {
+                    localConn.setAutoCommit(autoCommit);
+                    localConn.setTransactionIsolation(isolationLevel);
+                } catch (SQLException e) {
+                    logger.error("Failed to reset AutoCommit", e);
+                }
+            }
+
+            closeQuietly(stmt, localConn, conn);
+            recorder.close(null);
+            invalidateQueryCache(conn, namedSQL);
+        }
+
+        return count;
+    }
+
+    private static List<Object> nextBatch(final Iterator<?> iter, final int batchSize) {
+        final List<Object> batch = new ArrayList<>(batchSize);
+
+        while (batch.size() < batchSize && iter.hasNext()) {
+            batch.add(iter.next());
+        }
+
+        return batch;
+    }
+
+    private <ID> int completeBatch(final NamedSQL namedSQL, final String idPropName, final List<Object> batch, final List<ID> ids,
+            final Consumer<? super List<ID>> idConsumer) {
+        setGeneratedIds(namedSQL, idPropName, batch, ids);
+
+        if (idConsumer != null) {
+            idConsumer.accept(ids);
+        }
+
+        return batch.size();
+    }
+
+    private static <ID> List<ID> getBatchResult(final CompletableFuture<List<ID>> result) throws SQLException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+
+            throw N.toRuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            throw N.toRuntimeException(e);
+        }
+    }
+
+    private static void rollbackBatch(final Connection localConn, final CompletableFuture<?> pendingResult) {
+        if (logger.isWarnEnabled()) {
+            logger.warn("Trying to roll back ...");
+        }
+
+        waitQuietly(pendingResult);
+
+        try {
+            localConn.rollback();
+
+            if (logger.isWarnEnabled()) {
+                logger.warn("succeeded to roll back");
+            }
+        } catch (SQLException e1) {
+            logger.error("Failed to roll back", e1);
+        }
+    }
+
+    private static void waitQuietly(final CompletableFuture<?> result) {
+        if (result != null) {
+            try {
+                result.get();
+            } catch (Throwable e) {
+                // ignore. it's already handled or the batch is rolled back.
+            }
+        }
+    }
+
+    /**
+     * Sets the generated ids to the entities in {@code batchParameters} if their id properties are not set.
+     */
+    private void setGeneratedIds(final NamedSQL namedSQL, final String idPropName, final List<?> batchParameters, final List<?> resultIdList) {
         if (N.notNullOrEmpty(resultIdList)) {
             if (isEntityOrMapParameter(namedSQL, batchParameters.get(0))) {
-                if (resultIdList.size() == len) {
+                if (resultIdList.size() == batchParameters.size()) {
                     boolean isTypedParameter = batchParameters.get(0) instanceof TypedParameters;
                     Object parameter_0 = isTypedParameter ? ((TypedParameters) batchParameters.get(0)).parameters[0] : batchParameters.get(0);
 
@@ -946,9 +1284,9 @@ public final class SQLExecutor implements Closeable {
                                 Object entity = null;
                                 Object idPropValue = null;
 
-                                for (int i = 0; i < len; i++) {
+                                for (int i = 0, len = batchParameters.size(); i < len; i++) {
                                     entity = (isTypedParameter ? ((TypedParameters) batchParameters.get(i)).parameters[0] : batchParameters.get(i));
-                                    idPropValue = ClassUtil.invokeMethod(entity, idGetMethod);
+                                    idPropValue = ClassUtil.getPropValue(entity, idGetMethod);
 
                                     if ((idPropValue == null) || (idPropValue instanceof Number && (((Number) idPropValue).longValue() == 0))) {
                                         ClassUtil.setPropValue(entity, idSetMethod, resultIdList.get(i));
@@ -976,8 +1314,6 @@ public final class SQLExecutor implements Closeable {
                 }
             }
         }
-
-        return resultIdList;
     }
 
     protected <T> void executeBatchInsert(final List<T> resultIdList, final NamedSQL namedSQL, final PreparedStatement stmt) throws SQLException {
@@ -1038,24 +1374,43 @@ public final class SQLExecutor implements Closeable {
         statementSetter = checkStatementSetter(namedSQL, statementSetter);
         jdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
 
+        if (conn != null && _writeBehindTransactionPool.size() > 0) {
+            final SQLTransaction tran = _writeBehindTransactionPool.get(conn);
+
+            // deferred by the transaction in write-behind mode.
+            if (tran != null && tran.addBatch(sql, namedSQL, statementSetter, jdbcSettings, parameters)) {
+                return 0;
+            }
+
+            flushWriteBehind(conn, namedSQL);
+        }
+
         DataSource ds = null;
         Connection localConn = null;
         PreparedStatement stmt = null;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
 
         try {
             ds = getDataSource(namedSQL.getPureSQL(), parameters, jdbcSettings);
 
             localConn = (conn == null) ? ds.getConnection() : conn;
 
-            stmt = prepareStatement(ds, localConn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, false, parameters);
+            stmt = prepareStatement(ds, localConn, conn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, false, parameters);
+            recorder.prepared();
 
-            return executeUpdate(namedSQL, stmt);
+            final int result = executeUpdate(namedSQL, stmt);
+            recorder.executed();
+            recorder.succeeded(result);
+
+            return result;
         } catch (SQLException e) {
             String msg = AbacusException.getErrorMsg(e) + ". [SQL] " + namedSQL.getNamedSQL();
             logger.error(msg);
             throw new UncheckedSQLException(e, msg);
         } finally {
             closeQuietly(stmt, localConn, conn);
+            recorder.close(parameters);
+            invalidateQueryCache(conn, namedSQL);
         }
     }
 
@@ -1130,6 +1485,8 @@ public final class SQLExecutor implements Closeable {
         statementSetter = checkStatementSetter(namedSQL, statementSetter);
         jdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
 
+        flushWriteBehind(conn, namedSQL);
+
         final int len = batchParameters.size();
         final int batchSize = getBatchSize(jdbcSettings);
 
@@ -1138,6 +1495,7 @@ public final class SQLExecutor implements Closeable {
         PreparedStatement stmt = null;
         int isolationLevel = 0;
         boolean autoCommit = true;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
 
         try {
             ds = getDataSource(namedSQL.getPureSQL(), batchParameters, jdbcSettings);
@@ -1162,7 +1520,8 @@ public final class SQLExecutor implements Closeable {
                 }
             }
 
-            stmt = prepareStatement(ds, localConn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, true, batchParameters);
+            stmt = prepareStatement(ds, localConn, conn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, true, batchParameters);
+            recorder.prepared();
 
             int result = 0;
 
@@ -1195,6 +1554,9 @@ public final class SQLExecutor implements Closeable {
                 localConn.commit();
             }
 
+            recorder.executed();
+            recorder.succeeded(result);
+
             return result;
         } catch (SQLException e) {
             if ((conn == null) && (len > batchSize)) {
@@ -1228,6 +1590,8 @@ public final class SQLExecutor implements Closeable {
             }
 
             closeQuietly(stmt, localConn, conn);
+            recorder.close(null);
+            invalidateQueryCache(conn, namedSQL);
         }
     }
 
@@ -1898,40 +2262,74 @@ public final class SQLExecutor implements Closeable {
         return query(null, conn, sql, statementSetter, resultSetExtractor, jdbcSettings, parameters);
     }
 
-    protected <T> T query(final Class<T> targetClass, final Connection conn, final String sql, StatementSetter statementSetter,
-            ResultSetExtractor<T> resultSetExtractor, JdbcSettings jdbcSettings, final Object... parameters) {
+    protected <T> T query(final Class<T> targetClass, final Connection conn, final String sql, final StatementSetter statementSetter,
+            final ResultSetExtractor<T> resultSetExtractor, final JdbcSettings jdbcSettings, final Object... parameters) {
         final NamedSQL namedSQL = getNamedSQL(sql);
+        final QueryCache queryCache = _queryCache;
+
+        if (queryCache != null && conn == null && statementSetter == null && isCacheable(resultSetExtractor)) {
+            final ResultSetExtractor<T> extractor = checkResultSetExtractor(namedSQL, resultSetExtractor);
+            final JdbcSettings newJdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
+            final QueryCache.Key key = queryCache.createKey(namedSQL.getPureSQL(), parameters, targetClass, extractor, newJdbcSettings);
+
+            if (key != null) {
+                return queryCache.get(key, new Callable<T>() {
+                    @Override
+                    public T call() {
+                        return query(targetClass, namedSQL, null, null, extractor, newJdbcSettings, parameters);
+                    }
+                });
+            }
+        }
+
+        return query(targetClass, namedSQL, conn, statementSetter, resultSetExtractor, jdbcSettings, parameters);
+    }
+
+    private <T> T query(final Class<T> targetClass, final NamedSQL namedSQL, final Connection conn, StatementSetter statementSetter,
+            ResultSetExtractor<T> resultSetExtractor, JdbcSettings jdbcSettings, final Object... parameters) {
         statementSetter = checkStatementSetter(namedSQL, statementSetter);
         resultSetExtractor = checkResultSetExtractor(namedSQL, resultSetExtractor);
         jdbcSettings = checkJdbcSettings(jdbcSettings, namedSQL);
 
+        flushWriteBehind(conn, namedSQL);
+
         T result = null;
 
         DataSource ds = null;
         Connection localConn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
 
         try {
             ds = getDataSource(namedSQL.getPureSQL(), parameters, jdbcSettings);
 
             localConn = (conn == null) ? ds.getConnection() : conn;
 
-            stmt = prepareStatement(ds, localConn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, false, parameters);
+            stmt = prepareStatement(ds, localConn, conn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, false, parameters);
+            recorder.prepared();
 
             rs = stmt.executeQuery();
+            recorder.executed();
 
             result = resultSetExtractor.extractData(targetClass, namedSQL, rs, jdbcSettings);
+            recorder.fetched();
+            recorder.succeeded(result);
         } catch (SQLException e) {
             String msg = AbacusException.getErrorMsg(e) + ". [SQL] " + namedSQL.getNamedSQL();
             logger.error(msg);
             throw new UncheckedSQLException(e, msg);
         } finally {
             if (result instanceof ResultSet || result instanceof RowIterator) {
-                // delay.
+                // delay. the statement is closed by the caller. It can't be put back to the cache.
+                if (_stmtCache != null) {
+                    _stmtCache.untrack(stmt);
+                }
             } else {
                 closeQuietly(rs, stmt, localConn, conn);
             }
+
+            recorder.close(parameters);
         }
 
         return result;
@@ -2249,48 +2647,52 @@ public final class SQLExecutor implements Closeable {
         try {
             final NamedSQL namedSQL = getNamedSQL(sql);
             final ResultSet rs = iterator.resultSet();
-            final String[] columnLabels = getColumnLabelList(namedSQL.getPureSQL(), rs).toArray(new String[0]);
-            final int columnCount = columnLabels.length;
-            final boolean isMap = Map.class.isAssignableFrom(targetClass);
-            final boolean isDirtyMarker = N.isDirtyMarker(targetClass);
 
-            return new Function<Object[], T>() {
-                @SuppressWarnings("deprecation")
-                @Override
-                public T apply(Object[] a) {
-                    if (isMap) {
-                        final Map<String, Object> m = (Map<String, Object>) N.newInstance(targetClass);
+            return newMapper(targetClass, getColumnLabelList(namedSQL.getPureSQL(), rs).toArray(new String[0]));
+        } catch (SQLException e) {
+            IOUtil.closeQuietly(iterator);
+            throw new UncheckedSQLException(e);
+        }
+    }
 
-                        for (int i = 0; i < columnCount; i++) {
-                            m.put(columnLabels[i], a[i]);
-                        }
+    private <T> Function<Object[], T> newMapper(final Class<? extends T> targetClass, final String[] columnLabels) {
+        final int columnCount = columnLabels.length;
+        final boolean isMap = Map.class.isAssignableFrom(targetClass);
+        final boolean isDirtyMarker = N.isDirtyMarker(targetClass);
 
-                        return (T) m;
-                    } else {
-                        final Object entity = N.newInstance(targetClass);
+        return new Function<Object[], T>() {
+            @SuppressWarnings("deprecation")
+            @Override
+            public T apply(Object[] a) {
+                if (isMap) {
+                    final Map<String, Object> m = (Map<String, Object>) N.newInstance(targetClass);
 
-                        for (int i = 0; i < columnCount; i++) {
-                            if (columnLabels[i] == null) {
-                                continue;
-                            }
+                    for (int i = 0; i < columnCount; i++) {
+                        m.put(columnLabels[i], a[i]);
+                    }
 
-                            if (ClassUtil.setPropValue(entity, columnLabels[i], a[i], true) == false) {
-                                columnLabels[i] = null;
-                            }
+                    return (T) m;
+                } else {
+                    final Object entity = N.newInstance(targetClass);
+
+                    for (int i = 0; i < columnCount; i++) {
+                        if (columnLabels[i] == null) {
+                            continue;
                         }
 
-                        if (isDirtyMarker) {
-                            ((DirtyMarker) entity).markDirty(false);
+                        if (ClassUtil.setPropValue(entity, columnLabels[i], a[i], true) == false) {
+                            columnLabels[i] = null;
                         }
+                    }
 
-                        return (T) entity;
+                    if (isDirtyMarker) {
+                        ((DirtyMarker) entity).markDirty(false);
                     }
+
+                    return (T) entity;
                 }
-            };
-        } catch (SQLException e) {
-            IOUtil.closeQuietly(iterator);
-            throw new UncheckedSQLException(e);
-        }
+            }
+        };
     }
 
     @SafeVarargs
@@ -2465,58 +2867,419 @@ public final class SQLExecutor implements Closeable {
      * @return
      */
     @SafeVarargs
-    public final <T> Try<Stream<T>> streamAll(final Class<T> targetClass, final List<String> sqls, final StatementSetter statementSetter,
-            final JdbcSettings jdbcSettings, final Object... parameters) {
-        return streamAll(targetClass, null, sqls, statementSetter, jdbcSettings, parameters);
+    public final <T> Try<Stream<T>> streamAll(final Class<T> targetClass, final List<String> sqls, final StatementSetter statementSetter,
+            final JdbcSettings jdbcSettings, final Object... parameters) {
+        return streamAll(targetClass, null, sqls, statementSetter, jdbcSettings, parameters);
+    }
+
+    <T> Try<Stream<T>> streamAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final JdbcSettings jdbcSettings,
+            final Object... parameters) {
+        return streamAll(targetClass, conn, sqls, null, jdbcSettings, parameters);
+    }
+
+    /**
+     * Returns the merged ResultSet acquired by querying with the specified sql list in parallel. Mostly it's designed
+     * for partition to query multiple partitioning tables in one or more databases.
+     *
+     * @param conn
+     * @param sqls
+     * @param statementSetter
+     * @param jdbcSettings set multiple data sources by method: <code>setQueryWithDataSources</code>
+     * @param parameters
+     * @return
+     */
+    <T> Try<Stream<T>> streamAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final StatementSetter statementSetter,
+            JdbcSettings jdbcSettings, final Object... parameters) {
+        // TODO the specified connection will be closed if Stream is closed. that means the specified connection can't be held independently.
+        N.checkArgument(conn == null, "Must not specified connection");
+
+        N.requireNonNull(targetClass);
+
+        return streamAll2(targetClass, sqls, statementSetter, jdbcSettings, parameters);
+    }
+
+    private <T> Try<Stream<T>> streamAll2(final Class<T> targetClass, final List<String> sqls, final StatementSetter statementSetter, JdbcSettings jdbcSettings,
+            final Object... parameters) {
+        N.checkArgument(N.notNullOrEmpty(sqls), "'sqls' can't be null or empty");
+
+        if (jdbcSettings == null) {
+            jdbcSettings = _jdbcSettings.copy();
+        }
+
+        final JdbcSettings newJdbcSettings = jdbcSettings.copy().setOffset(0).setCount(Long.MAX_VALUE);
+
+        final Stream<T> s = (newJdbcSettings.isQueryInParallel() ? Stream.of(sqls).parallel(sqls.size()) : Stream.of(sqls))
+                .flatMap(new Function<String, Stream<T>>() {
+                    @Override
+                    public Stream<T> apply(String sql) {
+                        return streamAll2(targetClass, sql, statementSetter, newJdbcSettings, parameters).val();
+                    }
+                });
+
+        return skipAndLimit(s, jdbcSettings).tried();
+    }
+
+    @SafeVarargs
+    public final Try<Stream<Object[]>> streamByKey(final String sql, final String keyColumnLabel, final Object fromKey, final int pageSize,
+            final Object... parameters) {
+        return streamByKey(sql, keyColumnLabel, fromKey, pageSize, null, parameters);
+    }
+
+    /**
+     * Returns the rows queried page by page by the specified key column, which must be unique, ordered by the sql and not null.
+     * Each page is queried by the specified sql with the last key of the previous page, and at most {@code pageSize} rows
+     * (set by {@code JdbcSettings.setMaxRows}) are read. The next page is queried asynchronously when the rows of current page are being read.
+     * <br />
+     * Different from the <code>offset</code> in <code>JdbcSettings</code>, the cost of query a page doesn't increase by the position of the page,
+     * and no <code>Connection</code> is held between pages. It's useful to scan a big table.
+     * 
+     * <pre>
+     * <code>
+     * sqlExecutor.streamByKey("SELECT * FROM account WHERE status = ? AND id > ? ORDER BY id", "id", 0, 1000, status);
+     * </code>
+     * </pre>
+     * 
+     * @param sql the query of a page. The key lower bound (exclusive) is set as the last parameter.
+     * @param keyColumnLabel
+     * @param fromKey the key lower bound (exclusive) of the first page.
+     * @param pageSize
+     * @param jdbcSettings
+     * @param parameters the parameters by index, except the key lower bound.
+     * @return
+     */
+    @SafeVarargs
+    public final Try<Stream<Object[]>> streamByKey(final String sql, final String keyColumnLabel, final Object fromKey, final int pageSize,
+            final JdbcSettings jdbcSettings, final Object... parameters) {
+        return streamByKey2(null, sql, keyColumnLabel, fromKey, pageSize, jdbcSettings, parameters);
+    }
+
+    @SafeVarargs
+    public final <T> Try<Stream<T>> streamByKey(final Class<T> targetClass, final String sql, final String keyColumnLabel, final Object fromKey,
+            final int pageSize, final Object... parameters) {
+        return streamByKey(targetClass, sql, keyColumnLabel, fromKey, pageSize, null, parameters);
+    }
+
+    /**
+     * 
+     * @param targetClass
+     * @param sql
+     * @param keyColumnLabel
+     * @param fromKey
+     * @param pageSize
+     * @param jdbcSettings
+     * @param parameters
+     * @return
+     * @see #streamByKey(String, String, Object, int, JdbcSettings, Object...)
+     */
+    @SafeVarargs
+    public final <T> Try<Stream<T>> streamByKey(final Class<T> targetClass, final String sql, final String keyColumnLabel, final Object fromKey,
+            final int pageSize, final JdbcSettings jdbcSettings, final Object... parameters) {
+        N.requireNonNull(targetClass);
+
+        return streamByKey2(targetClass, sql, keyColumnLabel, fromKey, pageSize, jdbcSettings, parameters);
+    }
+
+    private <T> Try<Stream<T>> streamByKey2(final Class<T> targetClass, final String sql, final String keyColumnLabel, final Object fromKey,
+            final int pageSize, JdbcSettings jdbcSettings, final Object... parameters) {
+        N.checkArgument(N.notNullOrEmpty(keyColumnLabel), "'keyColumnLabel' can't be null or empty");
+        N.checkArgument(pageSize > 0, "'pageSize' must be bigger than 0: %s", pageSize);
+
+        if (jdbcSettings == null) {
+            jdbcSettings = _jdbcSettings.copy();
+        }
+
+        final JdbcSettings newJdbcSettings = jdbcSettings.copy().setOffset(0).setCount(Long.MAX_VALUE).setMaxRows(pageSize);
+        final Page firstPage = queryPage(sql, keyColumnLabel, fromKey, newJdbcSettings, parameters);
+        final MutableBoolean isClosed = MutableBoolean.of(false);
+
+        final ObjIterator<Object[]> iter = new ObjIterator<Object[]>() {
+            private Page page = firstPage;
+            private int cursor = 0;
+            private CompletableFuture<Page> nextPage = prefetch(firstPage);
+
+            @Override
+            public boolean hasNext() {
+                while (cursor >= page.rows.size()) {
+                    if (nextPage == null || isClosed.value()) {
+                        return false;
+                    }
+
+                    page = getAsyncResult(nextPage);
+                    cursor = 0;
+                    nextPage = prefetch(page);
+                }
+
+                return true;
+            }
+
+            @Override
+            public Object[] next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+
+                return page.rows.get(cursor++);
+            }
+
+            private CompletableFuture<Page> prefetch(final Page page) {
+                if (page.rows.size() < pageSize || isClosed.value()) {
+                    // the last page.
+                    return null;
+                }
+
+                final Object lastKey = page.rows.get(page.rows.size() - 1)[page.keyIndex];
+
+                return _asyncExecutor.execute(new Callable<Page>() {
+                    @Override
+                    public Page call() {
+                        return queryPage(sql, keyColumnLabel, lastKey, newJdbcSettings, parameters);
+                    }
+                });
+            }
+        };
+
+        final Stream<Object[]> s = skipAndLimit(Stream.of(iter), jdbcSettings);
+
+        return (targetClass == null ? (Stream<T>) s : s.map(this.<T> newMapper(targetClass, firstPage.columnLabels))).onClose(new Runnable() {
+            @Override
+            public void run() {
+                // the page being prefetched will be discarded. Its connection is closed after it's read.
+                isClosed.setTrue();
+            }
+        }).tried();
+    }
+
+    private Page queryPage(final String sql, final String keyColumnLabel, final Object fromKey, final JdbcSettings newJdbcSettings,
+            final Object... parameters) {
+        final RowIterator iter = iterate(sql, null, newJdbcSettings, N.concat(parameters == null ? N.EMPTY_OBJECT_ARRAY : parameters, new Object[] { fromKey }));
+
+        try {
+            final String[] columnLabels = iter.getColumnLabelList().toArray(new String[0]);
+            int keyIndex = N.indexOf(columnLabels, keyColumnLabel);
+
+            if (keyIndex < 0) {
+                for (int i = 0, len = columnLabels.length; i < len; i++) {
+                    if (columnLabels[i].equalsIgnoreCase(keyColumnLabel)) {
+                        keyIndex = i;
+                        break;
+                    }
+                }
+
+                if (keyIndex < 0) {
+                    throw new IllegalArgumentException("No column found by key column label: " + keyColumnLabel + " in " + N.toString(columnLabels));
+                }
+            }
+
+            final List<Object[]> rows = new ArrayList<>(N.min(newJdbcSettings.getMaxRows(), 1024));
+
+            while (iter.hasNext()) {
+                rows.add(iter.next());
+            }
+
+            return new Page(columnLabels, keyIndex, rows);
+        } finally {
+            IOUtil.closeQuietly(iter);
+        }
+    }
+
+    @SafeVarargs
+    public final Try<Stream<Object[]>> streamByRange(final String sql, final Object fromKey, final Object toKey, final int partitionCount,
+            final boolean inOrder, final Object... parameters) {
+        return streamByRange(sql, fromKey, toKey, partitionCount, inOrder, null, parameters);
+    }
+
+    /**
+     * Splits the key range [fromKey, toKey) into {@code partitionCount} sub ranges with the same length, and queries them in parallel,
+     * each one by a separated <code>Connection</code>. The rows are merged into one <code>Stream</code>.
+     * The key must be a number or date ({@code java.util.Date/java.sql.Date/Time/Timestamp}).
+     * Remember to close the returned <code>Stream</code> to close the underlying <code>ResultSet</code> list.
+     * 
+     * <pre>
+     * <code>
+     * sqlExecutor.streamByRange("SELECT * FROM account WHERE status = ? AND id >= ? AND id < ? ORDER BY id", minId, maxId + 1, 8, true, status);
+     * </code>
+     * </pre>
+     * 
+     * @param sql the query of a sub range. The lower bound (inclusive) and upper bound (exclusive) of the sub range are set as the last two parameters.
+     * @param fromKey inclusive
+     * @param toKey exclusive
+     * @param partitionCount
+     * @param inOrder if it's true, the rows are returned by the order of sub ranges: all the rows of the first sub range, then the second sub range...
+     * Other sub ranges are still read in parallel into the queue of each sub range. Otherwise, the rows are returned by the order they're read.
+     * @param jdbcSettings
+     * @param parameters the parameters by index, except the bounds of the sub range.
+     * @return
+     */
+    @SafeVarargs
+    public final Try<Stream<Object[]>> streamByRange(final String sql, final Object fromKey, final Object toKey, final int partitionCount,
+            final boolean inOrder, final JdbcSettings jdbcSettings, final Object... parameters) {
+        return streamByRange2(null, sql, fromKey, toKey, partitionCount, inOrder, jdbcSettings, parameters);
     }
 
-    <T> Try<Stream<T>> streamAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final JdbcSettings jdbcSettings,
-            final Object... parameters) {
-        return streamAll(targetClass, conn, sqls, null, jdbcSettings, parameters);
+    @SafeVarargs
+    public final <T> Try<Stream<T>> streamByRange(final Class<T> targetClass, final String sql, final Object fromKey, final Object toKey,
+            final int partitionCount, final boolean inOrder, final Object... parameters) {
+        return streamByRange(targetClass, sql, fromKey, toKey, partitionCount, inOrder, null, parameters);
     }
 
     /**
-     * Returns the merged ResultSet acquired by querying with the specified sql list in parallel. Mostly it's designed
-     * for partition to query multiple partitioning tables in one or more databases.
-     *
-     * @param conn
-     * @param sqls
-     * @param statementSetter
-     * @param jdbcSettings set multiple data sources by method: <code>setQueryWithDataSources</code>
+     * 
+     * @param targetClass
+     * @param sql
+     * @param fromKey
+     * @param toKey
+     * @param partitionCount
+     * @param inOrder
+     * @param jdbcSettings
      * @param parameters
      * @return
+     * @see #streamByRange(String, Object, Object, int, boolean, JdbcSettings, Object...)
      */
-    <T> Try<Stream<T>> streamAll(final Class<T> targetClass, final Connection conn, final List<String> sqls, final StatementSetter statementSetter,
-            JdbcSettings jdbcSettings, final Object... parameters) {
-        // TODO the specified connection will be closed if Stream is closed. that means the specified connection can't be held independently.
-        N.checkArgument(conn == null, "Must not specified connection");
-
+    @SafeVarargs
+    public final <T> Try<Stream<T>> streamByRange(final Class<T> targetClass, final String sql, final Object fromKey, final Object toKey,
+            final int partitionCount, final boolean inOrder, final JdbcSettings jdbcSettings, final Object... parameters) {
         N.requireNonNull(targetClass);
 
-        return streamAll2(targetClass, sqls, statementSetter, jdbcSettings, parameters);
+        return streamByRange2(targetClass, sql, fromKey, toKey, partitionCount, inOrder, jdbcSettings, parameters);
     }
 
-    private <T> Try<Stream<T>> streamAll2(final Class<T> targetClass, final List<String> sqls, final StatementSetter statementSetter, JdbcSettings jdbcSettings,
-            final Object... parameters) {
-        N.checkArgument(N.notNullOrEmpty(sqls), "'sqls' can't be null or empty");
+    private <T> Try<Stream<T>> streamByRange2(final Class<T> targetClass, final String sql, final Object fromKey, final Object toKey,
+            final int partitionCount, final boolean inOrder, JdbcSettings jdbcSettings, final Object... parameters) {
+        N.checkArgument(partitionCount > 0, "'partitionCount' must be bigger than 0: %s", partitionCount);
 
         if (jdbcSettings == null) {
             jdbcSettings = _jdbcSettings.copy();
         }
 
         final JdbcSettings newJdbcSettings = jdbcSettings.copy().setOffset(0).setCount(Long.MAX_VALUE);
+        final Object[] bounds = splitRange(fromKey, toKey, partitionCount);
+        final Object[] params = parameters == null ? N.EMPTY_OBJECT_ARRAY : parameters;
+        final List<CompletableFuture<Stream<T>>> futures = new ArrayList<>(bounds.length - 1);
 
-        final Stream<T> s = (newJdbcSettings.isQueryInParallel() ? Stream.of(sqls).parallel(sqls.size()) : Stream.of(sqls))
-                .flatMap(new Function<String, Stream<T>>() {
-                    @Override
-                    public Stream<T> apply(String sql) {
-                        return streamAll2(targetClass, sql, statementSetter, newJdbcSettings, parameters).val();
-                    }
-                });
+        // execute the queries of all the sub ranges in parallel.
+        for (int i = 0, len = bounds.length - 1; i < len; i++) {
+            final Object[] rangeParameters = N.concat(params, new Object[] { bounds[i], bounds[i + 1] });
+
+            futures.add(_asyncExecutor.execute(new Callable<Stream<T>>() {
+                @Override
+                public Stream<T> call() {
+                    return stream2(targetClass, sql, null, newJdbcSettings, rangeParameters).val();
+                }
+            }));
+        }
+
+        final List<Stream<T>> streams = new ArrayList<>(futures.size());
+        RuntimeException error = null;
+
+        for (CompletableFuture<Stream<T>> future : futures) {
+            try {
+                streams.add(getAsyncResult(future));
+            } catch (RuntimeException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        if (error != null) {
+            for (Stream<T> s : streams) {
+                s.close();
+            }
+
+            throw error;
+        }
+
+        Stream<T> s = null;
+
+        if (inOrder) {
+            for (int i = 0, len = streams.size(); i < len; i++) {
+                // read by a separated thread into the queue of the sub range.
+                streams.set(i, streams.get(i).queued(PARTITION_QUEUE_SIZE));
+            }
+
+            s = Stream.concat(streams);
+        } else {
+            s = Stream.parallelConcat(streams, streams.size(), PARTITION_QUEUE_SIZE);
+        }
 
         return skipAndLimit(s, jdbcSettings).tried();
     }
 
+    /**
+     * 
+     * @param fromKey
+     * @param toKey
+     * @param partitionCount
+     * @return the bounds of the sub ranges: [bounds[0], bounds[1]), [bounds[1], bounds[2])...
+     */
+    static Object[] splitRange(final Object fromKey, final Object toKey, final int partitionCount) {
+        N.checkArgument(fromKey != null && toKey != null && fromKey.getClass().equals(toKey.getClass()),
+                "'fromKey' and 'toKey' must be not null and in the same type: %s, %s", fromKey, toKey);
+
+        final Class<?> cls = fromKey.getClass();
+        final Object[] bounds;
+
+        if (fromKey instanceof Long || fromKey instanceof Integer || fromKey instanceof Short || fromKey instanceof Byte
+                || fromKey instanceof java.util.Date) {
+            final long from = fromKey instanceof java.util.Date ? ((java.util.Date) fromKey).getTime() : ((Number) fromKey).longValue();
+            final long to = toKey instanceof java.util.Date ? ((java.util.Date) toKey).getTime() : ((Number) toKey).longValue();
+            N.checkArgument(from < to, "'fromKey' must be less than 'toKey': %s, %s", fromKey, toKey);
+
+            // no empty sub range.
+            final int count = (int) N.min(partitionCount, to - from);
+            final long step = (to - from) / count;
+            final long remainder = (to - from) % count;
+            bounds = new Object[count + 1];
+
+            for (int i = 0; i < count; i++) {
+                // the first (remainder) sub ranges take one more key.
+                final long bound = from + step * i + N.min(i, remainder);
+                bounds[i] = fromKey instanceof java.util.Date ? newDate(cls, bound) : N.as(cls, bound);
+            }
+        } else if (fromKey instanceof Number) {
+            final double from = ((Number) fromKey).doubleValue();
+            final double to = ((Number) toKey).doubleValue();
+            N.checkArgument(from < to, "'fromKey' must be less than 'toKey': %s, %s", fromKey, toKey);
+
+            final double step = (to - from) / partitionCount;
+            bounds = new Object[partitionCount + 1];
+
+            for (int i = 0; i < partitionCount; i++) {
+                bounds[i] = N.as(cls, from + step * i);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported key type: " + ClassUtil.getCanonicalClassName(cls) + ". Only number and date are supported");
+        }
+
+        // use the original values as the first and last bounds.
+        bounds[0] = fromKey;
+        bounds[bounds.length - 1] = toKey;
+
+        return bounds;
+    }
+
+    private static java.util.Date newDate(final Class<?> cls, final long time) {
+        if (cls.equals(java.sql.Timestamp.class)) {
+            return new java.sql.Timestamp(time);
+        } else if (cls.equals(java.sql.Date.class)) {
+            return new java.sql.Date(time);
+        } else if (cls.equals(java.sql.Time.class)) {
+            return new java.sql.Time(time);
+        } else {
+            return new java.util.Date(time);
+        }
+    }
+
+    private static <R> R getAsyncResult(final CompletableFuture<R> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw N.toRuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            throw N.toRuntimeException(e);
+        }
+    }
+
     /**
      * Execute the sql with the specified parameters.
      * 
@@ -2534,20 +3297,26 @@ public final class SQLExecutor implements Closeable {
         DataSource ds = null;
         Connection conn = null;
         PreparedStatement stmt = null;
+        final SQLMetrics.Recorder recorder = _sqlMetrics.start(namedSQL.getNamedSQL());
 
         try {
             ds = getDataSource(namedSQL.getPureSQL(), parameters, jdbcSettings);
             conn = ds.getConnection();
 
             stmt = prepareStatement(ds, conn, namedSQL, statementSetter, jdbcSettings, Statement.NO_GENERATED_KEYS, false, parameters);
+            recorder.prepared();
 
             stmt.execute();
+            recorder.executed();
+            recorder.succeeded(-1);
         } catch (SQLException e) {
             String msg = AbacusException.getErrorMsg(e) + ". [SQL] " + namedSQL.getNamedSQL();
             logger.error(msg);
             throw new UncheckedSQLException(e, msg);
         } finally {
             closeQuietly(stmt, conn);
+            recorder.close(parameters);
+            invalidateQueryCache(null, namedSQL);
         }
     }
 
@@ -2633,13 +3402,61 @@ public final class SQLExecutor implements Closeable {
      * @return
      */
     public SQLTransaction beginTransaction(IsolationLevel isolationLevel) {
+        return beginTransaction(isolationLevel, false);
+    }
+
+    /**
+     * 
+     * The connection opened in the transaction will be automatically closed after the transaction is committed or rolled back.
+     * DON'T close it again by calling the close method.
+     * <br />
+     * In write-behind mode, the {@code INSERT/UPDATE/DELETE} executed by {@code update(Connection, ...)} with the connection of the transaction
+     * are deferred and executed in batches, and {@code 0} is returned as the updated row count. Refer to {@link SQLTransaction} for the details.
+     * 
+     * @param isolationLevel
+     * @param writeBehind
+     * @return
+     */
+    public SQLTransaction beginTransaction(IsolationLevel isolationLevel, final boolean writeBehind) {
         if (isolationLevel == null) {
             throw new IllegalArgumentException("The parameter isolationLevel can't be null");
         }
 
         isolationLevel = isolationLevel == IsolationLevel.DEFAULT ? _defaultIsolationLevel : isolationLevel;
 
-        return new SQLTransaction(getConnection(), isolationLevel);
+        final Connection conn = getConnection();
+        final Holder<SQLTransaction> tranHolder = new Holder<>();
+
+        // the statements cached for the connection are closed before the connection is closed by the transaction.
+        final SQLTransaction tran = new SQLTransaction(conn, isolationLevel, new Runnable() {
+            @Override
+            public void run() {
+                _writeBehindTransactionPool.remove(conn);
+
+                if (_stmtCache != null) {
+                    _stmtCache.invalidate(conn);
+                }
+
+                // the cached results may be loaded by other connections before the transaction is committed.
+                final Set<String> updatedSQLs = _transactionUpdatePool.remove(conn);
+                final QueryCache queryCache = _queryCache;
+
+                if (queryCache != null && N.notNullOrEmpty(updatedSQLs) && tranHolder.value().status() == Status.COMMITTED) {
+                    for (String pureSQL : updatedSQLs) {
+                        queryCache.invalidateBySQL(pureSQL);
+                    }
+                }
+            }
+        }, writeBehind ? this : null);
+
+        tranHolder.setValue(tran);
+        _transactionUpdatePool.put(conn, Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+
+        if (writeBehind) {
+            _writeBehindTransactionPool.put(conn, tran);
+        }
+
+        return tran;
     }
 
     public DBSequence getDBSequence(final String tableName, final String seqName) {
@@ -2821,6 +3638,17 @@ public final class SQLExecutor implements Closeable {
     }
 
     protected void closeQuietly(final ResultSet rs, final PreparedStatement stmt, final Connection localConn, final Connection inputConn) {
+        // only the statements created with the connections specified by the callers are cached.
+        if (_stmtCache != null && inputConn != null && stmt != null) {
+            JdbcUtil.closeQuietly(rs, null, null);
+
+            if (_stmtCache.release(inputConn, stmt) == false) {
+                JdbcUtil.closeQuietly(null, stmt, null);
+            }
+
+            return;
+        }
+
         JdbcUtil.closeQuietly(rs, stmt, inputConn == null ? localConn : null);
     }
 
@@ -2829,6 +3657,10 @@ public final class SQLExecutor implements Closeable {
      */
     @Override
     public void close() throws IOException {
+        if (_stmtCache != null) {
+            _stmtCache.clear();
+        }
+
         try {
             if (_ds != null && _ds.isClosed() == false) {
                 _ds.close();
@@ -2840,6 +3672,49 @@ public final class SQLExecutor implements Closeable {
         }
     }
 
+    private static boolean isCacheable(final ResultSetExtractor<?> resultSetExtractor) {
+        // the results of the customized extractors may be mutable or bound to the ResultSet.
+        return resultSetExtractor == null || resultSetExtractor == DEFAULT_RESULT_SET_EXTRACTOR || resultSetExtractor == EXISTS_RESULT_SET_EXTRACTOR
+                || resultSetExtractor == SINGLE_RESULT_SET_EXTRACTOR || resultSetExtractor == ENTITY_RESULT_SET_EXTRACTOR
+                || resultSetExtractor == ENTITY_LIST_RESULT_SET_EXTRACTOR;
+    }
+
+    /**
+     * Executes the updates deferred by the transaction in write-behind mode on the specified connection, which must be executed before the specified sql.
+     */
+    private void flushWriteBehind(final Connection conn, final NamedSQL namedSQL) {
+        if (conn != null && _writeBehindTransactionPool.size() > 0) {
+            final SQLTransaction tran = _writeBehindTransactionPool.get(conn);
+
+            if (tran != null) {
+                tran.flushBefore(namedSQL.getPureSQL());
+            }
+        }
+    }
+
+    /**
+     * The results are invalidated when the update is executed, and again after the transaction is committed if {@code conn} is the connection of
+     * a transaction started by {@link #beginTransaction(IsolationLevel, boolean)}, because the results loaded before the commit are stale.
+     *
+     * @param conn the connection specified by the caller. It could be null.
+     * @param namedSQL
+     */
+    private void invalidateQueryCache(final Connection conn, final NamedSQL namedSQL) {
+        final QueryCache queryCache = _queryCache;
+
+        if (queryCache != null) {
+            queryCache.invalidateBySQL(namedSQL.getPureSQL());
+
+            if (conn != null) {
+                final Set<String> updatedSQLs = _transactionUpdatePool.get(conn);
+
+                if (updatedSQLs != null) {
+                    updatedSQLs.add(namedSQL.getPureSQL());
+                }
+            }
+        }
+    }
+
     protected int getBatchSize(final JdbcSettings jdbcSettings) {
         return ((jdbcSettings == null) || (jdbcSettings.getBatchSize() < 0)) ? JdbcSettings.DEFAULT_BATCH_SIZE : jdbcSettings.getBatchSize();
     }
@@ -2928,7 +3803,17 @@ public final class SQLExecutor implements Closeable {
         }
 
         if (namedSQL == null) {
-            namedSQL = NamedSQL.parse(sql);
+            if (N.notNullOrEmpty(sql) && sql.length() <= CACHED_SQL_LENGTH) {
+                namedSQL = _namedSQLPool.get(sql);
+
+                if (namedSQL == null) {
+                    // usually found in the pool of NamedSQL if it's evicted from _namedSQLPool.
+                    namedSQL = NamedSQL.parse(sql);
+                    _namedSQLPool.put(sql, namedSQL);
+                }
+            } else {
+                namedSQL = NamedSQL.parse(sql);
+            }
         }
 
         return namedSQL;
@@ -2971,6 +3856,16 @@ public final class SQLExecutor implements Closeable {
     protected PreparedStatement prepareStatement(final DataSource ds, final Connection localConn, final NamedSQL namedSQL,
             final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final int autoGeneratedKeys, final boolean isBatch,
             final Object... parameters) throws SQLException {
+        return prepareStatement(ds, localConn, null, namedSQL, statementSetter, jdbcSettings, autoGeneratedKeys, isBatch, parameters);
+    }
+
+    /**
+     * The statement cache is only used if {@code inputConn} is not null.
+     * The connections opened by this executor are closed after the call and the statements created with them can't be reused.
+     */
+    private PreparedStatement prepareStatement(final DataSource ds, final Connection localConn, final Connection inputConn, final NamedSQL namedSQL,
+            final StatementSetter statementSetter, final JdbcSettings jdbcSettings, final int autoGeneratedKeys, final boolean isBatch,
+            final Object... parameters) throws SQLException {
         String sql = namedSQL.getPureSQL();
 
         if (isBatch) {
@@ -2980,8 +3875,23 @@ public final class SQLExecutor implements Closeable {
         }
 
         PreparedStatement stmt = null;
+        StatementCache.Key key = null;
 
-        if (jdbcSettings == null) {
+        if (_stmtCache != null && inputConn != null) {
+            key = jdbcSettings == null ? new StatementCache.Key(sql, -1, null, null, -1, -1, -1, -1, -1, -1, -1, -1)
+                    : new StatementCache.Key(sql,
+                            (jdbcSettings.getAutoGeneratedKeys() == Statement.RETURN_GENERATED_KEYS) || (autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS)
+                                    ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS,
+                            jdbcSettings.getColumnIndexes(), jdbcSettings.getColumnNames(), jdbcSettings.getResultSetType(),
+                            jdbcSettings.getResultSetConcurrency(), jdbcSettings.getResultSetHoldability(), jdbcSettings.getFetchSize(),
+                            jdbcSettings.getMaxRows(), jdbcSettings.getMaxFieldSize(), jdbcSettings.getFetchDirection(), jdbcSettings.getQueryTimeout());
+
+            stmt = _stmtCache.take(localConn, key);
+        }
+
+        if (stmt != null) {
+            // reused. It's set up by the same settings.
+        } else if (jdbcSettings == null) {
             stmt = localConn.prepareStatement(sql);
         } else {
             if (N.notNullOrEmpty(jdbcSettings.getColumnIndexes())) {
@@ -3035,10 +3945,23 @@ public final class SQLExecutor implements Closeable {
             }
         }
 
+        if (key != null) {
+            _stmtCache.track(stmt, key);
+        }
+
         if (isBatch || N.isNullOrEmpty(parameters)) {
             // ignore
         } else {
-            statementSetter.setParameters(namedSQL, stmt, parameters);
+            try {
+                statementSetter.setParameters(namedSQL, stmt, parameters);
+            } catch (SQLException | RuntimeException e) {
+                if (key != null) {
+                    _stmtCache.untrack(stmt);
+                }
+
+                JdbcUtil.closeQuietly(stmt);
+                throw e;
+            }
         }
 
         if ((jdbcSettings != null) && jdbcSettings.isLogSQL() && logger.isInfoEnabled()) {
@@ -3049,6 +3972,9 @@ public final class SQLExecutor implements Closeable {
             }
         }
 
+        // to be cancelled if it's executed by AsyncSQLExecutor and timed out.
+        AsyncSQLDispatcher.bind(stmt);
+
         return stmt;
     }
 
@@ -3066,11 +3992,6 @@ public final class SQLExecutor implements Closeable {
             labelList = ImmutableList.of(JdbcUtil.getColumnLabelList(rs));
 
             if (N.notNullOrEmpty(sql) && sql.length() <= CACHED_SQL_LENGTH) {
-                if (_sqlColumnLabelPool.size() >= SQL_CACHE_SIZE) {
-                    final List<String> tmp = new ArrayList<>(_sqlColumnLabelPool.keySet());
-                    Maps.removeAll(_sqlColumnLabelPool, tmp.subList(0, (int) (tmp.size() * 0.25)));
-                }
-
                 _sqlColumnLabelPool.put(sql, labelList);
             }
         }
@@ -3150,6 +4071,8 @@ public final class SQLExecutor implements Closeable {
         private final String sql_exists_by_id;
         private final String sql_get_by_id;
         private final String sql_delete_by_id;
+        // the sqls to get the entities by ids, cached by the number of ids. only for the query which selects all the properties.
+        private final Map<Integer, String> sql_batch_get_by_ids_pool = new ConcurrentHashMap<>();
         private final AsyncMapper<T> asyncMapper;
         // TODO cache more sqls to improve performance.
 
@@ -3376,6 +4299,98 @@ public final class SQLExecutor implements Closeable {
             return Optional.ofNullable(this.get(conn, id, selectPropNames));
         }
 
+        /**
+         * 
+         * @param ids
+         * @return
+         * @see #batchGet(Connection, Collection, Collection, int)
+         */
+        public List<T> batchGet(final Collection<?> ids) {
+            return batchGet(ids, null);
+        }
+
+        /**
+         * 
+         * @param ids
+         * @param selectPropNames
+         * @return
+         * @see #batchGet(Connection, Collection, Collection, int)
+         */
+        public List<T> batchGet(final Collection<?> ids, final Collection<String> selectPropNames) {
+            return batchGet(ids, selectPropNames, JdbcSettings.DEFAULT_BATCH_SIZE);
+        }
+
+        /**
+         * 
+         * @param ids
+         * @param selectPropNames
+         * @param batchSize
+         * @return
+         * @see #batchGet(Connection, Collection, Collection, int)
+         */
+        public List<T> batchGet(final Collection<?> ids, final Collection<String> selectPropNames, final int batchSize) {
+            return batchGet(null, ids, selectPropNames, batchSize);
+        }
+
+        /**
+         * Gets the entities by the specified {@code ids} with the queries: {@code SELECT ... WHERE id IN (?, ?, ...)}.
+         * The ids are split into chunks by {@code batchSize}, and the last chunk is padded by its last id to the same size,
+         * so only one sql is used/cached for all the chunks. If there are fewer ids than {@code batchSize}, they're padded to the next power of 2,
+         * so only a few sqls/statements are used/cached for different numbers of ids.
+         * 
+         * @param conn
+         * @param ids
+         * @param selectPropNames all the properties are selected if it's null or empty. The id property is always selected.
+         * @param batchSize Default value is 200.
+         * @return a list with the same size and order as the specified {@code ids}. The element is {@code null} if no record is found by the id at the same position.
+         */
+        public List<T> batchGet(final Connection conn, final Collection<?> ids, final Collection<String> selectPropNames, final int batchSize) {
+            N.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+
+            if (N.isNullOrEmpty(ids)) {
+                return new ArrayList<>();
+            }
+
+            // convert the ids to the type of id property, so they can be matched with the ids of the entities found.
+            final Type<Object> idType = N.typeOf(ClassUtil.getPropGetMethod(targetClass, idName).getReturnType());
+            final List<Object> idList = new ArrayList<>(ids.size());
+
+            for (Object id : ids) {
+                idList.add(N.as(idType, id));
+            }
+
+            final int idCount = idList.size();
+            final int chunkSize = idCount >= batchSize ? batchSize : N.min(batchSize, idCount == 1 ? 1 : Integer.highestOneBit(idCount - 1) << 1);
+            final String sql = prepareBatchGet(selectPropNames, chunkSize);
+            final Map<Object, T> entityMap = new HashMap<>(N.initHashCapacity(idCount));
+
+            for (int from = 0; from < idCount; from += chunkSize) {
+                final int to = N.min(from + chunkSize, idCount);
+                // a new array for each chunk because it may be kept by the query cache as part of the key.
+                final Object[] parameters = new Object[chunkSize];
+
+                for (int i = from; i < to; i++) {
+                    parameters[i - from] = idList.get(i);
+                }
+
+                for (int i = to - from; i < chunkSize; i++) {
+                    parameters[i] = idList.get(to - 1);
+                }
+
+                for (T entity : sqlExecutor.find(targetClass, conn, sql, parameters)) {
+                    entityMap.put(getId(entity), entity);
+                }
+            }
+
+            final List<T> result = new ArrayList<>(idCount);
+
+            for (Object id : idList) {
+                result.add(entityMap.get(id));
+            }
+
+            return result;
+        }
+
         public List<T> find(final Condition whereCause) {
             return find(null, whereCause);
         }
@@ -4283,6 +5298,31 @@ public final class SQLExecutor implements Closeable {
             return result;
         }
 
+        private String prepareBatchGet(final Collection<String> selectPropNames, final int idCount) {
+            String sql = N.isNullOrEmpty(selectPropNames) ? sql_batch_get_by_ids_pool.get(idCount) : null;
+
+            if (sql == null) {
+                Collection<String> propNames = selectPropNames;
+
+                if (N.notNullOrEmpty(selectPropNames) && !selectPropNames.contains(idName)) {
+                    propNames = new ArrayList<>(selectPropNames);
+                    propNames.add(idName);
+                }
+
+                // 'WHERE id IN (?, ?, ...)'.
+                final Object[] questionMarks = new Object[idCount];
+                Arrays.fill(questionMarks, L.QME);
+
+                sql = prepareQuery(propNames, L.in(idName, questionMarks)).sql;
+
+                if (N.isNullOrEmpty(selectPropNames)) {
+                    sql_batch_get_by_ids_pool.put(idCount, sql);
+                }
+            }
+
+            return sql;
+        }
+
         private SP prepareDelete(final Condition whereCause) {
             SP pair = null;
 
@@ -4462,6 +5502,43 @@ public final class SQLExecutor implements Closeable {
             });
         }
 
+        public CompletableFuture<List<T>> batchGet(final Collection<?> ids) {
+            return asyncExecutor.execute(new Callable<List<T>>() {
+                @Override
+                public List<T> call() throws Exception {
+                    return mapper.batchGet(ids);
+                }
+            });
+        }
+
+        public CompletableFuture<List<T>> batchGet(final Collection<?> ids, final Collection<String> selectPropNames) {
+            return asyncExecutor.execute(new Callable<List<T>>() {
+                @Override
+                public List<T> call() throws Exception {
+                    return mapper.batchGet(ids, selectPropNames);
+                }
+            });
+        }
+
+        public CompletableFuture<List<T>> batchGet(final Collection<?> ids, final Collection<String> selectPropNames, final int batchSize) {
+            return asyncExecutor.execute(new Callable<List<T>>() {
+                @Override
+                public List<T> call() throws Exception {
+                    return mapper.batchGet(ids, selectPropNames, batchSize);
+                }
+            });
+        }
+
+        public CompletableFuture<List<T>> batchGet(final Connection conn, final Collection<?> ids, final Collection<String> selectPropNames,
+                final int batchSize) {
+            return asyncExecutor.execute(new Callable<List<T>>() {
+                @Override
+                public List<T> call() throws Exception {
+                    return mapper.batchGet(conn, ids, selectPropNames, batchSize);
+                }
+            });
+        }
+
         public CompletableFuture<List<T>> find(final Condition whereCause) {
             return asyncExecutor.execute(new Callable<List<T>>() {
                 @Override
@@ -5179,6 +6256,21 @@ public final class SQLExecutor implements Closeable {
     //        T mapRow(ResultSet rs, int rowNum) throws SQLException;
     //    }
 
+    /**
+     * A page of rows queried by {@code streamByKey}.
+     */
+    private static final class Page {
+        private final String[] columnLabels;
+        private final int keyIndex;
+        private final List<Object[]> rows;
+
+        Page(final String[] columnLabels, final int keyIndex, final List<Object[]> rows) {
+            this.columnLabels = columnLabels;
+            this.keyIndex = keyIndex;
+            this.rows = rows;
+        }
+    }
+
     /**
      * Refer to http://landawn.com/introduction-to-jdbc.html about how to set parameters in <code>java.sql.PreparedStatement</code>
      * 
@@ -5252,7 +6344,7 @@ public final class SQLExecutor implements Closeable {
                             throw new IllegalArgumentException("Parameter for property '" + namedParameters.get(i) + "' is missed");
                         }
 
-                        a[i] = ClassUtil.invokeMethod(entity, propGetMethod);
+                        a[i] = ClassUtil.getPropValue(entity, propGetMethod);
                     }
                 }
             } else {
@@ -5371,6 +6463,7 @@ public final class SQLExecutor implements Closeable {
         private Collection<String> queryWithDataSources;
         private boolean queryInParallel = false;
         private IsolationLevel isolationLevel = null;
+        private int statementCacheSize = 0;
 
         private boolean fozen = false;
 
@@ -5402,6 +6495,7 @@ public final class SQLExecutor implements Closeable {
             copy.queryWithDataSource = this.queryWithDataSource;
             copy.queryWithDataSources = this.queryWithDataSources == null ? null : new ArrayList<>(this.queryWithDataSources);
             copy.queryInParallel = this.queryInParallel;
+            copy.statementCacheSize = this.statementCacheSize;
 
             return copy;
         }
@@ -5654,6 +6748,30 @@ public final class SQLExecutor implements Closeable {
             return this;
         }
 
+        public int getStatementCacheSize() {
+            return statementCacheSize;
+        }
+
+        /**
+         * Enables the {@code PreparedStatement} cache by connection if {@code statementCacheSize > 0}.
+         * It's only used by the {@code JdbcSettings} specified when the {@code SQLExecutor} is created.
+         * <br />
+         * The statements are only cached for the connections passed to the {@code SQLExecutor}, e.g. {@code SQLTransaction.connection()},
+         * because the connections opened by the {@code SQLExecutor} are closed after each operation.
+         * The statements cached for a connection are closed when the transaction is committed/rolled back, the connection is closed by {@code SQLExecutor.closeQuietly(Connection)},
+         * or it's found closed. DO NOT close a cached connection by other ways if it's used again.
+         *
+         * @param statementCacheSize the max number of statements cached for each connection.
+         * @return
+         */
+        public JdbcSettings setStatementCacheSize(final int statementCacheSize) {
+            assertNotFrozen();
+
+            this.statementCacheSize = statementCacheSize;
+
+            return this;
+        }
+
         void freeze() {
             fozen = true;
         }
@@ -5688,6 +6806,7 @@ public final class SQLExecutor implements Closeable {
             result = (prime * result) + ((queryWithDataSources == null) ? 0 : queryWithDataSources.hashCode());
             result = (prime * result) + (queryInParallel ? 1231 : 1237);
             result = (prime * result) + ((isolationLevel == null) ? 0 : isolationLevel.hashCode());
+            result = (prime * result) + statementCacheSize;
 
             return result;
         }
@@ -5709,7 +6828,7 @@ public final class SQLExecutor implements Closeable {
                         && N.equals(resultSetHoldability, other.resultSetHoldability) && N.equals(offset, other.offset) && N.equals(count, other.count)
                         && N.equals(generatedIdPropName, other.generatedIdPropName) && N.equals(queryWithDataSource, other.queryWithDataSource)
                         && N.equals(queryWithDataSources, other.queryWithDataSources) && N.equals(queryInParallel, other.queryInParallel)
-                        && N.equals(isolationLevel, other.isolationLevel);
+                        && N.equals(isolationLevel, other.isolationLevel) && N.equals(statementCacheSize, other.statementCacheSize);
             }
 
             return false;
@@ -5722,7 +6841,8 @@ public final class SQLExecutor implements Closeable {
                     + maxFieldSize + ", fetchSize=" + fetchSize + ", fetchDirection=" + fetchDirection + ", resultSetType=" + resultSetType
                     + ", resultSetConcurrency=" + resultSetConcurrency + ", resultSetHoldability=" + resultSetHoldability + ", offset=" + offset + ", count="
                     + count + ", generatedIdPropName=" + generatedIdPropName + ", queryWithDataSource=" + queryWithDataSource + ", queryWithDataSources="
-                    + queryWithDataSources + ", queryInParallel=" + queryInParallel + ", isolationLevel=" + isolationLevel + "}";
+                    + queryWithDataSources + ", queryInParallel=" + queryInParallel + ", isolationLevel=" + isolationLevel + ", statementCacheSize="
+                    + statementCacheSize + "}";
         }
     }
 
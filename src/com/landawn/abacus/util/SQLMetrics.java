@@ -0,0 +1,649 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.landawn.abacus.DataSet;
+import com.landawn.abacus.core.RowDataSet;
+import com.landawn.abacus.util.Profiler.Histogram;
+
+/**
+ * The execution statistics of the sql statements executed by {@code SQLExecutor} or {@code JdbcUtil}, grouped by the sql template
+ * (the sql with parameter placeholders, not the parameter values).
+ * <br />
+ * It's disabled by default and must be enabled by {@link #setEnabled(boolean)}.
+ * <br />
+ * For each sql, the number of executions, errors and rows fetched/affected are counted, and the elapsed time of the prepare, execute and fetch phases
+ * is recorded in fixed-size histograms with a relative error of at most 12.5%. The histograms are striped by thread and allocated on the first record,
+ * so the executions of the same sql by different threads rarely contend on the same lock.
+ * At most {@code maxSqlCount} sqls are tracked. The executions of the other sqls (e.g. the sqls with literal values instead of parameters)
+ * are only counted by {@link #getUntrackedCount()} until {@link #reset()} is called.
+ * <br />
+ * The executions which take longer than the slow query threshold are kept in a ring buffer, and the oldest one is overwritten when the buffer is full.
+ * The parameters of the slow queries are only kept if {@link #setCaptureParameters(boolean)} is set to true.
+ * <br />
+ * All the statistics can be retrieved by {@link #getStatisticsList()}/{@link #getSlowQueryList()} or exported by {@link #toDataSet()}/{@link #slowQueriesToDataSet()}.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+public final class SQLMetrics {
+    public static final int DEFAULT_MAX_SQL_COUNT = 256;
+    public static final int DEFAULT_SLOW_QUERY_BUFFER_SIZE = 100;
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD_IN_MILLIS = 1000;
+
+    // 8 buckets for each range of [2^n, 2^(n+1)). it takes about 4KB for each histogram.
+    private static final int PRECISION_BITS = 3;
+    private static final int MAX_PARAMETERS_LENGTH = 1024;
+    // must be power of 2.
+    private static final int STRIPE_COUNT = 4;
+
+    private static final Recorder NOOP_RECORDER = new Recorder(null, null);
+
+    private final int maxSqlCount;
+    private final ConcurrentHashMap<String, Collector> statisticsPool = new ConcurrentHashMap<>();
+    private final LongAdder untrackedCount = new LongAdder();
+    private final SlowQuery[] slowQueries;
+    // guarded by slowQueries.
+    private long slowQueryCount = 0;
+    private volatile boolean enabled = false;
+    private volatile boolean captureParameters = false;
+    private volatile long slowQueryThresholdInNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_QUERY_THRESHOLD_IN_MILLIS);
+
+    public SQLMetrics() {
+        this(DEFAULT_MAX_SQL_COUNT, DEFAULT_SLOW_QUERY_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param maxSqlCount the max number of sqls whose statistics are tracked.
+     * @param slowQueryBufferSize the max number of slow queries which are kept.
+     */
+    public SQLMetrics(final int maxSqlCount, final int slowQueryBufferSize) {
+        N.checkArgument(maxSqlCount > 0, "'maxSqlCount' must be bigger than 0: %s", maxSqlCount);
+        N.checkArgument(slowQueryBufferSize > 0, "'slowQueryBufferSize' must be bigger than 0: %s", slowQueryBufferSize);
+
+        this.maxSqlCount = maxSqlCount;
+        this.slowQueries = new SlowQuery[slowQueryBufferSize];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Nothing is recorded if it's disabled, which is the default. The recorded statistics are kept.
+     *
+     * @param enabled
+     * @return
+     */
+    public SQLMetrics setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+
+        return this;
+    }
+
+    public boolean isCaptureParameters() {
+        return captureParameters;
+    }
+
+    /**
+     * The parameters of the slow queries are converted to string and kept if it's true. It's false by default.
+     *
+     * @param captureParameters
+     * @return
+     */
+    public SQLMetrics setCaptureParameters(final boolean captureParameters) {
+        this.captureParameters = captureParameters;
+
+        return this;
+    }
+
+    public long getSlowQueryThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdInNanos);
+    }
+
+    /**
+     *
+     * @param slowQueryThresholdInMillis the execution which takes longer than or equal to it is recorded as slow query.
+     * @return
+     */
+    public SQLMetrics setSlowQueryThreshold(final long slowQueryThresholdInMillis) {
+        N.checkArgument(slowQueryThresholdInMillis >= 0, "'slowQueryThreshold' can't be negative: %s", slowQueryThresholdInMillis);
+
+        this.slowQueryThresholdInNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdInMillis);
+
+        return this;
+    }
+
+    /**
+     * Starts to record an execution of the specified sql. The returned {@code Recorder} must be closed in {@code finally} block.
+     *
+     * @param sql
+     * @return a no-op {@code Recorder} if it's disabled.
+     */
+    Recorder start(final String sql) {
+        return enabled ? new Recorder(this, sql) : NOOP_RECORDER;
+    }
+
+    /**
+     *
+     * @param sql
+     * @return the snapshot of the statistics of the specified sql, or null if it's not executed or not tracked.
+     */
+    public Statistics getStatistics(final String sql) {
+        final Collector collector = statisticsPool.get(sql);
+
+        return collector == null ? null : collector.snapshot();
+    }
+
+    /**
+     *
+     * @return the snapshot of the statistics of all the sqls, sorted by the total elapsed time, from the most to the least.
+     */
+    public List<Statistics> getStatisticsList() {
+        final List<Statistics> result = new ArrayList<>();
+
+        for (Collector collector : statisticsPool.values()) {
+            result.add(collector.snapshot());
+        }
+
+        N.sort(result, new Comparator<Statistics>() {
+            @Override
+            public int compare(final Statistics a, final Statistics b) {
+                return Long.compare(b.getTotalTime().getSum(), a.getTotalTime().getSum());
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     *
+     * @return the number of the executions which are not recorded because {@code maxSqlCount} sqls are already tracked.
+     */
+    public long getUntrackedCount() {
+        return untrackedCount.sum();
+    }
+
+    /**
+     *
+     * @return the slow queries kept in the buffer, from the oldest to the latest.
+     */
+    public List<SlowQuery> getSlowQueryList() {
+        synchronized (slowQueries) {
+            final int size = (int) N.min(slowQueryCount, slowQueries.length);
+            final List<SlowQuery> result = new ArrayList<>(size);
+
+            for (long i = slowQueryCount - size; i < slowQueryCount; i++) {
+                result.add(slowQueries[(int) (i % slowQueries.length)]);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Clears all the statistics and slow queries.
+     */
+    public void reset() {
+        statisticsPool.clear();
+        untrackedCount.reset();
+
+        synchronized (slowQueries) {
+            N.fill(slowQueries, null);
+            slowQueryCount = 0;
+        }
+    }
+
+    /**
+     * Exports the statistics by {@link #getStatisticsList()}. The time is in milliseconds.
+     *
+     * @return
+     */
+    public DataSet toDataSet() {
+        final List<String> columnNameList = N.asList("sql", "executionCount", "errorCount", "rowCount", "avgTime", "p50Time", "p90Time", "p99Time",
+                "maxTime", "totalTime", "avgPrepareTime", "p99PrepareTime", "avgExecuteTime", "p99ExecuteTime", "avgFetchTime", "p99FetchTime");
+        final List<List<Object>> columnList = new ArrayList<>(columnNameList.size());
+
+        for (int i = 0, len = columnNameList.size(); i < len; i++) {
+            columnList.add(new ArrayList<>());
+        }
+
+        for (Statistics statistics : getStatisticsList()) {
+            int idx = 0;
+            columnList.get(idx++).add(statistics.getSql());
+            columnList.get(idx++).add(statistics.getExecutionCount());
+            columnList.get(idx++).add(statistics.getErrorCount());
+            columnList.get(idx++).add(statistics.getRowCount());
+            columnList.get(idx++).add(toMillis(statistics.getTotalTime().getMean()));
+            columnList.get(idx++).add(toMillis(statistics.getTotalTime().getValueAtPercentile(50)));
+            columnList.get(idx++).add(toMillis(statistics.getTotalTime().getValueAtPercentile(90)));
+            columnList.get(idx++).add(toMillis(statistics.getTotalTime().getValueAtPercentile(99)));
+            columnList.get(idx++).add(toMillis(statistics.getTotalTime().getMax()));
+            columnList.get(idx++).add(toMillis(statistics.getTotalTime().getSum()));
+            columnList.get(idx++).add(toMillis(statistics.getPrepareTime().getMean()));
+            columnList.get(idx++).add(toMillis(statistics.getPrepareTime().getValueAtPercentile(99)));
+            columnList.get(idx++).add(toMillis(statistics.getExecuteTime().getMean()));
+            columnList.get(idx++).add(toMillis(statistics.getExecuteTime().getValueAtPercentile(99)));
+            columnList.get(idx++).add(toMillis(statistics.getFetchTime().getMean()));
+            columnList.get(idx++).add(toMillis(statistics.getFetchTime().getValueAtPercentile(99)));
+        }
+
+        return new RowDataSet(columnNameList, columnList);
+    }
+
+    /**
+     * Exports the slow queries by {@link #getSlowQueryList()}. The time is in milliseconds.
+     *
+     * @return
+     */
+    public DataSet slowQueriesToDataSet() {
+        final List<String> columnNameList = N.asList("startTime", "sql", "parameters", "elapsedTime", "failed");
+        final List<List<Object>> columnList = new ArrayList<>(columnNameList.size());
+
+        for (int i = 0, len = columnNameList.size(); i < len; i++) {
+            columnList.add(new ArrayList<>());
+        }
+
+        for (SlowQuery slowQuery : getSlowQueryList()) {
+            int idx = 0;
+            columnList.get(idx++).add(N.asTimestamp(slowQuery.getStartTime()));
+            columnList.get(idx++).add(slowQuery.getSql());
+            columnList.get(idx++).add(slowQuery.getParameters());
+            columnList.get(idx++).add(slowQuery.getElapsedTime());
+            columnList.get(idx++).add(slowQuery.isFailed());
+        }
+
+        return new RowDataSet(columnNameList, columnList);
+    }
+
+    private void record(final Recorder recorder, final long elapsedTime, final Object parameters) {
+        Collector collector = statisticsPool.get(recorder.sql);
+
+        if (collector == null) {
+            // the pool may be a little bigger than maxSqlCount if some new sqls are added by different threads at the same time.
+            if (statisticsPool.size() >= maxSqlCount) {
+                untrackedCount.increment();
+            } else {
+                final Collector newCollector = new Collector(recorder.sql);
+                collector = statisticsPool.putIfAbsent(recorder.sql, newCollector);
+
+                if (collector == null) {
+                    collector = newCollector;
+                }
+            }
+        }
+
+        if (collector != null) {
+            collector.record(recorder, elapsedTime);
+        }
+
+        if (elapsedTime >= slowQueryThresholdInNanos) {
+            String str = parameters == null || captureParameters == false ? null : N.deepToString(parameters);
+
+            if (str != null && str.length() > MAX_PARAMETERS_LENGTH) {
+                str = str.substring(0, MAX_PARAMETERS_LENGTH) + "...";
+            }
+
+            final SlowQuery slowQuery = new SlowQuery(recorder.sql, str, System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(elapsedTime),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedTime), recorder.succeeded == false);
+
+            synchronized (slowQueries) {
+                slowQueries[(int) (slowQueryCount++ % slowQueries.length)] = slowQuery;
+            }
+        }
+    }
+
+    private static double toMillis(final double nanos) {
+        return nanos / 1000000;
+    }
+
+    @Override
+    public String toString() {
+        return "{enabled=" + enabled + ", captureParameters=" + captureParameters + ", slowQueryThreshold=" + getSlowQueryThreshold() + ", sqlCount="
+                + statisticsPool.size() + ", untrackedCount=" + untrackedCount.sum() + "}";
+    }
+
+    /**
+     * Records the elapsed time of the phases of one execution. It's not thread-safe and only used by the thread executing the sql.
+     */
+    static final class Recorder {
+        private final SQLMetrics metrics;
+        private final String sql;
+        private final long startTime;
+        private long lastTime;
+        private long prepareTime = -1;
+        private long executeTime = -1;
+        private long fetchTime = -1;
+        private long rowCount = -1;
+        private boolean succeeded = false;
+
+        Recorder(final SQLMetrics metrics, final String sql) {
+            this.metrics = metrics;
+            this.sql = sql;
+            this.startTime = metrics == null ? 0 : System.nanoTime();
+            this.lastTime = startTime;
+        }
+
+        /**
+         * The statement is created and the parameters are set.
+         */
+        void prepared() {
+            if (metrics != null) {
+                final long now = System.nanoTime();
+                prepareTime = now - lastTime;
+                lastTime = now;
+            }
+        }
+
+        /**
+         * The statement is executed. It's accumulated if it's called more than once, e.g. by batch execution.
+         */
+        void executed() {
+            if (metrics != null) {
+                final long now = System.nanoTime();
+                executeTime = (executeTime < 0 ? 0 : executeTime) + now - lastTime;
+                lastTime = now;
+            }
+        }
+
+        /**
+         * The result is extracted from the {@code ResultSet}.
+         */
+        void fetched() {
+            if (metrics != null) {
+                final long now = System.nanoTime();
+                fetchTime = now - lastTime;
+                lastTime = now;
+            }
+        }
+
+        /**
+         * The execution is done successfully.
+         *
+         * @param rowCount the number of rows fetched or affected. -1 if it's unknown.
+         */
+        void succeeded(final long rowCount) {
+            this.rowCount = rowCount;
+            this.succeeded = true;
+        }
+
+        /**
+         * The execution is done successfully, with the number of rows fetched from the specified {@code result} if it's a {@code DataSet} or {@code Collection}.
+         *
+         * @param result
+         */
+        void succeeded(final Object result) {
+            succeeded(result instanceof DataSet ? ((DataSet) result).size() : (result instanceof Collection ? ((Collection<?>) result).size() : -1));
+        }
+
+        /**
+         * Records the execution. It's called in {@code finally} block and the execution is recorded as error if {@code succeeded} is not called.
+         *
+         * @param parameters the parameters kept with the slow query if {@code captureParameters} is true.
+         */
+        void close(final Object parameters) {
+            if (metrics != null) {
+                metrics.record(this, System.nanoTime() - startTime, parameters);
+            }
+        }
+    }
+
+    /**
+     * Collects the statistics of a sql. The counters are {@code LongAdder} and the histograms are striped by thread.
+     */
+    private static final class Collector {
+        private final String sql;
+        private final LongAdder executionCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder rowCount = new LongAdder();
+        private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+        Collector(final String sql) {
+            this.sql = sql;
+
+            for (int i = 0; i < STRIPE_COUNT; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        void record(final Recorder recorder, final long elapsedTime) {
+            executionCount.increment();
+
+            if (recorder.succeeded == false) {
+                errorCount.increment();
+            }
+
+            if (recorder.rowCount > 0) {
+                rowCount.add(recorder.rowCount);
+            }
+
+            stripes[(int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)].record(recorder, elapsedTime);
+        }
+
+        Statistics snapshot() {
+            final Statistics snapshot = new Statistics(sql, executionCount.sum(), errorCount.sum(), rowCount.sum());
+
+            for (Stripe stripe : stripes) {
+                stripe.addTo(snapshot);
+            }
+
+            return snapshot;
+        }
+    }
+
+    private static final class Stripe {
+        // the histograms are allocated on the first record. guarded by this.
+        private Histogram prepareTime;
+        private Histogram executeTime;
+        private Histogram fetchTime;
+        private Histogram totalTime;
+
+        synchronized void record(final Recorder recorder, final long elapsedTime) {
+            if (recorder.prepareTime >= 0) {
+                if (prepareTime == null) {
+                    prepareTime = new Histogram(PRECISION_BITS);
+                }
+
+                prepareTime.record(recorder.prepareTime);
+            }
+
+            if (recorder.executeTime >= 0) {
+                if (executeTime == null) {
+                    executeTime = new Histogram(PRECISION_BITS);
+                }
+
+                executeTime.record(recorder.executeTime);
+            }
+
+            if (recorder.fetchTime >= 0) {
+                if (fetchTime == null) {
+                    fetchTime = new Histogram(PRECISION_BITS);
+                }
+
+                fetchTime.record(recorder.fetchTime);
+            }
+
+            if (totalTime == null) {
+                totalTime = new Histogram(PRECISION_BITS);
+            }
+
+            totalTime.record(elapsedTime);
+        }
+
+        synchronized void addTo(final Statistics snapshot) {
+            if (prepareTime != null) {
+                snapshot.prepareTime.add(prepareTime);
+            }
+
+            if (executeTime != null) {
+                snapshot.executeTime.add(executeTime);
+            }
+
+            if (fetchTime != null) {
+                snapshot.fetchTime.add(fetchTime);
+            }
+
+            if (totalTime != null) {
+                snapshot.totalTime.add(totalTime);
+            }
+        }
+    }
+
+    /**
+     * The snapshot of the statistics of a sql. The elapsed time is in nanoseconds.
+     */
+    public static final class Statistics {
+        private final String sql;
+        private final Histogram prepareTime = new Histogram(PRECISION_BITS);
+        private final Histogram executeTime = new Histogram(PRECISION_BITS);
+        private final Histogram fetchTime = new Histogram(PRECISION_BITS);
+        private final Histogram totalTime = new Histogram(PRECISION_BITS);
+        private final long executionCount;
+        private final long errorCount;
+        private final long rowCount;
+
+        Statistics(final String sql, final long executionCount, final long errorCount, final long rowCount) {
+            this.sql = sql;
+            this.executionCount = executionCount;
+            this.errorCount = errorCount;
+            this.rowCount = rowCount;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getExecutionCount() {
+            return executionCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         *
+         * @return the total number of rows fetched by query or affected by update.
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * The time to create the statement and set the parameters.
+         *
+         * @return
+         */
+        public Histogram getPrepareTime() {
+            return prepareTime;
+        }
+
+        public Histogram getExecuteTime() {
+            return executeTime;
+        }
+
+        /**
+         * The time to extract the result from {@code ResultSet}. Only for query.
+         *
+         * @return
+         */
+        public Histogram getFetchTime() {
+            return fetchTime;
+        }
+
+        /**
+         * The time from the start to the end of the execution, including getting/closing the connection.
+         *
+         * @return
+         */
+        public Histogram getTotalTime() {
+            return totalTime;
+        }
+
+        @Override
+        public String toString() {
+            return "{sql=" + sql + ", executionCount=" + executionCount + ", errorCount=" + errorCount + ", rowCount=" + rowCount + ", avgTime="
+                    + toMillis(totalTime.getMean()) + ", p99Time=" + toMillis(totalTime.getValueAtPercentile(99)) + ", maxTime="
+                    + toMillis(totalTime.getMax()) + "}";
+        }
+    }
+
+    /**
+     * An execution which takes longer than the slow query threshold.
+     */
+    public static final class SlowQuery {
+        private final String sql;
+        private final String parameters;
+        private final long startTime;
+        private final long elapsedTime;
+        private final boolean failed;
+
+        SlowQuery(final String sql, final String parameters, final long startTime, final long elapsedTime, final boolean failed) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.startTime = startTime;
+            this.elapsedTime = elapsedTime;
+            this.failed = failed;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         *
+         * @return the parameters in string, truncated if it's too long.
+         */
+        public String getParameters() {
+            return parameters;
+        }
+
+        /**
+         *
+         * @return the start time in milliseconds.
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         *
+         * @return the elapsed time in milliseconds.
+         */
+        public long getElapsedTime() {
+            return elapsedTime;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return "{startTime=" + N.asTimestamp(startTime) + ", elapsedTime=" + elapsedTime + ", failed=" + failed + ", sql=" + sql + ", parameters="
+                    + parameters + "}";
+        }
+    }
+}
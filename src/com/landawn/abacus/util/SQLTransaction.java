@@ -14,17 +14,44 @@
 
 package com.landawn.abacus.util;
 
+import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.landawn.abacus.IsolationLevel;
 import com.landawn.abacus.Transaction;
 import com.landawn.abacus.exception.UncheckedSQLException;
 import com.landawn.abacus.logging.Logger;
 import com.landawn.abacus.logging.LoggerFactory;
+import com.landawn.abacus.util.SQLExecutor.AbstractStatementSetter;
+import com.landawn.abacus.util.SQLExecutor.JdbcSettings;
+import com.landawn.abacus.util.SQLExecutor.StatementSetter;
+import com.landawn.abacus.util.SQLExecutor.TypedParameters;
 
 /**
  * DO NOT CLOSE the connection manually. It will be automatically closed after the transaction is committed or rolled back.
+ * <br />
+ * A nested transaction can be started by {@link #beginNested()}, which is backed by a JDBC {@code Savepoint} and can be rolled back without
+ * rolling back this transaction.
+ * <br />
+ * In write-behind mode (started by {@link SQLExecutor#beginTransaction(IsolationLevel, boolean)}), the {@code INSERT/UPDATE/DELETE} executed by
+ * {@code SQLExecutor.update(...)} with the connection of this transaction are not executed immediately. The ones with the same sql on the same table
+ * are grouped into a JDBC batch, which is executed when:
+ * <ul>
+ * <li>the transaction or a nested transaction is committed/started, or {@link #flush()} is called.</li>
+ * <li>a query on the table is executed with the connection of this transaction.</li>
+ * <li>a different sql on the table, or a sql which is not deferred (insert with generated keys, batch update...), is executed.</li>
+ * <li>the batch is full.</li>
+ * </ul>
+ * The batches are executed in the order of their first statements. The statements on different tables may be executed in different order from
+ * the calls, and the errors are thrown when the batch is executed. After a batch fails, the transaction is marked as rollback-only:
+ * it can't be committed and no more updates can be deferred, until the innermost nested transaction (if any) or the transaction is rolled back.
  * 
  * @since 0.8
  * 
@@ -38,10 +65,36 @@ public final class SQLTransaction implements Transaction {
     private final IsolationLevel isolationLevel;
     private final int originalIsolationLevel;
     private final boolean originalAutoCommit;
+    private final Runnable onClose;
     private Status status;
+    private final List<NestedTransaction> nestedTransactions = new ArrayList<>();
+    // null if it's not in write-behind mode.
+    private final SQLExecutor writeBehindExecutor;
+    // the batches to be executed, in the order of their first statements. Mapped by table.
+    private final Map<String, PendingBatch> pendingBatches = new LinkedHashMap<>();
+    private boolean isFlushing = false;
+    // set if a deferred update failed, and cleared if the updates after the last savepoint are rolled back.
+    private boolean isRollbackOnly = false;
 
     public SQLTransaction(Connection conn, IsolationLevel isolationLevel) {
+        this(conn, isolationLevel, null);
+    }
+
+    SQLTransaction(Connection conn, IsolationLevel isolationLevel, Runnable onClose) {
+        this(conn, isolationLevel, onClose, null);
+    }
+
+    /**
+     *
+     * @param conn
+     * @param isolationLevel
+     * @param onClose called before the connection is closed after the transaction is committed or rolled back.
+     * @param writeBehindExecutor the {@code SQLExecutor} to execute the deferred updates in write-behind mode. null if it's not in write-behind mode.
+     */
+    SQLTransaction(Connection conn, IsolationLevel isolationLevel, Runnable onClose, SQLExecutor writeBehindExecutor) {
         this.id = N.uuid();
+        this.onClose = onClose;
+        this.writeBehindExecutor = writeBehindExecutor;
         this.isolationLevel = isolationLevel;
         this.conn = conn;
         status = Status.ACTIVE;
@@ -85,14 +138,76 @@ public final class SQLTransaction implements Transaction {
         return conn;
     }
 
+    public boolean isWriteBehind() {
+        return writeBehindExecutor != null;
+    }
+
+    /**
+     * Starts a nested transaction by setting a {@code Savepoint}. The nested transaction must be committed or rolled back
+     * before the outer (nested) transaction is committed.
+     * 
+     * @return
+     */
+    public synchronized NestedTransaction beginNested() throws UncheckedSQLException {
+        checkActive();
+
+        flush();
+
+        try {
+            final NestedTransaction nestedTransaction = new NestedTransaction(conn.setSavepoint());
+            nestedTransactions.add(nestedTransaction);
+
+            return nestedTransaction;
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    /**
+     * Executes all the deferred updates in write-behind mode.
+     */
+    public synchronized void flush() throws UncheckedSQLException {
+        if (pendingBatches.size() > 0) {
+            flush(null);
+        }
+    }
+
     @Override
     public void commit() throws UncheckedSQLException {
         if (!status.equals(Status.ACTIVE)) {
             throw new IllegalStateException("transaction is already " + status);
         }
 
+        if (nestedTransactions.size() > 0) {
+            throw new IllegalStateException("The nested transactions must be committed or rolled back before transaction with id: " + id + " is committed");
+        }
+
+        if (isRollbackOnly) {
+            try {
+                rollback();
+            } catch (Throwable e) {
+                // ignore;
+                logger.error("Failed to rollback the transaction marked as rollback-only", e);
+            }
+
+            throw new IllegalStateException(rollbackOnlyMessage() + ". It's rolled back");
+        }
+
         status = Status.COMMIT_FAILED;
 
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            try {
+                rollback();
+            } catch (Throwable e2) {
+                // ignore;
+                logger.error("Failed to rollback after error happened during executing the deferred updates", e2);
+            }
+
+            throw e;
+        }
+
         try {
             conn.commit();
 
@@ -124,6 +239,16 @@ public final class SQLTransaction implements Transaction {
 
         status = Status.ROLLBACK_FAILED;
 
+        synchronized (this) {
+            pendingBatches.clear();
+
+            for (NestedTransaction nestedTransaction : nestedTransactions) {
+                nestedTransaction.status = Status.ROLLBACKED;
+            }
+
+            nestedTransactions.clear();
+        }
+
         try {
             conn.rollback();
 
@@ -135,6 +260,209 @@ public final class SQLTransaction implements Transaction {
         }
     }
 
+    /**
+     * Defers the specified update to be executed in a batch, if it's in write-behind mode.
+     * The values of the parameters are copied, so the caller can reuse/modify the parameter array or entity after it returns.
+     *
+     * @param sql
+     * @param namedSQL
+     * @param statementSetter
+     * @param jdbcSettings
+     * @param parameters
+     * @return false if the update is not deferred. It should be executed by the caller.
+     */
+    synchronized boolean addBatch(final String sql, final NamedSQL namedSQL, final StatementSetter statementSetter, final JdbcSettings jdbcSettings,
+            final Object[] parameters) {
+        final String pureSQL = namedSQL.getPureSQL();
+
+        if (writeBehindExecutor == null || isFlushing || status != Status.ACTIVE || isDML(pureSQL) == false) {
+            return false;
+        }
+
+        if (isRollbackOnly) {
+            throw new IllegalStateException(rollbackOnlyMessage());
+        }
+
+        final String[] tables = QueryCache.parseUpdateTables(pureSQL);
+
+        if (tables.length != 1) {
+            return false;
+        }
+
+        final Object[] values = copyParameters(namedSQL, statementSetter, parameters);
+
+        if (values == null) {
+            return false;
+        }
+
+        final String table = tables[0];
+
+        // the sub queries read the latest data.
+        for (String referencedTable : QueryCache.parseReferencedTables(pureSQL)) {
+            if (referencedTable.equals(table) == false && pendingBatches.containsKey(referencedTable)) {
+                flush(referencedTable);
+            }
+        }
+
+        PendingBatch batch = pendingBatches.get(table);
+
+        if (batch != null && batch.accepts(sql, statementSetter, jdbcSettings) == false) {
+            flush(table);
+            batch = null;
+        }
+
+        if (batch == null) {
+            batch = new PendingBatch(sql, statementSetter, jdbcSettings);
+            pendingBatches.put(table, batch);
+        }
+
+        // the same as the element of 'batchParameters' in SQLExecutor.batchUpdate: an array of parameters.
+        batch.batchParameters.add(values);
+
+        if (batch.batchParameters.size() >= writeBehindExecutor.getBatchSize(jdbcSettings)) {
+            flush(table);
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the values of the parameters in the order of the parameters in the sql, the same as {@code AbstractStatementSetter.setParameters}.
+     *
+     * @param namedSQL
+     * @param statementSetter
+     * @param parameters
+     * @return null if the parameters can't be copied, e.g. by a customized {@code StatementSetter} or with {@code TypedParameters}.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object[] copyParameters(final NamedSQL namedSQL, final StatementSetter statementSetter, final Object[] parameters) {
+        final int parameterCount = namedSQL.getParameterCount();
+
+        if (parameterCount == 0) {
+            return N.EMPTY_OBJECT_ARRAY;
+        } else if (N.isNullOrEmpty(parameters) || statementSetter instanceof AbstractStatementSetter == false
+                || parameters[0] instanceof TypedParameters) {
+            return null;
+        }
+
+        Object[] values = null;
+
+        if (SQLExecutor.isEntityOrMapParameter(namedSQL, parameters)) {
+            final Map<Integer, String> namedParameters = namedSQL.getNamedParameters();
+            values = new Object[parameterCount];
+
+            if (parameters[0] instanceof Map) {
+                final Map<String, Object> m = (Map<String, Object>) parameters[0];
+
+                for (int i = 0; i < parameterCount; i++) {
+                    if (m.containsKey(namedParameters.get(i)) == false) {
+                        return null;
+                    }
+
+                    values[i] = m.get(namedParameters.get(i));
+                }
+            } else {
+                final Object entity = parameters[0];
+                Method propGetMethod = null;
+
+                for (int i = 0; i < parameterCount; i++) {
+                    propGetMethod = ClassUtil.getPropGetMethod(entity.getClass(), namedParameters.get(i));
+
+                    if (propGetMethod == null) {
+                        return null;
+                    }
+
+                    values[i] = ClassUtil.getPropValue(entity, propGetMethod);
+                }
+            }
+        } else if (parameters.length == 1 && parameters[0] instanceof Object[]) {
+            values = ((Object[]) parameters[0]).clone();
+        } else if (parameters.length == 1 && parameters[0] instanceof List) {
+            values = ((List<?>) parameters[0]).toArray();
+        } else {
+            values = parameters.clone();
+        }
+
+        // the invalid parameters are handled by the caller.
+        return values.length >= parameterCount ? values : null;
+    }
+
+    /**
+     * Executes the deferred updates on the tables which will be read or written by the specified sql.
+     *
+     * @param pureSQL
+     */
+    synchronized void flushBefore(final String pureSQL) {
+        if (pendingBatches.size() == 0 || isFlushing) {
+            return;
+        }
+
+        final String[] tables = QueryCache.parseQueryTables(pureSQL);
+
+        if (tables.length == 0) {
+            // not a query, or no table recognized.
+            flush(null);
+        } else {
+            for (String table : tables) {
+                if (pendingBatches.containsKey(table)) {
+                    flush(table);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes the batch of the specified table and all the batches before it. All the batches are executed if {@code table} is null.
+     *
+     * @param table
+     */
+    private void flush(final String table) {
+        isFlushing = true;
+
+        try {
+            final Iterator<Map.Entry<String, PendingBatch>> iter = pendingBatches.entrySet().iterator();
+
+            while (iter.hasNext()) {
+                final Map.Entry<String, PendingBatch> entry = iter.next();
+                final PendingBatch batch = entry.getValue();
+                iter.remove();
+
+                writeBehindExecutor.batchUpdate(conn, batch.sql, batch.statementSetter, batch.jdbcSettings, batch.batchParameters);
+
+                if (entry.getKey().equals(table)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // the batches executed before are not rolled back by the driver. the transaction must be rolled back.
+            pendingBatches.clear();
+            isRollbackOnly = true;
+            throw e;
+        } finally {
+            isFlushing = false;
+        }
+    }
+
+    private void checkActive() {
+        if (!status.equals(Status.ACTIVE)) {
+            throw new IllegalStateException("transaction is already " + status);
+        }
+
+        if (isRollbackOnly) {
+            throw new IllegalStateException(rollbackOnlyMessage());
+        }
+    }
+
+    private String rollbackOnlyMessage() {
+        return "Transaction with id: " + id + " is marked as rollback-only because the deferred updates failed";
+    }
+
+    private static boolean isDML(final String pureSQL) {
+        final String sql = pureSQL.trim();
+
+        return sql.regionMatches(true, 0, "INSERT", 0, 6) || sql.regionMatches(true, 0, "UPDATE", 0, 6) || sql.regionMatches(true, 0, "DELETE", 0, 6);
+    }
+
     private void closeConnection() {
         try {
             conn.setAutoCommit(originalAutoCommit);
@@ -142,6 +470,15 @@ public final class SQLTransaction implements Transaction {
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         } finally {
+            try {
+                if (onClose != null) {
+                    onClose.run();
+                }
+            } catch (Throwable e) {
+                // ignore;
+                logger.error("Failed to run the close handler of transaction with id: " + id, e);
+            }
+
             try {
                 conn.close();
             } catch (SQLException e) {
@@ -151,4 +488,117 @@ public final class SQLTransaction implements Transaction {
             conn = null;
         }
     }
+
+    /**
+     * A nested transaction backed by a JDBC {@code Savepoint}.
+     */
+    public final class NestedTransaction {
+        private final Savepoint savepoint;
+        private Status status = Status.ACTIVE;
+
+        NestedTransaction(final Savepoint savepoint) {
+            this.savepoint = savepoint;
+        }
+
+        public Status status() {
+            synchronized (SQLTransaction.this) {
+                return status;
+            }
+        }
+
+        /**
+         * Releases the {@code Savepoint}. The updates are committed or rolled back with the outer transaction.
+         * 
+         * @throws UncheckedSQLException
+         */
+        public void commit() throws UncheckedSQLException {
+            synchronized (SQLTransaction.this) {
+                checkNestedActive();
+
+                if (isRollbackOnly) {
+                    throw new IllegalStateException(rollbackOnlyMessage() + ". The nested transaction must be rolled back");
+                }
+
+                status = Status.COMMIT_FAILED;
+
+                flush();
+
+                try {
+                    conn.releaseSavepoint(savepoint);
+                } catch (java.sql.SQLFeatureNotSupportedException e) {
+                    // it's released with the transaction.
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException("Failed to commit nested transaction of transaction with id: " + id, e);
+                }
+
+                nestedTransactions.remove(nestedTransactions.size() - 1);
+                status = Status.COMMITTED;
+            }
+        }
+
+        /**
+         * Rolls back the updates after the {@code Savepoint} is set. The outer transaction is still active,
+         * and it's not rollback-only anymore because the failed deferred updates are always after the last {@code Savepoint}.
+         * 
+         * @throws UncheckedSQLException
+         */
+        public void rollback() throws UncheckedSQLException {
+            synchronized (SQLTransaction.this) {
+                if (!(status.equals(Status.ACTIVE) || status == Status.COMMIT_FAILED)) {
+                    throw new IllegalStateException("nested transaction is already " + status);
+                }
+
+                final int index = nestedTransactions.indexOf(this);
+
+                if (index < 0) {
+                    throw new IllegalStateException("nested transaction is already completed with its outer transaction");
+                }
+
+                status = Status.ROLLBACK_FAILED;
+
+                // all the deferred updates are added after the last savepoint is set, which is not before this savepoint.
+                pendingBatches.clear();
+
+                try {
+                    conn.rollback(savepoint);
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException("Failed to rollback nested transaction of transaction with id: " + id, e);
+                }
+
+                isRollbackOnly = false;
+
+                // the nested transactions started after this one are rolled back too.
+                while (nestedTransactions.size() > index) {
+                    nestedTransactions.remove(nestedTransactions.size() - 1).status = Status.ROLLBACKED;
+                }
+            }
+        }
+
+        private void checkNestedActive() {
+            if (!status.equals(Status.ACTIVE)) {
+                throw new IllegalStateException("nested transaction is already " + status);
+            }
+
+            if (nestedTransactions.get(nestedTransactions.size() - 1) != this) {
+                throw new IllegalStateException("The nested transactions started after it must be committed or rolled back first");
+            }
+        }
+    }
+
+    private static final class PendingBatch {
+        private final String sql;
+        private final StatementSetter statementSetter;
+        private final JdbcSettings jdbcSettings;
+        private final List<Object> batchParameters = new ArrayList<>();
+
+        PendingBatch(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings) {
+            this.sql = sql;
+            this.statementSetter = statementSetter;
+            this.jdbcSettings = jdbcSettings;
+        }
+
+        boolean accepts(final String sql, final StatementSetter statementSetter, final JdbcSettings jdbcSettings) {
+            return this.sql.equals(sql) && this.statementSetter == statementSetter && N.equals(this.jdbcSettings, jdbcSettings);
+        }
+    }
 }
@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2017 HaiYang Li
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.landawn.abacus.logging.Logger;
+import com.landawn.abacus.logging.LoggerFactory;
+
+/**
+ * A cache of {@code PreparedStatement} by {@code Connection}, SQL and statement options, used by {@code SQLExecutor}.
+ * Only the statements created with the connections specified by the callers, e.g. the ones of transactions, are cached.
+ * The statements whose close is handed to the caller, e.g. by a returned {@code ResultSet}, must be removed by {@link #untrack(PreparedStatement)}.
+ * <br />
+ * A statement is removed from the cache by {@link #take(Connection, Key)} and put back by {@link #release(Connection, PreparedStatement)} after it's used,
+ * so a cached statement is never used by two callers at the same time.
+ * The statements of a connection are kept in LRU order and the least recently used one is closed when the number exceeds {@code maxStatementsPerConnection}.
+ * The connections are kept in LRU order too and all the statements of the least recently used connection are closed when
+ * the number of connections exceeds {@code maxConnections}.
+ * <br />
+ * The statements of a connection must be closed by {@link #invalidate(Connection)} before the connection is closed or returned to the pool.
+ * The statements of a closed connection are also dropped when it's accessed or a new connection is added.
+ *
+ * @since 0.9
+ *
+ * @author Haiyang Li
+ */
+final class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+    private final int maxStatementsPerConnection;
+    private final int maxConnections;
+    // guarded by this.
+    private final LinkedHashMap<Connection, LinkedHashMap<Key, PreparedStatement>> pool;
+    // the statements taken from this cache and not released yet. guarded by this.
+    private final Map<PreparedStatement, Key> inUse = new IdentityHashMap<>();
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+    private int size = 0;
+
+    StatementCache(final int maxStatementsPerConnection) {
+        this(maxStatementsPerConnection, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    StatementCache(final int maxStatementsPerConnection, final int maxConnections) {
+        N.checkArgument(maxStatementsPerConnection > 0, "'maxStatementsPerConnection' must be bigger than 0: %s", maxStatementsPerConnection);
+        N.checkArgument(maxConnections > 0, "'maxConnections' must be bigger than 0: %s", maxConnections);
+
+        this.maxStatementsPerConnection = maxStatementsPerConnection;
+        this.maxConnections = maxConnections;
+        this.pool = new LinkedHashMap<>(N.initHashCapacity(maxConnections), 0.75f, true);
+    }
+
+    /**
+     * Removes and returns the statement cached for the specified connection and key.
+     * The returned statement must be released by {@link #release(Connection, PreparedStatement)}.
+     *
+     * @param conn
+     * @param key
+     * @return null if there is no statement cached.
+     */
+    PreparedStatement take(final Connection conn, final Key key) {
+        List<PreparedStatement> toClose = null;
+        PreparedStatement stmt = null;
+
+        synchronized (this) {
+            final LinkedHashMap<Key, PreparedStatement> stmtMap = pool.get(conn);
+
+            if (stmtMap != null) {
+                if (isClosed(conn)) {
+                    toClose = remove(conn);
+                } else {
+                    stmt = stmtMap.remove(key);
+
+                    if (stmt != null) {
+                        size--;
+                    }
+                }
+            }
+
+            if (stmt == null) {
+                missCount++;
+            } else {
+                hitCount++;
+            }
+        }
+
+        close(toClose);
+
+        return stmt;
+    }
+
+    /**
+     * Marks the specified statement created for the specified key as in use, so that it will be put into this cache by {@code release}.
+     *
+     * @param stmt
+     * @param key
+     */
+    synchronized void track(final PreparedStatement stmt, final Key key) {
+        inUse.put(stmt, key);
+    }
+
+    /**
+     * Removes the specified statement from the in-use statements, if it's there. It won't be put back to this cache.
+     *
+     * @param stmt
+     */
+    synchronized void untrack(final PreparedStatement stmt) {
+        if (stmt != null) {
+            inUse.remove(stmt);
+        }
+    }
+
+    /**
+     * Puts the statement taken from this cache, or tracked by {@code track}, back to this cache.
+     *
+     * @param conn
+     * @param stmt
+     * @return false if the statement is not managed by this cache, or can't be reused. It should be closed by the caller.
+     */
+    boolean release(final Connection conn, final PreparedStatement stmt) {
+        final Key key;
+
+        synchronized (this) {
+            key = inUse.remove(stmt);
+        }
+
+        if (key == null) {
+            return false;
+        }
+
+        try {
+            stmt.clearParameters();
+            stmt.clearBatch();
+            stmt.clearWarnings();
+        } catch (Throwable e) {
+            // not reusable.
+            return false;
+        }
+
+        List<PreparedStatement> toClose = null;
+        boolean added = false;
+
+        synchronized (this) {
+            if (isClosed(conn)) {
+                toClose = remove(conn);
+            } else {
+                LinkedHashMap<Key, PreparedStatement> stmtMap = pool.get(conn);
+
+                if (stmtMap == null) {
+                    toClose = new ArrayList<>();
+
+                    // remove the closed connections, then the least recently used connection if it's still full.
+                    // iterated by entries because get(...) changes the access order.
+                    final Iterator<Map.Entry<Connection, LinkedHashMap<Key, PreparedStatement>>> iter = pool.entrySet().iterator();
+
+                    while (iter.hasNext()) {
+                        final Map.Entry<Connection, LinkedHashMap<Key, PreparedStatement>> entry = iter.next();
+
+                        if (isClosed(entry.getKey())) {
+                            final Collection<PreparedStatement> stmts = entry.getValue().values();
+                            toClose.addAll(stmts);
+                            size -= stmts.size();
+                            iter.remove();
+                        }
+                    }
+
+                    if (pool.size() >= maxConnections) {
+                        final Connection eldest = pool.keySet().iterator().next();
+                        final List<PreparedStatement> evicted = remove(eldest);
+                        evictionCount += evicted.size();
+                        toClose.addAll(evicted);
+                    }
+
+                    stmtMap = new LinkedHashMap<>(N.initHashCapacity(N.min(maxStatementsPerConnection, 64)), 0.75f, true);
+                    pool.put(conn, stmtMap);
+                }
+
+                if (stmtMap.containsKey(key) == false) {
+                    stmtMap.put(key, stmt);
+                    size++;
+                    added = true;
+
+                    if (stmtMap.size() > maxStatementsPerConnection) {
+                        final Iterator<PreparedStatement> iter = stmtMap.values().iterator();
+
+                        if (toClose == null) {
+                            toClose = new ArrayList<>(1);
+                        }
+
+                        toClose.add(iter.next());
+                        iter.remove();
+                        size--;
+                        evictionCount++;
+                    }
+                }
+            }
+        }
+
+        close(toClose);
+
+        return added;
+    }
+
+    /**
+     * Closes and removes all the statements cached for the specified connection.
+     * It should be called before the connection is closed.
+     *
+     * @param conn
+     */
+    void invalidate(final Connection conn) {
+        List<PreparedStatement> toClose = null;
+
+        synchronized (this) {
+            toClose = remove(conn);
+        }
+
+        close(toClose);
+    }
+
+    /**
+     * Closes and removes all the cached statements.
+     */
+    void clear() {
+        final List<PreparedStatement> toClose = new ArrayList<>();
+
+        synchronized (this) {
+            for (LinkedHashMap<Key, PreparedStatement> stmtMap : pool.values()) {
+                toClose.addAll(stmtMap.values());
+            }
+
+            pool.clear();
+            size = 0;
+        }
+
+        close(toClose);
+    }
+
+    synchronized LRUCache.Stats stats() {
+        return new LRUCache.Stats(hitCount, missCount, evictionCount, size, maxStatementsPerConnection * maxConnections);
+    }
+
+    // must be called in synchronized block.
+    private List<PreparedStatement> remove(final Connection conn) {
+        final LinkedHashMap<Key, PreparedStatement> stmtMap = pool.remove(conn);
+
+        if (stmtMap == null) {
+            return null;
+        }
+
+        size -= stmtMap.size();
+
+        return new ArrayList<>(stmtMap.values());
+    }
+
+    private static boolean isClosed(final Connection conn) {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void close(final List<PreparedStatement> stmts) {
+        if (N.isNullOrEmpty(stmts)) {
+            return;
+        }
+
+        for (PreparedStatement stmt : stmts) {
+            try {
+                stmt.close();
+            } catch (Throwable e) {
+                logger.warn("Failed to close cached PreparedStatement", e);
+            }
+        }
+    }
+
+    /**
+     * The SQL and the options used to create and set up a {@code PreparedStatement}.
+     */
+    static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+        private final int[] columnIndexes;
+        private final String[] columnNames;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+        private final int resultSetHoldability;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int fetchDirection;
+        private final int queryTimeout;
+        private final int hashCode;
+
+        Key(final String sql, final int autoGeneratedKeys, final int[] columnIndexes, final String[] columnNames, final int resultSetType,
+                final int resultSetConcurrency, final int resultSetHoldability, final int fetchSize, final int maxRows, final int maxFieldSize,
+                final int fetchDirection, final int queryTimeout) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.columnIndexes = columnIndexes;
+            this.columnNames = columnNames;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+            this.fetchSize = fetchSize;
+            this.maxRows = maxRows;
+            this.maxFieldSize = maxFieldSize;
+            this.fetchDirection = fetchDirection;
+            this.queryTimeout = queryTimeout;
+
+            final int prime = 31;
+            int result = 1;
+            result = (prime * result) + sql.hashCode();
+            result = (prime * result) + autoGeneratedKeys;
+            result = (prime * result) + Arrays.hashCode(columnIndexes);
+            result = (prime * result) + Arrays.hashCode(columnNames);
+            result = (prime * result) + resultSetType;
+            result = (prime * result) + resultSetConcurrency;
+            result = (prime * result) + resultSetHoldability;
+            result = (prime * result) + fetchSize;
+            result = (prime * result) + maxRows;
+            result = (prime * result) + maxFieldSize;
+            result = (prime * result) + fetchDirection;
+            result = (prime * result) + queryTimeout;
+            this.hashCode = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj instanceof Key) {
+                final Key other = (Key) obj;
+
+                return hashCode == other.hashCode && sql.equals(other.sql) && autoGeneratedKeys == other.autoGeneratedKeys
+                        && Arrays.equals(columnIndexes, other.columnIndexes) && Arrays.equals(columnNames, other.columnNames)
+                        && resultSetType == other.resultSetType && resultSetConcurrency == other.resultSetConcurrency
+                        && resultSetHoldability == other.resultSetHoldability && fetchSize == other.fetchSize && maxRows == other.maxRows
+                        && maxFieldSize == other.maxFieldSize && fetchDirection == other.fetchDirection && queryTimeout == other.queryTimeout;
+            }
+
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "{sql=" + sql + ", autoGeneratedKeys=" + autoGeneratedKeys + ", columnIndexes=" + N.toString(columnIndexes) + ", columnNames="
+                    + N.toString(columnNames) + ", resultSetType=" + resultSetType + ", resultSetConcurrency=" + resultSetConcurrency
+                    + ", resultSetHoldability=" + resultSetHoldability + ", fetchSize=" + fetchSize + ", maxRows=" + maxRows + ", maxFieldSize="
+                    + maxFieldSize + ", fetchDirection=" + fetchDirection + ", queryTimeout=" + queryTimeout + "}";
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.landawn.abacus.util.IndexedInt;
 import com.landawn.abacus.util.IntIterator;
 import com.landawn.abacus.util.IntList;
 import com.landawn.abacus.util.IntMatrix;
+import com.landawn.abacus.util.IntMultiset;
 import com.landawn.abacus.util.IntSummaryStatistics;
 import com.landawn.abacus.util.Joiner;
 import com.landawn.abacus.util.Multiset;
@@ -597,6 +598,18 @@ abstract class AbstractIntStream extends IntStream {
         }
     }
 
+    @Override
+    public IntMultiset toIntMultiset() {
+        final IntMultiset result = new IntMultiset();
+        final IntIteratorEx iter = this.iteratorEx();
+
+        while (iter.hasNext()) {
+            result.add(iter.nextInt());
+        }
+
+        return result;
+    }
+
     @Override
     public String join(final CharSequence delimiter) {
         return join(delimiter, "", "");
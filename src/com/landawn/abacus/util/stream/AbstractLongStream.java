@@ -26,6 +26,7 @@ import com.landawn.abacus.util.Fn;
 import com.landawn.abacus.util.IndexedLong;
 import com.landawn.abacus.util.Joiner;
 import com.landawn.abacus.util.LongIterator;
+import com.landawn.abacus.util.LongKeyMultiset;
 import com.landawn.abacus.util.LongList;
 import com.landawn.abacus.util.LongMatrix;
 import com.landawn.abacus.util.LongSummaryStatistics;
@@ -596,6 +597,18 @@ abstract class AbstractLongStream extends LongStream {
         }
     }
 
+    @Override
+    public LongKeyMultiset toLongKeyMultiset() {
+        final LongKeyMultiset result = new LongKeyMultiset();
+        final LongIteratorEx iter = this.iteratorEx();
+
+        while (iter.hasNext()) {
+            result.add(iter.nextLong());
+        }
+
+        return result;
+    }
+
     @Override
     public String join(final CharSequence delimiter) {
         return join(delimiter, "", "");
@@ -14,18 +14,26 @@
 
 package com.landawn.abacus.util.stream;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -36,6 +44,8 @@ import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.landawn.abacus.DataSet;
@@ -43,8 +53,10 @@ import com.landawn.abacus.exception.UncheckedIOException;
 import com.landawn.abacus.exception.UncheckedSQLException;
 import com.landawn.abacus.type.Type;
 import com.landawn.abacus.util.Array;
+import com.landawn.abacus.util.CompletableFuture;
 import com.landawn.abacus.util.BufferedWriter;
 import com.landawn.abacus.util.Fn;
+import com.landawn.abacus.util.Holder;
 import com.landawn.abacus.util.IOUtil;
 import com.landawn.abacus.util.Indexed;
 import com.landawn.abacus.util.Iterators;
@@ -290,6 +302,265 @@ abstract class AbstractStream<T> extends Stream<T> {
         });
     }
 
+    @Override
+    public <R> Stream<R> mapOrdered(final Function<? super T, ? extends R> mapper) {
+        return mapOrdered(mapper, maxThreadNum() * DEFAULT_QUEUE_SIZE_PER_ITERATOR);
+    }
+
+    @Override
+    public <R> Stream<R> mapOrdered(final Function<? super T, ? extends R> mapper, final int bufferSize) {
+        N.requireNonNull(mapper);
+        N.checkArgument(bufferSize > 0, "'bufferSize' must be bigger than 0: %s", bufferSize);
+
+        final int threadNum = maxThreadNum();
+
+        if (isParallel() == false || threadNum <= 1) {
+            return new IteratorStream<>(sequential().map(mapper).iteratorEx(), closeHandlers);
+        }
+
+        final ObjIteratorEx<T> elements = sequential().iteratorEx();
+        final Object[] window = new Object[bufferSize];
+        final MutableLong seqCounter = MutableLong.of(0); // guarded by elements
+        final MutableLong outCursor = MutableLong.of(0); // guarded by window
+        final AtomicInteger threadCounter = new AtomicInteger(threadNum);
+        final Holder<Throwable> eHolder = new Holder<>();
+        final MutableBoolean onGoing = MutableBoolean.of(true);
+
+        for (int i = 0; i < threadNum; i++) {
+            asyncExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        T next = null;
+                        long seq = 0;
+
+                        while (onGoing.value()) {
+                            synchronized (elements) {
+                                if (elements.hasNext()) {
+                                    next = elements.next();
+                                    seq = seqCounter.getAndIncrement();
+                                } else {
+                                    break;
+                                }
+                            }
+
+                            synchronized (window) {
+                                while (onGoing.value() && seq - outCursor.longValue() >= bufferSize) {
+                                    window.wait(100);
+                                }
+                            }
+
+                            final R result = mapper.apply(next);
+
+                            synchronized (window) {
+                                window[(int) (seq % bufferSize)] = result == null ? NONE : result;
+                                window.notifyAll();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        setError(eHolder, e, onGoing);
+                    } finally {
+                        threadCounter.decrementAndGet();
+
+                        synchronized (window) {
+                            window.notifyAll();
+                        }
+                    }
+                }
+            });
+        }
+
+        return new IteratorStream<>(new ObjIteratorEx<R>() {
+            private Object next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    synchronized (window) {
+                        final int idx = (int) (outCursor.longValue() % bufferSize);
+
+                        try {
+                            while ((next = window[idx]) == null && eHolder.value() == null && threadCounter.get() > 0) {
+                                window.wait(100);
+                            }
+                        } catch (InterruptedException e) {
+                            setError(eHolder, e, onGoing);
+                        }
+
+                        if (next != null) {
+                            window[idx] = null;
+                            outCursor.increment();
+                            window.notifyAll();
+                        }
+                    }
+
+                    if (eHolder.value() != null) {
+                        throwError(eHolder, onGoing);
+                    }
+                }
+
+                return next != null;
+            }
+
+            @Override
+            public R next() {
+                if (next == null && hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+
+                final R result = next == NONE ? null : (R) next;
+                next = null;
+                return result;
+            }
+        }, closeHandlers).onClose(new Runnable() {
+            @Override
+            public void run() {
+                onGoing.setFalse();
+
+                synchronized (window) {
+                    window.notifyAll();
+                }
+            }
+        });
+    }
+
+    @Override
+    public <R> Stream<R> flatMapOrdered(final Function<? super T, ? extends Stream<? extends R>> mapper) {
+        N.requireNonNull(mapper);
+
+        return mapOrdered(new Function<T, List<R>>() {
+            @Override
+            public List<R> apply(T t) {
+                final Stream<? extends R> s = mapper.apply(t);
+
+                try {
+                    return (List<R>) s.toList();
+                } finally {
+                    s.close();
+                }
+            }
+        }).flattMap(new Function<List<R>, List<R>>() {
+            @Override
+            public List<R> apply(List<R> t) {
+                return t;
+            }
+        });
+    }
+
+    @Override
+    public <R> Stream<R> mapAsync(final Function<? super T, ? extends CompletableFuture<? extends R>> mapper, final int maxInFlight) {
+        N.requireNonNull(mapper);
+        N.checkArgument(maxInFlight > 0, "'maxInFlight' must be bigger than 0: %s", maxInFlight);
+
+        final ObjIteratorEx<T> elements = sequential().iteratorEx();
+        final Deque<CompletableFuture<? extends R>> futures = new ArrayDeque<>(N.min(maxInFlight, 64));
+
+        return new IteratorStream<>(new ObjIteratorEx<R>() {
+            @Override
+            public boolean hasNext() {
+                synchronized (futures) {
+                    while (futures.size() < maxInFlight && elements.hasNext()) {
+                        futures.offer(mapper.apply(elements.next()));
+                    }
+
+                    return futures.size() > 0;
+                }
+            }
+
+            @Override
+            public R next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+
+                final CompletableFuture<? extends R> future;
+
+                synchronized (futures) {
+                    future = futures.poll();
+                }
+
+                try {
+                    return future.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw N.toRuntimeException(e);
+                }
+            }
+        }, closeHandlers).onClose(newCancelHandler(futures));
+    }
+
+    @Override
+    public <R> Stream<R> mapAsyncUnordered(final Function<? super T, ? extends CompletableFuture<? extends R>> mapper, final int maxInFlight) {
+        N.requireNonNull(mapper);
+        N.checkArgument(maxInFlight > 0, "'maxInFlight' must be bigger than 0: %s", maxInFlight);
+
+        final ObjIteratorEx<T> elements = sequential().iteratorEx();
+        final Deque<CompletableFuture<? extends R>> futures = new ArrayDeque<>(N.min(maxInFlight, 64));
+
+        return new IteratorStream<>(new ObjIteratorEx<R>() {
+            @Override
+            public boolean hasNext() {
+                synchronized (futures) {
+                    while (futures.size() < maxInFlight && elements.hasNext()) {
+                        futures.offer(mapper.apply(elements.next()));
+                    }
+
+                    return futures.size() > 0;
+                }
+            }
+
+            @Override
+            public R next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+
+                CompletableFuture<? extends R> future = null;
+
+                // The futures don't support completion callbacks. Poll them instead of parking a thread on each one.
+                while (future == null) {
+                    synchronized (futures) {
+                        final Iterator<CompletableFuture<? extends R>> iter = futures.iterator();
+
+                        while (iter.hasNext()) {
+                            final CompletableFuture<? extends R> f = iter.next();
+
+                            if (f.isDone()) {
+                                iter.remove();
+                                future = f;
+                                break;
+                            }
+                        }
+                    }
+
+                    if (future == null) {
+                        N.sleepUninterruptibly(1);
+                    }
+                }
+
+                try {
+                    return future.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw N.toRuntimeException(e);
+                }
+            }
+        }, closeHandlers).onClose(newCancelHandler(futures));
+    }
+
+    private static Runnable newCancelHandler(final Collection<? extends CompletableFuture<?>> futures) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                synchronized (futures) {
+                    for (CompletableFuture<?> future : futures) {
+                        future.cancel(true);
+                    }
+
+                    futures.clear();
+                }
+            }
+        };
+    }
+
     //    @Override
     //    public <R> Stream<R> biMap(BiFunction<? super T, ? super T, ? extends R> mapper) {
     //        return biMap(mapper, false);
@@ -1325,6 +1596,450 @@ abstract class AbstractStream<T> extends Stream<T> {
         }));
     }
 
+    @Override
+    public <U, K> Stream<Pair<T, U>> innerJoin(final Stream<U> b, final Function<? super T, ? extends K> leftKeyMapper,
+            final Function<? super U, ? extends K> rightKeyMapper, final Comparator<? super K> keyComparator) {
+        return sortMergeJoin(b, leftKeyMapper, rightKeyMapper, keyComparator, false, false);
+    }
+
+    @Override
+    public <U, K> Stream<Pair<T, U>> fullJoin(final Stream<U> b, final Function<? super T, ? extends K> leftKeyMapper,
+            final Function<? super U, ? extends K> rightKeyMapper, final Comparator<? super K> keyComparator) {
+        return sortMergeJoin(b, leftKeyMapper, rightKeyMapper, keyComparator, true, true);
+    }
+
+    @Override
+    public <U, K> Stream<Pair<T, U>> leftJoin(final Stream<U> b, final Function<? super T, ? extends K> leftKeyMapper,
+            final Function<? super U, ? extends K> rightKeyMapper, final Comparator<? super K> keyComparator) {
+        return sortMergeJoin(b, leftKeyMapper, rightKeyMapper, keyComparator, true, false);
+    }
+
+    @Override
+    public <U, K> Stream<Pair<T, U>> rightJoin(final Stream<U> b, final Function<? super T, ? extends K> leftKeyMapper,
+            final Function<? super U, ? extends K> rightKeyMapper, final Comparator<? super K> keyComparator) {
+        return sortMergeJoin(b, leftKeyMapper, rightKeyMapper, keyComparator, false, true);
+    }
+
+    private <U, K> Stream<Pair<T, U>> sortMergeJoin(final Stream<U> b, final Function<? super T, ? extends K> leftKeyMapper,
+            final Function<? super U, ? extends K> rightKeyMapper, final Comparator<? super K> keyComparator, final boolean isLeftOuter,
+            final boolean isRightOuter) {
+        N.requireNonNull(b);
+        N.requireNonNull(leftKeyMapper);
+        N.requireNonNull(rightKeyMapper);
+        N.requireNonNull(keyComparator);
+
+        final ObjIteratorEx<T> iterA = this.sequential().iteratorEx();
+        final ObjIteratorEx<U> iterB = b.sequential().iteratorEx();
+
+        return new IteratorStream<>(new ObjIteratorEx<Pair<T, U>>() {
+            private final Deque<Pair<T, U>> queue = new ArrayDeque<>();
+            private final List<U> group = new ArrayList<>();
+            private K groupKey = null;
+            private T left = null;
+            private K leftKey = null;
+            private boolean hasLeft = false;
+            private U right = null;
+            private boolean hasRight = false;
+            private boolean isRightInitialized = false;
+
+            @Override
+            public boolean hasNext() {
+                if (queue.size() == 0) {
+                    fill();
+                }
+
+                return queue.size() > 0;
+            }
+
+            @Override
+            public Pair<T, U> next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+
+                return queue.poll();
+            }
+
+            private void fill() {
+                if (isRightInitialized == false) {
+                    isRightInitialized = true;
+                    nextRight();
+                }
+
+                while (queue.size() == 0) {
+                    if (hasLeft == false) {
+                        if (iterA.hasNext()) {
+                            left = iterA.next();
+                            leftKey = leftKeyMapper.apply(left);
+                            hasLeft = true;
+
+                            if (group.size() > 0) {
+                                if (keyComparator.compare(groupKey, leftKey) == 0) {
+                                    joinGroup();
+                                    continue;
+                                }
+
+                                group.clear();
+                                groupKey = null;
+                            }
+                        } else {
+                            // all the elements in group have been joined.
+                            group.clear();
+
+                            if (isRightOuter && hasRight) {
+                                queue.offer(Pair.of((T) null, right));
+                                nextRight();
+                                continue;
+                            }
+
+                            break;
+                        }
+                    }
+
+                    final int result = hasRight ? keyComparator.compare(rightKeyMapper.apply(right), leftKey) : 1;
+
+                    if (result < 0) {
+                        if (isRightOuter) {
+                            queue.offer(Pair.of((T) null, right));
+                        }
+
+                        nextRight();
+                    } else if (result == 0) {
+                        groupKey = leftKey;
+
+                        do {
+                            group.add(right);
+                            nextRight();
+                        } while (hasRight && keyComparator.compare(rightKeyMapper.apply(right), groupKey) == 0);
+
+                        joinGroup();
+                    } else {
+                        if (isLeftOuter) {
+                            queue.offer(Pair.of(left, (U) null));
+                        }
+
+                        left = null;
+                        hasLeft = false;
+                    }
+                }
+            }
+
+            private void joinGroup() {
+                for (U u : group) {
+                    queue.offer(Pair.of(left, u));
+                }
+
+                left = null;
+                hasLeft = false;
+            }
+
+            private void nextRight() {
+                if (iterB.hasNext()) {
+                    right = iterB.next();
+                    hasRight = true;
+                } else {
+                    right = null;
+                    hasRight = false;
+                }
+            }
+
+            @Override
+            public void close() {
+                queue.clear();
+                group.clear();
+            }
+        }).onClose(newCloseHandler(N.asList(this, b)));
+    }
+
+    @Override
+    public <U> Stream<Pair<T, U>> innerJoin(final Stream<U> b, final Function<? super T, ?> leftKeyMapper, final Function<? super U, ?> rightKeyMapper,
+            final int maxInMemorySize) {
+        return graceHashJoin(b, leftKeyMapper, rightKeyMapper, maxInMemorySize, false, false);
+    }
+
+    @Override
+    public <U> Stream<Pair<T, U>> fullJoin(final Stream<U> b, final Function<? super T, ?> leftKeyMapper, final Function<? super U, ?> rightKeyMapper,
+            final int maxInMemorySize) {
+        return graceHashJoin(b, leftKeyMapper, rightKeyMapper, maxInMemorySize, true, true);
+    }
+
+    @Override
+    public <U> Stream<Pair<T, U>> leftJoin(final Stream<U> b, final Function<? super T, ?> leftKeyMapper, final Function<? super U, ?> rightKeyMapper,
+            final int maxInMemorySize) {
+        return graceHashJoin(b, leftKeyMapper, rightKeyMapper, maxInMemorySize, true, false);
+    }
+
+    @Override
+    public <U> Stream<Pair<T, U>> rightJoin(final Stream<U> b, final Function<? super T, ?> leftKeyMapper, final Function<? super U, ?> rightKeyMapper,
+            final int maxInMemorySize) {
+        return graceHashJoin(b, leftKeyMapper, rightKeyMapper, maxInMemorySize, false, true);
+    }
+
+    private static final int GRACE_JOIN_PARTITION_NUM = 64;
+    private static final int GRACE_JOIN_MAX_LEVEL = 4;
+
+    /**
+     * Lazy evaluation. Nothing is read from <code>this</code> or <code>b</code>, or written to temporary files, until the terminal operation is executed.
+     */
+    private <U> Stream<Pair<T, U>> graceHashJoin(final Stream<U> b, final Function<? super T, ?> leftKeyMapper, final Function<? super U, ?> rightKeyMapper,
+            final int maxInMemorySize, final boolean isLeftOuter, final boolean isRightOuter) {
+        N.requireNonNull(b);
+        N.requireNonNull(leftKeyMapper);
+        N.requireNonNull(rightKeyMapper);
+        N.checkArgument(maxInMemorySize > 0, "'maxInMemorySize' must be bigger than 0: %s", maxInMemorySize);
+
+        final Stream<T> a = this;
+        final Holder<Stream<Pair<T, U>>> joined = new Holder<>();
+
+        final ObjIteratorEx<Pair<T, U>> iter = new ObjIteratorEx<Pair<T, U>>() {
+            private Iterator<Pair<T, U>> iterator = null;
+
+            @Override
+            public boolean hasNext() {
+                if (iterator == null) {
+                    init();
+                }
+
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Pair<T, U> next() {
+                if (iterator == null) {
+                    init();
+                }
+
+                return iterator.next();
+            }
+
+            private void init() {
+                joined.setValue(graceHashJoin(a, b, leftKeyMapper, rightKeyMapper, maxInMemorySize, isLeftOuter, isRightOuter, 0));
+                iterator = joined.value().iterator();
+            }
+        };
+
+        final Stream<Pair<T, U>> result = isParallel() ? Stream.of(iter).parallel(maxThreadNum(), splitor()) : Stream.of(iter);
+
+        return result.onClose(new Runnable() {
+            @Override
+            public void run() {
+                if (joined.value() != null) {
+                    joined.value().close();
+                }
+            }
+        }).onClose(newCloseHandler(N.asList(this, b)));
+    }
+
+    /**
+     * Hashes <code>b</code> in memory if it fits in <code>maxInMemorySize</code>, 
+     * otherwise partitions both sides to temporary files and joins the partitions recursively.
+     * Partitions are re-split with a different hash at the next level until they fit or <code>GRACE_JOIN_MAX_LEVEL</code> is reached (e.g. heavily skewed keys).
+     */
+    private static <T, U> Stream<Pair<T, U>> graceHashJoin(final Stream<T> a, final Stream<U> b, final Function<? super T, ?> leftKeyMapper,
+            final Function<? super U, ?> rightKeyMapper, final int maxInMemorySize, final boolean isLeftOuter, final boolean isRightOuter, final int level) {
+        final ObjIteratorEx<U> iterB = b.sequential().iteratorEx();
+        final List<U> buildSide = new ArrayList<>();
+
+        while (buildSide.size() <= maxInMemorySize && iterB.hasNext()) {
+            buildSide.add(iterB.next());
+        }
+
+        if (buildSide.size() <= maxInMemorySize || level >= GRACE_JOIN_MAX_LEVEL) {
+            while (iterB.hasNext()) {
+                buildSide.add(iterB.next());
+            }
+
+            if (isLeftOuter) {
+                return isRightOuter ? a.fullJoin(buildSide, leftKeyMapper, rightKeyMapper) : a.leftJoin(buildSide, leftKeyMapper, rightKeyMapper);
+            } else {
+                return isRightOuter ? a.rightJoin(buildSide, leftKeyMapper, rightKeyMapper) : a.innerJoin(buildSide, leftKeyMapper, rightKeyMapper);
+            }
+        }
+
+        final Partitions<U> rightPartitions = new Partitions<>(GRACE_JOIN_PARTITION_NUM);
+        final Partitions<T> leftPartitions = new Partitions<>(GRACE_JOIN_PARTITION_NUM);
+
+        try {
+            for (U u : buildSide) {
+                rightPartitions.write(partition(rightKeyMapper.apply(u), level), u);
+            }
+
+            buildSide.clear();
+
+            U u = null;
+            while (iterB.hasNext()) {
+                u = iterB.next();
+                rightPartitions.write(partition(rightKeyMapper.apply(u), level), u);
+            }
+
+            final ObjIteratorEx<T> iterA = a.sequential().iteratorEx();
+            T t = null;
+
+            while (iterA.hasNext()) {
+                t = iterA.next();
+                leftPartitions.write(partition(leftKeyMapper.apply(t), level), t);
+            }
+
+            rightPartitions.flush();
+            leftPartitions.flush();
+        } catch (IOException e) {
+            rightPartitions.delete();
+            leftPartitions.delete();
+
+            throw new UncheckedIOException(e);
+        }
+
+        final Stream<Integer> partitionIndexes = a.isParallel() ? IntStream.range(0, GRACE_JOIN_PARTITION_NUM).boxed().parallel(a.maxThreadNum())
+                : IntStream.range(0, GRACE_JOIN_PARTITION_NUM).boxed();
+
+        return partitionIndexes.flatMap(new Function<Integer, Stream<Pair<T, U>>>() {
+            @Override
+            public Stream<Pair<T, U>> apply(final Integer idx) {
+                final int leftCount = leftPartitions.count(idx);
+                final int rightCount = rightPartitions.count(idx);
+
+                if ((leftCount == 0 && isRightOuter == false) || (rightCount == 0 && isLeftOuter == false)) {
+                    leftPartitions.delete(idx);
+                    rightPartitions.delete(idx);
+
+                    return Stream.empty();
+                }
+
+                final Stream<T> left = leftPartitions.read(idx);
+                final Stream<U> right = rightPartitions.read(idx);
+
+                return graceHashJoin(left, right, leftKeyMapper, rightKeyMapper, maxInMemorySize, isLeftOuter, isRightOuter, level + 1)
+                        .onClose(newCloseHandler(N.asList(left, right)));
+            }
+        }).onClose(new Runnable() {
+            @Override
+            public void run() {
+                rightPartitions.delete();
+                leftPartitions.delete();
+            }
+        });
+    }
+
+    private static int partition(final Object key, final int level) {
+        int h = N.hashCode(key) * 0x9E3779B9 + level * 0x85EBCA6B;
+        h ^= (h >>> 16);
+
+        return (h & Integer.MAX_VALUE) % GRACE_JOIN_PARTITION_NUM;
+    }
+
+    /**
+     * Temporary files written with Java serialization, one file per partition.
+     */
+    private static final class Partitions<E> {
+        private static final int RESET_INTERVAL = 1024;
+
+        private final File[] files;
+        private final ObjectOutputStream[] outputs;
+        private final int[] counts;
+
+        Partitions(final int partitionNum) {
+            files = new File[partitionNum];
+            outputs = new ObjectOutputStream[partitionNum];
+            counts = new int[partitionNum];
+        }
+
+        void write(final int idx, final E e) throws IOException {
+            if (outputs[idx] == null) {
+                files[idx] = File.createTempFile("abacus-join-", ".tmp");
+                outputs[idx] = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(files[idx])));
+            }
+
+            outputs[idx].writeUnshared(e);
+
+            // release the back references kept by ObjectOutputStream.
+            if (++counts[idx] % RESET_INTERVAL == 0) {
+                outputs[idx].reset();
+            }
+        }
+
+        void flush() throws IOException {
+            for (int i = 0, len = outputs.length; i < len; i++) {
+                if (outputs[i] != null) {
+                    outputs[i].close();
+                    outputs[i] = null;
+                }
+            }
+        }
+
+        int count(final int idx) {
+            return counts[idx];
+        }
+
+        Stream<E> read(final int idx) {
+            if (counts[idx] == 0) {
+                return Stream.empty();
+            }
+
+            final File file = files[idx];
+            final int count = counts[idx];
+            ObjectInputStream is = null;
+
+            try {
+                is = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            } catch (IOException e) {
+                IOUtil.close(is);
+                throw new UncheckedIOException(e);
+            }
+
+            final ObjectInputStream input = is;
+
+            return Stream.of(new ObjIteratorEx<E>() {
+                private int cursor = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < count;
+                }
+
+                @Override
+                public E next() {
+                    if (cursor >= count) {
+                        throw new NoSuchElementException();
+                    }
+
+                    try {
+                        final E e = (E) input.readUnshared();
+                        cursor++;
+                        return e;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (ClassNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }).onClose(new Runnable() {
+                @Override
+                public void run() {
+                    IOUtil.close(input);
+                    delete(idx);
+                }
+            });
+        }
+
+        synchronized void delete(final int idx) {
+            if (outputs[idx] != null) {
+                IOUtil.closeQuietly(outputs[idx]);
+                outputs[idx] = null;
+            }
+
+            if (files[idx] != null) {
+                IOUtil.deleteIfExists(files[idx]);
+                files[idx] = null;
+            }
+        }
+
+        void delete() {
+            for (int i = 0, len = files.length; i < len; i++) {
+                delete(i);
+            }
+        }
+    }
+
     @Override
     public <E extends Exception> Nullable<T> findAny(final Try.Predicate<? super T, E> predicate) throws E {
         return findFirst(predicate);
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
 
 import com.landawn.abacus.util.ByteIterator;
 import com.landawn.abacus.util.ByteList;
@@ -1391,6 +1392,11 @@ class ArrayByteStream extends AbstractByteStream {
         return ByteIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new ByteArraySpliterator(elements, fromIndex, toIndex);
+    }
+
     @Override
     public ByteStream parallel(int maxThreadNum, Splitor splitor) {
         return new ParallelArrayByteStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
@@ -1408,4 +1414,52 @@ class ArrayByteStream extends AbstractByteStream {
 
         return new ArrayByteStream(elements, fromIndex, toIndex, sorted, newCloseHandlers);
     }
+
+    static final class ByteArraySpliterator implements Spliterator.OfInt {
+        private final byte[] a;
+        private final int fence;
+        private int index;
+
+        ByteArraySpliterator(final byte[] a, final int fromIndex, final int toIndex) {
+            this.a = a;
+            this.index = fromIndex;
+            this.fence = toIndex;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            final int lo = index, mid = (lo + fence) >>> 1;
+
+            return lo >= mid ? null : new ByteArraySpliterator(a, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(final java.util.function.IntConsumer action) {
+            if (index < fence) {
+                action.accept(a[index++]);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final java.util.function.IntConsumer action) {
+            for (int i = index, to = fence; i < to; i++) {
+                action.accept(a[i]);
+            }
+
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
 
 import com.landawn.abacus.util.CharIterator;
 import com.landawn.abacus.util.CharList;
@@ -1391,6 +1392,11 @@ class ArrayCharStream extends AbstractCharStream {
         return CharIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new CharArraySpliterator(elements, fromIndex, toIndex);
+    }
+
     @Override
     public CharStream parallel(int maxThreadNum, com.landawn.abacus.util.stream.BaseStream.Splitor splitor) {
         return new ParallelArrayCharStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
@@ -1408,4 +1414,52 @@ class ArrayCharStream extends AbstractCharStream {
 
         return new ArrayCharStream(elements, fromIndex, toIndex, sorted, newCloseHandlers);
     }
+
+    static final class CharArraySpliterator implements Spliterator.OfInt {
+        private final char[] a;
+        private final int fence;
+        private int index;
+
+        CharArraySpliterator(final char[] a, final int fromIndex, final int toIndex) {
+            this.a = a;
+            this.index = fromIndex;
+            this.fence = toIndex;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            final int lo = index, mid = (lo + fence) >>> 1;
+
+            return lo >= mid ? null : new CharArraySpliterator(a, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(final java.util.function.IntConsumer action) {
+            if (index < fence) {
+                action.accept(a[index++]);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final java.util.function.IntConsumer action) {
+            for (int i = index, to = fence; i < to; i++) {
+                action.accept(a[i]);
+            }
+
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
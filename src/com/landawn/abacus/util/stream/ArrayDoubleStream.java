@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import com.landawn.abacus.util.DoubleIterator;
 import com.landawn.abacus.util.DoubleList;
@@ -1577,6 +1579,11 @@ class ArrayDoubleStream extends AbstractDoubleStream {
         return DoubleIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfDouble spliterator() {
+        return Spliterators.spliterator(elements, fromIndex, toIndex, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
     @Override
     public DoubleStream parallel(int maxThreadNum, Splitor splitor) {
         return new ParallelArrayDoubleStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
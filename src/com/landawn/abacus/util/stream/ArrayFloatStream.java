@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
 
 import com.landawn.abacus.util.DoubleIterator;
 import com.landawn.abacus.util.FloatIterator;
@@ -1619,6 +1620,11 @@ class ArrayFloatStream extends AbstractFloatStream {
         return FloatIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfDouble spliterator() {
+        return new FloatArraySpliterator(elements, fromIndex, toIndex);
+    }
+
     @Override
     public FloatStream parallel(int maxThreadNum, Splitor splitor) {
         return new ParallelArrayFloatStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
@@ -1636,4 +1642,52 @@ class ArrayFloatStream extends AbstractFloatStream {
 
         return new ArrayFloatStream(elements, fromIndex, toIndex, sorted, newCloseHandlers);
     }
+
+    static final class FloatArraySpliterator implements Spliterator.OfDouble {
+        private final float[] a;
+        private final int fence;
+        private int index;
+
+        FloatArraySpliterator(final float[] a, final int fromIndex, final int toIndex) {
+            this.a = a;
+            this.index = fromIndex;
+            this.fence = toIndex;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            final int lo = index, mid = (lo + fence) >>> 1;
+
+            return lo >= mid ? null : new FloatArraySpliterator(a, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(final java.util.function.DoubleConsumer action) {
+            if (index < fence) {
+                action.accept(a[index++]);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final java.util.function.DoubleConsumer action) {
+            for (int i = index, to = fence; i < to; i++) {
+                action.accept(a[i]);
+            }
+
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
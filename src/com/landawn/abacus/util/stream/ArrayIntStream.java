@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import com.landawn.abacus.util.ByteIterator;
 import com.landawn.abacus.util.CharIterator;
@@ -2054,6 +2056,11 @@ class ArrayIntStream extends AbstractIntStream {
         return IntIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(elements, fromIndex, toIndex, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
     @Override
     public IntStream parallel(int maxThreadNum, Splitor splitor) {
         return new ParallelArrayIntStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
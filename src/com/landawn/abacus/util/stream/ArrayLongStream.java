@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import com.landawn.abacus.util.DoubleIterator;
 import com.landawn.abacus.util.FloatIterator;
@@ -1676,6 +1678,11 @@ class ArrayLongStream extends AbstractLongStream {
         return LongIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return Spliterators.spliterator(elements, fromIndex, toIndex, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
     @Override
     public LongStream parallel(int maxThreadNum, Splitor splitor) {
         return new ParallelArrayLongStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
 
 import com.landawn.abacus.util.IntIterator;
 import com.landawn.abacus.util.LongMultiset;
@@ -1410,6 +1411,11 @@ class ArrayShortStream extends AbstractShortStream {
         return ShortIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new ShortArraySpliterator(elements, fromIndex, toIndex);
+    }
+
     @Override
     public ShortStream parallel(int maxThreadNum, Splitor splitor) {
         return new ParallelArrayShortStream(elements, fromIndex, toIndex, sorted, maxThreadNum, splitor, closeHandlers);
@@ -1427,4 +1433,52 @@ class ArrayShortStream extends AbstractShortStream {
 
         return new ArrayShortStream(elements, fromIndex, toIndex, sorted, newCloseHandlers);
     }
+
+    static final class ShortArraySpliterator implements Spliterator.OfInt {
+        private final short[] a;
+        private final int fence;
+        private int index;
+
+        ShortArraySpliterator(final short[] a, final int fromIndex, final int toIndex) {
+            this.a = a;
+            this.index = fromIndex;
+            this.fence = toIndex;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            final int lo = index, mid = (lo + fence) >>> 1;
+
+            return lo >= mid ? null : new ShortArraySpliterator(a, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(final java.util.function.IntConsumer action) {
+            if (index < fence) {
+                action.accept(a[index++]);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final java.util.function.IntConsumer action) {
+            for (int i = index, to = fence; i < to; i++) {
+                action.accept(a[i]);
+            }
+
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
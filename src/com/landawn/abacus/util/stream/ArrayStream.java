@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import com.landawn.abacus.util.ByteIterator;
 import com.landawn.abacus.util.CharIterator;
@@ -130,6 +132,24 @@ class ArrayStream<T> extends AbstractStream<T> {
 
                 return elements[cursor++];
             }
+
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super T, E> downstream) throws E {
+                if (hasNext) {
+                    hasNext = false;
+                    downstream.accept(elements[cursor++]);
+                }
+
+                T e = null;
+
+                while (cursor < toIndex) {
+                    e = elements[cursor++];
+
+                    if (predicate.test(e)) {
+                        downstream.accept(e);
+                    }
+                }
+            }
         }, sorted, cmp, closeHandlers);
     }
 
@@ -245,6 +265,13 @@ class ArrayStream<T> extends AbstractStream<T> {
 
                 return a;
             }
+
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super R, E> downstream) throws E {
+                while (cursor < toIndex) {
+                    downstream.accept(mapper.apply(elements[cursor++]));
+                }
+            }
         }, closeHandlers);
     }
 
@@ -2026,6 +2053,14 @@ class ArrayStream<T> extends AbstractStream<T> {
 
                 return a;
             }
+
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super T, E> downstream) throws E {
+                while (cursor < toIndex) {
+                    action.accept(elements[cursor]);
+                    downstream.accept(elements[cursor++]);
+                }
+            }
         }, sorted, cmp, closeHandlers);
     }
 
@@ -2601,6 +2636,11 @@ class ArrayStream<T> extends AbstractStream<T> {
         return ObjIteratorEx.of(elements, fromIndex, toIndex);
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(elements, fromIndex, toIndex, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
     @Override
     public Stream<T> parallel(int maxThreadNum, BaseStream.Splitor splitor) {
         return new ParallelArrayStream<>(elements, fromIndex, toIndex, sorted, cmp, maxThreadNum, splitor, closeHandlers);
@@ -31,6 +31,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
 import com.landawn.abacus.exception.AbacusException;
 import com.landawn.abacus.util.ByteIterator;
@@ -588,6 +591,44 @@ public abstract class ByteStream extends StreamBase<Byte, byte[], BytePredicate,
 
     abstract ByteIteratorEx iteratorEx();
 
+    /**
+     * Returns a <code>Spliterator</code> over the elements of this stream. The elements are widened to <code>int</code>.
+     * The streams backed by an array return a <code>SIZED | SUBSIZED</code> Spliterator which can be split evenly by the fork/join framework.
+     * 
+     * @return
+     */
+    public Spliterator.OfInt spliterator() {
+        final ByteIteratorEx iter = iteratorEx();
+
+        return new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(java.util.function.IntConsumer action) {
+                if (iter.hasNext()) {
+                    action.accept(iter.nextByte());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Bridges this stream to a <code>java.util.stream.IntStream</code> without copying the elements, so it can be handed to the JDK collectors and fork/join parallelism. 
+     * Closing the returned stream closes this stream.
+     * 
+     * @param parallel
+     * @return
+     */
+    public java.util.stream.IntStream toJdkStream(final boolean parallel) {
+        return StreamSupport.intStream(spliterator(), parallel).onClose(new Runnable() {
+            @Override
+            public void run() {
+                ByteStream.this.close();
+            }
+        });
+    }
+
     @Override
     public <R> R __(Function<? super ByteStream, R> transfer) {
         return transfer.apply(this);
@@ -24,6 +24,7 @@ import java.util.Random;
 
 import com.landawn.abacus.annotation.Beta;
 import com.landawn.abacus.util.Comparators;
+import com.landawn.abacus.util.CompletableFuture;
 import com.landawn.abacus.util.Fn;
 import com.landawn.abacus.util.ImmutableMap;
 import com.landawn.abacus.util.Joiner;
@@ -312,6 +313,30 @@ public final class EntryStream<K, V> implements AutoCloseable {
         return of(s.map(mapper));
     }
 
+    /**
+     * 
+     * @param mapper
+     * @param maxInFlight the max number of outstanding futures.
+     * @return
+     * @see Stream#mapAsync(Function, int)
+     */
+    public <KK, VV> EntryStream<KK, VV> mapAsync(final Function<? super Map.Entry<K, V>, ? extends CompletableFuture<? extends Map.Entry<KK, VV>>> mapper,
+            final int maxInFlight) {
+        return of(s.<Map.Entry<KK, VV>> mapAsync(mapper, maxInFlight));
+    }
+
+    /**
+     * 
+     * @param mapper
+     * @param maxInFlight the max number of outstanding futures.
+     * @return
+     * @see Stream#mapAsyncUnordered(Function, int)
+     */
+    public <KK, VV> EntryStream<KK, VV> mapAsyncUnordered(
+            final Function<? super Map.Entry<K, V>, ? extends CompletableFuture<? extends Map.Entry<KK, VV>>> mapper, final int maxInFlight) {
+        return of(s.<Map.Entry<KK, VV>> mapAsyncUnordered(mapper, maxInFlight));
+    }
+
     //    public <KK, VV> EntryStream<KK, VV> flatMap(final Function<? super Map.Entry<K, V>, EntryStream<KK, VV>> mapper) {
     //        final Function<Map.Entry<K, V>, Stream<Map.Entry<KK, VV>>> mapper2 = new Function<Map.Entry<K, V>, Stream<Map.Entry<KK, VV>>>() {
     //            @Override
@@ -32,6 +32,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
 import com.landawn.abacus.exception.AbacusException;
 import com.landawn.abacus.util.CompletableFuture;
@@ -715,6 +718,44 @@ public abstract class FloatStream extends StreamBase<Float, float[], FloatPredic
 
     abstract FloatIteratorEx iteratorEx();
 
+    /**
+     * Returns a <code>Spliterator</code> over the elements of this stream. The elements are widened to <code>double</code>.
+     * The streams backed by an array return a <code>SIZED | SUBSIZED</code> Spliterator which can be split evenly by the fork/join framework.
+     * 
+     * @return
+     */
+    public Spliterator.OfDouble spliterator() {
+        final FloatIteratorEx iter = iteratorEx();
+
+        return new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(java.util.function.DoubleConsumer action) {
+                if (iter.hasNext()) {
+                    action.accept(iter.nextFloat());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Bridges this stream to a <code>java.util.stream.DoubleStream</code> without copying the elements, so it can be handed to the JDK collectors and fork/join parallelism. 
+     * Closing the returned stream closes this stream.
+     * 
+     * @param parallel
+     * @return
+     */
+    public java.util.stream.DoubleStream toJdkStream(final boolean parallel) {
+        return StreamSupport.doubleStream(spliterator(), parallel).onClose(new Runnable() {
+            @Override
+            public void run() {
+                FloatStream.this.close();
+            }
+        });
+    }
+
     @Override
     public <R> R __(Function<? super FloatStream, R> transfer) {
         return transfer.apply(this);
@@ -33,6 +33,9 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
 import com.landawn.abacus.exception.AbacusException;
 import com.landawn.abacus.util.CompletableFuture;
@@ -41,6 +44,7 @@ import com.landawn.abacus.util.IndexedInt;
 import com.landawn.abacus.util.IntIterator;
 import com.landawn.abacus.util.IntList;
 import com.landawn.abacus.util.IntMatrix;
+import com.landawn.abacus.util.IntMultiset;
 import com.landawn.abacus.util.IntSummaryStatistics;
 import com.landawn.abacus.util.MutableInt;
 import com.landawn.abacus.util.N;
@@ -633,6 +637,17 @@ public abstract class IntStream extends StreamBase<Integer, int[], IntPredicate,
 
     public abstract Pair<IntSummaryStatistics, Optional<Map<Percentage, Integer>>> summarizze();
 
+    /**
+     * Counts the occurrences of the elements into an {@code IntMultiset}, which is backed by the primitive {@code IntIntMap}.
+     * Different from {@code toMultiset()}, no {@code Integer} element or counter is created for counting an element.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @return
+     */
+    public abstract IntMultiset toIntMultiset();
+
     /**
      * 
      * @param b
@@ -704,6 +719,44 @@ public abstract class IntStream extends StreamBase<Integer, int[], IntPredicate,
 
     abstract IntIteratorEx iteratorEx();
 
+    /**
+     * Returns a <code>Spliterator</code> over the elements of this stream.
+     * The streams backed by an array return a <code>SIZED | SUBSIZED</code> Spliterator which can be split evenly by the fork/join framework.
+     * 
+     * @return
+     */
+    public Spliterator.OfInt spliterator() {
+        final IntIteratorEx iter = iteratorEx();
+
+        return new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(java.util.function.IntConsumer action) {
+                if (iter.hasNext()) {
+                    action.accept(iter.nextInt());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Bridges this stream to a <code>java.util.stream.IntStream</code> without copying the elements, so it can be handed to the JDK collectors and fork/join parallelism. 
+     * Closing the returned stream closes this stream.
+     * 
+     * @param parallel
+     * @return
+     */
+    public java.util.stream.IntStream toJdkStream(final boolean parallel) {
+        return StreamSupport.intStream(spliterator(), parallel).onClose(new Runnable() {
+            @Override
+            public void run() {
+                IntStream.this.close();
+            }
+        });
+    }
+
     @Override
     public <R> R __(Function<? super IntStream, R> transfer) {
         return transfer.apply(this);
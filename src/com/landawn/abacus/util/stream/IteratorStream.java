@@ -34,6 +34,7 @@ import com.landawn.abacus.util.ByteIterator;
 import com.landawn.abacus.util.CharIterator;
 import com.landawn.abacus.util.DoubleIterator;
 import com.landawn.abacus.util.FloatIterator;
+import com.landawn.abacus.util.Holder;
 import com.landawn.abacus.util.Indexed;
 import com.landawn.abacus.util.IntIterator;
 import com.landawn.abacus.util.LongIterator;
@@ -149,6 +150,23 @@ class IteratorStream<T> extends AbstractStream<T> {
 
                 return next;
             }
+
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super T, E> downstream) throws E {
+                if (hasNext) {
+                    hasNext = false;
+                    downstream.accept(next);
+                }
+
+                elements.pushRemaining(new Try.Consumer<T, E>() {
+                    @Override
+                    public void accept(T t) throws E {
+                        if (predicate.test(t)) {
+                            downstream.accept(t);
+                        }
+                    }
+                });
+            }
         }, sorted, cmp, closeHandlers);
     }
 
@@ -254,6 +272,16 @@ class IteratorStream<T> extends AbstractStream<T> {
             //            public void skip(long n) {
             //                elements.skip(n);
             //            }
+
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super R, E> downstream) throws E {
+                elements.pushRemaining(new Try.Consumer<T, E>() {
+                    @Override
+                    public void accept(T t) throws E {
+                        downstream.accept(mapper.apply(t));
+                    }
+                });
+            }
         }, closeHandlers);
     }
 
@@ -1855,6 +1883,17 @@ class IteratorStream<T> extends AbstractStream<T> {
                 action.accept(next);
                 return next;
             }
+
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super T, E> downstream) throws E {
+                elements.pushRemaining(new Try.Consumer<T, E>() {
+                    @Override
+                    public void accept(T t) throws E {
+                        action.accept(t);
+                        downstream.accept(t);
+                    }
+                });
+            }
         }, sorted, cmp, closeHandlers);
     }
 
@@ -1952,9 +1991,7 @@ class IteratorStream<T> extends AbstractStream<T> {
 
     @Override
     public <E extends Exception> void forEach(Try.Consumer<? super T, E> action) throws E {
-        while (elements.hasNext()) {
-            action.accept(elements.next());
-        }
+        elements.pushRemaining(action);
     }
 
     @Override
@@ -2056,9 +2093,12 @@ class IteratorStream<T> extends AbstractStream<T> {
     public List<T> toList() {
         final List<T> result = new ArrayList<>();
 
-        while (elements.hasNext()) {
-            result.add(elements.next());
-        }
+        elements.pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                result.add(t);
+            }
+        });
 
         return result;
     }
@@ -2241,14 +2281,17 @@ class IteratorStream<T> extends AbstractStream<T> {
     }
 
     @Override
-    public T reduce(T identity, BinaryOperator<T> accumulator) {
-        T result = identity;
+    public T reduce(T identity, final BinaryOperator<T> accumulator) {
+        final Holder<T> result = Holder.of(identity);
 
-        while (elements.hasNext()) {
-            result = accumulator.apply(result, elements.next());
-        }
+        elements.pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                result.setValue(accumulator.apply(result.value(), t));
+            }
+        });
 
-        return result;
+        return result.value();
     }
 
     @Override
@@ -2267,23 +2310,29 @@ class IteratorStream<T> extends AbstractStream<T> {
     }
 
     @Override
-    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
-        U result = identity;
+    public <U> U reduce(U identity, final BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        final Holder<U> result = Holder.of(identity);
 
-        while (elements.hasNext()) {
-            result = accumulator.apply(result, elements.next());
-        }
+        elements.pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                result.setValue(accumulator.apply(result.value(), t));
+            }
+        });
 
-        return result;
+        return result.value();
     }
 
     @Override
-    public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+    public <R> R collect(Supplier<R> supplier, final BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
         final R result = supplier.get();
 
-        while (elements.hasNext()) {
-            accumulator.accept(result, elements.next());
-        }
+        elements.pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                accumulator.accept(result, t);
+            }
+        });
 
         return result;
     }
@@ -2293,9 +2342,12 @@ class IteratorStream<T> extends AbstractStream<T> {
         final A container = collector.supplier().get();
         final BiConsumer<A, ? super T> accumulator = collector.accumulator();
 
-        while (elements.hasNext()) {
-            accumulator.accept(container, elements.next());
-        }
+        elements.pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                accumulator.accept(container, t);
+            }
+        });
 
         return collector.finisher().apply(container);
     }
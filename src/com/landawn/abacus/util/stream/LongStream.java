@@ -34,13 +34,17 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
 
 import com.landawn.abacus.exception.AbacusException;
 import com.landawn.abacus.util.CompletableFuture;
 import com.landawn.abacus.util.Holder;
 import com.landawn.abacus.util.IndexedLong;
 import com.landawn.abacus.util.LongIterator;
+import com.landawn.abacus.util.LongKeyMultiset;
 import com.landawn.abacus.util.LongList;
 import com.landawn.abacus.util.LongMatrix;
 import com.landawn.abacus.util.LongSummaryStatistics;
@@ -608,6 +612,17 @@ public abstract class LongStream extends StreamBase<Long, long[], LongPredicate,
 
     public abstract Pair<LongSummaryStatistics, Optional<Map<Percentage, Long>>> summarizze();
 
+    /**
+     * Counts the occurrences of the elements into an {@code LongKeyMultiset}, which is backed by the primitive {@code LongLongMap}.
+     * Different from {@code toMultiset()}, no {@code Long} element or counter is created for counting an element.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @return
+     */
+    public abstract LongKeyMultiset toLongKeyMultiset();
+
     /**
      * 
      * @param b
@@ -668,6 +683,44 @@ public abstract class LongStream extends StreamBase<Long, long[], LongPredicate,
 
     abstract LongIteratorEx iteratorEx();
 
+    /**
+     * Returns a <code>Spliterator</code> over the elements of this stream.
+     * The streams backed by an array return a <code>SIZED | SUBSIZED</code> Spliterator which can be split evenly by the fork/join framework.
+     * 
+     * @return
+     */
+    public Spliterator.OfLong spliterator() {
+        final LongIteratorEx iter = iteratorEx();
+
+        return new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(java.util.function.LongConsumer action) {
+                if (iter.hasNext()) {
+                    action.accept(iter.nextLong());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Bridges this stream to a <code>java.util.stream.LongStream</code> without copying the elements, so it can be handed to the JDK collectors and fork/join parallelism. 
+     * Closing the returned stream closes this stream.
+     * 
+     * @param parallel
+     * @return
+     */
+    public java.util.stream.LongStream toJdkStream(final boolean parallel) {
+        return StreamSupport.longStream(spliterator(), parallel).onClose(new Runnable() {
+            @Override
+            public void run() {
+                LongStream.this.close();
+            }
+        });
+    }
+
     @Override
     public <R> R __(Function<? super LongStream, R> transfer) {
         return transfer.apply(this);
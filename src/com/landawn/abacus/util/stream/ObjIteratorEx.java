@@ -16,13 +16,16 @@ package com.landawn.abacus.util.stream;
 
 import static com.landawn.abacus.util.stream.StreamBase.checkFromToIndex;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import com.landawn.abacus.util.MutableLong;
 import com.landawn.abacus.util.N;
 import com.landawn.abacus.util.ObjIterator;
+import com.landawn.abacus.util.Try;
 
 /**
  * 
@@ -101,6 +104,13 @@ public abstract class ObjIteratorEx<T> extends ObjIterator<T> implements Iterato
                 return toIndex - cursor;
             }
 
+            @Override
+            public <E extends Exception> void pushRemaining(final Try.Consumer<? super T, E> action) throws E {
+                while (cursor < toIndex) {
+                    action.accept(a[cursor++]);
+                }
+            }
+
             @Override
             public Object[] toArray() {
                 final Object[] res = new Object[toIndex - cursor];
@@ -187,14 +197,45 @@ public abstract class ObjIteratorEx<T> extends ObjIterator<T> implements Iterato
 
     @Override
     public long count() {
-        long result = 0;
+        final MutableLong result = MutableLong.of(0);
+
+        pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                result.increment();
+            }
+        });
+
+        return result.longValue();
+    }
 
+    /**
+     * Pushes all the remaining elements to the specified <code>action</code>.
+     * <br />
+     * The iterators created by stateless operations (<code>filter/map/peek</code>) override this method to drive their upstream iterator in one loop,  
+     * so terminal operations on a chain of them run as a single fused loop instead of a <code>hasNext()/next()</code> call chain per element per stage.
+     * 
+     * @param action
+     * @throws E
+     */
+    public <E extends Exception> void pushRemaining(final Try.Consumer<? super T, E> action) throws E {
         while (hasNext()) {
-            next();
-            result++;
+            action.accept(next());
         }
+    }
+
+    @Override
+    public List<T> toList() {
+        final List<T> list = new ArrayList<>();
+
+        pushRemaining(new Try.Consumer<T, RuntimeException>() {
+            @Override
+            public void accept(T t) {
+                list.add(t);
+            }
+        });
 
-        return result;
+        return list;
     }
 
     @Override
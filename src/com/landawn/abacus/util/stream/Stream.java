@@ -45,11 +45,14 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
 
 import com.landawn.abacus.DataSet;
 import com.landawn.abacus.DirtyMarker;
@@ -321,6 +324,63 @@ public abstract class Stream<T> extends StreamBase<T, Object[], Predicate<? supe
 
     public abstract <U, R> Stream<R> map(U seed, BiFunction<? super T, ? super U, ? extends R> mapper);
 
+    /**
+     * Same as {@code map(mapper)}, but the results are returned in the encounter order of this stream even if this stream is parallel.
+     * <br />
+     * Elements are tagged with sequence numbers and mapped by up to <code>maxThreadNum</code> threads. 
+     * The results are re-emitted in order through a reordering window of <code>maxThreadNum * 32</code> elements, 
+     * so mapping threads will be blocked if they get too far ahead of the slowest element.
+     * <br />
+     * The returned stream is sequential. It's suitable for I/O-heavy mapping (e.g. HTTP calls, decompression) which must keep the order.
+     * 
+     * @param mapper
+     * @return
+     */
+    public abstract <R> Stream<R> mapOrdered(Function<? super T, ? extends R> mapper);
+
+    /**
+     * 
+     * @param mapper
+     * @param bufferSize the max number of mapped elements which can be held in the reordering window.
+     * @return
+     * @see #mapOrdered(Function)
+     */
+    public abstract <R> Stream<R> mapOrdered(Function<? super T, ? extends R> mapper, int bufferSize);
+
+    /**
+     * Same as {@code flatMap(mapper)}, but the results are returned in the encounter order of this stream even if this stream is parallel.
+     * The stream returned by <code>mapper</code> for each element is collected to a list by the mapping thread.
+     * 
+     * @param mapper
+     * @return
+     * @see #mapOrdered(Function)
+     */
+    public abstract <R> Stream<R> flatMapOrdered(Function<? super T, ? extends Stream<? extends R>> mapper);
+
+    /**
+     * Maps each element to a <code>CompletableFuture</code> by the specified <code>mapper</code> and returns the results in the encounter order of this stream.
+     * <br />
+     * Up to <code>maxInFlight</code> futures are kept outstanding without blocking a thread per element: 
+     * the <code>mapper</code> is called from the thread which iterates the returned stream, which only waits for the head future when its result is required.
+     * It's suitable for remote lookups by asynchronous clients which already return futures.
+     * Outstanding futures are cancelled when the returned stream is closed.
+     * 
+     * @param mapper
+     * @param maxInFlight the max number of outstanding futures.
+     * @return
+     */
+    public abstract <R> Stream<R> mapAsync(Function<? super T, ? extends CompletableFuture<? extends R>> mapper, int maxInFlight);
+
+    /**
+     * Same as {@code mapAsync(mapper, maxInFlight)}, but the results are returned in the order in which the futures are completed.
+     * 
+     * @param mapper
+     * @param maxInFlight the max number of outstanding futures.
+     * @return
+     * @see #mapAsync(Function, int)
+     */
+    public abstract <R> Stream<R> mapAsyncUnordered(Function<? super T, ? extends CompletableFuture<? extends R>> mapper, int maxInFlight);
+
     //    public abstract <R> Stream<R> biMap(BiFunction<? super T, ? super T, ? extends R> mapper);
     //
     //    /**
@@ -1790,6 +1850,118 @@ public abstract class Stream<T> extends StreamBase<T, Object[], Predicate<? supe
      */
     public abstract <U> Stream<Pair<T, U>> rightJoin(Collection<U> b, BiPredicate<? super T, ? super U> predicate);
 
+    /**
+     * Sort-merge inner join. Both this <code>Stream</code> and the specified stream <code>b</code> must already be sorted by the join key in the order of <code>keyComparator</code>.
+     * 
+     * The time complexity is <i>O(n + m)</i> : <i>n</i> is the size of this <code>Stream</code> and <i>m</i> is the size of specified stream <code>b</code>.
+     * Only the elements in <code>b</code> with the same key as the current element of this <code>Stream</code> are kept in memory.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param keyComparator
+     * @return
+     */
+    public abstract <U, K> Stream<Pair<T, U>> innerJoin(Stream<U> b, Function<? super T, ? extends K> leftKeyMapper,
+            Function<? super U, ? extends K> rightKeyMapper, Comparator<? super K> keyComparator);
+
+    /**
+     * Sort-merge full join. Both this <code>Stream</code> and the specified stream <code>b</code> must already be sorted by the join key in the order of <code>keyComparator</code>.
+     * 
+     * The time complexity is <i>O(n + m)</i> : <i>n</i> is the size of this <code>Stream</code> and <i>m</i> is the size of specified stream <code>b</code>.
+     * Only the elements in <code>b</code> with the same key as the current element of this <code>Stream</code> are kept in memory.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param keyComparator
+     * @return
+     */
+    public abstract <U, K> Stream<Pair<T, U>> fullJoin(Stream<U> b, Function<? super T, ? extends K> leftKeyMapper,
+            Function<? super U, ? extends K> rightKeyMapper, Comparator<? super K> keyComparator);
+
+    /**
+     * Sort-merge left join. Both this <code>Stream</code> and the specified stream <code>b</code> must already be sorted by the join key in the order of <code>keyComparator</code>.
+     * 
+     * The time complexity is <i>O(n + m)</i> : <i>n</i> is the size of this <code>Stream</code> and <i>m</i> is the size of specified stream <code>b</code>.
+     * Only the elements in <code>b</code> with the same key as the current element of this <code>Stream</code> are kept in memory.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param keyComparator
+     * @return
+     */
+    public abstract <U, K> Stream<Pair<T, U>> leftJoin(Stream<U> b, Function<? super T, ? extends K> leftKeyMapper,
+            Function<? super U, ? extends K> rightKeyMapper, Comparator<? super K> keyComparator);
+
+    /**
+     * Sort-merge right join. Both this <code>Stream</code> and the specified stream <code>b</code> must already be sorted by the join key in the order of <code>keyComparator</code>.
+     * 
+     * The time complexity is <i>O(n + m)</i> : <i>n</i> is the size of this <code>Stream</code> and <i>m</i> is the size of specified stream <code>b</code>.
+     * Only the elements in <code>b</code> with the same key as the current element of this <code>Stream</code> are kept in memory.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param keyComparator
+     * @return
+     */
+    public abstract <U, K> Stream<Pair<T, U>> rightJoin(Stream<U> b, Function<? super T, ? extends K> leftKeyMapper,
+            Function<? super U, ? extends K> rightKeyMapper, Comparator<? super K> keyComparator);
+
+    /**
+     * Grace hash inner join. The specified stream <code>b</code> is the build side:
+     * if it has no more than <code>maxInMemorySize</code> elements, it's hashed in memory and probed by this <code>Stream</code> (in parallel if this <code>Stream</code> is parallel).
+     * Otherwise both sides are partitioned to temporary files by the hash of the join key and joined partition by partition. 
+     * Elements in both streams must be <code>Serializable</code> if they are partitioned to disk.
+     * 
+     * The time complexity is <i>O(n + m)</i> : <i>n</i> is the size of this <code>Stream</code> and <i>m</i> is the size of specified stream <code>b</code>.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param maxInMemorySize the max number of elements from <code>b</code> to be hashed in memory.
+     * @return
+     */
+    public abstract <U> Stream<Pair<T, U>> innerJoin(Stream<U> b, Function<? super T, ?> leftKeyMapper, Function<? super U, ?> rightKeyMapper, int maxInMemorySize);
+
+    /**
+     * Grace hash full join.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param maxInMemorySize the max number of elements from <code>b</code> to be hashed in memory.
+     * @return
+     * @see #innerJoin(Stream, Function, Function, int)
+     */
+    public abstract <U> Stream<Pair<T, U>> fullJoin(Stream<U> b, Function<? super T, ?> leftKeyMapper, Function<? super U, ?> rightKeyMapper, int maxInMemorySize);
+
+    /**
+     * Grace hash left join.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param maxInMemorySize the max number of elements from <code>b</code> to be hashed in memory.
+     * @return
+     * @see #innerJoin(Stream, Function, Function, int)
+     */
+    public abstract <U> Stream<Pair<T, U>> leftJoin(Stream<U> b, Function<? super T, ?> leftKeyMapper, Function<? super U, ?> rightKeyMapper, int maxInMemorySize);
+
+    /**
+     * Grace hash right join.
+     * 
+     * @param b
+     * @param leftKeyMapper
+     * @param rightKeyMapper
+     * @param maxInMemorySize the max number of elements from <code>b</code> to be hashed in memory.
+     * @return
+     * @see #innerJoin(Stream, Function, Function, int)
+     */
+    public abstract <U> Stream<Pair<T, U>> rightJoin(Stream<U> b, Function<? super T, ?> leftKeyMapper, Function<? super U, ?> rightKeyMapper, int maxInMemorySize);
+
     public abstract boolean hasDuplicates();
 
     public abstract Stream<T> skipNull();
@@ -1894,6 +2066,32 @@ public abstract class Stream<T> extends StreamBase<T, Object[], Predicate<? supe
 
     abstract ObjIteratorEx<T> iteratorEx();
 
+    /**
+     * Returns a <code>Spliterator</code> over the elements of this stream.
+     * The streams backed by an array return a <code>SIZED | SUBSIZED</code> Spliterator which can be split evenly by the fork/join framework.
+     * 
+     * @return
+     */
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iteratorEx(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Bridges this stream to a <code>java.util.stream.Stream</code> without copying the elements, so it can be handed to the JDK collectors and fork/join parallelism. 
+     * Closing the returned stream closes this stream.
+     * 
+     * @param parallel
+     * @return
+     */
+    public java.util.stream.Stream<T> toJdkStream(final boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel).onClose(new Runnable() {
+            @Override
+            public void run() {
+                Stream.this.close();
+            }
+        });
+    }
+
     @Override
     public <R> R __(Function<? super Stream<T>, R> transfer) {
         return transfer.apply(this);